@@ -8,7 +8,6 @@ import android.content.Intent;
 
 import android.os.Bundle;
 
-import android.text.TextUtils;
 
 import android.util.Log;
 
@@ -36,7 +35,6 @@ import com.google.android.material.textfield.TextInputLayout;
 import java.util.Objects;
 
 
-import okhttp3.Response;
 
 
 /**
@@ -49,8 +47,11 @@ import okhttp3.Response;
  */
 public class AddItemActivity extends AppCompatActivity {
 
-    // Service for API calls related to inventory
-    private InventoryApiService apiService;
+    // Outbox that sends the new item, or keeps it until the device is back online
+    private WriteOutbox writeOutbox;
+
+    // Saves whose outcome this screen is waiting for
+    private final ApiCallGroup pendingSaves = new ApiCallGroup();
 
     // Layout containers for input fields
     private TextInputLayout tilItemName, tilItemQuantity;
@@ -85,8 +86,8 @@ public class AddItemActivity extends AppCompatActivity {
         // Set the layout for this activity
         setContentView(R.layout.activity_add_item);
 
-        // Initialize API service
-        apiService = new InventoryApiService(getApplicationContext());
+        // Get the shared write outbox
+        writeOutbox = WriteOutbox.getInstance(getApplicationContext());
 
         // Find and initialize toolbar
         Toolbar toolbar = findViewById(R.id.toolbarAdd);
@@ -167,10 +168,10 @@ public class AddItemActivity extends AppCompatActivity {
      *    - Ensures the quantity is a valid non-negative integer.
      * 4. If validation fails, appropriate error messages are displayed on the input fields,
      *    and the method returns without further processing.
-     * 5. If validation is successful, it calls the `apiService.createInventoryItem` method
-     *    to create the new inventory item via an API call.
-     * 6. Handles the API call response:
-     *    - On success:
+     * 5. If validation is successful, it submits the new item to the {@link WriteOutbox}, which
+     *    creates it via an API call, or stores it for replay when the device is offline.
+     * 6. Handles the outcome:
+     *    - On success, or when the item was queued for later (a toast says so):
      *        - Navigates back to the `InventoryActivity`.
      *        - Passes the current username as an extra in the intent.
      *        - Logs the successful addition of the item.
@@ -199,9 +200,11 @@ public class AddItemActivity extends AppCompatActivity {
 
 
         // Validate item name
-        if (TextUtils.isEmpty(name)) {
+        String nameError = InventoryValidator.validateName(name);
+
+        if (nameError != null) {
 
-            tilItemName.setError("Item name is required");
+            tilItemName.setError(nameError);
 
             isValid = false;
 
@@ -209,34 +212,18 @@ public class AddItemActivity extends AppCompatActivity {
 
 
         // Validate quantity
-        if (TextUtils.isEmpty(quantityStr)) {
+        String quantityError = InventoryValidator.validateQuantity(quantityStr);
+
+        if (quantityError != null) {
 
-            tilItemQuantity.setError("Quantity is required");
+            tilItemQuantity.setError(quantityError);
 
             isValid = false;
 
         } else {
 
-            try {
-
-                quantity = Integer.parseInt(quantityStr);
-
-                if (quantity < 0) {
-
-                    tilItemQuantity.setError("Quantity cannot be negative");
-
-                    isValid = false;
-
-                }
-
-            } catch (NumberFormatException e) {
+            quantity = Integer.parseInt(quantityStr);
 
-                tilItemQuantity.setError("Invalid number format");
-
-                isValid = false;
-
-            }
-            
         }
 
         // Stop if validation fails
@@ -246,35 +233,42 @@ public class AddItemActivity extends AppCompatActivity {
 
         }
 
-        // Call API to create item
-        apiService.createInventoryItem(name, quantity, new InventoryApiService.ApiCallback<InventoryItem>() {
+        // Submit the new item, queueing it if it cannot be sent now
+        pendingSaves.add(writeOutbox.submit(PendingOperation.create(sessionManager.getUsername(), name, quantity), new WriteOutbox.WriteCallback() {
 
             /**
              * Callback method invoked when the API call to create an inventory item is successful.
-             * This method handles the response from the API, which includes the newly created inventory item.
-             * It then navigates the user back to the InventoryActivity, passing the username
-             * to maintain the user's context. Finally, it finishes the current AddItemActivity.
+             * It navigates the user back to the InventoryActivity.
              *
              * @param result The {@link InventoryItem} object representing the newly created item,
              *               returned by the API.
-             * @return null. This method is part of an interface that expects a Response, but in this
-             *         specific implementation, a null return is appropriate as the success handling
-             *         involves UI navigation and logging rather than returning a direct HTTP response object.
              */
             @Override
-            public Response onSuccess(InventoryItem result) {
-                // Return to inventory activity on success
-                Intent resultIntent = new Intent(AddItemActivity.this, InventoryActivity.class);
-                resultIntent.putExtra(EXTRA_USERNAME, sessionManager.getUsername());
-                startActivity(resultIntent);
+            public void onSent(InventoryItem result) {
+
                 Log.d("AddItemActivity", "Item with name: " + result.getName() + " and quantity: " + result.getQuantity() + " added successfully");
-                finish();
-                return null;
+
+                returnToInventory();
             }
 
             /**
-             * Callback method invoked when the API call to create an inventory item fails.
-             * It displays an error message to the user and logs the error details.
+             * Callback method invoked when the item could not be sent now and was stored in the
+             * outbox. It tells the user and navigates back to the InventoryActivity.
+             */
+            @Override
+            public void onQueued() {
+
+                Toast.makeText(getApplicationContext(), "Offline: item saved and will sync when back online", Toast.LENGTH_SHORT).show();
+
+                Log.d("AddItemActivity", "Item with name: " + name + " queued for sync");
+
+                returnToInventory();
+            }
+
+            /**
+             * Callback method invoked when the server rejects the new item, or when it may have
+             * been added but the server did not confirm it. It displays an error message to the
+             * user and logs the error details.
              *
              * @param error A string describing the error that occurred.
              * @param statusCode The HTTP status code associated with the error (e.g., 400, 500).
@@ -283,15 +277,43 @@ public class AddItemActivity extends AppCompatActivity {
             @Override
             public void onError(String error, int statusCode) {
 
+                // An unconfirmed item must not simply be added again, so show the outbox's explanation
+                String message = InventorySync.isRetryable(statusCode) ? error : "Error adding item";
+
                 // Show error message
-                Toast.makeText(getApplicationContext(), "Error adding item", Toast.LENGTH_SHORT).show();
+                Toast.makeText(getApplicationContext(), message, Toast.LENGTH_LONG).show();
 
                 Log.e("AddItemActivity", "Error adding item: " + error);
 
             }
 
-        });
+        }));
+
+    }
+
+    /**
+     * Returns to the InventoryActivity for the current user and finishes this activity.
+     */
+    private void returnToInventory() {
+
+        // Return to inventory activity
+        Intent resultIntent = new Intent(AddItemActivity.this, InventoryActivity.class);
+        resultIntent.putExtra(EXTRA_USERNAME, sessionManager.getUsername());
+        startActivity(resultIntent);
+        finish();
+    }
+
+    /**
+     * Called when the activity is being destroyed.
+     * Detaches a save still in progress from this screen. The save itself still completes or
+     * stays queued in the outbox; only its result is no longer shown here.
+     */
+    @Override
+    protected void onDestroy() {
+
+        super.onDestroy();
 
+        pendingSaves.cancelAll();
     }
 
     /**
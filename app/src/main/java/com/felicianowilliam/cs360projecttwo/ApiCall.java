@@ -0,0 +1,211 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.Call;
+
+/**
+ * A handle to one asynchronous API operation, used to cancel it.
+ *
+ * Every {@link InventoryApiService} method returns one. {@link #cancel()} cancels the OkHttp
+ * {@link Call} the operation is running, if any, so its thread and connection are released at
+ * once, and guarantees that none of the operation's callbacks run afterwards. Cancelling from the
+ * main thread, where the callbacks run, therefore leaves no callback to arrive at a destroyed
+ * Activity. Activities usually collect their handles in an {@link ApiCallGroup} and cancel them
+ * all in {@code onDestroy}.
+ *
+ * An operation is finished once its final callback has been delivered; cancelling a finished
+ * operation does nothing. All methods are thread-safe.
+ */
+public final class ApiCall {
+
+    // Whether the operation was cancelled, or delivered its final callback
+    private boolean canceled;
+    private boolean finished;
+
+    // The OkHttp call currently running for the operation, if any
+    private Call call;
+
+    // Code run once when the operation is cancelled
+    private List<Runnable> cancelListeners;
+
+    // The group holding this handle, if any
+    private ApiCallGroup group;
+
+    /**
+     * Cancels the operation. The running network call is cancelled and no further callback is
+     * delivered. Does nothing if the operation has already finished or been cancelled.
+     */
+    public void cancel() {
+
+        Call callToCancel;
+
+        List<Runnable> listeners;
+
+        ApiCallGroup owner;
+
+        synchronized (this) {
+
+            if (canceled || finished) {
+
+                return;
+            }
+
+            canceled = true;
+
+            callToCancel = call;
+
+            listeners = cancelListeners;
+
+            cancelListeners = null;
+
+            owner = group;
+        }
+
+        // Cancel outside the lock; OkHttp may call back into the interceptors
+        if (callToCancel != null) {
+
+            callToCancel.cancel();
+        }
+
+        if (listeners != null) {
+
+            for (Runnable listener : listeners) {
+
+                listener.run();
+            }
+        }
+
+        if (owner != null) {
+
+            owner.remove(this);
+        }
+    }
+
+    /**
+     * Returns whether the operation was cancelled.
+     *
+     * @return {@code true} once {@link #cancel()} has taken effect.
+     */
+    public synchronized boolean isCanceled() {
+        return canceled;
+    }
+
+    /**
+     * Returns whether the operation has delivered its final callback.
+     *
+     * @return {@code true} if the operation completed without being cancelled.
+     */
+    public synchronized boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Makes a network call the one cancelled by {@link #cancel()}. An operation sending several
+     * requests binds each in turn. A call bound after cancellation is cancelled straight away, so
+     * executing it fails without touching the network.
+     *
+     * @param call The call about to be executed.
+     * @return The same call.
+     */
+    Call bind(Call call) {
+
+        synchronized (this) {
+
+            if (!canceled) {
+
+                this.call = call;
+
+                return call;
+            }
+        }
+
+        call.cancel();
+
+        return call;
+    }
+
+    /**
+     * Adds code to run when the operation is cancelled. Runs it at once if it already was, and
+     * never if the operation finishes first.
+     *
+     * @param listener The code to run, on the thread calling {@link #cancel()}.
+     */
+    void addCancelListener(Runnable listener) {
+
+        synchronized (this) {
+
+            if (finished) {
+
+                return;
+            }
+
+            if (!canceled) {
+
+                if (cancelListeners == null) {
+
+                    cancelListeners = new ArrayList<>(2);
+                }
+
+                cancelListeners.add(listener);
+
+                return;
+            }
+        }
+
+        listener.run();
+    }
+
+    /**
+     * Marks the operation finished before its final callback is delivered.
+     *
+     * @return {@code true} if the callback should be delivered; {@code false} if the operation
+     *         was cancelled or has already finished.
+     */
+    boolean finish() {
+
+        ApiCallGroup owner;
+
+        synchronized (this) {
+
+            if (canceled || finished) {
+
+                return false;
+            }
+
+            finished = true;
+
+            call = null;
+
+            cancelListeners = null;
+
+            owner = group;
+        }
+
+        if (owner != null) {
+
+            owner.remove(this);
+        }
+
+        return true;
+    }
+
+    /**
+     * Records the group holding this handle, so the handle leaves it when the operation ends.
+     *
+     * @param group The group.
+     * @return {@code false} if the operation has already ended and should not be held.
+     */
+    synchronized boolean attach(ApiCallGroup group) {
+
+        if (canceled || finished) {
+
+            return false;
+        }
+
+        this.group = group;
+
+        return true;
+    }
+}
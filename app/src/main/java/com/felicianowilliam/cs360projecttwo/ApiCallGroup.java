@@ -0,0 +1,82 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The outstanding {@link ApiCall}s of one owner, such as an Activity, cancelled together.
+ *
+ * Handles leave the group by themselves when their operation finishes or is cancelled, so the
+ * group only ever holds work that is still running. An Activity adds every handle it receives and
+ * calls {@link #cancelAll()} in {@code onDestroy}. All methods are thread-safe.
+ */
+public final class ApiCallGroup {
+
+    // Operations that have neither finished nor been cancelled
+    private final Set<ApiCall> calls = new HashSet<>();
+
+    /**
+     * Adds a handle to the group. A handle whose operation has already ended is not held.
+     *
+     * @param call The handle.
+     * @return The same handle.
+     */
+    public ApiCall add(ApiCall call) {
+
+        synchronized (calls) {
+
+            calls.add(call);
+        }
+
+        // The operation may have ended in the meantime and would never leave the group
+        if (!call.attach(this)) {
+
+            remove(call);
+        }
+
+        return call;
+    }
+
+    /**
+     * Cancels every outstanding operation in the group.
+     */
+    public void cancelAll() {
+
+        List<ApiCall> outstanding;
+
+        synchronized (calls) {
+
+            outstanding = new ArrayList<>(calls);
+
+            calls.clear();
+        }
+
+        for (ApiCall call : outstanding) {
+
+            call.cancel();
+        }
+    }
+
+    /**
+     * Returns the number of outstanding operations in the group.
+     *
+     * @return The number of operations that have neither finished nor been cancelled.
+     */
+    public int size() {
+
+        synchronized (calls) {
+
+            return calls.size();
+        }
+    }
+
+    void remove(ApiCall call) {
+
+        synchronized (calls) {
+
+            calls.remove(call);
+        }
+    }
+}
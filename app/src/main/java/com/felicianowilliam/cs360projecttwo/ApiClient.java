@@ -1,49 +1,176 @@
 package com.felicianowilliam.cs360projecttwo;
 
 import android.content.Context;
+import android.os.Process;
+import android.util.Base64;
 import android.util.Log;
 import static com.felicianowilliam.cs360projecttwo.Constants.BASE_URL;
 import androidx.annotation.NonNull;
 import org.json.JSONObject;
 import org.json.JSONException;
+import java.io.File;
 import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import okhttp3.Cache;
+import okhttp3.CacheControl;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.Interceptor;
 import okhttp3.OkHttpClient;
-import okhttp3.MediaType;
 import okhttp3.Request;
 import okhttp3.Response;
-import okhttp3.logging.HttpLoggingInterceptor;
+import okhttp3.ResponseBody;
+import okhttp3.brotli.BrotliInterceptor;
 
 /**
  * A utility class for creating and managing an OkHttpClient instance.
  *
  * This class provides a singleton instance of OkHttpClient configured with a logging interceptor.
- * The logging interceptor logs request and response bodies, which is useful for debugging.
+ * The logging interceptor ({@link HttpLogger}) logs redacted headers, and sampled bodies in debug builds.
+ * Responses are stored in a bounded on-disk HTTP cache, and inventory list responses are
+ * revalidated with conditional requests instead of being downloaded again.
+ *
+ * Calls are made with {@code Call.enqueue}. A call waiting for a free request slot sits in
+ * OkHttp's dispatcher queue without holding a thread, so the number of calls in flight is bounded
+ * by {@link #MAX_REQUESTS} and {@link #MAX_REQUESTS_PER_HOST} rather than by a fixed thread pool.
+ * Background calls go through {@link #getClient(Context, ApiDispatcher.Priority)}, which shares
+ * the interceptors, cache and connections but has its own, smaller request limit.
  */
 public class ApiClient {
 
     private static OkHttpClient client;
 
+    // Client for background calls, derived from the main client on first use
+    private static OkHttpClient backgroundClient;
+
+    // Maximum size of the on-disk HTTP response cache
+    private static final long HTTP_CACHE_SIZE_BYTES = 10L * 1024 * 1024;
+
+    // Directory name of the HTTP response cache inside the app's cache directory
+    private static final String HTTP_CACHE_DIRECTORY = "http-cache";
+
+    // Serializes token refreshes so one expiry triggers a single refresh call
+    private static final Object tokenRefreshLock = new Object();
+
+    // Maximum number of bytes of a 401 body kept for the caller while the token is refreshed
+    private static final long UNAUTHORIZED_BODY_PEEK_BYTES = 64L * 1024;
+
+    // How long before the access token's "exp" claim it is renewed in the background
+    private static final long PROACTIVE_RENEWAL_LEAD_MS = 60_000L;
+
+    // Single background thread that renews the access token before it expires
+    private static final ScheduledExecutorService tokenRenewalScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "token-renewal");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Pending proactive renewal, and the access token it was scheduled for (guarded by ApiClient.class)
+    private static ScheduledFuture<?> scheduledRenewal;
+    private static String scheduledRenewalToken;
+
+    // Number of requests that still had to refresh the token after a 401
+    private static final AtomicInteger reactiveRefreshCount = new AtomicInteger();
+
+    // Number of access tokens renewed in the background before they expired
+    private static final AtomicInteger proactiveRenewalCount = new AtomicInteger();
+
+    // Calls in flight at once across all hosts; later calls wait in the dispatcher queue
+    private static final int MAX_REQUESTS = 32;
+
+    // Calls in flight at once to one host, which bounds the connections opened to the API host
+    private static final int MAX_REQUESTS_PER_HOST = 8;
+
+    // Background calls in flight at once, so refreshes never take more than a few connections
+    private static final int MAX_BACKGROUND_REQUESTS = 2;
+
+    // Idle connections kept in the pool; one per call the API host may have in flight
+    private static final int MAX_IDLE_CONNECTIONS = MAX_REQUESTS_PER_HOST;
+
+    // How long an idle call thread is kept before it exits
+    private static final long IDLE_CALL_THREAD_TIMEOUT_SECONDS = 60;
+
+    // Counter used to number call threads
+    private static final AtomicInteger callThreadCount = new AtomicInteger();
+
+    // Runs enqueued calls for both dispatchers. Threads are only created for calls that hold a
+    // request slot, so the dispatchers' limits bound them, and idle threads exit.
+    private static final ExecutorService callExecutor = new ThreadPoolExecutor(0, Integer.MAX_VALUE,
+            IDLE_CALL_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS,
+            new SynchronousQueue<>(),
+            runnable -> {
+
+                Thread thread = new Thread(() -> {
+
+                    // Keep network work from competing with the UI thread for CPU time.
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+
+                    runnable.run();
+
+                }, "api-call-" + callThreadCount.incrementAndGet());
+
+                thread.setDaemon(true);
+
+                return thread;
+            });
+
+    // How long an idle connection is kept. The Azure front end drops idle connections after about
+    // four minutes, so keeping them longer would only hand out connections that are already dead.
+    private static final long CONNECTION_KEEP_ALIVE_SECONDS = 3 * 60;
+
+    // Whether a warm-up request is currently in flight
+    private static final AtomicBoolean warmUpInFlight = new AtomicBoolean();
+
     /**
      * Returns a synchronized OkHttpClient instance.
      * <p>
      * This method ensures that only one instance of OkHttpClient is created and used throughout the application (Singleton pattern).
      * The client is configured with two interceptors:
      * <ul>
-     *     <li><b>Logging Interceptor:</b> Logs HTTP request and response bodies. This is useful for debugging network calls.</li>
+     *     <li><b>Logging Interceptor:</b> An {@link HttpLogger} configured by the build type: headers and sampled bodies in
+     *     debug builds, nothing in release builds. Credentials are redacted and entries are written off the calling thread.</li>
      *     <li><b>Authentication Interceptor:</b>
      *         <ul>
      *             <li>Adds an "Authorization" header with a Bearer token to requests made to the "/inventory-items" endpoint.
      *             The token is retrieved from {@link SessionManager}.</li>
      *             <li>If a request to "/inventory-items" results in a 401 (Unauthorized) response, it attempts to refresh the access token
-     *             using the refresh token stored in {@link SessionManager}.</li>
+     *             using the refresh token stored in {@link SessionManager}. Refreshes are single-flight: concurrent 401s wait for one
+     *             refresh and then reuse its token (see {@link #refreshAccessTokenOnce}).</li>
      *             <li>If the token refresh is successful, the original request is retried with the new access token.</li>
-     *             <li>If the token refresh fails or no refresh token is available, the user is logged out via {@link SessionManager},
-     *             and the original 401 response is returned.</li>
+     *             <li>If the token refresh fails, the user is logged out via {@link SessionManager}. If it fails or no refresh token
+     *             is available, the original 401 response is returned.</li>
+     *             <li>The token's JWT "exp" claim is used to renew it in the background {@link #PROACTIVE_RENEWAL_LEAD_MS} before
+     *             it expires, and an already expired token is renewed before the request is sent, so the 401 path above is
+     *             rarely taken. Its use is counted by {@link #getReactiveRefreshCount()}.</li>
      *             <li>Requests to endpoints other than "/inventory-items" are passed through without authentication logic.</li>
      *         </ul>
      *     </li>
+     *     <li><b>Revalidation Interceptor:</b> A network interceptor that marks inventory list responses carrying an
+     *     ETag or Last-Modified validator as "store, but revalidate before reuse". The cache then sends
+     *     If-None-Match/If-Modified-Since on the next request, and a 304 (Not Modified) is answered from the cache,
+     *     so an unchanged list costs one header round trip instead of the full payload.</li>
+     *     <li><b>Compression:</b> {@link PayloadCompression} gzips request bodies that opt in, and the brotli interceptor
+     *     negotiates {@code Accept-Encoding: br,gzip} and decodes the response. Compression ratios are recorded per endpoint.</li>
+     *     <li><b>Content Negotiation:</b> {@link ContentNegotiation} asks for CBOR with a JSON fallback, switches request
+     *     bodies to CBOR once the server answers in it, and falls back to JSON if a CBOR body is rejected.</li>
+     *     <li><b>Retries:</b> {@link RetryPolicy} fails fast through a per-host circuit breaker while the backend is down.
+     *     Idempotent calls that fail transiently are re-enqueued by {@link InventoryApiService} with jittered exponential
+     *     backoff, so a call waiting to retry does not hold a dispatcher slot.</li>
      * </ul>
+     * The client also holds a {@link Cache} of at most {@link #HTTP_CACHE_SIZE_BYTES} bytes in the app's cache directory,
+     * keeps up to {@link #MAX_IDLE_CONNECTIONS} idle connections for {@link #CONNECTION_KEEP_ALIVE_SECONDS} seconds,
+     * runs enqueued calls on a dispatcher allowing {@link #MAX_REQUESTS} calls at once, {@link #MAX_REQUESTS_PER_HOST}
+     * of them to one host, and reports the DNS, connect, TLS, time-to-first-byte and body phases of every call to {@link NetworkTimings}.
      *
      * @param context The application context, used to initialize {@link SessionManager} and potentially for other context-dependent operations within interceptors.
      * @return The singleton OkHttpClient instance.
@@ -52,10 +179,11 @@ public class ApiClient {
 
         if (client == null) {
 
-            // Create a logging interceptor to log HTTP request and response bodies.
-            HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor();
-
-            loggingInterceptor.setLevel(HttpLoggingInterceptor.Level.BODY);
+            // Create the logging stage; what it captures depends on the build type.
+            HttpLogger loggingInterceptor = new HttpLogger(
+                    HttpLogger.Level.valueOf(BuildConfig.HTTP_LOG_LEVEL),
+                    BuildConfig.HTTP_LOG_BODY_SAMPLE_EVERY,
+                    BuildConfig.DEBUG);
 
             // Create an authentication interceptor to add the access token to requests and handle token refresh.
             Interceptor authInterceptor = new Interceptor() {
@@ -77,6 +205,21 @@ public class ApiClient {
 
                         String accessToken = sessionManager.getToken();
 
+                        // Make sure this token is renewed in the background before it expires.
+                        scheduleProactiveRenewal(context, accessToken);
+
+                        // If the token has already expired (e.g. the renewal was delayed while the device slept),
+                        // renew it now instead of spending a round trip on a certain 401.
+                        if (accessToken != null && isExpiringWithin(accessToken, 0)) {
+
+                            String renewedToken = refreshAccessTokenOnce(context, sessionManager, accessToken, false);
+
+                            if (renewedToken != null) {
+
+                                accessToken = renewedToken;
+                            }
+                        }
+
                         // If an access token exists, add it to the Authorization header.
                         if (accessToken != null) {
 
@@ -91,54 +234,33 @@ public class ApiClient {
                         // Check if the response code is 401 (Unauthorized), indicating the access token might be expired.
                         if (response.code() == 401) {
 
-                            String refreshToken = sessionManager.getRefreshToken();
-
-                            // If a refresh token exists, attempt to refresh the access token.
-                            if (refreshToken != null) {
-
-                                response.close(); // Close the old response
-
-                                // Perform a synchronous call to refresh the token.
-                                AuthResponse authResponse = refreshTokenSynchronously(context, refreshToken);
-
-                                // If the token refresh was successful and a new token is received.
-                                if (authResponse != null && authResponse.getToken() != null) {
-
-                                    // Save the new access token.
-                                    sessionManager.setToken(authResponse.getToken());
+                            // Buffer the small error body, then release the connection so the refresh can reuse it.
+                            ResponseBody unauthorizedBody = response.peekBody(UNAUTHORIZED_BODY_PEEK_BYTES);
 
-                                    // If a new refresh token is also received, save it.
-                                    if (authResponse.getRefreshToken() != null) {
+                            response.close(); // Close the old response
 
-                                        sessionManager.setRefreshToken(authResponse.getRefreshToken());
-                                    }
+                            // Count requests that still reach the reactive refresh path.
+                            int reactiveRefreshes = reactiveRefreshCount.incrementAndGet();
 
-                                    Log.d("API CLIENT", "Token refreshed successfully.");
+                            Log.w("API CLIENT", "Reactive token refresh after 401 (total: " + reactiveRefreshes + ").");
 
-                                    // Create a new request with the new access token.
-                                    Request newAuthenticatedRequest = originalRequest.newBuilder()
-                                            .header("Authorization", "Bearer " + authResponse.getToken())
-                                            .build();
+                            // Get a valid access token, refreshing it at most once for all concurrent 401s.
+                            String newAccessToken = refreshAccessTokenOnce(context, sessionManager, accessToken, true);
 
-                                    // Retry the request with the new authenticated request.
-                                    return chain.proceed(newAuthenticatedRequest);
-                                } else {
+                            // If a new token is available, retry the request with it.
+                            if (newAccessToken != null) {
 
-                                    Log.e("API CLIENT", "Failed to refresh token or new token is null.");
+                                // Create a new request with the new access token.
+                                Request newAuthenticatedRequest = originalRequest.newBuilder()
+                                        .header("Authorization", "Bearer " + newAccessToken)
+                                        .build();
 
-                                    // If token refresh fails, log out the user.
-                                    sessionManager.logoutUser();
-
-                                    // Return the original 401 response.
-                                    return response;
-                                }
-                            } else {
-
-                                Log.e("API CLIENT", "Refresh token is null, cannot refresh.");
-
-                                // Return the original 401 response.
-                                return response;
+                                // Retry the request with the new authenticated request.
+                                return chain.proceed(newAuthenticatedRequest);
                             }
+
+                            // Return the original 401 response with its buffered body.
+                            return response.newBuilder().body(unauthorizedBody).build();
                         }
 
                         // If the response is not 401, return the response as is.
@@ -150,19 +272,435 @@ public class ApiClient {
                 }
             };
 
-            // Build the OkHttpClient with both the authentication and logging interceptors.
+            // Create a bounded on-disk cache for HTTP responses.
+            Cache httpCache = new Cache(new File(context.getCacheDir(), HTTP_CACHE_DIRECTORY), HTTP_CACHE_SIZE_BYTES);
+
+            // Build the OkHttpClient with the authentication, logging and revalidation interceptors, timing every call.
             client = new OkHttpClient.Builder()
+                    .dispatcher(newDispatcher(MAX_REQUESTS, MAX_REQUESTS_PER_HOST))
+                    .cache(httpCache)
+                    .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, CONNECTION_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS))
+                    .addInterceptor(ContentNegotiation.INTERCEPTOR)
+                    .addInterceptor(RetryPolicy.INTERCEPTOR)
                     .addInterceptor(authInterceptor)
                     .addInterceptor(loggingInterceptor)
+                    .addInterceptor(PayloadCompression.INTERCEPTOR)
+                    .addInterceptor(BrotliInterceptor.INSTANCE)
+                    .addNetworkInterceptor(ApiClient::revalidateInventoryList)
+                    .addNetworkInterceptor(PayloadCompression.WIRE_BYTE_COUNTER)
+                    .eventListenerFactory(NetworkTimings.FACTORY)
                     .build();
         }
         return client;
     }
 
+    /**
+     * Returns the client for calls of the given priority, building it on first use.
+     * <p>
+     * User-initiated calls use {@link #getClient(Context)}. Background calls use a client with the
+     * same interceptors, cache and connection pool whose dispatcher runs at most
+     * {@link #MAX_BACKGROUND_REQUESTS} calls at once, so a burst of refreshes never holds the
+     * request slots and connections the user is waiting on.
+     *
+     * @param context  The application context, used to build the client.
+     * @param priority The priority of the calls.
+     * @return The client to enqueue the calls on.
+     */
+    public static synchronized OkHttpClient getClient(Context context, ApiDispatcher.Priority priority) {
+
+        OkHttpClient userClient = getClient(context);
+
+        if (priority == ApiDispatcher.Priority.USER_INITIATED) {
+
+            return userClient;
+        }
+
+        if (backgroundClient == null) {
+
+            backgroundClient = userClient.newBuilder()
+                    .dispatcher(newDispatcher(MAX_BACKGROUND_REQUESTS, MAX_BACKGROUND_REQUESTS))
+                    .build();
+        }
+
+        return backgroundClient;
+    }
+
+    /**
+     * Returns whether the client has been built, so it can be used without blocking.
+     *
+     * @return {@code true} once {@link #getClient(Context)} has built the client.
+     */
+    public static synchronized boolean isClientBuilt() {
+        return client != null;
+    }
+
+    /**
+     * Returns the number of enqueued calls waiting for a request slot.
+     *
+     * @return The calls queued in both dispatchers; 0 before the client is built.
+     */
+    public static synchronized int getQueuedCallCount() {
+
+        int queued = client != null ? client.dispatcher().queuedCallsCount() : 0;
+
+        return queued + (backgroundClient != null ? backgroundClient.dispatcher().queuedCallsCount() : 0);
+    }
+
+    /**
+     * Returns the number of calls currently in flight.
+     *
+     * @return The calls running in both dispatchers, including synchronous ones; 0 before the client is built.
+     */
+    public static synchronized int getRunningCallCount() {
+
+        int running = client != null ? client.dispatcher().runningCallsCount() : 0;
+
+        return running + (backgroundClient != null ? backgroundClient.dispatcher().runningCallsCount() : 0);
+    }
+
+    /**
+     * Creates a dispatcher on the shared call threads with the given request limits.
+     */
+    private static Dispatcher newDispatcher(int maxRequests, int maxRequestsPerHost) {
+
+        Dispatcher dispatcher = new Dispatcher(callExecutor);
+
+        dispatcher.setMaxRequests(maxRequests);
+
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+
+        return dispatcher;
+    }
+
+    /**
+     * Builds the network stack and opens a connection to {@link Constants#BASE_URL} in the background.
+     * <p>
+     * Called while the launch screens are showing, so the first login or inventory request finds the
+     * client built and a connection with DNS, TCP and TLS already done in the pool. The warm-up sends
+     * a HEAD request to the API root; its status does not matter, only the connection it leaves behind.
+     * Nothing is sent if the pool already holds an idle connection or a warm-up is in flight.
+     *
+     * @param context Any context; the application context is used to build the client.
+     */
+    public static void warmUp(Context context) {
+
+        Context appContext = context.getApplicationContext();
+
+        // One warm-up at a time
+        if (!warmUpInFlight.compareAndSet(false, true)) {
+
+            return;
+        }
+
+        ApiDispatcher.execute(ApiDispatcher.Priority.BACKGROUND, () -> {
+
+            try {
+
+                OkHttpClient warmClient = getClient(appContext);
+
+                // A pooled connection is already warm
+                if (warmClient.connectionPool().idleConnectionCount() > 0) {
+
+                    return;
+                }
+
+                Request warmUpRequest = new Request.Builder()
+                        .url(BASE_URL + "/")
+                        .head()
+                        .cacheControl(CacheControl.FORCE_NETWORK)
+                        .build();
+
+                // Closing the response returns the connection to the pool
+                try (Response response = warmClient.newCall(warmUpRequest).execute()) {
+
+                    Log.d("ApiClient", "Connection warmed up (HTTP " + response.code() + ").");
+                }
+
+            } catch (IOException e) {
+
+                // The first real request will simply connect itself
+                Log.w("ApiClient", "Connection warm-up failed", e);
+
+            } finally {
+
+                warmUpInFlight.set(false);
+            }
+        });
+    }
+
+    /**
+     * Network interceptor that makes inventory list responses revalidatable by the HTTP cache.
+     * <p>
+     * A successful GET to "/inventory-items" that carries an ETag or Last-Modified validator is
+     * rewritten to {@code Cache-Control: private, no-cache}. The cache stores it, but must send a
+     * conditional request with If-None-Match/If-Modified-Since before reusing it. Responses the
+     * server marks as no-store, and responses without validators, are left untouched.
+     *
+     * @param chain The interceptor chain.
+     * @return The network response, with caching headers adjusted for inventory lists.
+     * @throws IOException If the network call fails.
+     */
+    private static Response revalidateInventoryList(Interceptor.Chain chain) throws IOException {
+
+        Request request = chain.request();
+
+        Response response = chain.proceed(request);
+
+        // Only full inventory list reads are revalidated
+        if (!"GET".equals(request.method()) || !request.url().encodedPath().endsWith("/inventory-items")) {
+
+            return response;
+        }
+
+        // Respect the server's decision not to store the response
+        if (response.code() != HttpURLConnection.HTTP_OK || response.cacheControl().noStore()) {
+
+            return response;
+        }
+
+        // Without a validator there is nothing to revalidate with
+        if (response.header("ETag") == null && response.header("Last-Modified") == null) {
+
+            return response;
+        }
+
+        // Store the list, but always revalidate before reuse
+        return response.newBuilder()
+                .header("Cache-Control", "private, no-cache")
+                .removeHeader("Pragma")
+                .removeHeader("Expires")
+                .build();
+    }
+
+    /**
+     * Checks whether a response was served from the HTTP cache after the server confirmed it is
+     * still current with a 304 (Not Modified).
+     *
+     * @param response The response returned by a call on the shared client.
+     * @return {@code true} if the body is the cached copy that the server revalidated.
+     */
+    public static boolean isNotModified(Response response) {
+
+        Response networkResponse = response.networkResponse();
+
+        return response.cacheResponse() != null
+                && networkResponse != null
+                && networkResponse.code() == HttpURLConnection.HTTP_NOT_MODIFIED;
+    }
+
+    /**
+     * Returns a valid access token after a request failed with 401, refreshing it at most once per expiry.
+     * <p>
+     * Refreshes are serialized on {@link #tokenRefreshLock}. A caller that waited while another
+     * request refreshed the token finds that the stored token no longer matches the one its request
+     * was sent with, and reuses the new token without calling "/refresh-token" again. Only the first
+     * caller for a given expired token performs the refresh.
+     * <p>
+     * If the refresh fails and {@code logoutOnFailure} is set, the user is logged out, so callers that
+     * were waiting find no token and give up as well.
+     *
+     * @param context         The application context, used for the refresh call.
+     * @param sessionManager  The session holding the current tokens.
+     * @param failedToken     The access token the failed request was sent with, or null if it had none.
+     * @param logoutOnFailure Whether a failed refresh logs the user out. Proactive renewals pass {@code false},
+     *                        so a renewal attempted while offline leaves the session intact.
+     * @return The access token to retry with, or {@code null} if no valid token could be obtained.
+     */
+    private static String refreshAccessTokenOnce(Context context, SessionManager sessionManager, String failedToken, boolean logoutOnFailure) {
+
+        synchronized (tokenRefreshLock) {
+
+            String currentToken = sessionManager.getToken();
+
+            // Another request already refreshed the token while this one was waiting.
+            if (currentToken != null && !currentToken.equals(failedToken)) {
+
+                return currentToken;
+            }
+
+            String refreshToken = sessionManager.getRefreshToken();
+
+            // Without a refresh token there is nothing to refresh with.
+            if (refreshToken == null) {
+
+                Log.e("API CLIENT", "Refresh token is null, cannot refresh.");
+
+                return null;
+            }
+
+            // Perform a synchronous call to refresh the token.
+            AuthResponse authResponse = refreshTokenSynchronously(context, refreshToken);
+
+            // If the token refresh was successful and a new token is received.
+            if (authResponse != null && authResponse.getToken() != null) {
+
+                // Save the new access token.
+                sessionManager.setToken(authResponse.getToken());
+
+                // If a new refresh token is also received, save it.
+                if (authResponse.getRefreshToken() != null) {
+
+                    sessionManager.setRefreshToken(authResponse.getRefreshToken());
+                }
+
+                Log.d("API CLIENT", "Token refreshed successfully.");
+
+                return authResponse.getToken();
+            }
+
+            Log.e("API CLIENT", "Failed to refresh token or new token is null.");
+
+            // If token refresh fails, log out the user.
+            if (logoutOnFailure) {
+
+                sessionManager.logoutUser();
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * Schedules a background renewal of the given access token shortly before it expires.
+     * <p>
+     * Called for every authenticated request, but only does work when the stored token has changed
+     * since the last call (after a login, a refresh or a logout): the pending renewal is cancelled and
+     * a new one is scheduled {@link #PROACTIVE_RENEWAL_LEAD_MS} before the token's JWT "exp" claim.
+     * Tokens without a readable "exp" claim are left to the reactive 401 path.
+     *
+     * @param context     The application context, used for the renewal call.
+     * @param accessToken The access token currently stored in the session, or null if logged out.
+     */
+    private static synchronized void scheduleProactiveRenewal(Context context, String accessToken) {
+
+        // Already scheduled for this token.
+        if (accessToken == null ? scheduledRenewalToken == null : accessToken.equals(scheduledRenewalToken)) {
+
+            return;
+        }
+
+        // The previous token has been replaced, so drop its renewal.
+        if (scheduledRenewal != null) {
+
+            scheduledRenewal.cancel(false);
+
+            scheduledRenewal = null;
+        }
+
+        scheduledRenewalToken = accessToken;
+
+        long expiresAtMillis = accessToken != null ? decodeTokenExpiryMillis(accessToken) : -1;
+
+        // Nothing to schedule without a token or a readable expiry.
+        if (expiresAtMillis <= 0) {
+
+            return;
+        }
+
+        long delayMillis = Math.max(0, expiresAtMillis - PROACTIVE_RENEWAL_LEAD_MS - System.currentTimeMillis());
+
+        final Context appContext = context.getApplicationContext();
+
+        scheduledRenewal = tokenRenewalScheduler.schedule(() -> {
+
+            SessionManager sessionManager = new SessionManager(appContext);
+
+            // Renew unless the token was already replaced, without logging out if the renewal fails.
+            String renewedToken = refreshAccessTokenOnce(appContext, sessionManager, accessToken, false);
+
+            if (renewedToken != null && !renewedToken.equals(accessToken)) {
+
+                proactiveRenewalCount.incrementAndGet();
+
+                Log.d("API CLIENT", "Token renewed proactively before expiry.");
+
+                // Schedule the renewal of the new token.
+                scheduleProactiveRenewal(appContext, renewedToken);
+            }
+
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Checks whether a JWT access token expires within the given time from now.
+     *
+     * @param accessToken  The JWT access token.
+     * @param withinMillis The look-ahead window in milliseconds; 0 checks whether it has already expired.
+     * @return {@code true} if the token's "exp" claim falls within the window, {@code false} if it does
+     *         not or the claim cannot be read.
+     */
+    private static boolean isExpiringWithin(String accessToken, long withinMillis) {
+
+        long expiresAtMillis = decodeTokenExpiryMillis(accessToken);
+
+        return expiresAtMillis > 0 && expiresAtMillis <= System.currentTimeMillis() + withinMillis;
+    }
+
+    /**
+     * Decodes the "exp" claim of a JWT without verifying its signature.
+     * <p>
+     * The claim is only used to time renewals; the server remains the authority on validity.
+     *
+     * @param token The JWT, in "header.payload.signature" form.
+     * @return The expiry time in epoch milliseconds, or -1 if the token is not a JWT or has no "exp" claim.
+     */
+    static long decodeTokenExpiryMillis(String token) {
+
+        // A JWT has three dot-separated parts; the claims are in the second one.
+        int payloadStart = token.indexOf('.');
+
+        int payloadEnd = payloadStart >= 0 ? token.indexOf('.', payloadStart + 1) : -1;
+
+        if (payloadEnd < 0) {
+
+            return -1;
+        }
+
+        try {
+
+            // Decode the base64url-encoded claims.
+            byte[] payload = Base64.decode(token.substring(payloadStart + 1, payloadEnd),
+                    Base64.URL_SAFE | Base64.NO_PADDING | Base64.NO_WRAP);
+
+            JSONObject claims = new JSONObject(new String(payload, StandardCharsets.UTF_8));
+
+            // "exp" is in seconds since the epoch.
+            long expiresAtSeconds = claims.optLong("exp", -1);
+
+            return expiresAtSeconds > 0 ? expiresAtSeconds * 1000L : -1;
+
+        } catch (IllegalArgumentException | JSONException e) {
+
+            Log.w("API CLIENT", "Access token is not a decodable JWT.", e);
+
+            return -1;
+        }
+    }
+
+    /**
+     * Returns how many requests still had to refresh the access token after a 401.
+     * With proactive renewal in place this should stay close to zero.
+     *
+     * @return The number of reactive refreshes since the process started.
+     */
+    public static int getReactiveRefreshCount() {
+        return reactiveRefreshCount.get();
+    }
+
+    /**
+     * Returns how many access tokens were renewed in the background before they expired.
+     *
+     * @return The number of proactive renewals since the process started.
+     */
+    public static int getProactiveRenewalCount() {
+        return proactiveRenewalCount.get();
+    }
+
     /**
      * Synchronously refreshes the access token using the provided refresh token.
      *
-     * This method makes a blocking network request to the token refresh endpoint.
+     * This method makes a blocking network request to the token refresh endpoint through the shared
+     * client, so it reuses the pooled connection to the API host instead of opening a new one.
      * It should not be called on the main UI thread.
      *
      * @param context The application context, used for accessing SessionManager.
@@ -173,18 +711,15 @@ public class ApiClient {
      */
     private static AuthResponse refreshTokenSynchronously(Context context, String refreshTokenValue) {
 
-        // Create a new SessionManager instance using the provided context
-        SessionManager sessionManager = new SessionManager(context);
-
-        // Create a new OkHttpClient for synchronous token refresh request
-        OkHttpClient syncClient = new OkHttpClient();
+        // Reuse the shared client and its connection pool for the refresh request
+        OkHttpClient syncClient = getClient(context);
 
         // Build the refresh token request with the refresh token value
         Request refreshTokenRequest = new Request.Builder()
             // Set the refresh token endpoint URL
             .url(BASE_URL + "/refresh-token")
-            // Create a POST request with the refresh token in JSON format
-            .post(okhttp3.RequestBody.create("{\"refreshToken\":\"" + refreshTokenValue + "\"}", MediaType.parse("application/json")))
+            // Create a POST request with the refresh token in the negotiated format
+            .post(ContentNegotiation.encode(codec -> codec.encodeRefreshToken(refreshTokenValue)))
             // Build the final request
             .build();
 
@@ -195,7 +730,7 @@ public class ApiClient {
             if (refreshResponse.isSuccessful() && refreshResponse.body() != null) {
 
             // Parse the response body into an AuthResponse object
-            return parseAuthResponse(refreshResponse.body().string());
+            return parseAuthResponse(refreshResponse);
 
             }
             
@@ -212,41 +747,28 @@ public class ApiClient {
     }
 
     /**
-     * Parses a JSON string to create an AuthResponse object.
+     * Decodes the body of an authentication response into an AuthResponse object.
      *
-     * This method attempts to extract "token", "refreshToken", and "userName"
-     * from the provided JSON string. If any of these fields are missing,
-     * their corresponding values in the AuthResponse object will be null.
+     * This method extracts "token", "refreshToken", and "userName" from the response body
+     * with the codec matching its content type (see {@link ContentNegotiation#codecOf}).
+     * If any of these fields are missing, their corresponding values in the AuthResponse object will be null.
      *
-     * @param jsonString The JSON string representing the authentication response.
-     * @return An AuthResponse object populated with data from the JSON string,
-     *         or null if a JSONException occurs during parsing.
+     * @param response The successful authentication response, with a body.
+     * @return An AuthResponse object populated with data from the body,
+     *         or null if the body is not a valid authentication response.
      */
-    private static AuthResponse parseAuthResponse(String jsonString) {
+    private static AuthResponse parseAuthResponse(Response response) {
 
-        // Try to parse the JSON string
+        // Try to decode the body
         try {
 
-            // Create a JSONObject from the input string
-            JSONObject jsonObject = new JSONObject(jsonString);
-
-            // Extract the token field from JSON, defaulting to null if not present
-            String token = jsonObject.optString("token", null);
-
-            // Extract the refreshToken field from JSON, defaulting to null if not present
-            String refreshToken = jsonObject.optString("refreshToken", null);
-
-            // Extract the userName field from JSON, defaulting to null if not present
-            String userNAme = jsonObject.optString("userName", null);
-
-            // Create and return a new AuthResponse with the extracted values
-            return new AuthResponse(token, refreshToken, userNAme);
+            return ContentNegotiation.codecOf(response).readAuthResponse(response.body().source());
 
-        // Catch JSON parsing exceptions
-        } catch (JSONException e) {
+        // Catch decoding exceptions
+        } catch (IOException | IllegalStateException e) {
 
-            // Log any JSON parsing errors
-            Log.e("ApiClient", "Error parsing AuthResponse from JSON", e);
+            // Log any decoding errors
+            Log.e("ApiClient", "Error parsing AuthResponse", e);
 
             // Return null if parsing fails
             return null;
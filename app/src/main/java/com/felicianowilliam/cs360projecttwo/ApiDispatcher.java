@@ -0,0 +1,250 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A process-wide dispatcher for background API work that must not run on the main thread.
+ *
+ * Network calls themselves are enqueued on OkHttp's dispatcher, configured in {@link ApiClient},
+ * so waiting calls hold no thread. This dispatcher runs what has to happen before them: building
+ * the shared client the first time, which reads the disk cache, and warming up the connection.
+ * No {@link InventoryApiService} instance owns a thread pool, so the number of threads stays
+ * bounded no matter how many Activities are created. Threads are named, run at background OS
+ * priority and time out when idle, so the dispatcher holds no threads while the app is not
+ * talking to the server.
+ *
+ * Work is queued in two lanes:
+ * <ul>
+ *   <li>{@link Priority#USER_INITIATED} - work the user is waiting on, such as logging in,
+ *       saving an item or loading the page on screen.</li>
+ *   <li>{@link Priority#BACKGROUND} - refreshes the user is not waiting on, such as delta
+ *       syncs.</li>
+ * </ul>
+ * A free thread always takes the oldest user-initiated task before any background task.
+ *
+ * Queue depth and queue wait time are tracked per lane and can be read for diagnostics.
+ */
+public final class ApiDispatcher {
+
+    /**
+     * The lane a task is queued in. Lanes are declared from most to least urgent.
+     */
+    public enum Priority {
+        USER_INITIATED,
+        BACKGROUND
+    }
+
+    // Maximum number of concurrent API threads for the whole process
+    private static final int MAX_THREADS = 4;
+
+    // How long an idle API thread is kept before it exits
+    private static final long IDLE_THREAD_TIMEOUT_SECONDS = 30;
+
+    // Queue wait above which a task is logged as delayed
+    private static final long SLOW_QUEUE_WAIT_MS = 500;
+
+    // Counter used to number API threads
+    private static final AtomicInteger threadCount = new AtomicInteger();
+
+    // Counter giving tasks of the same lane first-in, first-out order
+    private static final AtomicLong submissionCount = new AtomicLong();
+
+    // Number of tasks waiting in each lane
+    private static final AtomicInteger[] queueDepth = newCounters();
+
+    // Highest number of tasks seen waiting in each lane
+    private static final AtomicInteger[] maxQueueDepth = newCounters();
+
+    // Number of tasks that have left each lane, and their total and worst queue wait
+    private static final AtomicLong[] dequeuedCount = newTotals();
+    private static final AtomicLong[] totalQueueWaitMs = newTotals();
+    private static final AtomicLong[] maxQueueWaitMs = newTotals();
+
+    // Shared pool; the priority queue is unbounded, so the pool always runs exactly MAX_THREADS threads at most
+    private static final ThreadPoolExecutor executor = createExecutor();
+
+    private ApiDispatcher() {
+    }
+
+    /**
+     * Queues a task in the given lane.
+     *
+     * @param priority The lane to queue the task in.
+     * @param task     The work to run on an API thread.
+     */
+    public static void execute(Priority priority, Runnable task) {
+
+        int lane = priority.ordinal();
+
+        // Record the deeper queue before the task becomes visible to the worker threads.
+        int depth = queueDepth[lane].incrementAndGet();
+
+        maxQueueDepth[lane].accumulateAndGet(depth, Math::max);
+
+        executor.execute(new PrioritizedTask(priority, submissionCount.getAndIncrement(), task));
+    }
+
+    /**
+     * Returns the number of tasks currently waiting in a lane.
+     *
+     * @param priority The lane to inspect.
+     * @return The number of queued tasks that have not started yet.
+     */
+    public static int getQueueDepth(Priority priority) {
+        return queueDepth[priority.ordinal()].get();
+    }
+
+    /**
+     * Returns the highest number of tasks seen waiting in a lane.
+     *
+     * @param priority The lane to inspect.
+     * @return The peak queue depth since the process started.
+     */
+    public static int getMaxQueueDepth(Priority priority) {
+        return maxQueueDepth[priority.ordinal()].get();
+    }
+
+    /**
+     * Returns the average time tasks spent queued in a lane before a thread picked them up.
+     *
+     * @param priority The lane to inspect.
+     * @return The average queue wait in milliseconds, or 0 if no task has run yet.
+     */
+    public static long getAverageQueueWaitMillis(Priority priority) {
+
+        int lane = priority.ordinal();
+
+        long count = dequeuedCount[lane].get();
+
+        return count == 0 ? 0 : totalQueueWaitMs[lane].get() / count;
+    }
+
+    /**
+     * Returns the longest time a task spent queued in a lane.
+     *
+     * @param priority The lane to inspect.
+     * @return The worst queue wait in milliseconds since the process started.
+     */
+    public static long getMaxQueueWaitMillis(Priority priority) {
+        return maxQueueWaitMs[priority.ordinal()].get();
+    }
+
+    /**
+     * Creates the shared thread pool with named, background-priority threads.
+     *
+     * @return The configured executor.
+     */
+    private static ThreadPoolExecutor createExecutor() {
+
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS,
+                IDLE_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<>(),
+                runnable -> {
+
+                    Thread thread = new Thread(() -> {
+
+                        // Keep network work from competing with the UI thread for CPU time.
+                        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+
+                        runnable.run();
+
+                    }, "api-dispatch-" + threadCount.incrementAndGet());
+
+                    thread.setDaemon(true);
+
+                    return thread;
+                });
+
+        // Let idle threads exit so the dispatcher costs nothing between requests.
+        pool.allowCoreThreadTimeOut(true);
+
+        return pool;
+    }
+
+    private static AtomicInteger[] newCounters() {
+
+        AtomicInteger[] counters = new AtomicInteger[Priority.values().length];
+
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new AtomicInteger();
+        }
+
+        return counters;
+    }
+
+    private static AtomicLong[] newTotals() {
+
+        AtomicLong[] totals = new AtomicLong[Priority.values().length];
+
+        for (int i = 0; i < totals.length; i++) {
+            totals[i] = new AtomicLong();
+        }
+
+        return totals;
+    }
+
+    /**
+     * A queued task ordered by lane, then by submission order, that records its queue wait when it starts.
+     */
+    private static final class PrioritizedTask implements Runnable, Comparable<PrioritizedTask> {
+
+        private final Priority priority;
+
+        private final long sequence;
+
+        private final Runnable task;
+
+        private final long enqueuedAtMs = SystemClock.elapsedRealtime();
+
+        PrioritizedTask(Priority priority, long sequence, Runnable task) {
+
+            this.priority = priority;
+
+            this.sequence = sequence;
+
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+
+            int lane = priority.ordinal();
+
+            // The task has left the queue; record how long it waited.
+            long waitMs = SystemClock.elapsedRealtime() - enqueuedAtMs;
+
+            queueDepth[lane].decrementAndGet();
+
+            dequeuedCount[lane].incrementAndGet();
+
+            totalQueueWaitMs[lane].addAndGet(waitMs);
+
+            maxQueueWaitMs[lane].accumulateAndGet(waitMs, Math::max);
+
+            if (waitMs > SLOW_QUEUE_WAIT_MS) {
+
+                Log.w("ApiDispatcher", priority + " task waited " + waitMs + " ms for a thread.");
+            }
+
+            task.run();
+        }
+
+        @Override
+        public int compareTo(@NonNull PrioritizedTask other) {
+
+            int byPriority = priority.compareTo(other.priority);
+
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
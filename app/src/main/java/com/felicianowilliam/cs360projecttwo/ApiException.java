@@ -0,0 +1,55 @@
+package com.felicianowilliam.cs360projecttwo;
+
+/**
+ * The failure of an API call made through a future, carrying what
+ * {@link InventoryApiService.ApiCallback#onError(String, int)} would have received.
+ *
+ * Futures fail with this exception as their cause: {@code join()} wraps it in a
+ * {@link java.util.concurrent.CompletionException}, and {@code exceptionally} and {@code handle}
+ * stages may receive it wrapped the same way, so use {@link #from(Throwable)} to unwrap it.
+ */
+public class ApiException extends Exception {
+
+    // HTTP status code of the failed call, or 0 for network and parsing errors
+    private final int statusCode;
+
+    /**
+     * Constructs an exception for a failed call.
+     *
+     * @param message    The error message built by the service.
+     * @param statusCode The HTTP status code, or 0 if the server did not answer.
+     */
+    public ApiException(String message, int statusCode) {
+
+        super(message);
+
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * Returns the HTTP status code of the failed call.
+     *
+     * @return The status code, or 0 for network and parsing errors.
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Finds the API failure behind an exception a future stage received.
+     *
+     * @param throwable The exception, possibly wrapped in a completion exception.
+     * @return The API failure, or {@code null} if the stage failed for another reason, such as
+     *         being cancelled or an exception thrown by an earlier stage.
+     */
+    public static ApiException from(Throwable throwable) {
+
+        // Completion and execution exceptions only wrap the real cause
+        while (throwable != null && !(throwable instanceof ApiException) && throwable.getCause() != throwable) {
+
+            throwable = throwable.getCause();
+        }
+
+        return throwable instanceof ApiException ? (ApiException) throwable : null;
+    }
+}
@@ -0,0 +1,109 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import okhttp3.Response;
+
+/**
+ * A {@link CompletableFuture} for the result of one API call.
+ *
+ * It completes with the value {@link InventoryApiService.ApiCallback#onSuccess(Object)} would
+ * have received, or exceptionally with an {@link ApiException}. Like the callbacks, it completes
+ * on the main thread, so stages added without an executor run there too; pass an executor to the
+ * {@code ...Async} methods for work that must not run on the UI thread.
+ *
+ * Cancelling the future cancels the call, and cancelling the call, for example through
+ * {@link InventoryApiService#cancelAll()}, cancels the future. Stages derived from the future
+ * are plain futures; cancelling them does not reach the call.
+ *
+ * @param <T> The type of the result.
+ */
+public final class ApiFuture<T> extends CompletableFuture<T> {
+
+    // The call producing the result, set right after the call is started
+    private volatile ApiCall call;
+
+    ApiFuture() {
+    }
+
+    /**
+     * Starts a callback-based operation and returns a future for its result.
+     *
+     * @param <T>       The type of the result.
+     * @param operation Starts the operation with the given callback and returns its handle.
+     * @return The future.
+     */
+    static <T> ApiFuture<T> start(Function<InventoryApiService.ApiCallback<T>, ApiCall> operation) {
+
+        ApiFuture<T> future = new ApiFuture<>();
+
+        future.attach(operation.apply(new InventoryApiService.ApiCallback<T>() {
+
+            @Override
+            public Response onSuccess(T result) {
+
+                future.complete(result);
+
+                return null;
+            }
+
+            @Override
+            public void onError(String error, int statusCode) {
+
+                future.completeExceptionally(new ApiException(error, statusCode));
+            }
+        }));
+
+        return future;
+    }
+
+    /**
+     * Links the future to the call producing its result, so either cancels the other.
+     *
+     * @param call The handle of the started operation.
+     */
+    void attach(ApiCall call) {
+
+        this.call = call;
+
+        call.addCancelListener(() -> super.cancel(false));
+
+        // The future may have been cancelled while the call was being started
+        if (isCancelled()) {
+
+            call.cancel();
+        }
+    }
+
+    /**
+     * Returns the handle of the call producing the result, for example to add it to an
+     * {@link ApiCallGroup}.
+     *
+     * @return The handle.
+     */
+    public ApiCall getCall() {
+        return call;
+    }
+
+    /**
+     * Cancels the future and the call producing its result.
+     *
+     * @param mayInterruptIfRunning Ignored; the call is cancelled through OkHttp, not by interrupting a thread.
+     * @return {@code true} if the future is now cancelled.
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+
+        boolean canceled = super.cancel(mayInterruptIfRunning);
+
+        ApiCall startedCall = call;
+
+        if (canceled && startedCall != null) {
+
+            startedCall.cancel();
+        }
+
+        return canceled;
+    }
+}
@@ -0,0 +1,146 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Helpers for composing the futures returned by {@link InventoryApiService}.
+ *
+ * {@link #fanOut(List, Function)} starts one call per input at once and {@link #allOf(List)}
+ * waits for a set of calls already started, so independent calls overlap on the dispatcher
+ * instead of running one after another. Both fail fast: the first failure fails the combined
+ * future and cancels the calls that are still running. {@link #mainThread()} is the executor
+ * for continuations that touch the UI, for use with the {@code ...Async} stage methods.
+ */
+public final class ApiFutures {
+
+    // Posts continuations to the main thread
+    private static final Executor MAIN_THREAD = new Executor() {
+
+        private final Handler handler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void execute(Runnable command) {
+            handler.post(command);
+        }
+    };
+
+    private ApiFutures() {
+    }
+
+    /**
+     * Returns an executor that runs continuations on the main thread.
+     * A task is always posted, even when the stage completes on the main thread, so it runs
+     * after the code that added it.
+     *
+     * @return The main thread executor.
+     */
+    public static Executor mainThread() {
+        return MAIN_THREAD;
+    }
+
+    /**
+     * Starts one call per input at the same time and collects their results.
+     *
+     * @param <I>    The type of the inputs.
+     * @param <T>    The type of each result.
+     * @param inputs The inputs, such as items to update.
+     * @param call   Starts the call for one input, for example {@code item -> service.updateInventoryItemAsync(...)}.
+     * @return A future for the results in the order of {@code inputs}; see {@link #allOf(List)}.
+     */
+    public static <I, T> CompletableFuture<List<T>> fanOut(List<I> inputs, Function<? super I, ? extends CompletableFuture<? extends T>> call) {
+
+        List<CompletableFuture<? extends T>> futures = new ArrayList<>(inputs.size());
+
+        for (I input : inputs) {
+
+            futures.add(call.apply(input));
+        }
+
+        return allOf(futures);
+    }
+
+    /**
+     * Waits for calls that are already running and collects their results.
+     * <p>
+     * The returned future completes with every result, in the order of {@code futures}, once all
+     * have succeeded. When one fails, it fails at once with the same exception and the futures
+     * that have not completed yet are cancelled, which cancels their calls. Cancelling the
+     * returned future cancels them all as well.
+     *
+     * @param <T>     The type of each result.
+     * @param futures The futures to wait for.
+     * @return A future for all results.
+     */
+    public static <T> CompletableFuture<List<T>> allOf(List<? extends CompletableFuture<? extends T>> futures) {
+
+        CompletableFuture<List<T>> all = new CompletableFuture<>();
+
+        // Nothing to wait for
+        if (futures.isEmpty()) {
+
+            all.complete(new ArrayList<>());
+
+            return all;
+        }
+
+        // Calls that have not succeeded yet
+        AtomicInteger remaining = new AtomicInteger(futures.size());
+
+        for (CompletableFuture<? extends T> future : futures) {
+
+            future.whenComplete((result, error) -> {
+
+                // Fail fast on the first failure and stop the calls still running
+                if (error != null) {
+
+                    if (all.completeExceptionally(error)) {
+
+                        cancelAll(futures);
+                    }
+
+                    return;
+                }
+
+                // The last call to succeed completes the combined future
+                if (remaining.decrementAndGet() == 0) {
+
+                    List<T> results = new ArrayList<>(futures.size());
+
+                    for (CompletableFuture<? extends T> done : futures) {
+
+                        results.add(done.join());
+                    }
+
+                    all.complete(results);
+                }
+            });
+        }
+
+        // Cancelling the combined future cancels every call
+        all.whenComplete((results, error) -> {
+
+            if (all.isCancelled()) {
+
+                cancelAll(futures);
+            }
+        });
+
+        return all;
+    }
+
+    private static void cancelAll(List<? extends CompletableFuture<?>> futures) {
+
+        for (CompletableFuture<?> future : futures) {
+
+            future.cancel(false);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.BufferedSink;
+
+/**
+ * Chooses the wire format of API requests and responses.
+ *
+ * {@link #INTERCEPTOR} asks for {@link InventoryCodecs#ACCEPT} on every request, so a server that
+ * supports CBOR answers in CBOR and any other server keeps answering in JSON. Callers decode each
+ * response with {@link #codecOf(Response)}, which picks the codec from its {@code Content-Type}.
+ *
+ * Request bodies are built with {@link #encode(Encoder)}. They are sent as JSON until the server
+ * has answered a request in CBOR, and as CBOR from then on. If a server rejects a CBOR body with
+ * 415 (Unsupported Media Type), the request is re-encoded as JSON and sent again once, and JSON
+ * is used for the rest of the process.
+ */
+public final class ContentNegotiation {
+
+    /**
+     * Encodes one request body with the codec it is given.
+     */
+    public interface Encoder {
+
+        // Returns the body encoded by the given codec
+        byte[] encode(InventoryCodec codec);
+    }
+
+    // Whether the server has answered in CBOR, and so accepts CBOR request bodies too
+    private static volatile boolean serverSpeaksCbor;
+
+    /**
+     * Application interceptor that sets the Accept header, learns which format the server speaks,
+     * and retries CBOR bodies the server rejected as JSON. Must be installed before the HTTP cache,
+     * that is as an application interceptor, so cached responses are keyed on the Accept header.
+     */
+    public static final Interceptor INTERCEPTOR = ContentNegotiation::negotiate;
+
+    private ContentNegotiation() {
+    }
+
+    /**
+     * Returns the codec that decodes a response body.
+     *
+     * @param response The response whose body is about to be read.
+     * @return The codec matching the response's {@code Content-Type}; JSON if it has none.
+     */
+    public static InventoryCodec codecOf(Response response) {
+        return InventoryCodecs.forMediaType(response.header("Content-Type"));
+    }
+
+    /**
+     * Builds a request body in the format the server is known to accept.
+     *
+     * @param encoder Encodes the body with the chosen codec; it may be called again with JSON if the
+     *                server rejects the chosen format.
+     * @return The encoded request body.
+     */
+    public static RequestBody encode(Encoder encoder) {
+        return new NegotiatedBody(encoder, serverSpeaksCbor ? InventoryCodecs.CBOR : InventoryCodecs.JSON);
+    }
+
+    private static Response negotiate(Interceptor.Chain chain) throws IOException {
+
+        Request request = chain.request();
+
+        // Leave requests that ask for a specific format alone
+        if (request.header("Accept") == null) {
+
+            request = request.newBuilder().header("Accept", InventoryCodecs.ACCEPT).build();
+        }
+
+        Response response = chain.proceed(request);
+
+        // A CBOR answer means the server also reads CBOR
+        if (response.isSuccessful() && codecOf(response) == InventoryCodecs.CBOR) {
+
+            serverSpeaksCbor = true;
+        }
+
+        RequestBody body = request.body();
+
+        // Fall back to JSON when the server does not take CBOR bodies after all
+        if (response.code() == HttpURLConnection.HTTP_UNSUPPORTED_TYPE && body instanceof NegotiatedBody
+                && ((NegotiatedBody) body).codec != InventoryCodecs.JSON) {
+
+            Log.w("ContentNegotiation", "Server rejected a CBOR request body, switching to JSON.");
+
+            serverSpeaksCbor = false;
+
+            response.close();
+
+            NegotiatedBody jsonBody = new NegotiatedBody(((NegotiatedBody) body).encoder, InventoryCodecs.JSON);
+
+            return chain.proceed(request.newBuilder().method(request.method(), jsonBody).build());
+        }
+
+        return response;
+    }
+
+    /**
+     * A request body encoded eagerly by one codec, remembering how to encode it with another.
+     */
+    private static final class NegotiatedBody extends RequestBody {
+
+        private final Encoder encoder;
+
+        private final InventoryCodec codec;
+
+        private final MediaType contentType;
+
+        private final byte[] content;
+
+        NegotiatedBody(Encoder encoder, InventoryCodec codec) {
+
+            this.encoder = encoder;
+
+            this.codec = codec;
+
+            this.contentType = MediaType.get(codec.getMediaType());
+
+            this.content = encoder.encode(codec);
+        }
+
+        @Override
+        public MediaType contentType() {
+            return contentType;
+        }
+
+        @Override
+        public long contentLength() {
+            return content.length;
+        }
+
+        @Override
+        public void writeTo(@NonNull BufferedSink sink) throws IOException {
+            sink.write(content);
+        }
+    }
+}
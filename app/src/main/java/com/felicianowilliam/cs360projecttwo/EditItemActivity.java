@@ -33,7 +33,6 @@ import com.google.android.material.textfield.TextInputLayout;
 
 import java.util.Objects;
 
-import okhttp3.Response;
 
 
 /**
@@ -48,7 +47,8 @@ import okhttp3.Response;
  *             <li>Ensures the quantity is a non-negative integer.</li>
  *         </ul>
  *     </li>
- *     <li>Communicates with the {@link InventoryApiService} to update the item details on the backend.</li>
+ *     <li>Returns the edited details to the {@link InventoryActivity}, which patches its list at once
+ *         and sends the update to the backend in the background, rolling back if it is rejected.</li>
  *     <li>If the item's quantity is updated to zero:
  *         <ul>
  *             <li>Checks for SMS sending permissions.</li>
@@ -56,21 +56,13 @@ import okhttp3.Response;
  *             <li>If permission is granted (either previously or after the request), it attempts to send an SMS notification about the low stock using {@link SmsManager} to the phone number stored in {@link SessionManager}.</li>
  *         </ul>
  *     </li>
- *     <li>Upon successful item update:
- *         <ul>
- *             <li>Navigates the user back to the {@link InventoryActivity}.</li>
- *         </ul>
- *     </li>
- *     <li>If the update fails, it displays an error message to the user.</li>
+ *     <li>Upon saving, navigates the user back to the {@link InventoryActivity} without waiting for the network.</li>
  *     <li>Provides a toolbar with a back navigation button and a logout option.</li>
  *     <li>Uses {@link SessionManager} to manage user session information, including the authentication token and the phone number for SMS notifications.</li>
  * </ul>
  */
 public class EditItemActivity extends AppCompatActivity {
 
-    // Service for API calls to update inventory items
-    private InventoryApiService apiService;
-
     // Toolbar for navigation and actions
     private Toolbar toolbar;
 
@@ -235,9 +227,6 @@ public class EditItemActivity extends AppCompatActivity {
         // Set content view from layout
         setContentView(R.layout.activity_edit_item);
 
-        // Initialize API service
-        apiService = new InventoryApiService(getApplicationContext());
-
         // Find and initialize toolbar
         toolbar = findViewById(R.id.toolbarEdit);
 
@@ -300,11 +289,10 @@ public class EditItemActivity extends AppCompatActivity {
      * Saves the edited item.
      * <p>
      * This method validates the input fields (item name and quantity).
-     * If validation passes, it calls the API to update the item.
+     * If validation passes, it returns the edited details to the InventoryActivity, which
+     * applies them to its list immediately and sends the update in the background.
      * If the updated item quantity is zero, it attempts to send an SMS notification
      * for low stock, requesting permission if necessary.
-     * On successful update, it navigates back to the InventoryActivity.
-     * Displays error messages via Toasts and logs errors if the update fails.
      * </p>
      */
     private void saveItem() {
@@ -326,38 +314,27 @@ public class EditItemActivity extends AppCompatActivity {
         int quantity = 0;
 
         // Validate name
-        if (TextUtils.isEmpty(name)) {
+        String nameError = InventoryValidator.validateName(name);
+
+        if (nameError != null) {
 
-            tilItemName.setError("Item name is required");
+            tilItemName.setError(nameError);
 
             isValid = false;
         }
 
         // Validate quantity
-        if (TextUtils.isEmpty(quantityStr)) {
+        String quantityError = InventoryValidator.validateQuantity(quantityStr);
+
+        if (quantityError != null) {
 
-            tilItemQuantity.setError("Quantity is required");
+            tilItemQuantity.setError(quantityError);
 
             isValid = false;
         } else {
-            try {
-                // Parse quantity
-                quantity = Integer.parseInt(quantityStr);
 
-                // Check for negative quantity
-                if (quantity < 0) {
-
-                    tilItemQuantity.setError("Quantity cannot be negative");
-
-                    isValid = false;
-                }
-
-            } catch (NumberFormatException e) {
-
-                tilItemQuantity.setError("Invalid number format");
-
-                isValid = false;
-            }
+            // Parse quantity
+            quantity = Integer.parseInt(quantityStr);
         }
 
         // Return if validation failed
@@ -365,80 +342,56 @@ public class EditItemActivity extends AppCompatActivity {
             return;
         }
 
-        // Call API to update item
-        apiService.updateInventoryItem(itemId, name, quantity, new InventoryApiService.ApiCallback<InventoryItem>() {
-
-            /**
-             * Called when the API request to update the item is successful.
-             * If the updated quantity is zero, it checks for SMS permission and attempts to send
-             * a low stock notification.
-             * Navigates back to the InventoryActivity.
-             *
-             * @param result The {@link InventoryItem} object returned by the API, representing the updated item.
-             * @return null (This method is part of an interface and its return type is determined by the interface,
-             *         but in this context, it doesn't need to return a value other than null).
-             */
-            @Override
-            public Response onSuccess(InventoryItem result) {
+        // Hand the edit back to the inventory list
+        onItemSaved(name, quantity);
+    }
 
-                // Check if quantity is zero
-                if(result.getQuantity() == 0){
+    /**
+     * Finishes a validated edit.
+     * If the saved quantity is zero, it checks for SMS permission and attempts to send
+     * a low stock notification, then returns the edited details to the InventoryActivity
+     * as the activity result.
+     *
+     * @param name     The saved item name.
+     * @param quantity The saved item quantity.
+     */
+    private void onItemSaved(String name, int quantity) {
 
-                    // Store item name for notification
-                    itemNameToNotify = name;
+        // Check if quantity is zero
+        if (quantity == 0) {
 
-                    // Check SMS permission
-                    if (hasSmsPermission()) {
+            // Store item name for notification
+            itemNameToNotify = name;
 
-                        Log.d("EditItemActivity", "SMS permission already granted. Sending SMS.");
+            // Check SMS permission
+            if (hasSmsPermission()) {
 
-                        sendLowStockSms(itemNameToNotify);
+                Log.d("EditItemActivity", "SMS permission already granted. Sending SMS.");
 
-                        itemNameToNotify = null;
+                sendLowStockSms(itemNameToNotify);
 
-                    } else {
+                itemNameToNotify = null;
 
-                        Log.d("EditItemActivity", "SMS permission not granted. Launching request.");
+            } else {
 
-                        requestPermissionLauncher.launch(Manifest.permission.SEND_SMS);
-                    }
-                }
+                Log.d("EditItemActivity", "SMS permission not granted. Launching request.");
 
-                // Log successful update
-                Log.d("edit Activity", "Item with name: " + result.getName() + " and quantity: " + result.getQuantity() + " updated successfully");
-                
-                // Create intent to return to inventory
-                Intent inventoryIntent = new Intent(EditItemActivity.this, InventoryActivity.class);
-                
-                // Pass username to Inventory Activity
-                inventoryIntent.putExtra(EXTRA_USERNAME, sessionManager.getUsername());
+                requestPermissionLauncher.launch(Manifest.permission.SEND_SMS);
+            }
+        }
 
-                startActivity(inventoryIntent);
-                
-                finish();
+        // Return the edited details to the inventory list
+        Intent resultIntent = new Intent();
 
-                return null;
-            }
+        resultIntent.putExtra(EXTRA_ITEM_ID, itemId);
+        resultIntent.putExtra(EXTRA_ITEM_NAME, name);
+        resultIntent.putExtra(String.valueOf(EXTRA_ITEM_QUANTITY), quantity);
 
-            /**
-             * Called when the API request to update the item fails.
-             * Displays an error message to the user and logs the error.
-             *
-             * @param error A string describing the error.
-             * @param statusCode The HTTP status code of the error response, or -1 if not applicable.
-             */
-            @Override
-            public void onError(String error, int statusCode) {
-
-                // Show error message to user
-                Toast.makeText(getApplicationContext(), "Error updating item", Toast.LENGTH_SHORT).show();
-
-                // Log the error for debugging
-                Log.e("EditItemActivity", "Error updating item: " + error);
-            }
+        setResult(RESULT_OK, resultIntent);
 
-        });
+        Log.d("edit Activity", "Item with name: " + name + " and quantity: " + quantity + " returned for update");
 
+        finish();
     }
 
 
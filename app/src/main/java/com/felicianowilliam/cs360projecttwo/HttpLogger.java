@@ -0,0 +1,286 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+
+/**
+ * A low-overhead, redacting HTTP logging stage that replaces OkHttp's HttpLoggingInterceptor.
+ *
+ * What is logged depends on the {@link Level}, which {@link ApiClient} takes from the build type:
+ * <ul>
+ *   <li>{@link Level#NONE} - nothing is captured; the interceptor only calls through.</li>
+ *   <li>{@link Level#HEADERS} - the request line, status, duration and headers.</li>
+ *   <li>{@link Level#BODY} - headers, plus the bodies of one call in every {@code bodySampleEvery}
+ *       and the response body of every failed call.</li>
+ * </ul>
+ * Bodies are never buffered in full: at most {@link #MAX_LOGGED_BODY_BYTES} of a body are
+ * captured, by peeking the response, so a large inventory response is still streamed to its
+ * caller. Credential headers and password and token fields are redacted by
+ * {@link CredentialRedactor}. Binary (CBOR) bodies are only logged by size, since they cannot
+ * be redacted as text.
+ *
+ * The calling thread only captures the headers and body prefix. Formatting, redaction and the
+ * write to logcat happen on a single "http-log" thread, and the most recent
+ * {@link #MAX_ENTRIES} entries are kept in a ring buffer for bug reports. If the log thread
+ * falls behind, the oldest pending entries are dropped instead of holding memory.
+ */
+public final class HttpLogger implements Interceptor {
+
+    /**
+     * How much of each call is logged.
+     */
+    public enum Level {
+        NONE,
+        HEADERS,
+        BODY
+    }
+
+    // Largest part of a request or response body captured for the log
+    static final long MAX_LOGGED_BODY_BYTES = 4L * 1024;
+
+    // Number of formatted entries kept in the ring buffer
+    static final int MAX_ENTRIES = 200;
+
+    // Number of captured calls waiting to be formatted before the oldest are dropped
+    private static final int MAX_PENDING_ENTRIES = 64;
+
+    // Most recent formatted entries, oldest first (guarded by itself)
+    private static final ArrayDeque<String> recentEntries = new ArrayDeque<>(MAX_ENTRIES);
+
+    // Single low-priority thread that formats and writes the entries
+    private static final ThreadPoolExecutor logExecutor = new ThreadPoolExecutor(1, 1,
+            30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(MAX_PENDING_ENTRIES),
+            runnable -> {
+                Thread thread = new Thread(runnable, "http-log");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            },
+            new ThreadPoolExecutor.DiscardOldestPolicy());
+
+    static {
+        // Let the thread exit when nothing is being logged
+        logExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    private final Level level;
+
+    private final int bodySampleEvery;
+
+    private final boolean writeToLogcat;
+
+    // Counter used to pick the calls whose bodies are logged
+    private final AtomicLong callCount = new AtomicLong();
+
+    /**
+     * Constructs a new HttpLogger.
+     *
+     * @param level           How much of each call is logged.
+     * @param bodySampleEvery At {@link Level#BODY}, log the bodies of one successful call in this many; 1 logs all of them.
+     * @param writeToLogcat   Whether entries are also written to logcat, not just to the ring buffer.
+     */
+    public HttpLogger(Level level, int bodySampleEvery, boolean writeToLogcat) {
+
+        this.level = level;
+
+        this.bodySampleEvery = Math.max(1, bodySampleEvery);
+
+        this.writeToLogcat = writeToLogcat;
+    }
+
+    /**
+     * Returns the most recent log entries, oldest first.
+     *
+     * @return A copy of the ring buffer.
+     */
+    public static List<String> getRecentEntries() {
+
+        synchronized (recentEntries) {
+
+            return new ArrayList<>(recentEntries);
+        }
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+
+        // Cheapest path for release builds
+        if (level == Level.NONE) {
+
+            return chain.proceed(chain.request());
+        }
+
+        Request request = chain.request();
+
+        boolean sampled = level == Level.BODY && callCount.getAndIncrement() % bodySampleEvery == 0;
+
+        // Capture a sampled request body before it is sent; one-shot and duplex bodies cannot be read twice
+        Buffer requestBody = null;
+
+        RequestBody body = request.body();
+
+        if (sampled && body != null && !body.isOneShot() && !body.isDuplex()
+                && body.contentLength() >= 0 && body.contentLength() <= MAX_LOGGED_BODY_BYTES) {
+
+            requestBody = new Buffer();
+
+            body.writeTo(requestBody);
+        }
+
+        long startMs = SystemClock.elapsedRealtime();
+
+        Response response;
+
+        try {
+
+            response = chain.proceed(request);
+
+        } catch (IOException e) {
+
+            submit(request, requestBody, null, null, SystemClock.elapsedRealtime() - startMs, e);
+
+            throw e;
+        }
+
+        long tookMs = SystemClock.elapsedRealtime() - startMs;
+
+        // Failed calls are always worth their body at BODY level
+        boolean logBodies = level == Level.BODY && (sampled || !response.isSuccessful());
+
+        // Peek at most a bounded prefix; the caller still streams the full body
+        ResponseBody responseBody = logBodies && response.body() != null ? response.peekBody(MAX_LOGGED_BODY_BYTES) : null;
+
+        submit(request, requestBody, response, responseBody, tookMs, null);
+
+        return response;
+    }
+
+    /**
+     * Hands a captured call to the log thread.
+     */
+    private void submit(Request request, Buffer requestBody, Response response, ResponseBody responseBody, long tookMs, IOException failure) {
+
+        logExecutor.execute(() -> {
+
+            String entry = format(request, requestBody, response, responseBody, tookMs, failure);
+
+            synchronized (recentEntries) {
+
+                if (recentEntries.size() == MAX_ENTRIES) {
+
+                    recentEntries.removeFirst();
+                }
+
+                recentEntries.addLast(entry);
+            }
+
+            if (writeToLogcat) {
+
+                Log.d("HttpLogger", entry);
+            }
+        });
+    }
+
+    /**
+     * Formats one call as a multi-line entry with credentials redacted (log thread only).
+     */
+    private static String format(Request request, Buffer requestBody, Response response, ResponseBody responseBody, long tookMs, IOException failure) {
+
+        StringBuilder entry = new StringBuilder();
+
+        entry.append("--> ").append(request.method()).append(' ').append(request.url()).append('\n');
+
+        appendHeaders(entry, request.headers());
+
+        if (requestBody != null) {
+
+            // Only text can be redacted and is worth logging
+            if (isText(request.body().contentType())) {
+
+                entry.append(CredentialRedactor.redactJson(requestBody.readUtf8())).append('\n');
+
+            } else {
+
+                entry.append("(binary body, ").append(requestBody.size()).append(" bytes)\n");
+            }
+        }
+
+        if (failure != null) {
+
+            return entry.append("<-- HTTP FAILED (").append(tookMs).append(" ms): ").append(failure).toString();
+        }
+
+        entry.append("<-- ").append(response.code()).append(' ').append(response.message())
+                .append(" (").append(tookMs).append(" ms)\n");
+
+        appendHeaders(entry, response.headers());
+
+        if (responseBody != null) {
+
+            try {
+
+                // Only text can be redacted and is worth logging
+                if (isText(responseBody.contentType())) {
+
+                    entry.append(CredentialRedactor.redactJson(responseBody.string()));
+
+                    if (responseBody.contentLength() >= MAX_LOGGED_BODY_BYTES) {
+
+                        entry.append("...");
+                    }
+
+                    entry.append('\n');
+
+                } else {
+
+                    entry.append("(binary body)\n");
+                }
+
+            } catch (IOException e) {
+
+                // The peeked body is already in memory; this cannot normally happen
+                entry.append("(body unavailable: ").append(e.getMessage()).append(")\n");
+            }
+        }
+
+        return entry.append("<-- END HTTP").toString();
+    }
+
+    private static boolean isText(MediaType contentType) {
+        return contentType == null || "json".equals(contentType.subtype()) || "text".equals(contentType.type());
+    }
+
+    private static void appendHeaders(StringBuilder entry, Headers headers) {
+
+        for (int i = 0; i < headers.size(); i++) {
+
+            String name = headers.name(i);
+
+            entry.append(name).append(": ")
+                    .append(CredentialRedactor.isSensitiveHeader(name) ? CredentialRedactor.REDACTED : headers.value(i))
+                    .append('\n');
+        }
+    }
+}
@@ -11,17 +11,24 @@ import androidx.appcompat.widget.Toolbar;
 import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import android.app.AlertDialog;
 import android.content.Intent;
 import android.os.Bundle;
+import android.text.InputType;
 import android.util.Log;
 import android.view.Menu;
 import android.view.MenuItem;
 import android.widget.Toast;
 
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
+import com.google.android.material.textfield.TextInputEditText;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import okhttp3.Response;
 
@@ -34,12 +41,17 @@ import okhttp3.Response;
  *     <li>Allowing the user to add new items to their inventory.</li>
  *     <li>Allowing the user to edit existing inventory items.</li>
  *     <li>Allowing the user to delete inventory items.</li>
+ *     <li>Applying edits and deletes to the list at once, rolling them back if the server rejects them.</li>
+ *     <li>Deleting or adjusting the quantity of many selected items with one batch request.</li>
  *     <li>Handling user logout.</li>
  * </ul>
  * It uses a {@link RecyclerView} to display the inventory items and a
  * {@link FloatingActionButton} to initiate adding a new item.
  * User authentication is managed by {@link SessionManager}.
  * Inventory data is fetched from a remote API via {@link InventoryApiService}.
+ * The last known inventory is cached locally by {@link MyDatabaseHelper} and shown
+ * immediately on open, then reconciled with the server in the background, either by
+ * a delta sync since the stored watermark or by a full paged reload.
  */
 public class InventoryActivity extends AppCompatActivity implements InventoryAdapter.OnItemActionListener {
 
@@ -49,9 +61,6 @@ public class InventoryActivity extends AppCompatActivity implements InventoryAda
     // Adapter for the RecyclerView
     private InventoryAdapter inventoryAdapter;
     
-    // List to hold inventory items
-    private List<InventoryItem> inventoryItemList;
-    
     // Floating action button for adding new items
     private FloatingActionButton fabAddItem;
     
@@ -67,6 +76,51 @@ public class InventoryActivity extends AppCompatActivity implements InventoryAda
     // API service for inventory operations
     private InventoryApiService apiService;
 
+    // Outbox for deletes, which are queued while the device is offline
+    private WriteOutbox writeOutbox;
+
+    // Outbox writes whose outcome this screen is waiting for
+    private final ApiCallGroup pendingWrites = new ApiCallGroup();
+
+    // Number of items requested per page
+    private static final int PAGE_SIZE = InventoryApiService.DEFAULT_PAGE_SIZE;
+
+    // Request code for adding a new item
+    private static final int REQUEST_ADD_ITEM = 1;
+
+    // Request code for editing an item
+    private static final int REQUEST_EDIT_ITEM = 2;
+
+    // Start loading the next page when this many rows remain below the last visible one
+    private static final int PREFETCH_DISTANCE = 10;
+
+    // Offset of the next page to request
+    private int nextPageOffset = 0;
+
+    // Whether the server may still have more pages
+    private boolean hasMorePages = true;
+
+    // Whether a page request is currently in flight
+    private boolean isLoadingPage = false;
+
+    // Incremented on every full reload so responses from an older load are ignored
+    private int loadGeneration = 0;
+
+    // Identifies the current reconciliation run in the local inventory cache
+    private long syncStamp;
+
+    // Whether any page from the server has been shown yet
+    private boolean hasServerPage = false;
+
+    // Watermark requested when the current full load started, saved once the load completes
+    private CompletableFuture<String> fullLoadBaseline;
+
+    // Database helper for the local inventory cache
+    private MyDatabaseHelper dbHelper;
+
+    // Single background thread for inventory cache reads and writes
+    private final ExecutorService cacheExecutor = Executors.newSingleThreadExecutor();
+
     /**
      * Called when the activity is first created.
      * Initializes the activity, sets up the UI, and loads inventory items.
@@ -88,6 +142,9 @@ public class InventoryActivity extends AppCompatActivity implements InventoryAda
         // Initialize API service instance
         apiService = new InventoryApiService(getApplicationContext());
 
+        // Get the shared write outbox
+        writeOutbox = WriteOutbox.getInstance(getApplicationContext());
+
         // Check if user is logged in
         if (!sessionManager.isLoggedIn()) {
 
@@ -158,8 +215,8 @@ public class InventoryActivity extends AppCompatActivity implements InventoryAda
             return;
         }
 
-        // Initialize empty inventory list
-        inventoryItemList = new ArrayList<>();
+        // Initialize database helper for the inventory cache
+        dbHelper = new MyDatabaseHelper(getApplicationContext());
 
         // Set toolbar as action bar
         setSupportActionBar(toolbar);
@@ -177,11 +234,34 @@ public class InventoryActivity extends AppCompatActivity implements InventoryAda
         recyclerViewInventory.setLayoutManager(new GridLayoutManager(this,numberOfColumns));
         
         // Initialize adapter with click listener
-        inventoryAdapter = new InventoryAdapter(this, inventoryItemList, this);
+        inventoryAdapter = new InventoryAdapter(this, new ArrayList<>(), this);
         
         // Set adapter on RecyclerView
         recyclerViewInventory.setAdapter(inventoryAdapter);
 
+        // Load the next page as the user nears the end of the list
+        recyclerViewInventory.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                // Only scrolling down can reveal the end of the list
+                if (dy <= 0) {
+                    return;
+                }
+                GridLayoutManager layoutManager = (GridLayoutManager) recyclerView.getLayoutManager();
+                if (layoutManager == null) {
+                    return;
+                }
+                // Request more items once the last visible row is close to the end
+                int lastVisible = layoutManager.findLastVisibleItemPosition();
+                if (lastVisible >= inventoryAdapter.getItemCount() - PREFETCH_DISTANCE) {
+                    loadNextPage();
+                }
+            }
+        });
+
+        // Show the cached inventory while the server responds
+        showCachedInventory();
+
         // Load initial inventory items
         loadInventoryItems();
 
@@ -195,70 +275,303 @@ public class InventoryActivity extends AppCompatActivity implements InventoryAda
             addIntent.putExtra(EXTRA_USERNAME, currentUsername);
             
             // Start activity for result
-            this.startActivityForResult(addIntent,1);
+            this.startActivityForResult(addIntent, REQUEST_ADD_ITEM);
+        });
+    }
+
+    /**
+     * Shows the locally cached inventory while the first server page is loading.
+     * <p>
+     * The cache is read on the cache thread, and edits and deletes still waiting in the
+     * {@link WriteOutbox} are applied on top, so rows the user changed while offline do not
+     * revert when the screen is recreated. The rows are only shown if nothing from the
+     * server has been displayed yet, so a fast network response is never overwritten by
+     * older cached data.
+     */
+    private void showCachedInventory() {
+        // Capture the username for the background read
+        final String username = currentUsername;
+
+        runOnCacheThread(() -> {
+            // Read the cached inventory as the user last left it
+            List<InventoryItem> cachedItems = InventorySync.applyPendingOperations(
+                    dbHelper.getCachedInventoryItems(username), dbHelper.getPendingOperations(username));
+
+            runOnUiThread(() -> {
+                // Skip if the server already answered or there is nothing cached
+                if (hasServerPage || isFinishing() || cachedItems.isEmpty() || inventoryAdapter.getLatestItemCount() > 0) {
+                    return;
+                }
+                // Render the cached rows
+                inventoryAdapter.replaceRange(0, cachedItems);
+                Log.d("InventoryActivity", "Showing " + cachedItems.size() + " cached inventory items");
+            });
         });
     }
 
     /**
-     * Loads inventory items from the API and updates the UI.
+     * Runs a task on the cache thread unless the activity has already been destroyed.
+     *
+     * @param task The cache read or write to run.
+     */
+    private void runOnCacheThread(Runnable task) {
+        // The executor is shut down in onDestroy
+        if (!cacheExecutor.isShutdown()) {
+            cacheExecutor.execute(task);
+        }
+    }
+
+    /**
+     * Refreshes the inventory from the server.
      *
      * This method performs the following steps:
      * <ol>
-     *     <li>Logs the current authentication token for debugging purposes.</li>
-     *     <li>Calls the `getAllInventoryItems` method of the `apiService`.</li>
-     *     <li>On successful API response:</li>
-     *      <ol>
-     *        <li>
-     *         Clears the existing items from the `inventoryItemList`
-     *        </li>
-     *        <li>
-     *            Adds the newly fetched inventory items to `inventoryItemList`.
-     *        </li>
-     *        <li>
-     *            Notifies the `inventoryAdapter` that the underlying data has changed,
-     *            triggering a UI refresh to display the updated list.
-     *        </li>
-     *      </ol>
-     *     <li>On API error:</li>
-     *      <ol>
-     *         <li>
-     *             Displays a Toast message to the user indicating that there was an error fetching the inventory.
-     *
-     *         </li>
-     *      </ol>
+     *     <li>Logs whether a session token is present; the token itself is never logged.</li>
+     *     <li>Starts a new load generation, so responses still in flight from an earlier
+     *         refresh are discarded when they arrive.</li>
+     *     <li>Reads the user's delta sync watermark on the cache thread.</li>
+     *     <li>If a watermark is stored, the cached list is a complete snapshot, so only the
+     *         changes since the watermark are fetched via {@link #syncInventoryChanges(String)}.</li>
+     *     <li>Otherwise, the whole inventory is reloaded page by page via {@link #loadFullInventory()}.</li>
      * </ol>
      */
     private void loadInventoryItems() {
-        // Log current token for debugging
-        Log.i("Inventory Activity", sessionManager.getToken());
+        // Log whether the refresh is authenticated, never the bearer token itself
+        Log.d("InventoryActivity", "Refreshing inventory, token present: " + (sessionManager.getToken() != null));
 
-        // Call API to get all inventory items
-        apiService.getAllInventoryItems(new InventoryApiService.ApiCallback<List<InventoryItem>>() {
+        // Start a new load generation and stop any paging from the previous one
+        loadGeneration++;
+        hasMorePages = false;
+        isLoadingPage = false;
+
+        // Capture the generation and username for the background read
+        final int generation = loadGeneration;
+        final String username = currentUsername;
+
+        runOnCacheThread(() -> {
+            // Read the delta sync watermark
+            String watermark = dbHelper.getSyncWatermark(username);
+
+            runOnUiThread(() -> {
+                // Skip if a newer refresh has started
+                if (generation != loadGeneration || isFinishing()) {
+                    return;
+                }
+                if (watermark != null) {
+                    syncInventoryChanges(watermark);
+                } else {
+                    loadFullInventory();
+                }
+            });
+        });
+    }
+
+    /**
+     * Fetches only the inventory changes since the stored watermark and patches them in place.
+     *
+     * <p>On success, the changed and deleted rows are patched via
+     * {@link InventoryAdapter#applyChanges(List, List)}, and the delta and its new watermark are
+     * written to the cache. If the server no longer accepts the watermark, or has no changes
+     * endpoint, the watermark is cleared and the inventory is reloaded in full.
+     *
+     * @param watermark The watermark of the cached snapshot.
+     */
+    private void syncInventoryChanges(String watermark) {
+        // Capture the generation and username this request belongs to
+        final int generation = loadGeneration;
+        final String username = currentUsername;
+
+        // Call API to get the changes since the watermark
+        apiService.getInventoryChanges(watermark, new InventoryApiService.ApiCallback<InventoryDelta>() {
             /**
-             * Callback method invoked when the API call to fetch all inventory items is successful.
-             * This method processes the list of {@link InventoryItem} objects returned by the API.
+             * Callback method invoked when the inventory changes are fetched successfully.
+             * Patches the list and the cache, and advances the stored watermark.
              *
-             * <p>The method performs the following actions:
-             * <ol>
-             *     <li>Clears the existing items from the {@code inventoryItemList}.</li>
-             *     <li>Adds all the inventory items from the {@code result} (the list fetched from the API)
-             *         to the {@code inventoryItemList}.</li>
-             *     <li>Notifies the {@code inventoryAdapter} that the underlying data set has changed,
-             *         which triggers a refresh of the UI to display the updated inventory.</li>
-             * </ol>
+             * @param result The {@link InventoryDelta} returned by the API.
+             * @return {@code null}. The return value is not used in this implementation.
+             */
+            @Override
+            public Response onSuccess(InventoryDelta result) {
+                // Drop deltas that belong to an older refresh
+                if (generation != loadGeneration) {
+                    return null;
+                }
+                hasServerPage = true;
+
+                // Patch the changed rows in place
+                if (!result.isEmpty()) {
+                    inventoryAdapter.applyChanges(result.getChangedItems(), result.getDeletedIds());
+                }
+
+                // Persist the changes and the new watermark
+                runOnCacheThread(() -> dbHelper.applyInventoryDelta(username, result));
+                Log.d("InventoryActivity", "Applied inventory delta: " + result);
+                return null;
+            }
+
+            /**
+             * Callback method invoked when the changes could not be fetched.
+             * Falls back to a full reload if the watermark was rejected, and otherwise
+             * displays a Toast message and logs the error.
+             *
+             * @param error A {@link String} describing the error that occurred.
+             * @param statusCode The HTTP status code associated with the error.
+             */
+            @Override
+            public void onError(String error, int statusCode) {
+                // Drop errors that belong to an older refresh
+                if (generation != loadGeneration) {
+                    return;
+                }
+
+                // The watermark is too old or delta sync is unsupported, so reload everything
+                if (statusCode == InventoryApiService.HTTP_WATERMARK_EXPIRED || statusCode == 404) {
+                    Log.w("InventoryActivity", "Delta sync unavailable (" + statusCode + "). Reloading full inventory.");
+                    runOnCacheThread(() -> dbHelper.setSyncWatermark(username, null));
+                    loadFullInventory();
+                    return;
+                }
+
+                // Show error toast
+                Toast.makeText(getApplicationContext(), "Error fetching inventory!", Toast.LENGTH_SHORT).show();
+                Log.e("InventoryActivity", "Error fetching inventory changes: " + error + " with status code: " + statusCode);
+            }
+        });
+    }
+
+    /**
+     * Reloads the whole inventory from the first page.
+     *
+     * This method performs the following steps:
+     * <ol>
+     *     <li>Resets the paging state and starts a new reconciliation run for the local inventory cache.</li>
+     *     <li>Requests a baseline watermark from the changes endpoint. Once every page has been
+     *         received, it is stored so the next refresh can be a delta sync.</li>
+     *     <li>Requests the first page via {@link #loadNextPage()} at the same time. Rows already on
+     *         screen, whether cached or from an earlier load, are patched in place as pages arrive.</li>
+     * </ol>
+     * Later pages are requested automatically while rows on screen still await reconciliation,
+     * and otherwise by the scroll listener as the user nears the end of the list.
+     */
+    private void loadFullInventory() {
+        // Reset paging state
+        nextPageOffset = 0;
+        hasMorePages = true;
+        isLoadingPage = false;
+
+        // Start a new cache reconciliation run
+        syncStamp = System.currentTimeMillis();
+
+        // Take the baseline watermark before the pages, so no change made during the load is missed
+        fullLoadBaseline = apiService.getInventoryChangesAsync(null).thenApply(InventoryDelta::getWatermark);
+
+        // Request the first page while the baseline is in flight
+        loadNextPage();
+    }
+
+    /**
+     * Stores the baseline watermark of a full load whose last page has been received, as soon
+     * as the baseline has arrived too. The write is queued on the cache thread after the page
+     * writes and the prune, so the watermark only becomes visible together with a complete
+     * cached snapshot.
+     *
+     * @param baseline The baseline watermark requested when the load started.
+     */
+    private void saveFullLoadBaseline(CompletableFuture<String> baseline) {
+        // Pages loaded outside a full load have no baseline
+        if (baseline == null) {
+            return;
+        }
+
+        // Capture the generation and username this baseline belongs to
+        final int generation = loadGeneration;
+        final String username = currentUsername;
+
+        baseline.whenCompleteAsync((watermark, error) -> {
+            // Without a baseline the next refresh is simply another full load
+            if (error != null) {
+                ApiException apiError = ApiException.from(error);
+                Log.w("InventoryActivity", "No delta sync baseline: " + (apiError != null
+                        ? apiError.getMessage() + " with status code: " + apiError.getStatusCode() : error));
+                return;
+            }
+
+            // Drop baselines that belong to an older load
+            if (generation == loadGeneration) {
+                runOnCacheThread(() -> dbHelper.setSyncWatermark(username, watermark));
+            }
+        }, ApiFutures.mainThread());
+    }
+
+    /**
+     * Loads the next page of inventory items from the API and patches it into the list.
+     *
+     * <p>Does nothing if a page is already loading or the last page has been reached.
+     * On success:
+     * <ol>
+     *     <li>Replaces the rows at the page's offset via {@link InventoryAdapter#replaceRange(int, List)},
+     *         appending rows past the current end.</li>
+     *     <li>Writes the page to the local inventory cache on the cache thread.</li>
+     *     <li>Advances the offset. A short page is the last one: rows past it are trimmed,
+     *         cached rows that were not part of this run are pruned, and the baseline watermark
+     *         is stored.</li>
+     *     <li>If rows already on screen still lie past the new offset, requests the next page
+     *         right away so the whole visible list is reconciled in the background.</li>
+     * </ol>
+     * On API error, displays a Toast message and leaves the paging state so a later scroll retries.
+     */
+    private void loadNextPage() {
+        // Skip if a page is in flight or there is nothing left to load
+        if (isLoadingPage || !hasMorePages) {
+            return;
+        }
+        isLoadingPage = true;
+
+        // Capture the generation, offset and sync run this request belongs to
+        final int generation = loadGeneration;
+        final int offset = nextPageOffset;
+        final long stamp = syncStamp;
+        final String username = currentUsername;
+
+        // Call API to get one page of inventory items
+        apiService.getInventoryItemsPage(offset, PAGE_SIZE, new InventoryApiService.ApiCallback<List<InventoryItem>>() {
+            /**
+             * Callback method invoked when a page of inventory items is fetched successfully.
+             * Ignores the page if a newer reload has started since it was requested.
              *
-             * @param result A {@link List} of {@link InventoryItem} objects representing the inventory
-             *               items successfully fetched from the API.
+             * @param result A {@link List} of {@link InventoryItem} objects for the requested page.
              * @return {@code null}. The return value is not used in this implementation.
              */
             @Override
             public Response onSuccess(List<InventoryItem> result) {
-                // Clear existing items
-                inventoryItemList.clear();
-                // Add new items
-                inventoryItemList.addAll(result);
-                // Notify adapter of data change
-                inventoryAdapter.notifyDataSetChanged();
+                // Drop pages that belong to an older load
+                if (generation != loadGeneration) {
+                    return null;
+                }
+                isLoadingPage = false;
+                hasServerPage = true;
+
+                // Patch the page into the rows on screen
+                inventoryAdapter.replaceRange(offset, result);
+
+                // Persist the page to the local cache
+                runOnCacheThread(() -> dbHelper.cacheInventoryPage(username, offset, result, stamp));
+
+                // A short (or unpaged, oversized) page is the last one
+                nextPageOffset = offset + result.size();
+                hasMorePages = result.size() == PAGE_SIZE;
+
+                if (!hasMorePages) {
+                    // Drop rows that no longer exist on the server
+                    inventoryAdapter.trimToSize(nextPageOffset);
+                    runOnCacheThread(() -> dbHelper.pruneCachedInventory(username, stamp));
+
+                    // The cache is now a complete snapshot
+                    saveFullLoadBaseline(fullLoadBaseline);
+                } else if (nextPageOffset < inventoryAdapter.getLatestItemCount()) {
+                    // Keep reconciling rows that are already on screen
+                    loadNextPage();
+                }
                 return null;
             }
 
@@ -278,6 +591,12 @@ public class InventoryActivity extends AppCompatActivity implements InventoryAda
              */
             @Override
             public void onError(String error, int statusCode) {
+                // Drop errors that belong to an older load
+                if (generation != loadGeneration) {
+                    return;
+                }
+                isLoadingPage = false;
+
                 // Show error toast
                 Toast.makeText(getApplicationContext(), "Error fetching inventory!", Toast.LENGTH_SHORT).show();
                 Log.e("InventoryActivity", "Error fetching inventory: " + error + " with status code: " + statusCode);
@@ -285,15 +604,42 @@ public class InventoryActivity extends AppCompatActivity implements InventoryAda
         });
     }
 
+    /**
+     * Called when the activity is being destroyed.
+     * Cancels outstanding API calls, closes the database helper and stops the cache thread once
+     * pending cache writes have run.
+     */
+    @Override
+    protected void onDestroy() {
+
+        super.onDestroy();
+
+        // Stop loads and batch calls for this screen; outbox writes still complete, unobserved
+        apiService.cancelAll();
+
+        pendingWrites.cancelAll();
+
+        // Close the database after queued cache writes have run on the cache thread
+        if (dbHelper != null) {
+
+            runOnCacheThread(dbHelper::close);
+        }
+
+        // Release the cache thread once its queue is drained
+        cacheExecutor.shutdown();
+    }
+
     /**
      * Called when an activity you launched exits, giving you the requestCode
      * you started it with, the resultCode it returned, and any additional
      * data from it.
      *
      * In this specific implementation, it checks if the result is from the
-     * "add item" activity (identified by `requestCode == 1`). If it is,
+     * "add item" activity (identified by {@link #REQUEST_ADD_ITEM}). If it is,
      * the current activity is recreated to reflect any changes made (e.g.,
-     * a new item being added to a list).
+     * a new item being added to a list). A saved result from the "edit item"
+     * activity ({@link #REQUEST_EDIT_ITEM}) is applied to the list immediately
+     * by {@link #updateItemOptimistically(String, String, int)}.
      *
      * @param requestCode The integer request code originally supplied to
      *                    startActivityForResult(), allowing you to identify who
@@ -309,12 +655,21 @@ public class InventoryActivity extends AppCompatActivity implements InventoryAda
         super.onActivityResult(requestCode, resultCode, data);
 
         // Check if result is from add item activity
-        if (requestCode == 1) {
+        if (requestCode == REQUEST_ADD_ITEM) {
 
             // Refresh activity
             recreate();
 
         }
+
+        // Apply a saved edit to the list at once
+        if (requestCode == REQUEST_EDIT_ITEM && resultCode == RESULT_OK && data != null) {
+
+            updateItemOptimistically(
+                    data.getStringExtra(EXTRA_ITEM_ID),
+                    data.getStringExtra(EXTRA_ITEM_NAME),
+                    data.getIntExtra(String.valueOf(EXTRA_ITEM_QUANTITY), 0));
+        }
     }
 
     /**
@@ -328,7 +683,7 @@ public class InventoryActivity extends AppCompatActivity implements InventoryAda
      *     <li>Logs a debug message indicating that {@code onResume} was called and that inventory is being reloaded.</li>
      *     <li>Checks if {@code currentUsername} is not null and not empty.
      *         <ul>
-     *             <li>If true, it clears the {@code inventoryItemList} and calls {@link #loadInventoryItems()} to refresh the inventory data.</li>
+     *             <li>If true, it calls {@link #loadInventoryItems()} to refresh the inventory data from the first page.</li>
      *             <li>If false, it logs an error message indicating that the username is null or empty and inventory cannot be reloaded.</li>
      *         </ul>
      *     </li>
@@ -346,10 +701,23 @@ public class InventoryActivity extends AppCompatActivity implements InventoryAda
         // Check username exists
         if (currentUsername != null && !currentUsername.isEmpty()) {
 
-            // Clear existing items
-            inventoryItemList.clear();
-            
-            // Reload items
+            // Pick up queued writes once the outbox has replayed them
+            writeOutbox.setOnDrainedListener(this::loadInventoryItems);
+
+            // Tell the user about queued writes that could not be sent, and show the server's rows again
+            writeOutbox.setOnDroppedListener((operation, error, statusCode) -> {
+
+                Toast.makeText(getApplicationContext(), "A change could not be synced: " + error, Toast.LENGTH_LONG).show();
+
+                // A delta would not bring back rows removed on this device, so reload in full
+                final String username = currentUsername;
+
+                runOnCacheThread(() -> dbHelper.setSyncWatermark(username, null));
+
+                loadInventoryItems();
+            });
+
+            // Reload items from the first page
             loadInventoryItems();
 
         } else {
@@ -359,6 +727,20 @@ public class InventoryActivity extends AppCompatActivity implements InventoryAda
         }
     }
 
+    /**
+     * Called when the activity is no longer in the foreground.
+     * Stops listening for outbox replays and dropped writes, which only matter while the list is visible.
+     */
+    @Override
+    protected void onPause() {
+
+        super.onPause();
+
+        writeOutbox.setOnDrainedListener(null);
+
+        writeOutbox.setOnDroppedListener(null);
+    }
+
     /**
      * Initialize the contents of the Activity's standard options menu.  You
      * should place your menu items in to <var>menu</var>.
@@ -375,6 +757,24 @@ public class InventoryActivity extends AppCompatActivity implements InventoryAda
         return true;
     }
 
+    /**
+     * Shows the batch actions only while inventory rows are selected.
+     *
+     * @param menu The options menu as last shown or first initialized by onCreateOptionsMenu().
+     * @return You must return true for the menu to be displayed.
+     */
+    @Override
+    public boolean onPrepareOptionsMenu(Menu menu) {
+
+        boolean selecting = inventoryAdapter != null && inventoryAdapter.isSelecting();
+
+        // Toggle the batch actions
+        menu.findItem(R.id.deleteSelected).setVisible(selecting);
+        menu.findItem(R.id.adjustSelectedQuantity).setVisible(selecting);
+
+        return super.onPrepareOptionsMenu(menu);
+    }
+
     /**
      * This method is called whenever an item in your options menu is selected.
      * The default implementation simply returns false to let the
@@ -390,6 +790,20 @@ public class InventoryActivity extends AppCompatActivity implements InventoryAda
         // Get selected menu item ID
         int id = item.getItemId();
 
+        // Handle batch delete of the selected items
+        if (id == R.id.deleteSelected) {
+
+            deleteSelectedItems();
+            return true;
+        }
+
+        // Handle batch quantity adjustment of the selected items
+        if (id == R.id.adjustSelectedQuantity) {
+
+            showAdjustQuantityDialog();
+            return true;
+        }
+
         // Handle logout menu item
         if (id == R.id.logout) {
             // Logout user
@@ -428,86 +842,52 @@ public class InventoryActivity extends AppCompatActivity implements InventoryAda
         editIntent.putExtra(String.valueOf(EXTRA_ITEM_QUANTITY), item.getQuantity());
         
         // Start activity for result
-        this.startActivityForResult(editIntent,1);
+        this.startActivityForResult(editIntent, REQUEST_EDIT_ITEM);
     }
 
     /**
      * Handles the click event for deleting an inventory item.
      * <p>
-     * This method is called when the delete button/action for an {@link InventoryItem} is triggered.
-     * It initiates an API call to delete the specified item from the backend.
-     * <p>
-     * Upon successful deletion:
-     * <ul>
-     *     <li>A log message is recorded.</li>
-     *     <li>The local list of inventory items ({@code inventoryItemList}) is cleared.</li>
-     *     <li>The inventory items are reloaded from the API ({@link #loadInventoryItems()}).</li>
-     *     <li>A success toast message is displayed to the user.</li>
-     * </ul>
+     * The row is removed from the list at once, then the delete is submitted to the
+     * {@link WriteOutbox}, which sends it to the backend, or stores it for replay while the
+     * device is offline. No reload follows: the next delta sync reconciles the list.
      * <p>
-     * In case of an error during deletion:
-     * <ul>
-     *     <li>If the item is not found (HTTP status code 404), a specific "Item not found" toast is shown.</li>
-     *     <li>For other errors, a generic "Error deleting item" toast is displayed.</li>
-     *     <li>Error details are logged for debugging purposes.</li>
-     * </ul>
+     * If the server rejects the delete, the row is put back where it was and the user is told.
+     * A 404 means the item is already gone, so the row stays removed.
      *
      * @param item The {@link InventoryItem} to be deleted.
      */
     @Override
     public void onDeleteClick(InventoryItem item) {
 
-        /**
-         * Handles the API call for deleting an inventory item.
-         *
-         * This is an anonymous inner class implementing {@link InventoryApiService.ApiCallback}
-         * to handle the asynchronous response of the {@code deleteInventoryItem} API call.
-         *
-         * {@code onSuccess} method:
-         *  - Called when the API call to delete an item is successful.
-         *  - Logs the successful deletion.
-         *  - Clears the local {@code inventoryItemList}.
-         *  - Calls {@link #loadInventoryItems()} to refresh the inventory from the server.
-         *  - Displays a success Toast message to the user.
-         *  - Inputs:
-         *    - {@code result}: A {@link String} from the API, typically a success message.
-         *  - Outputs:
-         *    - Returns {@code null} (as the Response object is not directly used here).
-         *    - Side effects: Modifies {@code inventoryItemList}, reloads items, shows a Toast.
-         *
-         * {@code onError} method: Documented separately below.
-         */
-        apiService.deleteInventoryItem(item.getId(), new InventoryApiService.ApiCallback<String>() {
+        // Remove the row before the server answers
+        int position = inventoryAdapter.removeItem(item.getId());
+
+        pendingWrites.add(writeOutbox.submit(PendingOperation.delete(sessionManager.getUsername(), item.getId()), new WriteOutbox.WriteCallback() {
             @Override
-            public Response onSuccess(String result) {
+            public void onSent(InventoryItem result) {
                 // Log successful deletion
                 Log.d("inventoryActivity", "Item with name " + item.getName() + " and quantity " + item.getQuantity() + " deleted successfully");
-                
-                // Clear existing items
-                inventoryItemList.clear();
-                
-                // Reload items
-                loadInventoryItems();
-                
+
                 // Show success toast
-                Toast.makeText(getApplicationContext(), result, Toast.LENGTH_SHORT).show();
-                return null;
+                Toast.makeText(getApplicationContext(), "Item deleted successfully", Toast.LENGTH_SHORT).show();
+            }
+
+            @Override
+            public void onQueued() {
+                // Log queued deletion
+                Log.d("inventoryActivity", "Delete of item with name " + item.getName() + " queued for sync");
+
+                Toast.makeText(getApplicationContext(), "Offline: delete will sync when back online", Toast.LENGTH_SHORT).show();
             }
 
             /**
-             * Callback method invoked when an API call to delete an inventory item fails or returns an error.
-             * This method handles the error by displaying an appropriate Toast message to the user
-             * and logging the error details.
-             *
-             * <p>The method differentiates between a "Not Found" error (HTTP status code 404)
-             * and other types of errors:
-             * <ul>
-             *     <li>If the {@code statusCode} is 404, a Toast message "Item not found for deletion."
-             *         is shown.</li>
-             *     <li>For any other error, a generic Toast message "Error deleting item!" is shown.</li>
-             * </ul>
-             * In both cases, an error message is logged to the console containing the error
-             * description.
+             * Callback method invoked when the server rejects the delete.
+             * <p>
+             * A 404 means the item no longer exists, so the row stays removed and
+             * "Item not found for deletion." is shown. For any other error the row is restored
+             * at its old position, unless a sync has already put it back, and the user is told
+             * the delete was undone.
              *
              * @param error A {@link String} describing the error that occurred during the deletion
              *              attempt.
@@ -516,16 +896,268 @@ public class InventoryActivity extends AppCompatActivity implements InventoryAda
              */
             @Override
             public void onError(String error, int statusCode) {
+
+                Log.e("InventoryActivity", "Error deleting item: " + error);
+
                 // Handle not found error
-                if (!error.isEmpty() && statusCode == 404) {
+                if (statusCode == 404) {
+
                     Toast.makeText(getApplicationContext(), "Item not found for deletion.", Toast.LENGTH_SHORT).show();
-                    Log.e("InventoryActivity", "Error deleting item: " + error);
-                } else {
-                    // Handle other errors
-                    Log.e("InventoryActivity", "Error deleting item: " + error);
-                    Toast.makeText(getApplicationContext(), "Error deleting item!", Toast.LENGTH_SHORT).show();
+                    return;
+                }
+
+                // Roll back the removed row
+                if (position >= 0 && inventoryAdapter.findItem(item.getId()) == null) {
+
+                    inventoryAdapter.insertItem(position, item);
+                }
+
+                Toast.makeText(getApplicationContext(), "Error deleting item! " + item.getName() + " was restored.", Toast.LENGTH_SHORT).show();
+            }
+        }));
+    }
+
+    /**
+     * Applies an edit from {@link EditItemActivity} to the list at once and sends it in the background.
+     * <p>
+     * The row is patched immediately with the new name and quantity, then the update is submitted
+     * to the {@link WriteOutbox}. Once the server confirms, the row is replaced with the server's
+     * copy. If the server rejects the update, the previous values are restored, unless a sync has
+     * already replaced the row, and the user is told.
+     *
+     * @param itemId   The server "_id" of the edited item.
+     * @param name     The new name.
+     * @param quantity The new quantity.
+     */
+    private void updateItemOptimistically(String itemId, String name, int quantity) {
+
+        InventoryItem previous = inventoryAdapter.findItem(itemId);
+
+        // Patch the row before the server answers
+        InventoryItem patched = null;
+
+        if (previous != null) {
+
+            patched = new InventoryItem(itemId, name, quantity, previous.getUserId(), previous.getDbVersion());
+
+            inventoryAdapter.replaceItem(patched);
+        }
+
+        final InventoryItem optimisticItem = patched;
+
+        pendingWrites.add(writeOutbox.submit(PendingOperation.update(sessionManager.getUsername(), itemId, name, quantity), new WriteOutbox.WriteCallback() {
+            @Override
+            public void onSent(InventoryItem result) {
+
+                Log.d("InventoryActivity", "Item with name: " + result.getName() + " and quantity: " + result.getQuantity() + " updated successfully");
+
+                // Take the server's copy, including its new "__v"
+                inventoryAdapter.replaceItem(result);
+            }
+
+            @Override
+            public void onQueued() {
+
+                Log.d("InventoryActivity", "Update of item with name: " + name + " queued for sync");
+
+                Toast.makeText(getApplicationContext(), "Offline: change saved and will sync when back online", Toast.LENGTH_SHORT).show();
+            }
+
+            @Override
+            public void onError(String error, int statusCode) {
+
+                Log.e("InventoryActivity", "Error updating item: " + error);
+
+                // Roll back unless the row has changed since it was patched
+                if (previous != null && inventoryAdapter.findItem(itemId) == optimisticItem) {
+
+                    inventoryAdapter.replaceItem(previous);
                 }
+
+                Toast.makeText(getApplicationContext(), "Error updating item! The change was undone.", Toast.LENGTH_SHORT).show();
+            }
+        }));
+    }
+
+    /**
+     * Called by the adapter when rows are selected or deselected.
+     * Shows the selection count in the toolbar and toggles the batch actions.
+     *
+     * @param selectedCount The number of rows now selected.
+     */
+    @Override
+    public void onSelectionChanged(int selectedCount) {
+
+        // Show the selection count, or the inventory title once nothing is selected
+        if (getSupportActionBar() != null) {
+
+            getSupportActionBar().setTitle(selectedCount > 0
+                    ? selectedCount + " selected"
+                    : currentUsername + "'s Inventory");
+        }
+
+        // Rebuild the menu so the batch actions match the selection
+        invalidateOptionsMenu();
+    }
+
+    /**
+     * Leaves selection mode on back press instead of leaving the screen.
+     */
+    @Override
+    public void onBackPressed() {
+
+        if (inventoryAdapter != null && inventoryAdapter.isSelecting()) {
+
+            inventoryAdapter.clearSelection();
+            return;
+        }
+
+        super.onBackPressed();
+    }
+
+    /**
+     * Deletes every selected item with a single batch request.
+     * <p>
+     * Once the server answers, the selection is cleared, the list is reconciled with a delta sync
+     * and a toast reports how many items were deleted and how many failed.
+     */
+    private void deleteSelectedItems() {
+
+        // Collect the ids of the selected rows
+        List<String> itemIds = new ArrayList<>();
+
+        for (InventoryItem item : inventoryAdapter.getSelectedItems()) {
+
+            itemIds.add(item.getId());
+        }
+
+        apiService.deleteInventoryItems(itemIds, new InventoryApiService.ApiCallback<List<BatchItemResult>>() {
+            @Override
+            public Response onSuccess(List<BatchItemResult> results) {
+
+                Log.d("InventoryActivity", "Batch delete finished: " + results.size() + " items.");
+
+                onBatchFinished(results, "deleted");
+                return null;
+            }
+
+            @Override
+            public void onError(String error, int statusCode) {
+
+                Log.e("InventoryActivity", "Error deleting selected items: " + error);
+                Toast.makeText(getApplicationContext(), "Error deleting selected items!", Toast.LENGTH_SHORT).show();
             }
         });
     }
+
+    /**
+     * Asks for an amount and adds it to the quantity of every selected item.
+     * A negative amount removes stock; quantities never drop below zero.
+     */
+    private void showAdjustQuantityDialog() {
+
+        // Build dialog to request the amount
+        AlertDialog.Builder builder = new AlertDialog.Builder(InventoryActivity.this);
+
+        builder.setTitle(R.string.adjust_quantity);
+
+        // Create a signed number input field
+        final TextInputEditText input = new TextInputEditText(InventoryActivity.this);
+
+        input.setInputType(InputType.TYPE_CLASS_NUMBER | InputType.TYPE_NUMBER_FLAG_SIGNED);
+
+        input.setHint(R.string.adjust_quantity_hint);
+
+        builder.setView(input);
+
+        builder.setPositiveButton("OK", (dialog, which) -> {
+
+            String amountStr = Objects.requireNonNull(input.getText()).toString().trim();
+
+            try {
+
+                adjustSelectedQuantity(Integer.parseInt(amountStr));
+
+            } catch (NumberFormatException e) {
+
+                Toast.makeText(getApplicationContext(), "Please enter a whole number.", Toast.LENGTH_SHORT).show();
+            }
+        });
+
+        builder.setNegativeButton("Cancel", null);
+
+        builder.show();
+    }
+
+    /**
+     * Adds an amount to the quantity of every selected item with a single batch request.
+     *
+     * @param amount The amount to add to each quantity; negative to remove stock.
+     */
+    private void adjustSelectedQuantity(int amount) {
+
+        // Build the updated copy of every selected item
+        List<InventoryItem> updatedItems = new ArrayList<>();
+
+        for (InventoryItem item : inventoryAdapter.getSelectedItems()) {
+
+            updatedItems.add(new InventoryItem(item.getId(), item.getName(),
+                    Math.max(0, item.getQuantity() + amount), item.getUserId(), item.getDbVersion()));
+        }
+
+        apiService.updateInventoryItems(updatedItems, new InventoryApiService.ApiCallback<List<BatchItemResult>>() {
+            @Override
+            public Response onSuccess(List<BatchItemResult> results) {
+
+                Log.d("InventoryActivity", "Batch quantity update finished: " + results.size() + " items.");
+
+                onBatchFinished(results, "updated");
+                return null;
+            }
+
+            @Override
+            public void onError(String error, int statusCode) {
+
+                Log.e("InventoryActivity", "Error updating selected items: " + error);
+                Toast.makeText(getApplicationContext(), "Error updating selected items!", Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
+    /**
+     * Finishes a batch action: clears the selection, reconciles the list with the server and
+     * reports how many operations succeeded and failed.
+     *
+     * @param results The per-item results of the batch.
+     * @param verb    The past-tense action shown to the user, e.g. "deleted".
+     */
+    private void onBatchFinished(List<BatchItemResult> results, String verb) {
+
+        // Count the operations that failed
+        int failed = 0;
+
+        for (BatchItemResult result : results) {
+
+            if (!result.isSuccessful()) {
+
+                failed++;
+
+                Log.e("InventoryActivity", "Batch item failed: " + result);
+            }
+        }
+
+        inventoryAdapter.clearSelection();
+
+        // Pick up the server's view of the changed rows
+        loadInventoryItems();
+
+        String message = (results.size() - failed) + " items " + verb;
+
+        if (failed > 0) {
+
+            message += ", " + failed + " failed";
+        }
+
+        Toast.makeText(getApplicationContext(), message, Toast.LENGTH_SHORT).show();
+    }
 }
@@ -7,11 +7,19 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 import android.widget.Toast;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.button.MaterialButton;
+import com.google.android.material.card.MaterialCardView;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Adapter class for displaying a list of {@link InventoryItem} objects in a RecyclerView.
@@ -20,15 +28,40 @@ import java.util.List;
  * <ul>
  *     <li>Inflating the layout for each item in the RecyclerView.</li>
  *     <li>Binding {@link InventoryItem} data to the views within each item.</li>
- *     <li>Handling click events on "Edit" and "Delete" buttons for each item.</li>
+ *     <li>Handling click events on "Edit" and "Delete" buttons for each item, through listeners
+ *         registered once per view holder.</li>
+ *     <li>Providing stable row ids derived from each item's "_id".</li>
+ *     <li>Patching ranges of rows in place as pages of items are loaded incrementally.</li>
+ *     <li>Patching individual rows in place from delta sync results.</li>
+ *     <li>Removing, restoring and replacing single rows for optimistic edits and deletes.</li>
+ *     <li>Multi-select: a long press starts selecting rows, after which taps toggle rows in and out
+ *         of the selection, so batch actions can be applied to many items at once.</li>
  *     <li>Providing an interface ({@link OnItemActionListener}) to notify the hosting Activity or Fragment
  *         about these actions.</li>
  * </ul>
+ *
+ * The adapter is diff-based: every change builds a new immutable snapshot of the list and
+ * submits it to {@link ListAdapter}, which diffs it against the displayed list on a background
+ * thread. Rows are matched on "_id" and compared on name, quantity and "__v", so a refresh that
+ * changes two quantities rebinds two rows and keeps scroll position and animations.
  */
-public class InventoryAdapter extends RecyclerView.Adapter<InventoryAdapter.InventoryViewHolder> {
+public class InventoryAdapter extends ListAdapter<InventoryItem, InventoryAdapter.InventoryViewHolder> {
+
+    // Matches rows on "_id" and compares them on everything a row displays
+    private static final DiffUtil.ItemCallback<InventoryItem> DIFF_CALLBACK = new DiffUtil.ItemCallback<InventoryItem>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull InventoryItem oldItem, @NonNull InventoryItem newItem) {
+            return oldItem.getId().equals(newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull InventoryItem oldItem, @NonNull InventoryItem newItem) {
+            return hasSameContent(oldItem, newItem);
+        }
+    };
 
-    // List to store inventory items
-    private List<InventoryItem> inventoryItems;
+    // Latest submitted snapshot; changes build on it even while an earlier diff is still running
+    private List<InventoryItem> inventoryItems = Collections.emptyList();
 
     // Context for the adapter
     private final Context context;
@@ -41,22 +74,39 @@ public class InventoryAdapter extends RecyclerView.Adapter<InventoryAdapter.Inve
 
         // Called when delete button is clicked
         void onDeleteClick(InventoryItem item);
+
+        // Called when rows are selected or deselected, with the new number of selected rows
+        void onSelectionChanged(int selectedCount);
     }
 
     // Listener for item actions
     private final OnItemActionListener actionListener;
 
+    // Ids of the selected rows, in the order they were selected
+    private final Set<String> selectedIds = new LinkedHashSet<>();
+
+    // Stable row id assigned to each server "_id"
+    private final StableIds stableIds = new StableIds();
+
     // Constructor for the adapter
     public InventoryAdapter(Context context, List<InventoryItem> inventoryItems, OnItemActionListener listener) {
 
+        super(DIFF_CALLBACK);
+
+        // Row ids come from each item's "_id", so RecyclerView can keep views attached to their items
+        setHasStableIds(true);
+
         // Initialize context
         this.context = context;
 
-        // Initialize inventory items list
-        this.inventoryItems = inventoryItems;
-
         // Initialize action listener
         this.actionListener = listener;
+
+        // Show a copy of the initial items, so the caller's list is never shared
+        if (inventoryItems != null && !inventoryItems.isEmpty()) {
+
+            submit(new ArrayList<>(inventoryItems));
+        }
     }
 
     /**
@@ -77,14 +127,18 @@ public class InventoryAdapter extends RecyclerView.Adapter<InventoryAdapter.Inve
         // Inflate the item layout
         View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.list_item_inventory, parent, false);
 
-        // Return new ViewHolder instance
-        return new InventoryViewHolder(view);
+        // Return new ViewHolder instance, which registers its click listeners once
+        return new InventoryViewHolder(view, this);
     }
 
     /**
      * Called by RecyclerView to display the data at the specified position.
      * This method should update the contents of the {@link InventoryViewHolder#itemView} to reflect
      * the item at the given position.
+     * <p>
+     * Binding allocates nothing: click listeners are registered once per view holder and resolve
+     * the item by adapter position, quantity text comes from a cache, and text views are only
+     * updated when the row shows a different value.
      *
      * @param holder The ViewHolder which should be updated to represent the contents of the
      *               item at the given position in the data set.
@@ -95,51 +149,416 @@ public class InventoryAdapter extends RecyclerView.Adapter<InventoryAdapter.Inve
     @Override
     public void onBindViewHolder(@NonNull InventoryViewHolder holder, int position) {
 
-        // Get current item from list
-        InventoryItem currentItem = inventoryItems.get(position);
+        // Get current item from the displayed list
+        InventoryItem currentItem = getItem(position);
+
+        // Set item quantity in TextView, skipping the update if the row already shows it
+        String quantityText = holder.binding.quantityTextToShow(currentItem);
+
+        if (quantityText != null) {
+
+            holder.tvItemNumber.setText(quantityText);
+        }
+
+        // Set item name in TextView, skipping the update if the row already shows it
+        String name = holder.binding.nameToShow(currentItem);
+
+        if (name != null) {
+
+            holder.tvItemName.setText(name);
+        }
+
+        // Show whether the row is selected
+        holder.cardView.setChecked(selectedIds.contains(currentItem.getId()));
+    }
+
+    /**
+     * Returns a stable id for the row at the given position, derived from the item's "_id".
+     *
+     * @param position The position of the item within the displayed list.
+     * @return The stable id of the item, the same for as long as the adapter exists.
+     */
+    @Override
+    public long getItemId(int position) {
+
+        // Server ids do not fit in a long, so each one is numbered the first time it is seen
+        return stableIds.of(getItem(position).getId());
+    }
+
+    /**
+     * Handles a tap on the row at the given position: while selecting, the row is toggled.
+     *
+     * @param position The adapter position of the row.
+     */
+    private void onRowClick(int position) {
+
+        if (isSelecting()) {
+
+            toggleSelection(position);
+        }
+    }
+
+    /**
+     * Tells the listener that the edit button of the row at the given position was clicked.
+     *
+     * @param position The adapter position of the row.
+     */
+    private void onEditClick(int position) {
+
+        // Notify listener if exists
+        if (actionListener != null) {
+
+            actionListener.onEditClick(getItem(position));
+        }
+    }
+
+    /**
+     * Tells the listener that the delete button of the row at the given position was clicked.
+     *
+     * @param position The adapter position of the row.
+     */
+    private void onDeleteClick(int position) {
+
+        // Notify listener if exists
+        if (actionListener != null) {
+
+            actionListener.onDeleteClick(getItem(position));
+        }
+    }
+
+    /**
+     * Returns the number of items in the latest submitted list, which may be ahead of the
+     * displayed rows while a diff is running.
+     * <p>
+     * Callers that page or patch the list should use this rather than {@link #getItemCount()}.
+     *
+     * @return The number of items in the latest snapshot.
+     */
+    public int getLatestItemCount() {
+        return inventoryItems.size();
+    }
+
+    /**
+     * Submits a new snapshot to be diffed against the displayed list on a background thread.
+     * The list must not be modified afterwards.
+     *
+     * @param newItems The new list, in display order.
+     */
+    private void submit(List<InventoryItem> newItems) {
+
+        inventoryItems = Collections.unmodifiableList(newItems);
+
+        submitList(inventoryItems);
+    }
 
-        // Set item quantity in TextView
-        holder.tvItemNumber.setText(String.valueOf(currentItem.getQuantity()));
+    /**
+     * Checks whether any row is selected.
+     *
+     * @return {@code true} while the adapter is in selection mode.
+     */
+    public boolean isSelecting() {
+        return !selectedIds.isEmpty();
+    }
+
+    /**
+     * Returns the selected items in display order.
+     *
+     * @return A new list holding every selected item currently in the list.
+     */
+    public List<InventoryItem> getSelectedItems() {
 
-        // Set item name in TextView
-        holder.tvItemName.setText(currentItem.getName());
+        List<InventoryItem> selectedItems = new ArrayList<>(selectedIds.size());
 
-        // Set Click Listener for Edit button
-        holder.btnEdit.setOnClickListener(v -> {
+        for (InventoryItem item : inventoryItems) {
 
-            // Notify listener if exists
-            if (actionListener != null) {
+            if (selectedIds.contains(item.getId())) {
 
-                actionListener.onEditClick(currentItem);
+                selectedItems.add(item);
             }
+        }
+
+        return selectedItems;
+    }
 
-        });
+    /**
+     * Deselects every row and leaves selection mode.
+     */
+    public void clearSelection() {
 
-        // Set Click Listener for Delete button
-        holder.btnDelete.setOnClickListener(v -> {
+        // Nothing selected
+        if (selectedIds.isEmpty()) {
+
+            return;
+        }
 
-            // Notify listener if exists
-            if (actionListener != null) {
+        // Rebind only the displayed rows that were selected
+        List<InventoryItem> displayedItems = getCurrentList();
 
-                actionListener.onDeleteClick(currentItem);
+        for (int i = 0; i < displayedItems.size(); i++) {
 
+            if (selectedIds.contains(displayedItems.get(i).getId())) {
+
+                notifyItemChanged(i);
             }
+        }
 
-        });
+        selectedIds.clear();
 
+        notifySelectionChanged();
     }
 
     /**
-     * Returns the total number of items in the data set held by the adapter.
+     * Selects the row at the given position, or deselects it if it is already selected.
      *
-     * This method is called by RecyclerView to determine the number of items to display.
+     * @param position The adapter position of the row.
+     */
+    private void toggleSelection(int position) {
+
+        // The row was removed while the click was being delivered
+        if (position == RecyclerView.NO_POSITION || position >= getItemCount()) {
+
+            return;
+        }
+
+        String itemId = getItem(position).getId();
+
+        if (!selectedIds.remove(itemId)) {
+
+            selectedIds.add(itemId);
+        }
+
+        notifyItemChanged(position);
+
+        notifySelectionChanged();
+    }
+
+    /**
+     * Drops selected ids whose rows are no longer in the list and reports the change, if any.
+     */
+    private void pruneSelection() {
+
+        // Nothing selected
+        if (selectedIds.isEmpty()) {
+
+            return;
+        }
+
+        Set<String> presentIds = new HashSet<>();
+
+        for (InventoryItem item : inventoryItems) {
+
+            presentIds.add(item.getId());
+        }
+
+        if (selectedIds.retainAll(presentIds)) {
+
+            notifySelectionChanged();
+        }
+    }
+
+    // Tells the listener how many rows are selected
+    private void notifySelectionChanged() {
+
+        if (actionListener != null) {
+
+            actionListener.onSelectionChanged(selectedIds.size());
+        }
+    }
+
+    /**
+     * Replaces the rows starting at {@code start} with the given items, appending any items
+     * that extend past the end of the list.
+     * <p>
+     * The diff only rebinds replaced rows whose content actually changed and inserts the appended
+     * range, so rows outside the range, such as cached rows still awaiting their page, and rows of
+     * a page the server reported as not modified, are left untouched.
      *
-     * @return The total number of items in this adapter.
+     * @param start    The position of the first row to replace. Must not exceed {@link #getLatestItemCount()}.
+     * @param newItems The items to place at {@code start}, in display order.
      */
-    @Override
-    public int getItemCount() {
-        
-        return inventoryItems == null ? 0 : inventoryItems.size();
+    public void replaceRange(int start, List<InventoryItem> newItems) {
+
+        // Nothing to replace
+        if (newItems == null || newItems.isEmpty()) {
+
+            return;
+        }
+
+        List<InventoryItem> updated = new ArrayList<>(inventoryItems);
+
+        // Number of existing rows overwritten by the new items
+        int replaced = Math.max(0, Math.min(newItems.size(), updated.size() - start));
+
+        // Overwrite the existing rows
+        for (int i = 0; i < replaced; i++) {
+
+            updated.set(start + i, newItems.get(i));
+        }
+
+        // Append the rest
+        updated.addAll(newItems.subList(replaced, newItems.size()));
+
+        submit(updated);
+    }
+
+    /**
+     * Checks whether two items would be displayed identically and refer to the same server record.
+     *
+     * @param oldItem The item currently in the list.
+     * @param newItem The candidate replacement.
+     * @return {@code true} if id, name, quantity and "__v" all match.
+     */
+    private static boolean hasSameContent(InventoryItem oldItem, InventoryItem newItem) {
+
+        return oldItem.getId().equals(newItem.getId())
+                && oldItem.getName().equals(newItem.getName())
+                && oldItem.getQuantity() == newItem.getQuantity()
+                && oldItem.getDbVersion() == newItem.getDbVersion();
+    }
+
+    /**
+     * Removes every row at or after {@code size}, keeping the first {@code size} rows.
+     *
+     * @param size The number of rows to keep.
+     */
+    public void trimToSize(int size) {
+
+        // Nothing to remove
+        if (inventoryItems.size() <= size) {
+
+            return;
+        }
+
+        // Drop the tail of the list
+        submit(new ArrayList<>(inventoryItems.subList(0, size)));
+
+        // Forget selected rows that were removed
+        pruneSelection();
+    }
+
+    /**
+     * Finds the row holding the item with the given id.
+     *
+     * @param itemId The server "_id" of the item.
+     * @return The item in the latest list for that id, or null if it is not in the list.
+     */
+    public InventoryItem findItem(String itemId) {
+
+        int position = indexOf(itemId);
+
+        return position >= 0 ? inventoryItems.get(position) : null;
+    }
+
+    /**
+     * Replaces the row holding an item with the same id.
+     *
+     * @param item The new version of the item.
+     * @return {@code true} if a row was replaced, {@code false} if no row has that id.
+     */
+    public boolean replaceItem(InventoryItem item) {
+
+        int position = indexOf(item.getId());
+
+        if (position < 0) {
+
+            return false;
+        }
+
+        List<InventoryItem> updated = new ArrayList<>(inventoryItems);
+
+        updated.set(position, item);
+
+        submit(updated);
+
+        return true;
+    }
+
+    /**
+     * Removes the row holding the item with the given id.
+     *
+     * @param itemId The server "_id" of the item.
+     * @return The position the row was removed from, or -1 if no row has that id.
+     */
+    public int removeItem(String itemId) {
+
+        int position = indexOf(itemId);
+
+        if (position < 0) {
+
+            return -1;
+        }
+
+        List<InventoryItem> updated = new ArrayList<>(inventoryItems);
+
+        updated.remove(position);
+
+        submit(updated);
+
+        // Forget the row if it was selected
+        pruneSelection();
+
+        return position;
+    }
+
+    /**
+     * Inserts a row at the given position, or at the end if the list has become shorter.
+     *
+     * @param position The position to insert at.
+     * @param item     The item to insert.
+     */
+    public void insertItem(int position, InventoryItem item) {
+
+        List<InventoryItem> updated = new ArrayList<>(inventoryItems);
+
+        updated.add(Math.min(position, updated.size()), item);
+
+        submit(updated);
+    }
+
+    /**
+     * Returns the position of the row holding the item with the given id.
+     *
+     * @param itemId The server "_id" of the item.
+     * @return The position in the latest list, or -1 if no row has that id.
+     */
+    private int indexOf(String itemId) {
+
+        for (int i = 0; i < inventoryItems.size(); i++) {
+
+            if (inventoryItems.get(i).getId().equals(itemId)) {
+
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Patches the list with a delta sync result.
+     * <p>
+     * Rows for deleted ids are removed, rows for changed items are replaced unless the row
+     * already holds a newer "__v", and changed items not yet in the list are appended. The
+     * result is submitted as one snapshot, so only the affected rows are rebound.
+     *
+     * @param changedItems The items created or updated on the server.
+     * @param deletedIds   The ids of the items deleted on the server.
+     */
+    public void applyChanges(List<InventoryItem> changedItems, List<String> deletedIds) {
+
+        // Nothing to patch
+        if (changedItems.isEmpty() && deletedIds.isEmpty()) {
+
+            return;
+        }
+
+        submit(InventorySync.applyChanges(inventoryItems, changedItems, deletedIds));
+
+        // Forget selected rows that were deleted
+        if (!deletedIds.isEmpty()) {
+
+            pruneSelection();
+        }
     }
 
     /**
@@ -147,8 +566,16 @@ public class InventoryAdapter extends RecyclerView.Adapter<InventoryAdapter.Inve
      * This class holds references to the views within each item's layout
      * and is used by the RecyclerView's adapter to efficiently manage and update
      * the displayed data.
+     * <p>
+     * The holder is its own click listener, registered once when it is created. Clicks are
+     * resolved to the item at the holder's current adapter position, so binding never has to
+     * allocate listeners.
      */
-    public static class InventoryViewHolder extends RecyclerView.ViewHolder {
+    public static class InventoryViewHolder extends RecyclerView.ViewHolder
+            implements View.OnClickListener, View.OnLongClickListener {
+
+        // Card wrapping the row, checked while the row is selected
+        MaterialCardView cardView;
 
         // TextView for item quantity
         TextView tvItemNumber;
@@ -162,12 +589,22 @@ public class InventoryAdapter extends RecyclerView.Adapter<InventoryAdapter.Inve
         // Button for deleting item
         MaterialButton btnDelete;
 
+        // Quantity and name currently shown, so unchanged text is not set again
+        final InventoryRowBinding binding = new InventoryRowBinding();
+
+        // Adapter receiving this row's clicks
+        private final InventoryAdapter adapter;
+
         // Constructor for ViewHolder
-        public InventoryViewHolder(@NonNull View itemView) {
+        public InventoryViewHolder(@NonNull View itemView, InventoryAdapter adapter) {
 
             super(itemView);
 
+            this.adapter = adapter;
+
             // Initialize views from layout
+            cardView = (MaterialCardView) itemView;
+
             tvItemNumber = itemView.findViewById(R.id.tvItemNumber);
 
             tvItemName = itemView.findViewById(R.id.tvItemName);
@@ -175,7 +612,49 @@ public class InventoryAdapter extends RecyclerView.Adapter<InventoryAdapter.Inve
             btnEdit = itemView.findViewById(R.id.btnEdit);
 
             btnDelete = itemView.findViewById(R.id.btnDelete);
+
+            // Register the click listeners once for the lifetime of the holder
+            itemView.setOnClickListener(this);
+
+            itemView.setOnLongClickListener(this);
+
+            btnEdit.setOnClickListener(this);
+
+            btnDelete.setOnClickListener(this);
+        }
+
+        @Override
+        public void onClick(View v) {
+
+            int position = getBindingAdapterPosition();
+
+            // The row was removed while the click was being delivered
+            if (position == RecyclerView.NO_POSITION) {
+
+                return;
+            }
+
+            if (v == btnEdit) {
+
+                adapter.onEditClick(position);
+
+            } else if (v == btnDelete) {
+
+                adapter.onDeleteClick(position);
+
+            } else {
+
+                adapter.onRowClick(position);
+            }
+        }
+
+        @Override
+        public boolean onLongClick(View v) {
+
+            // A long press starts or extends the selection
+            adapter.toggleSelection(getBindingAdapterPosition());
+
+            return true;
         }
     }
 }
-
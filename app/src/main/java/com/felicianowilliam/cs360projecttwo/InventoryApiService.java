@@ -4,34 +4,34 @@ package com.felicianowilliam.cs360projecttwo;
 
 import static com.felicianowilliam.cs360projecttwo.Constants.BASE_URL;
 
-import org.json.JSONArray;
-import org.json.JSONObject;
-import org.json.JSONException;
-
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.Map;
 
 import android.content.Context;
 import android.os.Handler;
 import android.os.Looper;
 import android.util.Log;
 
-import okhttp3.MediaType;
-import okhttp3.OkHttpClient;
+import androidx.annotation.NonNull;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import okio.Buffer;
 
 /**
  * Service class for interacting with the Inventory Management Web API.
  *
  * This class encapsulates all network operations required to communicate with the
  * backend API for managing inventory items and user authentication. It uses OkHttp
- * for making HTTP requests and handles asynchronous execution of these requests
- * on a dedicated thread pool. Results of API calls, whether successful or erroneous,
+ * for making HTTP requests and enqueues them on OkHttp's dispatcher, so a request waiting for
+ * a free slot holds no thread. Results of API calls, whether successful or erroneous,
  * are delivered back to the caller on the main UI thread via an {@link ApiCallback}
  * interface.
  *
@@ -40,33 +40,62 @@ import okhttp3.Response;
  *   <li>User registration and login.</li>
  *   <li>Refreshing authentication tokens.</li>
  *   <li>CRUD (Create, Read, Update, Delete) operations for inventory items.</li>
+ *   <li>Batch create, update and delete of many inventory items per request.</li>
  * </ul>
  *
  * Error handling is implemented to parse error messages from API responses and
  * to report network or JSON parsing issues.
  *
- * The service should be shut down when no longer needed (e.g., when the application
- * is closing) to release resources held by the thread pool.
+ * Payloads are exchanged as CBOR when the server supports it and as JSON otherwise; the
+ * format is chosen by {@link ContentNegotiation}.
+ *
+ * The service holds no threads of its own, so Activities may create one freely.
+ * Delta syncs are queued on the background client, which runs at most two calls at a time;
+ * all other calls are queued as user-initiated work. Responses are read on OkHttp's call threads
+ * and delivered on the main thread.
+ *
+ * Every method returns an {@link ApiCall} that cancels the underlying OkHttp call, after which
+ * no callback is delivered. {@link #cancelAll()} cancels everything the instance has started, so
+ * an Activity owning a service calls it from {@code onDestroy}. Each call also has a deadline
+ * covering connecting, retries and reading the body, so a server that stops answering fails the
+ * call instead of holding a call thread and a connection indefinitely.
+ *
+ * Every method also has an {@code ...Async} variant returning an {@link ApiFuture}, for callers
+ * that chain calls or run several at once; see {@link ApiFutures} for fan-out and fan-in.
  */
 public class InventoryApiService {
 
-    // OkHttpClient instance for making HTTP requests
-    private final OkHttpClient client;
-
-    // MediaType constant for JSON content
-    public static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
-
-    // Thread pool executor for handling asynchronous network operations
-    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    // Application context used to obtain the shared OkHttpClient
+    private final Context appContext;
 
     // Handler for posting results back to the main/UI thread
     private final Handler mainThreadHandler = new Handler(Looper.getMainLooper());
 
-    // Constructor that initializes the service with an OkHttpClient
+    // Default number of items requested per page by getInventoryItemsPage
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    // Status code returned by the changes endpoint when a watermark is too old to diff against
+    public static final int HTTP_WATERMARK_EXPIRED = 410;
+
+    // Maximum number of operations sent in a single batch request; larger batches are split
+    public static final int MAX_BATCH_SIZE = 100;
+
+    // Deadline for a whole call, retries included, after which it is cancelled
+    public static final long CALL_DEADLINE_SECONDS = 30;
+
+    // Deadline for calls whose bodies may be large: full inventory loads and batch requests
+    public static final long LONG_CALL_DEADLINE_SECONDS = 120;
+
+    // Reads in flight, keyed by session, method and URL, shared by all service instances
+    private static final Map<String, InFlightRead<?>> inFlightReads = new HashMap<>();
+
+    // Operations started by this instance that are still running
+    private final ApiCallGroup calls = new ApiCallGroup();
+
+    // Constructor that initializes the service; the OkHttpClient is obtained on first use, off the main thread
     public InventoryApiService(Context context) {
 
-        // Gets a configured OkHttpClient instance from ApiClient
-        client = ApiClient.getClient(context);
+        appContext = context.getApplicationContext();
     }
 
     // Callback interface for handling API responses
@@ -90,53 +119,37 @@ public class InventoryApiService {
      *                 The callback will receive an {@link AuthResponse} on success,
      *                 or an error message and status code on failure.
      *                 The callback methods (onSuccess, onError) will be invoked on the main thread.
+     * @return A handle that cancels the registration request.
      */
-    public void registerUser(String name, String email, String password, ApiCallback<AuthResponse> callback) {
+    public ApiCall registerUser(String name, String email, String password, ApiCallback<AuthResponse> callback) {
 
-        // Execute the registration request on a background thread
-        executor.execute(() -> {
+        // Track the call so it can be cancelled
+        ApiCall handle = calls.add(new ApiCall());
 
-            try {
-            // Create a new JSON object to hold the registration data
-            JSONObject jsonBody = new JSONObject();
+        ApiCallback<AuthResponse> guardedCallback = guard(handle, callback);
 
-            // Add the user's name to the JSON object
-            jsonBody.put("name", name);
+        // Create a request body holding the registration data
+        RequestBody body = ContentNegotiation.encode(codec -> codec.encodeRegistration(name, email, password));
 
-            // Add the user's email to the JSON object
-            jsonBody.put("email", email);
+        // Build the HTTP POST request with the registration endpoint
+        Request request = new Request.Builder()
+            .url(BASE_URL + "/register")
+            .post(body)
+            .build();
 
-            // Add the user's password to the JSON object
-            jsonBody.put("password", password);
+        // Send the request and handle the authentication response
+        handleAuthResponse(handle, request, guardedCallback);
 
-            // Create a request body with the JSON data
-            RequestBody body = RequestBody.create(jsonBody.toString(), JSON);
-
-            // Build the HTTP POST request with the registration endpoint
-            Request request = new Request.Builder()
-                .url(BASE_URL + "/register")
-                .post(body)
-                .build();
-
-            // Handle the authentication response
-            handleAuthResponse(request, callback);
-
-            } catch (JSONException e) {
-            // If JSON creation fails, post the error to the main thread
-            mainThreadHandler.post(() -> callback.onError("JSON Exception: " + e.getMessage(), 0));
-            }
-        });
+        return handle;
     }
 
     /**
      * Logs in a user with the provided email and password.
      *
      * This method asynchronously sends a POST request to the "/login" endpoint of the BASE_URL.
-     * The request body contains the user's email and password in JSON format.
+     * The request body contains the user's email and password in the negotiated format.
      *
      * Upon receiving a response, the {@code handleAuthResponse} method is called to process it.
-     * If a JSONException occurs during the creation of the request body, the {@code onError}
-     * method of the provided callback is invoked on the main thread with an error message.
      *
      * @param email The email address of the user.
      * @param password The password of the user.
@@ -145,56 +158,43 @@ public class InventoryApiService {
      *                 containing authentication details if the login is successful.
      *                 The callback's {@code onError} method will be invoked with an error message and
      *                 status code if the login fails or an error occurs.
+     * @return A handle that cancels the login request.
      */
-    public void loginUser(String email, String password, ApiCallback<AuthResponse> callback) {
-
-        executor.execute(() -> {
-
-            // Execute the login request on a background thread
-            try {
+    public ApiCall loginUser(String email, String password, ApiCallback<AuthResponse> callback) {
 
-            // Create a new JSON object to hold the login data
-            JSONObject jsonBody = new JSONObject();
+        // Track the call so it can be cancelled
+        ApiCall handle = calls.add(new ApiCall());
 
-            // Add the user's email to the JSON object
-            jsonBody.put("email", email);
+        ApiCallback<AuthResponse> guardedCallback = guard(handle, callback);
 
-            // Add the user's password to the JSON object
-            jsonBody.put("password", password);
-
-            // Create a request body with the JSON data
-            RequestBody body = RequestBody.create(jsonBody.toString(), JSON);
-
-            // Build the HTTP POST request with the login endpoint
-            Request request = new Request.Builder()
-                .url(BASE_URL + "/login")
-                .post(body)
-                .build();
+        // Create a request body holding the login data
+        RequestBody body = ContentNegotiation.encode(codec -> codec.encodeLogin(email, password));
 
-            // Handle the authentication response
-            handleAuthResponse(request, callback);
+        // Build the HTTP POST request with the login endpoint
+        Request request = new Request.Builder()
+            .url(BASE_URL + "/login")
+            .post(body)
+            .build();
 
-            } catch (JSONException e) {
+        // Send the request and handle the authentication response
+        handleAuthResponse(handle, request, guardedCallback);
 
-            // If JSON creation fails, post the error to the main thread
-            mainThreadHandler.post(() -> callback.onError("JSON exception: " + e.getMessage(), 0));
-            }
-        });
+        return handle;
     }
 
 
     /**
      * Handles the HTTP response for an authentication request.
      * <p>
-     * This method executes the given HTTP {@link Request}, processes the response,
+     * This method enqueues the given HTTP {@link Request}, processes the response on an OkHttp call thread,
      * and invokes the appropriate callback method ({@code onSuccess} or {@code onError})
      * on the provided {@link ApiCallback}.
      * </p>
      * <p>
      * If the request is successful (HTTP status code 2xx):
      * <ul>
-     *     <li>The response body is parsed as a JSON object.</li>
-     *     <li>The "token", "refreshToken", and "userName" fields are extracted from the JSON.</li>
+     *     <li>The response body is decoded by the codec matching its content type, see {@link ContentNegotiation#codecOf}.</li>
+     *     <li>The "token", "refreshToken", and "userName" fields are all required.</li>
      *     <li>An {@link AuthResponse} object is created with these values.</li>
      *     <li>The {@code onSuccess} callback is invoked on the main thread with the {@link AuthResponse}.</li>
      * </ul>
@@ -203,16 +203,16 @@ public class InventoryApiService {
      * If the request is not successful:
      * <ul>
      *     <li>An error message is constructed using the HTTP status code.</li>
-     *     <li>If the response body is not empty, it attempts to parse it as JSON to extract
+     *     <li>If the response body is not empty, it attempts to decode it to extract
      *         a more specific error message from "message" or "error" fields.</li>
-     *     <li>If parsing the error JSON fails or the fields are not present, the raw response body
-     *         is appended to the error message.</li>
+     *     <li>If decoding the error body fails or the fields are not present, a JSON or text body
+     *         is appended to the error message as is.</li>
      *     <li>The {@code onError} callback is invoked on the main thread with the constructed error message
      *         and the HTTP status code.</li>
      * </ul>
      * </p>
      * <p>
-     * If an {@link IOException} (e.g., network error) or {@link JSONException} (e.g., malformed JSON
+     * If an {@link IOException} (e.g., network error, or a malformed body or a missing field
      * in the success path) occurs during the process:
      * <ul>
      *     <li>The {@code onError} callback is invoked on the main thread with a generic
@@ -225,74 +225,49 @@ public class InventoryApiService {
      * </p>
      *
      */
-    private void handleAuthResponse(Request request, ApiCallback<AuthResponse> callback) {
-
-            // Execute the HTTP request and ensure the response is closed after use
-        try (Response response = client.newCall(request).execute()) {
-            
-            // Get the response body as string or empty string if null
-            String responseBodyString = response.body() != null ? response.body().string() : "";
-
-            // Check if the response status code is in the 200-299 range
-            if (response.isSuccessful()) {
-
-            // Parse the response body as JSON
-            JSONObject jsonResponse = new JSONObject(responseBodyString);
+    private void handleAuthResponse(ApiCall handle, Request request, ApiCallback<AuthResponse> callback) {
 
-            // Extract the authentication token from the response
-            String token = jsonResponse.getString("token");
+        // Enqueue the HTTP request; the response is closed after the handler returns
+        enqueue(handle, ApiDispatcher.Priority.USER_INITIATED, request, CALL_DEADLINE_SECONDS, new ResponseHandler() {
 
-            // Extract the refresh token from the response
-            String refreshToken = jsonResponse.getString("refreshToken");
+            @Override
+            public void onResponse(Response response) throws IOException {
 
-            // Extract the username from the response
-            String userName = jsonResponse.getString("userName");
+                // Get the response body as bytes or an empty array if null
+                byte[] responseBytes = response.body() != null ? response.body().bytes() : new byte[0];
 
-            // Post successful response to main thread with AuthResponse object
-            mainThreadHandler.post(() -> callback.onSuccess(new AuthResponse(token, refreshToken,userName)));
+                // Check if the response status code is in the 200-299 range
+                if (response.isSuccessful()) {
 
-            } else {
+                    // Decode the token pair and username from the response
+                    AuthResponse authResponse = ContentNegotiation.codecOf(response).readAuthResponse(new Buffer().write(responseBytes));
 
-            // Try to parse error message from API if available
-            String errorMessage = "Error " + response.code();
+                    // All three fields are required for a usable session
+                    if (authResponse.getToken() == null || authResponse.getRefreshToken() == null || authResponse.getUserName() == null) {
 
-            // Start building error message with status code
-            // Check if response body contains any content
-            if (!responseBodyString.isEmpty()) {
-
-                try {
-
-                // Attempt to parse error response as JSON
-                JSONObject jsonError = new JSONObject(responseBodyString);
+                        throw new IOException("Authentication response is missing a required field");
+                    }
 
-                // Append message field if exists
-                if (jsonError.has("message")) errorMessage += ": " + jsonError.getString("message");
+                    // Post successful response to main thread with AuthResponse object
+                    mainThreadHandler.post(() -> callback.onSuccess(authResponse));
 
-                // Append error field if exists
-                else if (jsonError.has("error")) errorMessage += ": " + jsonError.getString("error");
+                } else {
 
-                // Fallback to raw response body if no standard fields
-                else errorMessage += ": " + responseBodyString;
+                    // Build the error message from the status code and response body
+                    final String finalErrorMessage = ContentNegotiation.codecOf(response).parseErrorMessage(response.code(), responseBytes);
 
-                } catch (JSONException e) {
-                // Handle JSON parsing error by using raw response
-                errorMessage += ": " + responseBodyString; // Malformed error JSON
+                    // Post error to main thread with final error message
+                    mainThreadHandler.post(() -> callback.onError(finalErrorMessage, response.code()));
                 }
             }
 
-            // Make error message final for use in lambda
-            final String finalErrorMessage = errorMessage;
+            @Override
+            public void onFailure(Exception e) {
 
-            // Post error to main thread with final error message
-            mainThreadHandler.post(() -> callback.onError(finalErrorMessage, response.code()));
+                // Post exception details to main thread with status code 0
+                mainThreadHandler.post(() -> callback.onError("Network/JSON Exception: " + e.getMessage(), 0));
             }
-
-            // Catch network or JSON parsing exceptions
-        } catch (IOException | JSONException e) {
-
-            // Post exception details to main thread with status code 0
-            mainThreadHandler.post(() -> callback.onError("Network/JSON Exception: " + e.getMessage(), 0));
-        }
+        });
     }
 
 
@@ -301,63 +276,270 @@ public class InventoryApiService {
      * Retrieves all inventory items from the server.
      * This method makes an asynchronous GET request to the "/inventory-items" endpoint.
      * It requires an authentication token for authorization will be provided by auth interceptor.
+     * <p>
+     * The response body is decoded directly from the network stream by the codec matching its
+     * content type (CBOR or JSON, see {@link ContentNegotiation}), so the payload is never held in
+     * memory as a String or document tree.
      *
      *
      * @param callback  An {@link ApiCallback} to handle the asynchronous response.
      *                  The callback will be invoked with a {@code List<InventoryItem>} on success,
      *                  or with an error message and status code on failure.
      *                  The callback methods (onSuccess, onError) will be executed on the main thread.
+     *                  Concurrent identical calls share one request and receive the same list, which must
+     *                  therefore be treated as read-only.
+     * @return A handle that cancels this caller's interest in the read; the request itself is
+     *         cancelled once no caller is waiting on it.
      */
-    public void getAllInventoryItems( ApiCallback<List<InventoryItem>> callback) {
+    public ApiCall getAllInventoryItems( ApiCallback<List<InventoryItem>> callback) {
 
-        executor.execute(() -> {
+        // Track the call so it can be cancelled
+        ApiCall handle = calls.add(new ApiCall());
 
-            // Create a new request to fetch all inventory items
-            Request request = new Request.Builder()
-                .url(BASE_URL + "/inventory-items")
-                .get()
-                .build();
+        // Create a new request to fetch all inventory items
+        Request request = new Request.Builder()
+            .url(BASE_URL + "/inventory-items")
+            .get()
+            .build();
 
-            // Execute the request and handle the response
-            try (Response response = client.newCall(request).execute()) {
+        // Share an identical read that is already in flight
+        InFlightRead<List<InventoryItem>> sharedCallback = joinOrStartRead(request, currentSession(), handle, guard(handle, callback));
+
+        if (sharedCallback == null) {
+
+            return handle;
+        }
+
+        // Enqueue the request and handle the response
+        enqueue(sharedCallback.networkCall, ApiDispatcher.Priority.USER_INITIATED, request, LONG_CALL_DEADLINE_SECONDS, new ResponseHandler() {
+
+            @Override
+            public void onResponse(Response response) throws IOException {
+
+                // Check if the response is successful
+                if (response.isSuccessful() && response.body() != null) {
+
+                    // A revalidated list is decoded from the HTTP cache instead of the network
+                    if (ApiClient.isNotModified(response)) {
+
+                        Log.d("InventoryApiService", "Inventory list not modified");
+                    }
 
-            // Get the response body as string or empty string if null
-            String responseBodyString = response.body() != null ? response.body().string() : "";
+                    // Create a new list to store inventory items
+                    List<InventoryItem> items = new ArrayList<>();
 
-            // Check if the response is successful
-            if (response.isSuccessful()) {
+                    // Decode every item straight from the body into the list
+                    ContentNegotiation.codecOf(response).readItemArray(response.body().source(), Integer.MAX_VALUE, items::addAll);
 
-                // Parse the response body as JSON array
-                JSONArray itemArray = new JSONArray(responseBodyString);
+                    // Post the result to the main thread
+                    mainThreadHandler.post(() -> sharedCallback.onSuccess(items));
 
-                // Create a new list to store inventory items
-                List<InventoryItem> items = new ArrayList<>();
+                } else {
 
-                // Iterate through each item in the array
-                for (int i = 0; i < itemArray.length(); i++) {
+                    // Get the response body as bytes or an empty array if null
+                    byte[] responseBytes = response.body() != null ? response.body().bytes() : new byte[0];
 
-                // Parse each item and add to the list
-                items.add(parseInventoryItem(itemArray.getJSONObject(i)));
+                    // Handle error response
+                    handleApiError(response, responseBytes, sharedCallback);
                 }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+
+                // Handle network or JSON parsing errors
+                mainThreadHandler.post(() -> sharedCallback.onError("Network/JSON Exception: " + e.getMessage(), 0));
+                Log.e("InventoryApiService", "Error fetching inventory items: " + e.getMessage());
+            }
+        });
+
+        return handle;
+    }
+
+    /**
+     * Retrieves a single page of inventory items from the server.
+     * <p>
+     * This method makes an asynchronous GET request to the "/inventory-items" endpoint with
+     * "offset" and "limit" query parameters, so only one page of items travels over the network.
+     * It requires an authentication token for authorization will be provided by auth interceptor.
+     * <p>
+     * A page holding fewer than {@code limit} items is the last page. If the server ignores the
+     * paging parameters and returns more than {@code limit} items, the whole list is delivered and
+     * should likewise be treated as the last page.
+     *
+     * @param offset   The number of items to skip from the start of the inventory.
+     * @param limit    The maximum number of items to return. Values below 1 fall back to
+     *                 {@link #DEFAULT_PAGE_SIZE}.
+     * @param callback An {@link ApiCallback} to handle the asynchronous response.
+     *                 The callback will be invoked with the page's {@code List<InventoryItem>} on success,
+     *                 or with an error message and status code on failure.
+     *                 The callback methods (onSuccess, onError) will be executed on the main thread.
+     *                 Concurrent identical calls share one request and receive the same list, which must
+     *                 therefore be treated as read-only.
+     * @return A handle that cancels this caller's interest in the page; the request itself is
+     *         cancelled once no caller is waiting on it.
+     */
+    public ApiCall getInventoryItemsPage(int offset, int limit, ApiCallback<List<InventoryItem>> callback) {
+
+        // Track the call so it can be cancelled
+        ApiCall handle = calls.add(new ApiCall());
+
+        // Fall back to the default page size for invalid values
+        final int effectiveLimit = limit > 0 ? limit : DEFAULT_PAGE_SIZE;
+
+        // Build the paged URL with offset and limit query parameters
+        HttpUrl url = HttpUrl.get(BASE_URL + "/inventory-items").newBuilder()
+            .addQueryParameter("offset", String.valueOf(Math.max(offset, 0)))
+            .addQueryParameter("limit", String.valueOf(effectiveLimit))
+            .build();
+
+        // Create a new request to fetch one page of inventory items
+        Request request = new Request.Builder()
+            .url(url)
+            .get()
+            .build();
+
+        // Share an identical read that is already in flight
+        InFlightRead<List<InventoryItem>> sharedCallback = joinOrStartRead(request, currentSession(), handle, guard(handle, callback));
+
+        if (sharedCallback == null) {
+
+            return handle;
+        }
+
+        // Enqueue the request and handle the response
+        enqueue(sharedCallback.networkCall, ApiDispatcher.Priority.USER_INITIATED, request, CALL_DEADLINE_SECONDS, new ResponseHandler() {
+
+            @Override
+            public void onResponse(Response response) throws IOException {
+
+                // Check if the response is successful
+                if (response.isSuccessful() && response.body() != null) {
+
+                    // A revalidated page is decoded from the HTTP cache instead of the network
+                    if (ApiClient.isNotModified(response)) {
+
+                        Log.d("InventoryApiService", "Inventory page at offset " + offset + " not modified");
+                    }
+
+                    // Create a new list sized for one page
+                    List<InventoryItem> items = new ArrayList<>(effectiveLimit);
+
+                    // Decode the page straight from the body into the list
+                    ContentNegotiation.codecOf(response).readItemArray(response.body().source(), Integer.MAX_VALUE, items::addAll);
+
+                    // Post the page to the main thread
+                    mainThreadHandler.post(() -> sharedCallback.onSuccess(items));
 
-                // Post the result to the main thread
-                mainThreadHandler.post(() -> callback.onSuccess(items));
+                } else {
 
-            } else {
+                    // Get the response body as bytes or an empty array if null
+                    byte[] responseBytes = response.body() != null ? response.body().bytes() : new byte[0];
 
-                // Handle error response
-                handleApiError(response, responseBodyString, callback);
+                    // Handle error response
+                    handleApiError(response, responseBytes, sharedCallback);
+                }
             }
 
-            } catch (IOException | JSONException e) {
+            @Override
+            public void onFailure(Exception e) {
 
-            // Handle network or JSON parsing errors
-            mainThreadHandler.post(() -> callback.onError("Network/JSON Exception: " + e.getMessage(), 0));
-            Log.e("InventoryApiService", "Error fetching inventory items: " + e.getMessage());
+                // Handle network or JSON parsing errors
+                mainThreadHandler.post(() -> sharedCallback.onError("Network/JSON Exception: " + e.getMessage(), 0));
+                Log.e("InventoryApiService", "Error fetching inventory page: " + e.getMessage());
             }
         });
+
+        return handle;
     }
 
+    /**
+     * Retrieves the inventory changes made since a sync watermark.
+     * <p>
+     * This method makes an asynchronous GET request to the "/inventory-items/changes" endpoint
+     * with the last watermark as the "since" query parameter. The server answers with only the
+     * items created or updated after that watermark, tombstones for deleted items, and a new
+     * watermark:
+     * <pre>
+     * { "changed": [ {item}, ... ], "deleted": [ "id" or { "_id": "id" }, ... ], "watermark": "..." }
+     * </pre>
+     * Without a watermark, the server returns no changes and only the current watermark, which
+     * baselines a subsequent full load. If the watermark is too old to diff against, the server
+     * responds with {@link #HTTP_WATERMARK_EXPIRED} and the caller must fall back to a full load.
+     * It requires an authentication token for authorization will be provided by auth interceptor.
+     *
+     * @param since    The watermark returned by the previous delta request, or null for a baseline.
+     * @param callback An {@link ApiCallback} to handle the asynchronous response.
+     *                 The callback will be invoked with an {@link InventoryDelta} on success,
+     *                 or with an error message and status code on failure.
+     *                 The callback methods (onSuccess, onError) will be executed on the main thread.
+     *                 Concurrent identical calls share one request and receive the same delta.
+     * @return A handle that cancels this caller's interest in the changes; the request itself is
+     *         cancelled once no caller is waiting on it.
+     */
+    public ApiCall getInventoryChanges(String since, ApiCallback<InventoryDelta> callback) {
+
+        // Track the call so it can be cancelled
+        ApiCall handle = calls.add(new ApiCall());
+
+        // Build the changes URL, adding the watermark when there is one
+        HttpUrl.Builder urlBuilder = HttpUrl.get(BASE_URL + "/inventory-items/changes").newBuilder();
+
+        if (since != null) {
+
+            urlBuilder.addQueryParameter("since", since);
+        }
+
+        // Create a new request to fetch the changes
+        Request request = new Request.Builder()
+            .url(urlBuilder.build())
+            .get()
+            .build();
+
+        // Share an identical read that is already in flight
+        InFlightRead<InventoryDelta> sharedCallback = joinOrStartRead(request, currentSession(), handle, guard(handle, callback));
+
+        if (sharedCallback == null) {
+
+            return handle;
+        }
+
+        // Enqueue the request and handle the response
+        enqueue(sharedCallback.networkCall, ApiDispatcher.Priority.BACKGROUND, request, CALL_DEADLINE_SECONDS, new ResponseHandler() {
+
+            @Override
+            public void onResponse(Response response) throws IOException {
+
+                // Check if the response is successful
+                if (response.isSuccessful() && response.body() != null) {
+
+                    // Decode the delta straight from the body
+                    InventoryDelta delta = ContentNegotiation.codecOf(response).readDelta(response.body().source());
+
+                    // Post the result to the main thread
+                    mainThreadHandler.post(() -> sharedCallback.onSuccess(delta));
+
+                } else {
+
+                    // Get the response body as bytes or an empty array if null
+                    byte[] responseBytes = response.body() != null ? response.body().bytes() : new byte[0];
+
+                    // Handle error response
+                    handleApiError(response, responseBytes, sharedCallback);
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+
+                // Handle network or JSON parsing errors
+                mainThreadHandler.post(() -> sharedCallback.onError("Network/JSON Exception: " + e.getMessage(), 0));
+                Log.e("InventoryApiService", "Error fetching inventory changes: " + e.getMessage());
+            }
+        });
+
+        return handle;
+    }
 
     /**
      * Creates a new inventory item on the server.
@@ -375,65 +557,67 @@ public class InventoryApiService {
      *                 On success, {@link ApiCallback#onSuccess(Object)} will be called
      *                 with the created {@link InventoryItem}.
      *                 On failure, {@link ApiCallback#onError(String, int)} will be called
-     *                 with an error message and the HTTP status code.
+     *                 with an error message and the HTTP status code, 0 if no answer arrived,
+     *                 or {@link InventorySync#STATUS_NOT_SENT} if the request was never sent.
+     * @return A handle that cancels the request. Cancelling after the request was sent does not
+     *         undo the create if the server already received it.
      */
-    public void createInventoryItem(String name, int quantity, ApiCallback<InventoryItem> callback) {
-
-        // Execute the request on a background thread
-        executor.execute(() -> {
+    public ApiCall createInventoryItem(String name, int quantity, ApiCallback<InventoryItem> callback) {
 
-            try {
-                // Create a new JSON object for the request body
-                JSONObject jsonBody = new JSONObject();
+        // Track the call so it can be cancelled
+        ApiCall handle = calls.add(new ApiCall());
 
-                // Add the item name to the JSON object
-                jsonBody.put("name", name);
+        ApiCallback<InventoryItem> guardedCallback = guard(handle, callback);
 
-                // Add the item quantity to the JSON object
-                jsonBody.put("quantity", quantity);
+        // Create a request body holding the item name and quantity
+        RequestBody body = ContentNegotiation.encode(codec -> codec.encodeItemFields(name, quantity));
 
-                // Create a request body with the JSON data
-                RequestBody body = RequestBody.create(jsonBody.toString(), JSON);
+        // Build the HTTP POST request with the inventory items endpoint
+        Request request = new Request.Builder()
+                .url(BASE_URL + "/inventory-items")
+                .post(body)
+                .build();
 
-                // Build the HTTP POST request with the inventory items endpoint
-                Request request = new Request.Builder()
-                        .url(BASE_URL + "/inventory-items")
-                        .post(body)
-                        .build();
+        // Enqueue the request and handle the response
+        enqueue(handle, ApiDispatcher.Priority.USER_INITIATED, request, CALL_DEADLINE_SECONDS, new ResponseHandler() {
 
-                // Execute the request and ensure the response is closed after use
-                try (Response response = client.newCall(request).execute()) {
+            @Override
+            public void onResponse(Response response) throws IOException {
 
-                    // Get the response body as string or empty string if null
-                    String responseBodyString = response.body() != null ? response.body().string() : "";
+                // Get the response body as bytes or an empty array if null
+                byte[] responseBytes = response.body() != null ? response.body().bytes() : new byte[0];
 
-                    // Check if the response is successful (expecting HTTP 201 Created)
-                    if (response.isSuccessful()) {
+                // Check if the response is successful (expecting HTTP 201 Created)
+                if (response.isSuccessful()) {
 
-                        // Post successful response to main thread
-                        mainThreadHandler.post(() -> {
+                    // Post successful response to main thread
+                    mainThreadHandler.post(() -> {
 
-                            try {
-                                // Parse the response JSON and invoke success callback
-                                callback.onSuccess(parseInventoryItem(new JSONObject(responseBodyString)));
+                        try {
+                            // Decode the created item and invoke success callback
+                            guardedCallback.onSuccess(ContentNegotiation.codecOf(response).readItem(new Buffer().write(responseBytes)));
 
-                            } catch (JSONException e) {
-                                // Handle JSON parsing error
-                                callback.onError("Error parsing created item JSON: " + e.getMessage(), response.code());
-                            }
-                        });
+                        } catch (IOException | IllegalStateException | NumberFormatException e) {
+                            // Handle decoding error
+                            guardedCallback.onError("Error parsing created item: " + e.getMessage(), response.code());
+                        }
+                    });
 
-                    } else {
-                        // Handle API error response
-                        handleApiError(response, responseBodyString, callback);
-                    }
+                } else {
+                    // Handle API error response
+                    handleApiError(response, responseBytes, guardedCallback);
                 }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
 
-            } catch (IOException | JSONException e) {
-                // Handle network or JSON exceptions
-                mainThreadHandler.post(() -> callback.onError("Network/JSON Exception: " + e.getMessage(),0));
+                // Handle network exceptions
+                mainThreadHandler.post(() -> guardedCallback.onError("Network/JSON Exception: " + e.getMessage(), writeFailureStatus(e)));
             }
         });
+
+        return handle;
     }
 
     /**
@@ -447,71 +631,67 @@ public class InventoryApiService {
      * @param quantity The new quantity for the inventory item.
      * @param callback The callback to be invoked when the operation completes, either successfully or with an error.
      *                 On success, {@link ApiCallback#onSuccess(Object)} is called with the updated {@link InventoryItem}.
-     *                 On failure, {@link ApiCallback#onError(String, int)} is called with an error message and status code.
+     *                 On failure, {@link ApiCallback#onError(String, int)} is called with an error message and status code:
+     *                 0 if no answer arrived, or {@link InventorySync#STATUS_NOT_SENT} if the request was never sent.
+     * @return A handle that cancels the request.
      */
     // Updates an existing inventory item on the server asynchronously.
-    public void updateInventoryItem(String itemId, String name, int quantity, ApiCallback<InventoryItem> callback) {
-
-        // Execute the update operation on a background thread
-        executor.execute(() -> {
-
-            try {
+    public ApiCall updateInventoryItem(String itemId, String name, int quantity, ApiCallback<InventoryItem> callback) {
 
-                // Create a new JSON object for the request body
-                JSONObject jsonBody = new JSONObject();
+        // Track the call so it can be cancelled
+        ApiCall handle = calls.add(new ApiCall());
 
-                // Add the updated name to the JSON object
-                jsonBody.put("name", name);
+        ApiCallback<InventoryItem> guardedCallback = guard(handle, callback);
 
-                // Add the updated quantity to the JSON object
-                jsonBody.put("quantity", quantity);
+        // Create a request body holding the updated name and quantity
+        RequestBody body = ContentNegotiation.encode(codec -> codec.encodeItemFields(name, quantity));
 
-                // Create a request body with the JSON data
-                RequestBody body = RequestBody.create(jsonBody.toString(), JSON);
-
-                // Build the HTTP PUT request for updating the inventory item
-                Request request = new Request.Builder()
-                        .url(BASE_URL + "/inventory-items/" + itemId)
-                        .put(body)
-                        .build();
-
-                // Execute the request and handle the response
-                try (Response response = client.newCall(request).execute()) {
-
-                    // Get the response body as a string, or empty string if null
-                    String responseBodyString = response.body() != null ? response.body().string() : "";
+        // Build the HTTP PUT request for updating the inventory item
+        Request request = new Request.Builder()
+                .url(BASE_URL + "/inventory-items/" + itemId)
+                .put(body)
+                .build();
 
-                    // Check if the response is successful (typically HTTP 200 for update)
-                    if (response.isSuccessful()) {
+        // Enqueue the request and handle the response
+        enqueue(handle, ApiDispatcher.Priority.USER_INITIATED, request, CALL_DEADLINE_SECONDS, new ResponseHandler() {
 
-                        // Post the result to the main thread
-                        mainThreadHandler.post(() -> {
+            @Override
+            public void onResponse(Response response) throws IOException {
 
-                            try {
+                // Get the response body as bytes or an empty array if null
+                byte[] responseBytes = response.body() != null ? response.body().bytes() : new byte[0];
 
-                                // Parse the updated item from the response and invoke success callback
-                                callback.onSuccess(parseInventoryItem(new JSONObject(responseBodyString)));
+                // Check if the response is successful (typically HTTP 200 for update)
+                if (response.isSuccessful()) {
 
-                            } catch (JSONException e) {
+                    // Post the result to the main thread
+                    mainThreadHandler.post(() -> {
 
-                                // Handle JSON parsing error and invoke error callback
-                                callback.onError("Error parsing updated item JSON: " + e.getMessage(), response.code());
-                            }
-                        });
+                        try {
+                            // Parse the updated item from the response and invoke success callback
+                            guardedCallback.onSuccess(ContentNegotiation.codecOf(response).readItem(new Buffer().write(responseBytes)));
 
-                    } else {
+                        } catch (IOException | IllegalStateException | NumberFormatException e) {
+                            // Handle decoding error and invoke error callback
+                            guardedCallback.onError("Error parsing updated item: " + e.getMessage(), response.code());
+                        }
+                    });
 
-                        // Handle API error response
-                        handleApiError(response, responseBodyString, callback);
-                    }
+                } else {
+                    // Handle API error response
+                    handleApiError(response, responseBytes, guardedCallback);
                 }
+            }
 
-            } catch (IOException | JSONException e) {
+            @Override
+            public void onFailure(Exception e) {
 
-                // Handle network or JSON exceptions and invoke error callback
-                mainThreadHandler.post(() -> callback.onError("Network/JSON Exception: " + e.getMessage(),0));
+                // Handle network exceptions and invoke error callback
+                mainThreadHandler.post(() -> guardedCallback.onError("Network/JSON Exception: " + e.getMessage(), writeFailureStatus(e)));
             }
         });
+
+        return handle;
     }
 
     /**
@@ -527,134 +707,762 @@ public class InventoryApiService {
      * which will eventually invoke the `onError` callback with error details.
      *
      * If a network exception occurs during the request, the `onError` callback is invoked
-     * with a "Network Exception" message and a status code of 0.
+     * with a "Network Exception" message and a status code of 0, or of
+     * {@link InventorySync#STATUS_NOT_SENT} if the request was never sent.
      *
      * @param itemId The unique identifier of the inventory item to be deleted.
      * @param callback The callback interface to handle the response (success or error).
      *                 - `onSuccess(String message)`: Called when the item is successfully deleted.
      *                 - `onError(String errorMessage, int statusCode)`: Called when an error occurs.
+     * @return A handle that cancels the request.
      */
-    public void deleteInventoryItem(String itemId, ApiCallback<String> callback) {
+    public ApiCall deleteInventoryItem(String itemId, ApiCallback<String> callback) {
 
-        // Execute the delete operation on a background thread
-        executor.execute(() -> {
+        // Track the call so it can be cancelled
+        ApiCall handle = calls.add(new ApiCall());
 
-            // Build the DELETE request with the item ID in the URL
-            Request request = new Request.Builder()
-                .url(BASE_URL + "/inventory-items/" + itemId)
-                .delete()
-                .build();
+        ApiCallback<String> guardedCallback = guard(handle, callback);
+
+        // Build the DELETE request with the item ID in the URL
+        Request request = new Request.Builder()
+            .url(BASE_URL + "/inventory-items/" + itemId)
+            .delete()
+            .build();
 
-            // Execute the request and ensure response is closed
-            try (Response response = client.newCall(request).execute()) {
+        // Enqueue the request and handle the response
+        enqueue(handle, ApiDispatcher.Priority.USER_INITIATED, request, CALL_DEADLINE_SECONDS, new ResponseHandler() {
 
-            // Get response body as string or empty if null
-            String responseBodyString = response.body() != null ? response.body().string() : "";
+            @Override
+            public void onResponse(Response response) throws IOException {
 
-            // Check if response indicates success (204 No Content expected)
-            if (response.isSuccessful()) {
+                // Get response body as bytes or empty if null
+                byte[] responseBytes = response.body() != null ? response.body().bytes() : new byte[0];
 
-                // Post success message to main thread
-                mainThreadHandler.post(() -> callback.onSuccess("Item deleted successfully"));
+                // Check if response indicates success (204 No Content expected)
+                if (response.isSuccessful()) {
 
-            } else {
+                    // Post success message to main thread
+                    mainThreadHandler.post(() -> guardedCallback.onSuccess("Item deleted successfully"));
 
-                // Handle API error response
-                handleApiError(response, responseBodyString, callback);
+                } else {
+
+                    // Handle API error response
+                    handleApiError(response, responseBytes, guardedCallback);
+                }
             }
 
-            } catch (IOException e) {
+            @Override
+            public void onFailure(Exception e) {
 
-            // Post network error to main thread
-            mainThreadHandler.post(() -> callback.onError("Network Exception: " + e.getMessage(), 0));
+                // Post network error to main thread
+                mainThreadHandler.post(() -> guardedCallback.onError("Network Exception: " + e.getMessage(), writeFailureStatus(e)));
             }
         });
+
+        return handle;
     }
 
 
     /**
-     * Parses a JSONObject representing an inventory item into an InventoryItem object.
+     * Creates many inventory items on the server in as few requests as possible.
+     * <p>
+     * The items are sent to the "/inventory-items/batch" endpoint in requests of at most
+     * {@link #MAX_BATCH_SIZE} operations, so receiving a shipment costs one round trip per
+     * hundred items instead of one per item. Only the name and quantity of each item are sent;
+     * the server assigns the ids.
      *
-     * @param itemJson The JSONObject containing the inventory item data.
-     *                 It is expected to have the following keys:
-     *                 <ul>
-     *                     <li>"_id" (String): The unique identifier of the item.</li>
-     *                     <li>"name" (String): The name of the item.</li>
-     *                     <li>"quantity" (int): The quantity of the item.</li>
-     *                     <li>"userId" (String): The ID of the user who owns the item.</li>
-     *                     <li>"__v" (int, optional): The version key, defaults to 0 if not present.</li>
-     *                 </ul>
-     * @return An InventoryItem object populated with data from the JSONObject.
-     * @throws JSONException If any of the required keys are missing or if there's an error parsing the JSON.
+     * @param items    The items to create. Their ids are ignored.
+     * @param callback The callback to be invoked with the result of the API call.
+     *                 On success, {@link ApiCallback#onSuccess(Object)} is called with one
+     *                 {@link BatchItemResult} per item, in the order of {@code items}; results for
+     *                 successful creates carry the created {@link InventoryItem}.
+     *                 If the first request fails as a whole, {@link ApiCallback#onError(String, int)}
+     *                 is called instead, and nothing was created.
+     * @return A handle that cancels the request in progress and all later ones. Requests that
+     *         already completed stay applied.
      */
-    private InventoryItem parseInventoryItem(JSONObject itemJson) throws JSONException {
+    public ApiCall createInventoryItems(List<InventoryItem> items, ApiCallback<List<BatchItemResult>> callback) {
+
+        // Build one operation and one expected id per item
+        List<PendingOperation> operations = new ArrayList<>(items.size());
+
+        List<String> itemIds = new ArrayList<>(items.size());
+
+        for (InventoryItem item : items) {
 
-        return new InventoryItem(
-                itemJson.getString("_id"),
-                itemJson.getString("name"),
-                itemJson.getInt("quantity"),
-                itemJson.getString("userId"), 
-                itemJson.optInt("__v", 0)
-        );
+            operations.add(PendingOperation.create(null, item.getName(), item.getQuantity()));
+
+            itemIds.add(null);
+        }
+
+        return executeBatch(operations, itemIds, callback);
     }
 
     /**
-     * Handles API errors by parsing the response body for error messages and invoking the callback's onError method.
+     * Updates many existing inventory items on the server in as few requests as possible.
      * <p>
-     * This method attempts to extract a meaningful error message from the API response.
-     * It first checks for a standard JSON error structure with "message" or "error" keys.
-     * If these keys are not found or if the response body is not valid JSON,
-     * it falls back to using the raw response body as the error message.
+     * Each item's name and quantity are sent for its id to the "/inventory-items/batch" endpoint,
+     * in requests of at most {@link #MAX_BATCH_SIZE} operations.
+     *
+     * @param items    The items to update, carrying their server ids and new values.
+     * @param callback The callback to be invoked with the result of the API call.
+     *                 On success, {@link ApiCallback#onSuccess(Object)} is called with one
+     *                 {@link BatchItemResult} per item, in the order of {@code items}; results for
+     *                 successful updates carry the updated {@link InventoryItem}.
+     *                 If the first request fails as a whole, {@link ApiCallback#onError(String, int)}
+     *                 is called instead, and nothing was updated.
+     * @return A handle that cancels the request in progress and all later ones. Requests that
+     *         already completed stay applied.
+     */
+    public ApiCall updateInventoryItems(List<InventoryItem> items, ApiCallback<List<BatchItemResult>> callback) {
+
+        // Build one operation and one expected id per item
+        List<PendingOperation> operations = new ArrayList<>(items.size());
+
+        List<String> itemIds = new ArrayList<>(items.size());
+
+        for (InventoryItem item : items) {
+
+            operations.add(PendingOperation.update(null, item.getId(), item.getName(), item.getQuantity()));
+
+            itemIds.add(item.getId());
+        }
+
+        return executeBatch(operations, itemIds, callback);
+    }
+
+    /**
+     * Deletes many inventory items from the server in as few requests as possible.
      * <p>
-     * The error handling and callback invocation are performed on the main thread
-     * using the {@code mainThreadHandler}.
+     * The ids are sent to the "/inventory-items/batch" endpoint in requests of at most
+     * {@link #MAX_BATCH_SIZE} operations.
      *
-     * @param <T>                The type of the expected successful response (not directly used in error handling but part of the ApiCallback signature).
-     * @param response           The Retrofit {@link Response} object representing the HTTP response.
-     * @param responseBodyString The string representation of the HTTP response body.
-     * @param callback           The {@link ApiCallback} to be notified of the error.
+     * @param itemIds  The server ids of the items to delete.
+     * @param callback The callback to be invoked with the result of the API call.
+     *                 On success, {@link ApiCallback#onSuccess(Object)} is called with one
+     *                 {@link BatchItemResult} per id, in the order of {@code itemIds}.
+     *                 If the first request fails as a whole, {@link ApiCallback#onError(String, int)}
+     *                 is called instead, and nothing was deleted.
+     * @return A handle that cancels the request in progress and all later ones. Requests that
+     *         already completed stay applied.
+     */
+    public ApiCall deleteInventoryItems(List<String> itemIds, ApiCallback<List<BatchItemResult>> callback) {
+
+        // Build one operation per id
+        List<PendingOperation> operations = new ArrayList<>(itemIds.size());
+
+        for (String itemId : itemIds) {
+
+            operations.add(PendingOperation.delete(null, itemId));
+        }
+
+        return executeBatch(operations, new ArrayList<>(itemIds), callback);
+    }
+
+    /**
+     * Sends batch operations to the server, split into requests of at most {@link #MAX_BATCH_SIZE}.
+     * <p>
+     * Each request posts {@code {"operations": [...]}}, in the negotiated format, to "/inventory-items/batch" and expects
+     * {@code {"results": [...]}} back, one entry per operation in the same order, each carrying a
+     * "status" and either the resulting "item" or an "error"/"message". Requests are sent one after
+     * another, each enqueued from the response callback of the one before, so no thread waits
+     * between them.
+     * <p>
+     * If a request fails as a whole (network error, non-2xx status or unreadable body), its
+     * operations and all later ones are reported as failed with that error and no further requests
+     * are sent. If that happens to the first request, the callback's {@code onError} is invoked
+     * instead, since nothing was applied.
+     * <p>
+     * Each request has its own deadline. Cancelling stops the request in progress, and no later
+     * request is sent.
+     *
+     * @param operations The operations to send, in caller order.
+     * @param itemIds    The id each operation targets, or null for creates, in the same order.
+     * @param callback   The callback receiving one {@link BatchItemResult} per operation on the main thread.
+     * @return A handle that cancels the remaining requests.
+     */
+    private ApiCall executeBatch(List<PendingOperation> operations, List<String> itemIds, ApiCallback<List<BatchItemResult>> callback) {
+
+        // Track the call so it can be cancelled
+        ApiCall handle = calls.add(new ApiCall());
+
+        ApiCallback<List<BatchItemResult>> guardedCallback = guard(handle, callback);
+
+        // Nothing to send
+        if (operations.isEmpty()) {
+
+            mainThreadHandler.post(() -> guardedCallback.onSuccess(new ArrayList<>()));
+            return handle;
+        }
+
+        // Send the first chunk; each response sends the next
+        new BatchSend(handle, operations, itemIds, guardedCallback).send(0);
+
+        return handle;
+    }
+
+    /**
+     * The chunks of one {@link #executeBatch} call, sent one after another.
+     * Each chunk is enqueued from the response callback of the chunk before it.
+     */
+    private final class BatchSend {
+
+        private final ApiCall handle;
+
+        private final List<PendingOperation> operations;
+
+        private final List<String> itemIds;
+
+        private final ApiCallback<List<BatchItemResult>> callback;
+
+        // Results in caller order, only touched by the callback of the chunk in flight
+        private final List<BatchItemResult> results;
+
+        BatchSend(ApiCall handle, List<PendingOperation> operations, List<String> itemIds, ApiCallback<List<BatchItemResult>> callback) {
+
+            this.handle = handle;
+
+            this.operations = operations;
+
+            this.itemIds = itemIds;
+
+            this.callback = callback;
+
+            this.results = new ArrayList<>(operations.size());
+        }
+
+        /**
+         * Sends the chunk starting at the given operation.
+         *
+         * @param start The index of the chunk's first operation.
+         */
+        void send(int start) {
+
+            int end = Math.min(start + MAX_BATCH_SIZE, operations.size());
+
+            // Build the request body for this chunk
+            List<PendingOperation> chunk = operations.subList(start, end);
+
+            RequestBody body = ContentNegotiation.encode(codec -> codec.encodeBatch(chunk));
+
+            // Batch bodies are large and repetitive, so ask for them to be gzipped
+            Request request = new Request.Builder()
+                    .url(BASE_URL + "/inventory-items/batch")
+                    .post(body)
+                    .tag(PayloadCompression.RequestEncoding.class, PayloadCompression.RequestEncoding.GZIP)
+                    .build();
+
+            // Enqueue the request and handle the response
+            enqueue(handle, ApiDispatcher.Priority.USER_INITIATED, request, LONG_CALL_DEADLINE_SECONDS, new ResponseHandler() {
+
+                @Override
+                public void onResponse(Response response) throws IOException {
+
+                    if (!response.isSuccessful() || response.body() == null) {
+
+                        byte[] responseBytes = response.body() != null ? response.body().bytes() : new byte[0];
+
+                        fail(start, ContentNegotiation.codecOf(response).parseErrorMessage(response.code(), responseBytes), response.code());
+                        return;
+                    }
+
+                    // Decode this chunk's results straight from the network stream
+                    results.addAll(ContentNegotiation.codecOf(response).readBatchResults(response.body().source(), start, itemIds.subList(start, end)));
+
+                    // Send the next chunk, or report once every chunk has been applied
+                    if (end < operations.size()) {
+
+                        send(end);
+
+                    } else {
+
+                        mainThreadHandler.post(() -> callback.onSuccess(results));
+                    }
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+
+                    fail(start, "Network/JSON Exception: " + e.getMessage(), 0);
+                }
+            });
+        }
+
+        /**
+         * Reports a chunk that failed as a whole. No later chunk is sent.
+         *
+         * @param start       The index of the chunk's first operation.
+         * @param failure     The error message.
+         * @param failureCode The HTTP status code, or 0 if the server did not answer.
+         */
+        private void fail(int start, String failure, int failureCode) {
+
+            // A cancelled batch stops here and has no one to report to
+            if (handle.isCanceled()) {
+
+                return;
+            }
+
+            Log.e("InventoryApiService", "Batch request failed at operation " + start + ": " + failure);
+
+            // Nothing was applied, so report a plain error
+            if (start == 0) {
+
+                mainThreadHandler.post(() -> callback.onError(failure, failureCode));
+                return;
+            }
+
+            // Report this chunk and every later operation as failed
+            for (int i = start; i < operations.size(); i++) {
+
+                results.add(new BatchItemResult(i, itemIds.get(i), null, failureCode, failure));
+            }
+
+            mainThreadHandler.post(() -> callback.onSuccess(results));
+        }
+    }
+
+    /**
+     * Future-based variant of {@link #registerUser(String, String, String, ApiCallback)}.
+     *
+     * @param name     The name of the user to register.
+     * @param email    The email address of the user to register.
+     * @param password The password for the new user account.
+     * @return A future for the {@link AuthResponse}, failing with an {@link ApiException}.
+     */
+    public ApiFuture<AuthResponse> registerUserAsync(String name, String email, String password) {
+        return ApiFuture.start(callback -> registerUser(name, email, password, callback));
+    }
+
+    /**
+     * Future-based variant of {@link #loginUser(String, String, ApiCallback)}.
+     *
+     * @param email    The email address of the user.
+     * @param password The password of the user.
+     * @return A future for the {@link AuthResponse}, failing with an {@link ApiException}.
+     */
+    public ApiFuture<AuthResponse> loginUserAsync(String email, String password) {
+        return ApiFuture.start(callback -> loginUser(email, password, callback));
+    }
+
+    /**
+     * Future-based variant of {@link #getAllInventoryItems(ApiCallback)}.
+     *
+     * @return A future for the read-only list of all items, failing with an {@link ApiException}.
+     */
+    public ApiFuture<List<InventoryItem>> getAllInventoryItemsAsync() {
+        return ApiFuture.start(this::getAllInventoryItems);
+    }
+
+    /**
+     * Future-based variant of {@link #getInventoryItemsPage(int, int, ApiCallback)}.
+     *
+     * @param offset The number of items to skip from the start of the inventory.
+     * @param limit  The maximum number of items to return.
+     * @return A future for the read-only page, failing with an {@link ApiException}.
+     */
+    public ApiFuture<List<InventoryItem>> getInventoryItemsPageAsync(int offset, int limit) {
+        return ApiFuture.start(callback -> getInventoryItemsPage(offset, limit, callback));
+    }
+
+    /**
+     * Future-based variant of {@link #getInventoryChanges(String, ApiCallback)}.
+     *
+     * @param since The watermark returned by the previous delta request, or null for a baseline.
+     * @return A future for the {@link InventoryDelta}, failing with an {@link ApiException}.
+     */
+    public ApiFuture<InventoryDelta> getInventoryChangesAsync(String since) {
+        return ApiFuture.start(callback -> getInventoryChanges(since, callback));
+    }
+
+    /**
+     * Future-based variant of {@link #createInventoryItem(String, int, ApiCallback)}.
+     *
+     * @param name     The name of the inventory item to be created.
+     * @param quantity The initial quantity of the inventory item.
+     * @return A future for the created item, failing with an {@link ApiException}.
+     */
+    public ApiFuture<InventoryItem> createInventoryItemAsync(String name, int quantity) {
+        return ApiFuture.start(callback -> createInventoryItem(name, quantity, callback));
+    }
+
+    /**
+     * Future-based variant of {@link #updateInventoryItem(String, String, int, ApiCallback)}.
+     *
+     * @param itemId   The unique identifier of the inventory item to update.
+     * @param name     The new name for the inventory item.
+     * @param quantity The new quantity for the inventory item.
+     * @return A future for the updated item, failing with an {@link ApiException}.
+     */
+    public ApiFuture<InventoryItem> updateInventoryItemAsync(String itemId, String name, int quantity) {
+        return ApiFuture.start(callback -> updateInventoryItem(itemId, name, quantity, callback));
+    }
+
+    /**
+     * Future-based variant of {@link #deleteInventoryItem(String, ApiCallback)}.
+     *
+     * @param itemId The unique identifier of the inventory item to be deleted.
+     * @return A future for the success message, failing with an {@link ApiException}.
+     */
+    public ApiFuture<String> deleteInventoryItemAsync(String itemId) {
+        return ApiFuture.start(callback -> deleteInventoryItem(itemId, callback));
+    }
+
+    /**
+     * Future-based variant of {@link #createInventoryItems(List, ApiCallback)}.
+     *
+     * @param items The items to create.
+     * @return A future for one {@link BatchItemResult} per item, failing with an {@link ApiException}
+     *         if nothing was created.
+     */
+    public ApiFuture<List<BatchItemResult>> createInventoryItemsAsync(List<InventoryItem> items) {
+        return ApiFuture.start(callback -> createInventoryItems(items, callback));
+    }
+
+    /**
+     * Future-based variant of {@link #updateInventoryItems(List, ApiCallback)}.
+     *
+     * @param items The items to update, carrying their server ids and new values.
+     * @return A future for one {@link BatchItemResult} per item, failing with an {@link ApiException}
+     *         if nothing was updated.
      */
-    private <T> void handleApiError(Response response, String responseBodyString, ApiCallback<T> callback) {
+    public ApiFuture<List<BatchItemResult>> updateInventoryItemsAsync(List<InventoryItem> items) {
+        return ApiFuture.start(callback -> updateInventoryItems(items, callback));
+    }
 
-        // Initialize error message with the HTTP status code
-        String errorMessage = "Error " + response.code();
+    /**
+     * Future-based variant of {@link #deleteInventoryItems(List, ApiCallback)}.
+     *
+     * @param itemIds The server ids of the items to delete.
+     * @return A future for one {@link BatchItemResult} per id, failing with an {@link ApiException}
+     *         if nothing was deleted.
+     */
+    public ApiFuture<List<BatchItemResult>> deleteInventoryItemsAsync(List<String> itemIds) {
+        return ApiFuture.start(callback -> deleteInventoryItems(itemIds, callback));
+    }
 
-        // Check if the response body is not empty
-        if (!responseBodyString.isEmpty()) {
+    /**
+     * Cancels every operation started by this instance that has not finished yet.
+     * <p>
+     * Running requests are cancelled, queued ones are never sent, and no callback of these
+     * operations is delivered afterwards. Activities call this from {@code onDestroy}. Reads shared
+     * with other callers keep running for them. The service stays usable for new calls.
+     */
+    public void cancelAll() {
+        calls.cancelAll();
+    }
 
-            try {
+    /**
+     * Registers a caller for a read request, sharing a request that is already in flight.
+     * <p>
+     * If an identical read (same session, method and URL) is already running, the callback is queued
+     * behind it and {@code null} is returned, so the caller must not issue its own request.
+     * Otherwise the read is marked in flight and returned. The caller must execute the request
+     * under the read's {@link InFlightRead#networkCall} and complete it through the read, which
+     * delivers the result to every waiting callback in registration order and then clears the
+     * in-flight entry.
+     * <p>
+     * Deduplication is process-wide, so reads issued by different service instances share a
+     * single request too. Callers arriving before the result is delivered on the main thread
+     * receive that same result. A caller cancelling its handle only leaves the read; the request
+     * is cancelled when the last waiting caller has left. The Authorization header is only added
+     * by the auth interceptor, so the session is part of the key: a user who logs in while the
+     * previous user's read is still in flight starts a read of their own instead of receiving
+     * the previous account's data.
+     *
+     * @param <T>      The type of the expected successful response.
+     * @param request  The read request about to be issued.
+     * @param session  The user the read is made for, or null when nobody is logged in.
+     * @param handle   The caller's handle.
+     * @param callback The caller's callback.
+     * @return The read to execute and complete, or {@code null} if the caller joined a read
+     *         already in flight.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> InFlightRead<T> joinOrStartRead(Request request, String session, ApiCall handle, ApiCallback<T> callback) {
+
+        // Identical reads share session, method and URL
+        final String key = session + " " + request.method() + " " + request.url();
+
+        InFlightRead<T> read;
+
+        boolean started;
+
+        synchronized (inFlightReads) {
 
-                // Attempt to parse the response body as JSON
-                JSONObject jsonError = new JSONObject(responseBodyString);
+            read = (InFlightRead<T>) inFlightReads.get(key);
+
+            // Start a new read unless one is already in flight
+            started = read == null;
+
+            if (started) {
+
+                read = new InFlightRead<>(key);
+                inFlightReads.put(key, read);
+            }
+
+            read.waiters.add(callback);
+        }
 
-                // Check if the JSON contains a "message" field
-                if (jsonError.has("message")) {
-                    // Append the message to the error message
-                    errorMessage += ": " + jsonError.getString("message");
+        // Leave the read when the caller cancels
+        final InFlightRead<T> joinedRead = read;
+
+        handle.addCancelListener(() -> joinedRead.leave(callback));
+
+        return started ? read : null;
+    }
+
+    /**
+     * A read request in flight and the callbacks of every caller waiting on it.
+     * Completing it delivers the result to all of them.
+     *
+     * @param <T> The type of the expected successful response.
+     */
+    static final class InFlightRead<T> implements ApiCallback<T> {
+
+        // Session, method and URL of the read
+        private final String key;
+
+        // Callbacks of the waiting callers, in registration order (guarded by inFlightReads)
+        private final List<ApiCallback<T>> waiters = new ArrayList<>();
+
+        // Handle of the one request serving all waiters
+        final ApiCall networkCall = new ApiCall();
+
+        InFlightRead(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public Response onSuccess(T result) {
+
+            // Deliver the shared result to every waiting caller
+            for (ApiCallback<T> waiter : takeWaiters()) {
+
+                waiter.onSuccess(result);
+            }
+
+            return null;
+        }
+
+        @Override
+        public void onError(String error, int statusCode) {
+
+            // Deliver the shared error to every waiting caller
+            for (ApiCallback<T> waiter : takeWaiters()) {
+
+                waiter.onError(error, statusCode);
+            }
+        }
+
+        /**
+         * Removes the read from the in-flight reads and returns its waiting callbacks.
+         *
+         * @return The waiting callbacks, in registration order.
+         */
+        private List<ApiCallback<T>> takeWaiters() {
+
+            networkCall.finish();
+
+            synchronized (inFlightReads) {
+
+                if (inFlightReads.get(key) == this) {
+
+                    inFlightReads.remove(key);
                 }
 
-                // If no "message" field, check for "error" field
-                else if (jsonError.has("error")) {
-                    // Append the error to the error message
-                    errorMessage += ": " + jsonError.getString("error");
+                List<ApiCallback<T>> takenWaiters = new ArrayList<>(waiters);
+
+                waiters.clear();
+
+                return takenWaiters;
+            }
+        }
+
+        /**
+         * Removes a cancelled caller, and cancels the request if no caller is left waiting.
+         *
+         * @param callback The cancelled caller's callback.
+         */
+        private void leave(ApiCallback<T> callback) {
+
+            synchronized (inFlightReads) {
+
+                if (!waiters.remove(callback) || !waiters.isEmpty()) {
+
+                    return;
                 }
 
-                // If neither field exists, use the raw response body
-                else {
-                    errorMessage += ": " + responseBodyString;
+                // Later identical reads must start a request of their own
+                if (inFlightReads.get(key) == this) {
+
+                    inFlightReads.remove(key);
                 }
+            }
+
+            networkCall.cancel();
+        }
+    }
 
-            } catch (JSONException e) {
-                // If JSON parsing fails, append the raw response body
-                errorMessage += ": " + responseBodyString;
+    /**
+     * Returns the user whose session the auth interceptor will send requests under.
+     *
+     * @return The logged-in username, or null if nobody is logged in.
+     */
+    private String currentSession() {
+        return new SessionManager(appContext).getUsername();
+    }
+
+    /**
+     * Wraps a callback so that it is skipped once its operation is cancelled, and so that
+     * delivering it finishes the operation.
+     *
+     * @param <T>      The type of the expected successful response.
+     * @param handle   The operation's handle.
+     * @param callback The caller's callback.
+     * @return The callback to complete the operation through.
+     */
+    private static <T> ApiCallback<T> guard(ApiCall handle, ApiCallback<T> callback) {
+
+        return new ApiCallback<T>() {
+
+            @Override
+            public Response onSuccess(T result) {
+
+                return handle.finish() ? callback.onSuccess(result) : null;
             }
+
+            @Override
+            public void onError(String error, int statusCode) {
+
+                if (handle.finish()) {
+
+                    callback.onError(error, statusCode);
+                }
+            }
+        };
+    }
+
+    /**
+     * Receives the outcome of a request enqueued by {@link #enqueue}, on an OkHttp call thread.
+     */
+    private interface ResponseHandler {
+
+        /**
+         * Handles the response, which is closed afterwards.
+         *
+         * @param response The response, successful or not.
+         * @throws IOException If reading the body fails; it is passed to {@link #onFailure(Exception)}.
+         */
+        void onResponse(Response response) throws IOException;
+
+        /**
+         * Handles a call that failed, timed out or could not be decoded.
+         *
+         * @param e The cause of the failure.
+         */
+        void onFailure(Exception e);
+    }
+
+    /**
+     * Enqueues a request as part of an operation, with a deadline for the whole call.
+     * <p>
+     * The call waits in OkHttp's dispatcher without holding a thread until one of its slots is
+     * free; see {@link ApiClient#getClient(Context, ApiDispatcher.Priority)}. Transient failures
+     * are retried by {@link RetryPolicy#enqueue}, which re-enqueues the request after its backoff
+     * instead of waiting inside the call, so a call waiting to retry holds no thread and no
+     * dispatcher slot. The deadline covers connecting, every retry and the waits between them,
+     * and reading the body until the response is closed; when it passes, the call is cancelled
+     * and the handler's {@code onFailure} is invoked.
+     * <p>
+     * Nothing is sent, and the handler is not invoked, for an operation that is already cancelled.
+     * The first call hops to an {@link ApiDispatcher} thread once, because building the client
+     * reads the disk cache and must not block the main thread.
+     *
+     * @param handle          The operation's handle, which can cancel the call.
+     * @param priority        The lane of the call; background calls share fewer slots.
+     * @param request         The request to send.
+     * @param deadlineSeconds The time the whole call may take.
+     * @param handler         Receives the response or the failure on an OkHttp call thread.
+     */
+    private void enqueue(ApiCall handle, ApiDispatcher.Priority priority, Request request, long deadlineSeconds, ResponseHandler handler) {
+
+        // Do not even build the call for an operation that was cancelled
+        if (handle.isCanceled()) {
+
+            return;
         }
 
-        // Finalize the error message
-        final String finalErrorMessage = errorMessage;
+        // Build the client off the main thread the first time only
+        if (!ApiClient.isClientBuilt()) {
+
+            ApiDispatcher.execute(priority, () -> enqueueNow(handle, priority, request, deadlineSeconds, handler));
+            return;
+        }
+
+        enqueueNow(handle, priority, request, deadlineSeconds, handler);
+    }
+
+    private void enqueueNow(ApiCall handle, ApiDispatcher.Priority priority, Request request, long deadlineSeconds, ResponseHandler handler) {
+
+        RetryPolicy.enqueue(ApiClient.getClient(appContext, priority), handle, request, deadlineSeconds, new Callback() {
+
+            @Override
+            public void onResponse(@NonNull Call call, @NonNull Response response) {
+
+                // Close the response once handled, and route reading errors to onFailure
+                try (Response ignored = response) {
+
+                    handler.onResponse(response);
+
+                } catch (IOException | IllegalStateException | NumberFormatException e) {
+
+                    handler.onFailure(e);
+                }
+            }
+
+            @Override
+            public void onFailure(@NonNull Call call, @NonNull IOException e) {
+
+                handler.onFailure(e);
+            }
+        });
+    }
+
+    /**
+     * Returns the status reported for a write that got no answer, telling a request that was
+     * never sent apart from one the server may have acted on.
+     *
+     * @param e The failure.
+     * @return {@link InventorySync#STATUS_NOT_SENT} or 0.
+     */
+    private static int writeFailureStatus(Exception e) {
+        return RetryPolicy.failedBeforeSending(e) ? InventorySync.STATUS_NOT_SENT : 0;
+    }
+
+    /**
+     * Handles API errors by parsing the response body for error messages and invoking the callback's onError method.
+     * <p>
+     * This method attempts to extract a meaningful error message from the API response.
+     * The body is decoded by the codec matching its content type, which looks for an error
+     * structure with "message" or "error" keys. If these keys are not found or the body cannot
+     * be decoded, a JSON or text body is used as the error message as is.
+     * <p>
+     * The error handling and callback invocation are performed on the main thread
+     * using the {@code mainThreadHandler}.
+     *
+     * @param <T>                The type of the expected successful response (not directly used in error handling but part of the ApiCallback signature).
+     * @param response           The Retrofit {@link Response} object representing the HTTP response.
+     * @param responseBytes      The raw HTTP response body.
+     * @param callback           The {@link ApiCallback} to be notified of the error.
+     */
+    private <T> void handleApiError(Response response, byte[] responseBytes, ApiCallback<T> callback) {
+
+        // Build the error message from the status code and response body
+        final String finalErrorMessage = ContentNegotiation.codecOf(response).parseErrorMessage(response.code(), responseBytes);
 
         // Post the error to the main thread via the callback
         mainThreadHandler.post(() -> callback.onError(finalErrorMessage, response.code()));
     }
 
-}
\ No newline at end of file
+}
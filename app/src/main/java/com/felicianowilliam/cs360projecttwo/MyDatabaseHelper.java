@@ -9,13 +9,17 @@ import android.util.Log;
 
 import androidx.annotation.Nullable;
 
+import java.util.ArrayList;
+import java.util.List;
+
 
 /**
  * Manages the application's local SQLite database for storing inventory-related data.
  *
  * This class extends {@link SQLiteOpenHelper} and provides methods for creating,
- * upgrading, and interacting with the database tables. Currently, it supports
- * a single table for storing phone numbers associated with usernames.
+ * upgrading, and interacting with the database tables. It supports a table for
+ * storing phone numbers associated with usernames and a table caching each user's
+ * inventory items so they can be shown before the server responds.
  *
  * Key responsibilities:
  * - Defining the database schema (table names, column names, data types).
@@ -30,12 +34,27 @@ import androidx.annotation.Nullable;
  * - {@link #PHONE_COLUMN_ID}: A unique identifier for each entry (auto-incrementing integer).
  * - {@link #PHONE_COLUMN_USERNAME}: The username associated with the phone number (text, not null).
  * - {@link #PHONE_COLUMN_NUMBER}: The phone number itself (text, not null).
+ *
+ * The {@link #INVENTORY_TABLE_NAME} table caches inventory items keyed by the server's "_id":
+ * - {@link #INVENTORY_COLUMN_ID}: The server identifier of the item (text, primary key).
+ * - {@link #INVENTORY_COLUMN_USERNAME}: The local username whose inventory the row belongs to.
+ * - {@link #INVENTORY_COLUMN_NAME}, {@link #INVENTORY_COLUMN_QUANTITY}, {@link #INVENTORY_COLUMN_USER_ID}
+ *   and {@link #INVENTORY_COLUMN_VERSION}: The item fields as returned by the server.
+ * - {@link #INVENTORY_COLUMN_POSITION}: The item's position in the server's list, used for ordering.
+ * - {@link #INVENTORY_COLUMN_SYNC_STAMP}: The reconciliation run that last wrote the row.
+ *
+ * The {@link #SYNC_TABLE_NAME} table stores, per username, the server watermark up to which the
+ * cached inventory is a complete snapshot. It is the "since" value for the next delta sync.
+ *
+ * The {@link #OUTBOX_TABLE_NAME} table is a durable queue of inventory writes that could not be
+ * sent yet, replayed in insertion order by {@link WriteOutbox}. Each row holds a
+ * {@link PendingOperation}: its type, target item id, values and failed attempt count.
  */
 public class MyDatabaseHelper extends SQLiteOpenHelper {
     // Database name
     private static final String DATABASE_NAME = "Inventory.db";
     // Database version
-    private static final int DATABASE_VERSION = 1;
+    private static final int DATABASE_VERSION = 4;
 
     // Phone Number Table
     private static final String PHONE_TABLE_NAME = "Phone";
@@ -48,6 +67,66 @@ public class MyDatabaseHelper extends SQLiteOpenHelper {
     // Phone Number Table Column Username
     private static final String PHONE_COLUMN_USERNAME = "username";
 
+    // Inventory Cache Table
+    private static final String INVENTORY_TABLE_NAME = "Inventory";
+
+    // Inventory Cache Table Column ID (server "_id")
+    private static final String INVENTORY_COLUMN_ID = "_id";
+
+    // Inventory Cache Table Column Username (local owner of the cached row)
+    private static final String INVENTORY_COLUMN_USERNAME = "username";
+
+    // Inventory Cache Table Column Name
+    private static final String INVENTORY_COLUMN_NAME = "name";
+
+    // Inventory Cache Table Column Quantity
+    private static final String INVENTORY_COLUMN_QUANTITY = "quantity";
+
+    // Inventory Cache Table Column User ID (server owner id)
+    private static final String INVENTORY_COLUMN_USER_ID = "userId";
+
+    // Inventory Cache Table Column Version (server "__v")
+    private static final String INVENTORY_COLUMN_VERSION = "__v";
+
+    // Inventory Cache Table Column Position in the server list
+    private static final String INVENTORY_COLUMN_POSITION = "position";
+
+    // Inventory Cache Table Column Sync Stamp
+    private static final String INVENTORY_COLUMN_SYNC_STAMP = "sync_stamp";
+
+    // Sync State Table
+    private static final String SYNC_TABLE_NAME = "SyncState";
+
+    // Sync State Table Column Username
+    private static final String SYNC_COLUMN_USERNAME = "username";
+
+    // Sync State Table Column Watermark
+    private static final String SYNC_COLUMN_WATERMARK = "watermark";
+
+    // Outbox Table
+    private static final String OUTBOX_TABLE_NAME = "Outbox";
+
+    // Outbox Table Column ID (insertion order)
+    private static final String OUTBOX_COLUMN_ID = "_id";
+
+    // Outbox Table Column Username
+    private static final String OUTBOX_COLUMN_USERNAME = "username";
+
+    // Outbox Table Column Operation Type
+    private static final String OUTBOX_COLUMN_TYPE = "type";
+
+    // Outbox Table Column Item ID (server "_id", null for creates)
+    private static final String OUTBOX_COLUMN_ITEM_ID = "item_id";
+
+    // Outbox Table Column Name
+    private static final String OUTBOX_COLUMN_NAME = "name";
+
+    // Outbox Table Column Quantity
+    private static final String OUTBOX_COLUMN_QUANTITY = "quantity";
+
+    // Outbox Table Column Failed Attempts
+    private static final String OUTBOX_COLUMN_ATTEMPTS = "attempts";
+
 
     public MyDatabaseHelper(@Nullable Context context) {
 
@@ -69,13 +148,78 @@ public class MyDatabaseHelper extends SQLiteOpenHelper {
                 PHONE_COLUMN_NUMBER + " TEXT NOT NULL);";
 
         db.execSQL(createPhoneNumberTable);
+
+        createInventoryTable(db);
+
+        createSyncStateTable(db);
+
+        createOutboxTable(db);
+    }
+
+    /**
+     * Creates the outbox table holding inventory writes waiting to be sent.
+     *
+     * @param db The database.
+     */
+    private void createOutboxTable(SQLiteDatabase db) {
+
+        String createOutboxTable = "CREATE TABLE " + OUTBOX_TABLE_NAME + " (" +
+                OUTBOX_COLUMN_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                OUTBOX_COLUMN_USERNAME + " TEXT NOT NULL, " +
+                OUTBOX_COLUMN_TYPE + " TEXT NOT NULL, " +
+                OUTBOX_COLUMN_ITEM_ID + " TEXT, " +
+                OUTBOX_COLUMN_NAME + " TEXT, " +
+                OUTBOX_COLUMN_QUANTITY + " INTEGER NOT NULL DEFAULT 0, " +
+                OUTBOX_COLUMN_ATTEMPTS + " INTEGER NOT NULL DEFAULT 0);";
+
+        db.execSQL(createOutboxTable);
+    }
+
+    /**
+     * Creates the sync state table holding each user's delta sync watermark.
+     *
+     * @param db The database.
+     */
+    private void createSyncStateTable(SQLiteDatabase db) {
+
+        String createSyncStateTable = "CREATE TABLE " + SYNC_TABLE_NAME + " (" +
+                SYNC_COLUMN_USERNAME + " TEXT PRIMARY KEY, " +
+                SYNC_COLUMN_WATERMARK + " TEXT NOT NULL);";
+
+        db.execSQL(createSyncStateTable);
+    }
+
+    /**
+     * Creates the inventory cache table and its lookup index.
+     *
+     * @param db The database.
+     */
+    private void createInventoryTable(SQLiteDatabase db) {
+
+        String createInventoryTable = "CREATE TABLE " + INVENTORY_TABLE_NAME + " (" +
+                INVENTORY_COLUMN_ID + " TEXT PRIMARY KEY, " +
+                INVENTORY_COLUMN_USERNAME + " TEXT NOT NULL, " +
+                INVENTORY_COLUMN_NAME + " TEXT NOT NULL, " +
+                INVENTORY_COLUMN_QUANTITY + " INTEGER NOT NULL, " +
+                INVENTORY_COLUMN_USER_ID + " TEXT NOT NULL, " +
+                INVENTORY_COLUMN_VERSION + " INTEGER NOT NULL DEFAULT 0, " +
+                INVENTORY_COLUMN_POSITION + " INTEGER NOT NULL, " +
+                INVENTORY_COLUMN_SYNC_STAMP + " INTEGER NOT NULL);";
+
+        // Index for reading one user's cached inventory in server order
+        String createInventoryIndex = "CREATE INDEX idx_inventory_username_position ON " +
+                INVENTORY_TABLE_NAME + " (" + INVENTORY_COLUMN_USERNAME + ", " + INVENTORY_COLUMN_POSITION + ");";
+
+        db.execSQL(createInventoryTable);
+
+        db.execSQL(createInventoryIndex);
     }
 
     /**
      * Called when the database needs to be upgraded.
-     * This method will drop the existing tables and recreate them.
-     * In a production environment, you would typically implement a migration strategy
-     * to preserve user data.
+     * New tables are created in place so stored phone numbers and cached inventory are preserved:
+     * version 2 adds the inventory cache table, version 3 adds the sync state table and
+     * version 4 adds the outbox table.
      *
      * @param db The database.
      * @param oldVersion The old database version.
@@ -84,11 +228,23 @@ public class MyDatabaseHelper extends SQLiteOpenHelper {
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
 
-        // Drop the existing phone number table if it exists
-        db.execSQL("DROP TABLE IF EXISTS " + PHONE_TABLE_NAME);
+        // Version 1 only had the phone number table
+        if (oldVersion < 2) {
 
-        // Recreate the database tables by calling onCreate
-        onCreate(db);
+            createInventoryTable(db);
+        }
+
+        // Version 2 had no sync state table
+        if (oldVersion < 3) {
+
+            createSyncStateTable(db);
+        }
+
+        // Version 3 had no outbox table
+        if (oldVersion < 4) {
+
+            createOutboxTable(db);
+        }
     }
 
     /**
@@ -164,4 +320,489 @@ public class MyDatabaseHelper extends SQLiteOpenHelper {
             return null;
         }
     }
+
+    /**
+     * Reads the cached inventory of a user in server order.
+     * <p>
+     * This method performs a database read and should not be called on the main UI thread.
+     *
+     * @param username The local username whose cached inventory is read.
+     * @return The cached items ordered by their last known server position. The list is empty
+     *         if nothing is cached or an error occurred.
+     */
+    public List<InventoryItem> getCachedInventoryItems(String username) {
+
+        // List to hold the cached items
+        List<InventoryItem> items = new ArrayList<>();
+
+        // Create SQL query to select the user's cached items in server order
+        String query = "SELECT " + INVENTORY_COLUMN_ID + ", " + INVENTORY_COLUMN_NAME + ", " +
+                INVENTORY_COLUMN_QUANTITY + ", " + INVENTORY_COLUMN_USER_ID + ", " + INVENTORY_COLUMN_VERSION +
+                " FROM " + INVENTORY_TABLE_NAME + " WHERE " + INVENTORY_COLUMN_USERNAME + " = ?" +
+                " ORDER BY " + INVENTORY_COLUMN_POSITION;
+
+        // Execute the query on a readable database and map every row to an InventoryItem
+        try (Cursor cursor = this.getReadableDatabase().rawQuery(query, new String[]{username})) {
+
+            while (cursor.moveToNext()) {
+
+                items.add(new InventoryItem(
+                        cursor.getString(0),
+                        cursor.getString(1),
+                        cursor.getInt(2),
+                        cursor.getString(3),
+                        cursor.getInt(4)));
+            }
+
+        } catch (Exception e) {
+
+            // Log error if database operation fails
+            Log.e("MyDatabaseHelper", "Error reading cached inventory for user: " + username, e);
+        }
+
+        return items;
+    }
+
+    /**
+     * Writes one page of server items into the inventory cache.
+     * <p>
+     * Each item is inserted or replaced by its server "_id" with its position in the server list
+     * and the given sync stamp. All rows of the page are written in a single transaction.
+     * This method should not be called on the main UI thread.
+     *
+     * @param username  The local username whose inventory the page belongs to.
+     * @param offset    The server position of the first item in the page.
+     * @param items     The items of the page, in server order.
+     * @param syncStamp The identifier of the current reconciliation run.
+     */
+    public void cacheInventoryPage(String username, int offset, List<InventoryItem> items, long syncStamp) {
+
+        // Get a writable database instance
+        SQLiteDatabase db;
+
+        try {
+
+            db = this.getWritableDatabase();
+
+        } catch (Exception e) {
+
+            // Log error with username and stack trace
+            Log.e("MyDatabaseHelper", "Error opening database to cache inventory for user: " + username, e);
+
+            return;
+        }
+
+        // Write the whole page in one transaction
+        db.beginTransaction();
+
+        try {
+
+            // Reuse one ContentValues object for every row
+            ContentValues cv = new ContentValues();
+
+            for (int i = 0; i < items.size(); i++) {
+
+                InventoryItem item = items.get(i);
+
+                cv.put(INVENTORY_COLUMN_ID, item.getId());
+                cv.put(INVENTORY_COLUMN_USERNAME, username);
+                cv.put(INVENTORY_COLUMN_NAME, item.getName());
+                cv.put(INVENTORY_COLUMN_QUANTITY, item.getQuantity());
+                cv.put(INVENTORY_COLUMN_USER_ID, item.getUserId());
+                cv.put(INVENTORY_COLUMN_VERSION, item.getDbVersion());
+                cv.put(INVENTORY_COLUMN_POSITION, offset + i);
+                cv.put(INVENTORY_COLUMN_SYNC_STAMP, syncStamp);
+
+                // Insert the row, replacing any cached copy with the same server id
+                db.insertWithOnConflict(INVENTORY_TABLE_NAME, null, cv, SQLiteDatabase.CONFLICT_REPLACE);
+            }
+
+            db.setTransactionSuccessful();
+
+        } catch (Exception e) {
+
+            // Log error with username and stack trace
+            Log.e("MyDatabaseHelper", "Error caching inventory page for user: " + username, e);
+
+        } finally {
+
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Removes cached items that were not written by the given reconciliation run.
+     * <p>
+     * Called once the whole server list has been received, so any remaining row from an
+     * older run belongs to an item that no longer exists on the server.
+     * This method should not be called on the main UI thread.
+     *
+     * @param username  The local username whose cache is pruned.
+     * @param syncStamp The identifier of the reconciliation run that just completed.
+     */
+    public void pruneCachedInventory(String username, long syncStamp) {
+
+        try {
+
+            // Get a writable database instance
+            SQLiteDatabase db = this.getWritableDatabase();
+
+            // Delete every row of this user that the completed run did not touch
+            db.delete(INVENTORY_TABLE_NAME,
+                    INVENTORY_COLUMN_USERNAME + " = ? AND " + INVENTORY_COLUMN_SYNC_STAMP + " != ?",
+                    new String[]{username, String.valueOf(syncStamp)});
+
+        } catch (Exception e) {
+
+            // Log error with username and stack trace
+            Log.e("MyDatabaseHelper", "Error pruning cached inventory for user: " + username, e);
+        }
+    }
+
+    /**
+     * Reads the delta sync watermark of a user.
+     * <p>
+     * A stored watermark means the cached inventory is a complete snapshot up to that watermark.
+     * This method should not be called on the main UI thread.
+     *
+     * @param username The local username whose watermark is read.
+     * @return The stored watermark, or null if none is stored or an error occurred.
+     */
+    public String getSyncWatermark(String username) {
+
+        // Create SQL query to select the watermark for the given username
+        String query = "SELECT " + SYNC_COLUMN_WATERMARK + " FROM " + SYNC_TABLE_NAME +
+                " WHERE " + SYNC_COLUMN_USERNAME + " = ?";
+
+        // Execute the query on a readable database
+        try (Cursor cursor = this.getReadableDatabase().rawQuery(query, new String[]{username})) {
+
+            return cursor.moveToFirst() ? cursor.getString(0) : null;
+
+        } catch (Exception e) {
+
+            // Log error if database operation fails
+            Log.e("MyDatabaseHelper", "Error reading sync watermark for user: " + username, e);
+
+            return null;
+        }
+    }
+
+    /**
+     * Stores or clears the delta sync watermark of a user.
+     * This method should not be called on the main UI thread.
+     *
+     * @param username  The local username whose watermark is written.
+     * @param watermark The new watermark, or null to clear it and force the next sync to be a full load.
+     */
+    public void setSyncWatermark(String username, String watermark) {
+
+        try {
+
+            // Get a writable database instance
+            SQLiteDatabase db = this.getWritableDatabase();
+
+            writeSyncWatermark(db, username, watermark);
+
+        } catch (Exception e) {
+
+            // Log error with username and stack trace
+            Log.e("MyDatabaseHelper", "Error writing sync watermark for user: " + username, e);
+        }
+    }
+
+    /**
+     * Writes or deletes the watermark row of a user on an already open database.
+     *
+     * @param db        The writable database.
+     * @param username  The local username whose watermark is written.
+     * @param watermark The new watermark, or null to delete it.
+     */
+    private void writeSyncWatermark(SQLiteDatabase db, String username, String watermark) {
+
+        // A null watermark removes the row
+        if (watermark == null) {
+
+            db.delete(SYNC_TABLE_NAME, SYNC_COLUMN_USERNAME + " = ?", new String[]{username});
+
+            return;
+        }
+
+        ContentValues cv = new ContentValues();
+
+        cv.put(SYNC_COLUMN_USERNAME, username);
+
+        cv.put(SYNC_COLUMN_WATERMARK, watermark);
+
+        // Insert the row, replacing the previous watermark
+        db.insertWithOnConflict(SYNC_TABLE_NAME, null, cv, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    /**
+     * Applies a delta sync result to the inventory cache and advances the watermark.
+     * <p>
+     * Tombstoned items are deleted. Changed items replace their cached copy unless the cached
+     * copy has a newer "__v", and items not yet cached are appended after the last position.
+     * The changes and the new watermark are written in a single transaction, so the stored
+     * watermark always matches the cached rows.
+     * This method should not be called on the main UI thread.
+     *
+     * @param username The local username whose cache is patched.
+     * @param delta    The changes returned by the server.
+     */
+    public void applyInventoryDelta(String username, InventoryDelta delta) {
+
+        // Get a writable database instance
+        SQLiteDatabase db;
+
+        try {
+
+            db = this.getWritableDatabase();
+
+        } catch (Exception e) {
+
+            // Log error with username and stack trace
+            Log.e("MyDatabaseHelper", "Error opening database to apply inventory delta for user: " + username, e);
+
+            return;
+        }
+
+        // Apply the whole delta in one transaction
+        db.beginTransaction();
+
+        try {
+
+            // Delete every tombstoned item
+            for (String deletedId : delta.getDeletedIds()) {
+
+                db.delete(INVENTORY_TABLE_NAME,
+                        INVENTORY_COLUMN_ID + " = ? AND " + INVENTORY_COLUMN_USERNAME + " = ?",
+                        new String[]{deletedId, username});
+            }
+
+            // Next free position for newly created items
+            int nextPosition = 0;
+
+            try (Cursor cursor = db.rawQuery("SELECT MAX(" + INVENTORY_COLUMN_POSITION + ") FROM " + INVENTORY_TABLE_NAME +
+                    " WHERE " + INVENTORY_COLUMN_USERNAME + " = ?", new String[]{username})) {
+
+                if (cursor.moveToFirst() && !cursor.isNull(0)) {
+
+                    nextPosition = cursor.getInt(0) + 1;
+                }
+            }
+
+            // Reuse one ContentValues object for every row
+            ContentValues cv = new ContentValues();
+
+            for (InventoryItem item : delta.getChangedItems()) {
+
+                cv.clear();
+                cv.put(INVENTORY_COLUMN_NAME, item.getName());
+                cv.put(INVENTORY_COLUMN_QUANTITY, item.getQuantity());
+                cv.put(INVENTORY_COLUMN_USER_ID, item.getUserId());
+                cv.put(INVENTORY_COLUMN_VERSION, item.getDbVersion());
+
+                // Update the cached copy unless it is already newer
+                int updated = db.update(INVENTORY_TABLE_NAME, cv,
+                        INVENTORY_COLUMN_ID + " = ? AND " + INVENTORY_COLUMN_USERNAME + " = ? AND " + INVENTORY_COLUMN_VERSION + " <= ?",
+                        new String[]{item.getId(), username, String.valueOf(item.getDbVersion())});
+
+                if (updated > 0) {
+
+                    continue;
+                }
+
+                // Only insert items that are not cached at all
+                try (Cursor cursor = db.rawQuery("SELECT 1 FROM " + INVENTORY_TABLE_NAME + " WHERE " + INVENTORY_COLUMN_ID + " = ?",
+                        new String[]{item.getId()})) {
+
+                    if (cursor.moveToFirst()) {
+
+                        continue;
+                    }
+                }
+
+                cv.put(INVENTORY_COLUMN_ID, item.getId());
+                cv.put(INVENTORY_COLUMN_USERNAME, username);
+                cv.put(INVENTORY_COLUMN_POSITION, nextPosition++);
+                cv.put(INVENTORY_COLUMN_SYNC_STAMP, 0L);
+
+                db.insert(INVENTORY_TABLE_NAME, null, cv);
+            }
+
+            // Advance the watermark together with the changes
+            writeSyncWatermark(db, username, delta.getWatermark());
+
+            db.setTransactionSuccessful();
+
+        } catch (Exception e) {
+
+            // Log error with username and stack trace
+            Log.e("MyDatabaseHelper", "Error applying inventory delta for user: " + username, e);
+
+        } finally {
+
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Appends an inventory write to the outbox.
+     * This method should not be called on the main UI thread.
+     *
+     * @param operation The operation to store. Its local id and attempt count are ignored.
+     * @return The row id of the stored operation, or -1 if it could not be stored.
+     */
+    public long addPendingOperation(PendingOperation operation) {
+
+        try {
+
+            // Get a writable database instance
+            SQLiteDatabase db = this.getWritableDatabase();
+
+            ContentValues cv = new ContentValues();
+
+            cv.put(OUTBOX_COLUMN_USERNAME, operation.getUsername());
+            cv.put(OUTBOX_COLUMN_TYPE, operation.getType());
+            cv.put(OUTBOX_COLUMN_ITEM_ID, operation.getItemId());
+            cv.put(OUTBOX_COLUMN_NAME, operation.getName());
+            cv.put(OUTBOX_COLUMN_QUANTITY, operation.getQuantity());
+
+            // Insert the row at the end of the queue
+            return db.insert(OUTBOX_TABLE_NAME, null, cv);
+
+        } catch (Exception e) {
+
+            // Log error with username and stack trace
+            Log.e("MyDatabaseHelper", "Error storing pending operation for user: " + operation.getUsername(), e);
+
+            return -1;
+        }
+    }
+
+    /**
+     * Reads the oldest inventory write still waiting in the outbox for a user.
+     * This method should not be called on the main UI thread.
+     *
+     * @param username The local username whose outbox is read.
+     * @return The oldest pending operation, or null if the outbox is empty or an error occurred.
+     */
+    public PendingOperation getNextPendingOperation(String username) {
+
+        // Create SQL query to select the user's oldest pending operation
+        String query = "SELECT " + OUTBOX_COLUMN_ID + ", " + OUTBOX_COLUMN_TYPE + ", " + OUTBOX_COLUMN_ITEM_ID + ", " +
+                OUTBOX_COLUMN_NAME + ", " + OUTBOX_COLUMN_QUANTITY + ", " + OUTBOX_COLUMN_ATTEMPTS +
+                " FROM " + OUTBOX_TABLE_NAME + " WHERE " + OUTBOX_COLUMN_USERNAME + " = ?" +
+                " ORDER BY " + OUTBOX_COLUMN_ID + " LIMIT 1";
+
+        // Execute the query on a readable database
+        try (Cursor cursor = this.getReadableDatabase().rawQuery(query, new String[]{username})) {
+
+            if (!cursor.moveToFirst()) {
+
+                return null;
+            }
+
+            return new PendingOperation(
+                    cursor.getLong(0),
+                    username,
+                    cursor.getString(1),
+                    cursor.getString(2),
+                    cursor.getString(3),
+                    cursor.getInt(4),
+                    cursor.getInt(5));
+
+        } catch (Exception e) {
+
+            // Log error if database operation fails
+            Log.e("MyDatabaseHelper", "Error reading outbox for user: " + username, e);
+
+            return null;
+        }
+    }
+
+    /**
+     * Reads every inventory write still waiting in the outbox for a user.
+     * This method should not be called on the main UI thread.
+     *
+     * @param username The local username whose outbox is read.
+     * @return The pending operations, oldest first. The list is empty if the outbox is empty or
+     *         an error occurred.
+     */
+    public List<PendingOperation> getPendingOperations(String username) {
+
+        // List to hold the pending operations
+        List<PendingOperation> operations = new ArrayList<>();
+
+        // Create SQL query to select the user's pending operations in queue order
+        String query = "SELECT " + OUTBOX_COLUMN_ID + ", " + OUTBOX_COLUMN_TYPE + ", " + OUTBOX_COLUMN_ITEM_ID + ", " +
+                OUTBOX_COLUMN_NAME + ", " + OUTBOX_COLUMN_QUANTITY + ", " + OUTBOX_COLUMN_ATTEMPTS +
+                " FROM " + OUTBOX_TABLE_NAME + " WHERE " + OUTBOX_COLUMN_USERNAME + " = ?" +
+                " ORDER BY " + OUTBOX_COLUMN_ID;
+
+        // Execute the query on a readable database and map every row to a PendingOperation
+        try (Cursor cursor = this.getReadableDatabase().rawQuery(query, new String[]{username})) {
+
+            while (cursor.moveToNext()) {
+
+                operations.add(new PendingOperation(
+                        cursor.getLong(0),
+                        username,
+                        cursor.getString(1),
+                        cursor.getString(2),
+                        cursor.getString(3),
+                        cursor.getInt(4),
+                        cursor.getInt(5)));
+            }
+
+        } catch (Exception e) {
+
+            // Log error if database operation fails
+            Log.e("MyDatabaseHelper", "Error reading outbox for user: " + username, e);
+        }
+
+        return operations;
+    }
+
+    /**
+     * Removes an inventory write from the outbox once it has been sent or rejected.
+     * This method should not be called on the main UI thread.
+     *
+     * @param localId The outbox row id of the operation.
+     */
+    public void removePendingOperation(long localId) {
+
+        try {
+
+            this.getWritableDatabase().delete(OUTBOX_TABLE_NAME, OUTBOX_COLUMN_ID + " = ?",
+                    new String[]{String.valueOf(localId)});
+
+        } catch (Exception e) {
+
+            // Log error with row id and stack trace
+            Log.e("MyDatabaseHelper", "Error removing pending operation: " + localId, e);
+        }
+    }
+
+    /**
+     * Records a failed attempt to send an inventory write, so its retry backoff survives restarts.
+     * This method should not be called on the main UI thread.
+     *
+     * @param localId The outbox row id of the operation.
+     */
+    public void recordPendingOperationAttempt(long localId) {
+
+        try {
+
+            this.getWritableDatabase().execSQL("UPDATE " + OUTBOX_TABLE_NAME +
+                    " SET " + OUTBOX_COLUMN_ATTEMPTS + " = " + OUTBOX_COLUMN_ATTEMPTS + " + 1" +
+                    " WHERE " + OUTBOX_COLUMN_ID + " = ?", new Object[]{localId});
+
+        } catch (Exception e) {
+
+            // Log error with row id and stack trace
+            Log.e("MyDatabaseHelper", "Error recording attempt for pending operation: " + localId, e);
+        }
+    }
 }
@@ -0,0 +1,419 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import static com.felicianowilliam.cs360projecttwo.Constants.BASE_URL;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.HttpUrl;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Process-wide, per-endpoint breakdown of where the time of each HTTP call goes.
+ *
+ * {@link #FACTORY} is installed on the shared client by {@link ApiClient#getClient}, so every
+ * call is timed without changes to the callers. Calls are grouped by the first path segment
+ * below {@link Constants#BASE_URL}, so "/inventory-items", "/inventory-items/{id}" and
+ * "/inventory-items/batch" all count towards "/inventory-items".
+ *
+ * Each endpoint keeps a rolling {@link LatencyHistogram} per {@link Phase} over its most recent
+ * calls, plus counters for calls, failures, new connections and cache hits. A phase is only
+ * recorded when it actually happened: a call on a pooled connection records no DNS, connect or
+ * TLS time, and a call answered from the cache records no network phases at all.
+ */
+public final class NetworkTimings {
+
+    /**
+     * A phase of an HTTP call.
+     */
+    public enum Phase {
+
+        // Resolving the host name
+        DNS,
+
+        // Opening the TCP connection, excluding TLS
+        CONNECT,
+
+        // The TLS handshake
+        TLS,
+
+        // Writing the request headers and body
+        REQUEST,
+
+        // From the end of the request to the first byte of the response headers
+        TIME_TO_FIRST_BYTE,
+
+        // Reading the response body; streamed bodies include the time spent decoding them
+        RESPONSE_BODY,
+
+        // The whole call, from start to end, including retries made by interceptors
+        TOTAL
+    }
+
+    // Number of recent samples kept per endpoint and phase
+    private static final int WINDOW_SIZE = 256;
+
+    // Endpoint used for calls outside BASE_URL
+    private static final String OTHER_ENDPOINT = "other";
+
+    // Host and path of BASE_URL; the path is stripped from request paths before grouping
+    private static final String BASE_HOST = HttpUrl.get(BASE_URL).host();
+    private static final String BASE_PATH = HttpUrl.get(BASE_URL).encodedPath();
+
+    // Statistics per endpoint, created on first use
+    private static final Map<String, EndpointStats> statsByEndpoint = new ConcurrentHashMap<>();
+
+    /**
+     * Creates one {@link CallTimer} per call. Install with {@code OkHttpClient.Builder.eventListenerFactory}.
+     */
+    public static final EventListener.Factory FACTORY = call -> new CallTimer(endpointOf(call.request().url()));
+
+    private NetworkTimings() {
+    }
+
+    /**
+     * Returns the endpoints that have been called so far.
+     *
+     * @return The endpoint names, e.g. "/login" or "/inventory-items".
+     */
+    public static List<String> getEndpoints() {
+        return new ArrayList<>(statsByEndpoint.keySet());
+    }
+
+    /**
+     * Returns a percentile of one phase over the most recent calls to an endpoint.
+     *
+     * @param endpoint   The endpoint, as returned by {@link #getEndpoints()}.
+     * @param phase      The phase to inspect.
+     * @param percentile The percentile between 0 and 100, e.g. 50, 90 or 99.
+     * @return The duration in milliseconds, or 0 if the phase has not been recorded for the endpoint.
+     */
+    public static long getPercentileMillis(String endpoint, Phase phase, double percentile) {
+
+        EndpointStats stats = statsByEndpoint.get(endpoint);
+
+        return stats == null ? 0 : stats.phases[phase.ordinal()].getPercentile(percentile);
+    }
+
+    /**
+     * Returns how many times a phase has been recorded for an endpoint.
+     *
+     * @param endpoint The endpoint, as returned by {@link #getEndpoints()}.
+     * @param phase    The phase to inspect.
+     * @return The number of samples recorded since the process started.
+     */
+    public static long getSampleCount(String endpoint, Phase phase) {
+
+        EndpointStats stats = statsByEndpoint.get(endpoint);
+
+        return stats == null ? 0 : stats.phases[phase.ordinal()].getTotalCount();
+    }
+
+    /**
+     * Returns the number of calls to an endpoint that have finished, successfully or not.
+     *
+     * @param endpoint The endpoint, as returned by {@link #getEndpoints()}.
+     * @return The number of finished calls since the process started.
+     */
+    public static int getCallCount(String endpoint) {
+
+        EndpointStats stats = statsByEndpoint.get(endpoint);
+
+        return stats == null ? 0 : stats.calls.get();
+    }
+
+    /**
+     * Returns the number of calls to an endpoint that failed without a response.
+     *
+     * @param endpoint The endpoint, as returned by {@link #getEndpoints()}.
+     * @return The number of failed calls since the process started.
+     */
+    public static int getFailureCount(String endpoint) {
+
+        EndpointStats stats = statsByEndpoint.get(endpoint);
+
+        return stats == null ? 0 : stats.failures.get();
+    }
+
+    /**
+     * Returns the number of new connections opened for calls to an endpoint.
+     * Compared with {@link #getCallCount}, this shows how often calls miss the connection pool.
+     *
+     * @param endpoint The endpoint, as returned by {@link #getEndpoints()}.
+     * @return The number of connections opened since the process started.
+     */
+    public static int getNewConnectionCount(String endpoint) {
+
+        EndpointStats stats = statsByEndpoint.get(endpoint);
+
+        return stats == null ? 0 : stats.newConnections.get();
+    }
+
+    /**
+     * Returns the number of calls to an endpoint answered entirely from the HTTP cache.
+     *
+     * @param endpoint The endpoint, as returned by {@link #getEndpoints()}.
+     * @return The number of cache hits since the process started.
+     */
+    public static int getCacheHitCount(String endpoint) {
+
+        EndpointStats stats = statsByEndpoint.get(endpoint);
+
+        return stats == null ? 0 : stats.cacheHits.get();
+    }
+
+    /**
+     * Builds a human-readable table of p50/p90/p99 per endpoint and phase, for logs and bug reports.
+     *
+     * @return One line per endpoint and recorded phase.
+     */
+    public static String getSummary() {
+
+        StringBuilder summary = new StringBuilder();
+
+        for (String endpoint : getEndpoints()) {
+
+            summary.append(endpoint)
+                    .append(": calls=").append(getCallCount(endpoint))
+                    .append(" failures=").append(getFailureCount(endpoint))
+                    .append(" newConnections=").append(getNewConnectionCount(endpoint))
+                    .append(" cacheHits=").append(getCacheHitCount(endpoint))
+                    .append('\n');
+
+            for (Phase phase : Phase.values()) {
+
+                // Skip phases this endpoint never went through
+                if (getSampleCount(endpoint, phase) == 0) {
+                    continue;
+                }
+
+                summary.append("  ").append(phase)
+                        .append(" p50=").append(getPercentileMillis(endpoint, phase, 50))
+                        .append(" p90=").append(getPercentileMillis(endpoint, phase, 90))
+                        .append(" p99=").append(getPercentileMillis(endpoint, phase, 99))
+                        .append(" ms\n");
+            }
+        }
+
+        return summary.toString();
+    }
+
+    /**
+     * Maps a request URL to the endpoint it is grouped under.
+     *
+     * @param url The request URL.
+     * @return "/" followed by the first path segment below BASE_URL, "/" for BASE_URL itself, or
+     *         "other" for URLs on another host or outside BASE_URL's path.
+     */
+    static String endpointOf(HttpUrl url) {
+
+        String path = url.encodedPath();
+
+        // Only whole segments match, so "/apiary" is not below "/api"
+        if (!url.host().equals(BASE_HOST) || !path.startsWith(BASE_PATH)
+                || (path.length() > BASE_PATH.length() && path.charAt(BASE_PATH.length()) != '/')) {
+
+            return OTHER_ENDPOINT;
+        }
+
+        // Keep only the first segment, e.g. "/inventory-items/abc" becomes "/inventory-items"
+        String relative = path.substring(BASE_PATH.length());
+
+        if (relative.isEmpty()) {
+
+            return "/";
+        }
+
+        int end = relative.indexOf('/', 1);
+
+        return end < 0 ? relative : relative.substring(0, end);
+    }
+
+    private static EndpointStats statsFor(String endpoint) {
+        return statsByEndpoint.computeIfAbsent(endpoint, key -> new EndpointStats());
+    }
+
+    /**
+     * The histograms and counters of one endpoint.
+     */
+    private static final class EndpointStats {
+
+        private final LatencyHistogram[] phases = new LatencyHistogram[Phase.values().length];
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private final AtomicInteger failures = new AtomicInteger();
+
+        private final AtomicInteger newConnections = new AtomicInteger();
+
+        private final AtomicInteger cacheHits = new AtomicInteger();
+
+        EndpointStats() {
+
+            for (int i = 0; i < phases.length; i++) {
+                phases[i] = new LatencyHistogram(WINDOW_SIZE);
+            }
+        }
+    }
+
+    /**
+     * Times the phases of a single call and records them for its endpoint.
+     * <p>
+     * OkHttp delivers the events of one call sequentially, so no synchronization is needed. A call
+     * retried by an interceptor goes through the request and response phases again, and each
+     * attempt is recorded.
+     */
+    private static final class CallTimer extends EventListener {
+
+        private final EndpointStats stats;
+
+        private long callStartNanos;
+
+        private long dnsStartNanos;
+
+        private long connectStartNanos;
+
+        private long secureConnectStartNanos;
+
+        private long requestStartNanos;
+
+        private long requestEndNanos;
+
+        private long responseBodyStartNanos;
+
+        CallTimer(String endpoint) {
+            this.stats = statsFor(endpoint);
+        }
+
+        @Override
+        public void callStart(@NonNull Call call) {
+            callStartNanos = System.nanoTime();
+        }
+
+        @Override
+        public void dnsStart(@NonNull Call call, @NonNull String domainName) {
+            dnsStartNanos = System.nanoTime();
+        }
+
+        @Override
+        public void dnsEnd(@NonNull Call call, @NonNull String domainName, @NonNull List<InetAddress> inetAddressList) {
+            record(Phase.DNS, dnsStartNanos);
+        }
+
+        @Override
+        public void connectStart(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress, @NonNull Proxy proxy) {
+
+            connectStartNanos = System.nanoTime();
+
+            secureConnectStartNanos = 0;
+
+            stats.newConnections.incrementAndGet();
+        }
+
+        @Override
+        public void secureConnectStart(@NonNull Call call) {
+
+            secureConnectStartNanos = System.nanoTime();
+
+            // TCP is established once the TLS handshake begins
+            record(Phase.CONNECT, connectStartNanos);
+        }
+
+        @Override
+        public void secureConnectEnd(@NonNull Call call, Handshake handshake) {
+            record(Phase.TLS, secureConnectStartNanos);
+        }
+
+        @Override
+        public void connectEnd(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress, @NonNull Proxy proxy, Protocol protocol) {
+
+            // Plain connections have no TLS phase to end the TCP phase
+            if (secureConnectStartNanos == 0) {
+
+                record(Phase.CONNECT, connectStartNanos);
+            }
+        }
+
+        @Override
+        public void requestHeadersStart(@NonNull Call call) {
+            requestStartNanos = System.nanoTime();
+        }
+
+        @Override
+        public void requestHeadersEnd(@NonNull Call call, @NonNull Request request) {
+
+            requestEndNanos = System.nanoTime();
+
+            // Requests without a body are complete once the headers are written
+            if (request.body() == null) {
+
+                record(Phase.REQUEST, requestStartNanos);
+            }
+        }
+
+        @Override
+        public void requestBodyEnd(@NonNull Call call, long byteCount) {
+
+            requestEndNanos = System.nanoTime();
+
+            record(Phase.REQUEST, requestStartNanos);
+        }
+
+        @Override
+        public void responseHeadersStart(@NonNull Call call) {
+            record(Phase.TIME_TO_FIRST_BYTE, requestEndNanos);
+        }
+
+        @Override
+        public void responseBodyStart(@NonNull Call call) {
+            responseBodyStartNanos = System.nanoTime();
+        }
+
+        @Override
+        public void responseBodyEnd(@NonNull Call call, long byteCount) {
+            record(Phase.RESPONSE_BODY, responseBodyStartNanos);
+        }
+
+        @Override
+        public void cacheHit(@NonNull Call call, @NonNull Response response) {
+            stats.cacheHits.incrementAndGet();
+        }
+
+        @Override
+        public void callEnd(@NonNull Call call) {
+
+            stats.calls.incrementAndGet();
+
+            record(Phase.TOTAL, callStartNanos);
+        }
+
+        @Override
+        public void callFailed(@NonNull Call call, @NonNull IOException ioe) {
+
+            stats.calls.incrementAndGet();
+
+            stats.failures.incrementAndGet();
+
+            record(Phase.TOTAL, callStartNanos);
+        }
+
+        private void record(Phase phase, long startNanos) {
+            stats.phases[phase.ordinal()].record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        }
+    }
+}
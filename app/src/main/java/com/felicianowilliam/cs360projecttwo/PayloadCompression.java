@@ -0,0 +1,290 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ForwardingSource;
+import okio.GzipSink;
+import okio.Okio;
+import okio.Source;
+
+/**
+ * Request-body compression and per-endpoint compression statistics.
+ *
+ * Request bodies are sent as-is unless the request opts in with
+ * {@code Request.Builder.tag(RequestEncoding.class, RequestEncoding.GZIP)}. An opted-in body of
+ * at least {@link #MIN_GZIP_BYTES} bytes is gzipped and sent with {@code Content-Encoding: gzip},
+ * if that makes it smaller. Only large payloads such as batch writes opt in.
+ *
+ * Response encoding is negotiated by OkHttp's BrotliInterceptor, which {@link ApiClient} installs
+ * after {@link #INTERCEPTOR}. It advertises {@code Accept-Encoding: br,gzip} and decodes whichever the
+ * server picks.
+ *
+ * The achieved ratios are recorded per endpoint, grouped like {@link NetworkTimings}:
+ * <ul>
+ *   <li>Requests: body bytes before and after compression, counted by {@link #INTERCEPTOR}.</li>
+ *   <li>Responses: body bytes on the wire, counted by the {@link #WIRE_BYTE_COUNTER} network
+ *       interceptor below the decoder, and body bytes after decoding, counted by {@link #INTERCEPTOR}
+ *       above it. Only successful responses fetched from the network are counted, so cache hits
+ *       do not distort the ratio.</li>
+ * </ul>
+ */
+public final class PayloadCompression {
+
+    /**
+     * Content encodings a request may ask for its body.
+     */
+    public enum RequestEncoding {
+        GZIP
+    }
+
+    // Smallest opted-in request body worth compressing
+    static final long MIN_GZIP_BYTES = 1024;
+
+    // Byte totals per endpoint, created on first use
+    private static final Map<String, EndpointBytes> bytesByEndpoint = new ConcurrentHashMap<>();
+
+    /**
+     * Application interceptor that gzips opted-in request bodies and counts decoded response bytes.
+     * Must be installed after any interceptor that reads request bodies for display, and before the
+     * interceptor that decodes response bodies.
+     */
+    public static final Interceptor INTERCEPTOR = PayloadCompression::compressAndCount;
+
+    /**
+     * Network interceptor that counts response body bytes as they arrive on the wire, still encoded.
+     */
+    public static final Interceptor WIRE_BYTE_COUNTER = chain -> {
+
+        Response response = chain.proceed(chain.request());
+
+        if (!response.isSuccessful() || response.body() == null) {
+
+            return response;
+        }
+
+        EndpointBytes bytes = bytesFor(chain.request());
+
+        return response.newBuilder()
+                .body(countingBody(response.body(), bytes.responseWireBytes))
+                .build();
+    };
+
+    private PayloadCompression() {
+    }
+
+    /**
+     * Returns the endpoints that have sent or received bodies so far.
+     *
+     * @return The endpoint names, e.g. "/inventory-items".
+     */
+    public static List<String> getEndpoints() {
+        return new ArrayList<>(bytesByEndpoint.keySet());
+    }
+
+    /**
+     * Returns how much smaller request bodies to an endpoint were on the wire.
+     *
+     * @param endpoint The endpoint, as returned by {@link #getEndpoints()}.
+     * @return Uncompressed bytes divided by sent bytes (e.g. 4.0 for a quarter of the size), or 0 if nothing was sent.
+     */
+    public static double getRequestCompressionRatio(String endpoint) {
+
+        EndpointBytes bytes = bytesByEndpoint.get(endpoint);
+
+        return bytes == null ? 0 : ratio(bytes.requestRawBytes.get(), bytes.requestSentBytes.get());
+    }
+
+    /**
+     * Returns how much smaller response bodies from an endpoint were on the wire.
+     *
+     * @param endpoint The endpoint, as returned by {@link #getEndpoints()}.
+     * @return Decoded bytes divided by wire bytes (e.g. 4.0 for a quarter of the size), or 0 if nothing was received.
+     */
+    public static double getResponseCompressionRatio(String endpoint) {
+
+        EndpointBytes bytes = bytesByEndpoint.get(endpoint);
+
+        return bytes == null ? 0 : ratio(bytes.responseDecodedBytes.get(), bytes.responseWireBytes.get());
+    }
+
+    /**
+     * Returns the total number of body bytes sent to and received from an endpoint on the wire.
+     *
+     * @param endpoint The endpoint, as returned by {@link #getEndpoints()}.
+     * @return The request plus response body bytes as transferred, after compression.
+     */
+    public static long getWireBytes(String endpoint) {
+
+        EndpointBytes bytes = bytesByEndpoint.get(endpoint);
+
+        return bytes == null ? 0 : bytes.requestSentBytes.get() + bytes.responseWireBytes.get();
+    }
+
+    /**
+     * Builds a human-readable line per endpoint with its byte totals and ratios, for logs and bug reports.
+     *
+     * @return One line per endpoint.
+     */
+    public static String getSummary() {
+
+        StringBuilder summary = new StringBuilder();
+
+        for (String endpoint : getEndpoints()) {
+
+            EndpointBytes bytes = bytesByEndpoint.get(endpoint);
+
+            summary.append(endpoint)
+                    .append(": request ").append(bytes.requestRawBytes.get()).append(" -> ").append(bytes.requestSentBytes.get())
+                    .append(String.format(" B (x%.2f)", getRequestCompressionRatio(endpoint)))
+                    .append(", response ").append(bytes.responseWireBytes.get()).append(" -> ").append(bytes.responseDecodedBytes.get())
+                    .append(String.format(" B (x%.2f)", getResponseCompressionRatio(endpoint)))
+                    .append('\n');
+        }
+
+        return summary.toString();
+    }
+
+    /**
+     * Gzips an opted-in request body and wraps the response body to count decoded bytes.
+     */
+    private static Response compressAndCount(Interceptor.Chain chain) throws IOException {
+
+        Request request = chain.request();
+
+        EndpointBytes bytes = bytesFor(request);
+
+        RequestBody body = request.body();
+
+        if (body != null && request.header("Content-Encoding") == null) {
+
+            long rawLength = body.contentLength();
+
+            // Only known-length, opted-in bodies that can be read once here
+            if (request.tag(RequestEncoding.class) == RequestEncoding.GZIP && rawLength >= MIN_GZIP_BYTES
+                    && !body.isOneShot() && !body.isDuplex()) {
+
+                Buffer compressed = gzip(body);
+
+                // Fall back to the plain body when gzip does not help
+                if (compressed.size() < rawLength) {
+
+                    bytes.requestRawBytes.addAndGet(rawLength);
+                    bytes.requestSentBytes.addAndGet(compressed.size());
+
+                    request = request.newBuilder()
+                            .header("Content-Encoding", "gzip")
+                            .method(request.method(), RequestBody.create(compressed.readByteString(), body.contentType()))
+                            .build();
+
+                    body = null;
+                }
+            }
+
+            // Bodies sent as-is count one to one
+            if (body != null && rawLength > 0) {
+
+                bytes.requestRawBytes.addAndGet(rawLength);
+                bytes.requestSentBytes.addAndGet(rawLength);
+            }
+        }
+
+        Response response = chain.proceed(request);
+
+        // Cache hits and failures say nothing about the wire encoding
+        if (!response.isSuccessful() || response.body() == null
+                || response.networkResponse() == null || response.cacheResponse() != null) {
+
+            return response;
+        }
+
+        return response.newBuilder()
+                .body(countingBody(response.body(), bytes.responseDecodedBytes))
+                .build();
+    }
+
+    /**
+     * Writes a request body through gzip into memory.
+     *
+     * @param body The body to compress.
+     * @return The compressed bytes.
+     * @throws IOException If the body cannot be written.
+     */
+    private static Buffer gzip(RequestBody body) throws IOException {
+
+        Buffer compressed = new Buffer();
+
+        try (BufferedSink gzipSink = Okio.buffer(new GzipSink(compressed))) {
+
+            body.writeTo(gzipSink);
+        }
+
+        return compressed;
+    }
+
+    /**
+     * Wraps a response body so the bytes read from it are added to a counter.
+     *
+     * @param body    The body to wrap.
+     * @param counter The counter to add to.
+     * @return A body with the same content type and length.
+     */
+    private static ResponseBody countingBody(ResponseBody body, AtomicLong counter) {
+
+        Source counting = new ForwardingSource(body.source()) {
+
+            @Override
+            public long read(@NonNull Buffer sink, long byteCount) throws IOException {
+
+                long read = super.read(sink, byteCount);
+
+                if (read > 0) {
+
+                    counter.addAndGet(read);
+                }
+
+                return read;
+            }
+        };
+
+        MediaType contentType = body.contentType();
+
+        return ResponseBody.create(Okio.buffer(counting), contentType, body.contentLength());
+    }
+
+    private static double ratio(long before, long after) {
+        return after == 0 ? 0 : (double) before / after;
+    }
+
+    private static EndpointBytes bytesFor(Request request) {
+        return bytesByEndpoint.computeIfAbsent(NetworkTimings.endpointOf(request.url()), key -> new EndpointBytes());
+    }
+
+    /**
+     * The body byte totals of one endpoint.
+     */
+    private static final class EndpointBytes {
+
+        private final AtomicLong requestRawBytes = new AtomicLong();
+
+        private final AtomicLong requestSentBytes = new AtomicLong();
+
+        private final AtomicLong responseWireBytes = new AtomicLong();
+
+        private final AtomicLong responseDecodedBytes = new AtomicLong();
+    }
+}
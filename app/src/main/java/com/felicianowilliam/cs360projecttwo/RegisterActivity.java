@@ -345,4 +345,19 @@ public class RegisterActivity extends AppCompatActivity {
             }
         });
     }
+
+    /**
+     * <p>Called as part of the activity lifecycle when the activity is being destroyed.
+     * Cancels a registration still in flight, so its callback cannot start the
+     * {@link InventoryActivity} from a finished screen.</p>
+     */
+    @Override
+    protected void onDestroy() {
+
+        // Call the parent class's onDestroy method
+        super.onDestroy();
+
+        // Cancel a registration still in flight
+        apiService.cancelAll();
+    }
 }
@@ -0,0 +1,428 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.HttpURLConnection;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Retries transient failures of idempotent API calls, and stops calling a backend that is down.
+ *
+ * <ul>
+ *   <li><b>Retries:</b> calls enqueued with {@link #enqueue} that are GET, HEAD, PUT or DELETE and
+ *       fail with an {@link IOException} or answer 408, 429, 502, 503 or 504 are sent again, up to
+ *       {@link #MAX_ATTEMPTS} attempts in all. Before each retry the call waits for a random time
+ *       between zero and an exponential bound ("full jitter"), so clients that failed together do
+ *       not retry together. A {@code Retry-After} of a few seconds is honoured instead. The wait
+ *       is a timer, not a sleeping thread: the failed call ends and gives back its dispatcher slot,
+ *       and a new call is enqueued when the timer fires, so calls waiting to retry never hold up
+ *       other calls to the same host. A retry that would start after the deadline is not
+ *       attempted, and nothing is sent for an operation cancelled while waiting. POST calls are
+ *       never retried, since the server may have acted on them before the failure.</li>
+ *   <li><b>Circuit breaker:</b> {@link #INTERCEPTOR} gives each host a {@link CircuitBreaker}.
+ *       Network failures and 502, 503 and 504 answers count against it; after
+ *       {@link #FAILURE_THRESHOLD} in a row, calls to the host fail at once with
+ *       {@link CircuitOpenException} instead of waiting on the network. When the open period is
+ *       over, the next call is let through as a probe, and its outcome closes the breaker or keeps
+ *       it open for longer. The interceptor covers every call of the client, including the ones
+ *       executed directly, which are not retried.</li>
+ * </ul>
+ * Both end as the {@link IOException} the services already handle, so callers see one error
+ * after the retries instead of one per dropped packet.
+ */
+public final class RetryPolicy {
+
+    /**
+     * Thrown instead of calling a host whose circuit breaker is open.
+     */
+    public static final class CircuitOpenException extends IOException {
+
+        CircuitOpenException(String host, long remainingMillis) {
+            super("Server " + host + " is unavailable, try again in " + TimeUnit.MILLISECONDS.toSeconds(remainingMillis + 999) + " s");
+        }
+    }
+
+    // Attempts per call, including the first
+    static final int MAX_ATTEMPTS = 3;
+
+    // Upper bound of the first backoff; it doubles for every further retry
+    private static final long BASE_BACKOFF_MS = 250;
+
+    // Largest backoff bound
+    private static final long MAX_BACKOFF_MS = 4_000;
+
+    // Longest Retry-After that is waited for; longer waits are left to the user
+    private static final long MAX_RETRY_AFTER_MS = 5_000;
+
+    // Consecutive failures that open a host's breaker
+    static final int FAILURE_THRESHOLD = 5;
+
+    // How long a breaker stays open before its first probe, and at most after failed probes
+    private static final long BASE_OPEN_MS = 10_000;
+    private static final long MAX_OPEN_MS = 2 * 60_000;
+
+    // Status sent by servers asking clients to slow down
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    // Breakers per host, created on first use
+    private static final Map<String, CircuitBreaker> breakersByHost = new ConcurrentHashMap<>();
+
+    // Number of retries sent, and of calls refused by an open breaker
+    private static final AtomicInteger retryCount = new AtomicInteger();
+    private static final AtomicInteger failFastCount = new AtomicInteger();
+
+    // Timer thread that enqueues retries once their backoff is over; it never runs a call itself
+    private static final ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "api-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Application interceptor applying the circuit breakers described above. Must be installed
+     * before the authentication interceptor, so a call refused by an open breaker never triggers
+     * a token refresh.
+     */
+    public static final Interceptor INTERCEPTOR = RetryPolicy::proceedThroughBreaker;
+
+    private RetryPolicy() {
+    }
+
+    /**
+     * Returns the state of a host's circuit breaker.
+     *
+     * @param host The host name.
+     * @return The state; {@link CircuitBreaker.State#CLOSED} for a host not called yet.
+     */
+    public static CircuitBreaker.State getCircuitState(String host) {
+
+        CircuitBreaker breaker = breakersByHost.get(host);
+
+        return breaker == null ? CircuitBreaker.State.CLOSED : breaker.getState(SystemClock.elapsedRealtime());
+    }
+
+    /**
+     * Returns the number of retries sent since the process started.
+     *
+     * @return The retry count.
+     */
+    public static int getRetryCount() {
+        return retryCount.get();
+    }
+
+    /**
+     * Returns the number of calls refused by an open circuit breaker since the process started.
+     *
+     * @return The fail-fast count.
+     */
+    public static int getFailFastCount() {
+        return failFastCount.get();
+    }
+
+    /**
+     * Enqueues a request as one operation, retrying transient failures as described above.
+     * <p>
+     * Each attempt is a new call bound to the operation's handle, so cancelling the handle
+     * cancels the attempt in flight, or stops a retry that is still waiting. The callback hears
+     * the outcome of the last attempt only, on an OkHttp call thread; it is not invoked if the
+     * operation is cancelled before an attempt is made.
+     *
+     * @param client          The client to send the request with.
+     * @param handle          The operation's handle.
+     * @param request         The request to send.
+     * @param deadlineSeconds The time all attempts and the waits between them may take together.
+     * @param callback        Receives the final response or failure.
+     */
+    static void enqueue(OkHttpClient client, ApiCall handle, Request request, long deadlineSeconds, Callback callback) {
+
+        long deadlineNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(deadlineSeconds);
+
+        enqueueAttempt(client, handle, request, deadlineNanos, 1, callback);
+    }
+
+    private static void enqueueAttempt(OkHttpClient client, ApiCall handle, Request request, long deadlineNanos, int attempt, Callback callback) {
+
+        Call call = client.newCall(request);
+
+        // One deadline covers every attempt, so retries cannot extend the call
+        call.timeout().deadlineNanoTime(deadlineNanos);
+
+        handle.bind(call).enqueue(new Callback() {
+
+            @Override
+            public void onResponse(@NonNull Call call, @NonNull Response response) throws IOException {
+
+                long delay = retryDelayMillis(request, attempt, response, deadlineNanos);
+
+                if (delay < 0) {
+
+                    callback.onResponse(call, response);
+                    return;
+                }
+
+                response.close();
+
+                Log.w("RetryPolicy", request.method() + " " + request.url().encodedPath() + " answered HTTP " + response.code() + ", retry " + attempt);
+
+                retryLater(client, handle, request, deadlineNanos, attempt, callback, delay);
+            }
+
+            @Override
+            public void onFailure(@NonNull Call call, @NonNull IOException e) {
+
+                // A cancelled call must not be retried
+                long delay = call.isCanceled() ? -1 : retryDelayMillis(request, attempt, deadlineNanos);
+
+                if (delay < 0) {
+
+                    callback.onFailure(call, e);
+                    return;
+                }
+
+                Log.w("RetryPolicy", request.method() + " " + request.url().encodedPath() + " failed (" + e + "), retry " + attempt);
+
+                retryLater(client, handle, request, deadlineNanos, attempt, callback, delay);
+            }
+        });
+    }
+
+    /**
+     * Enqueues the next attempt once the delay has passed, unless the operation is cancelled by then.
+     */
+    private static void retryLater(OkHttpClient client, ApiCall handle, Request request, long deadlineNanos, int attempt, Callback callback, long delay) {
+
+        retryScheduler.schedule(() -> {
+
+            // Nothing is sent for an operation cancelled while waiting
+            if (handle.isCanceled()) {
+
+                return;
+            }
+
+            retryCount.incrementAndGet();
+
+            enqueueAttempt(client, handle, request, deadlineNanos, attempt + 1, callback);
+
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns how long to wait before retrying a call that got an answer.
+     *
+     * @return The delay in milliseconds, or -1 if the answer is final.
+     */
+    private static long retryDelayMillis(Request request, int attempt, Response response, long deadlineNanos) {
+
+        // Answered from the cache, or not worth sending again
+        if (response.networkResponse() == null || !isRetryableStatus(response.code()) || !mayRetry(request, attempt)) {
+
+            return -1;
+        }
+
+        long retryAfter = retryAfterMillis(response);
+
+        // The server asked for a longer pause than is worth waiting for
+        if (retryAfter > MAX_RETRY_AFTER_MS) {
+
+            return -1;
+        }
+
+        return fitBeforeDeadline(retryAfter >= 0 ? retryAfter : backoffMillis(attempt), deadlineNanos);
+    }
+
+    /**
+     * Returns how long to wait before retrying a call that failed without an answer.
+     *
+     * @return The delay in milliseconds, or -1 if the failure is final.
+     */
+    private static long retryDelayMillis(Request request, int attempt, long deadlineNanos) {
+
+        if (!mayRetry(request, attempt)) {
+
+            return -1;
+        }
+
+        return fitBeforeDeadline(backoffMillis(attempt), deadlineNanos);
+    }
+
+    /**
+     * Checks the limits every retry is subject to: the method, the attempt count and the breaker.
+     */
+    private static boolean mayRetry(Request request, int attempt) {
+
+        if (attempt >= MAX_ATTEMPTS || !isRetryable(request)) {
+
+            return false;
+        }
+
+        // Once the breaker has opened, a retry would only fail fast
+        CircuitBreaker breaker = breakersByHost.get(request.url().host());
+
+        return breaker == null || breaker.getRemainingOpenMillis(SystemClock.elapsedRealtime()) == 0;
+    }
+
+    /**
+     * Returns the delay if the retry can still start before the deadline, and -1 otherwise,
+     * since a retry cut short by the deadline would only replace the answer already received.
+     */
+    private static long fitBeforeDeadline(long delay, long deadlineNanos) {
+
+        long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+
+        return delay < remainingMillis ? delay : -1;
+    }
+
+    private static Response proceedThroughBreaker(Interceptor.Chain chain) throws IOException {
+
+        Request request = chain.request();
+
+        String host = request.url().host();
+
+        CircuitBreaker breaker = breakersByHost.computeIfAbsent(host, key -> new CircuitBreaker(FAILURE_THRESHOLD, BASE_OPEN_MS, MAX_OPEN_MS));
+
+        // Fail fast while the backend is known to be down
+        if (!breaker.tryAcquire(SystemClock.elapsedRealtime())) {
+
+            failFastCount.incrementAndGet();
+
+            throw new CircuitOpenException(host, breaker.getRemainingOpenMillis(SystemClock.elapsedRealtime()));
+        }
+
+        Response response;
+
+        try {
+
+            response = chain.proceed(request);
+
+        } catch (IOException e) {
+
+            // A cancelled call says nothing about the backend
+            if (chain.call().isCanceled()) {
+
+                breaker.onAbandoned();
+
+            } else {
+
+                breaker.onFailure(SystemClock.elapsedRealtime());
+            }
+
+            throw e;
+        }
+
+        // Answered from the cache without asking the backend
+        if (response.networkResponse() == null) {
+
+            breaker.onAbandoned();
+
+        } else if (isServerUnavailable(response.code())) {
+
+            // Gateway errors mean the app service is down or starting
+            breaker.onFailure(SystemClock.elapsedRealtime());
+
+        } else {
+
+            breaker.onSuccess();
+        }
+
+        return response;
+    }
+
+    /**
+     * Checks whether a call failed before any part of its request reached the server: the host
+     * could not be resolved or connected to, or its circuit breaker was open. Timeouts and
+     * connections dropped mid-call do not qualify, since the server may have received the request.
+     *
+     * @param e The exception the call failed with.
+     * @return {@code true} if the server cannot have acted on the request.
+     */
+    public static boolean failedBeforeSending(Exception e) {
+
+        return e instanceof CircuitOpenException || e instanceof ConnectException
+                || e instanceof UnknownHostException || e instanceof NoRouteToHostException;
+    }
+
+    /**
+     * Checks whether a call may be sent more than once.
+     */
+    private static boolean isRetryable(Request request) {
+
+        switch (request.method()) {
+
+            case "GET":
+            case "HEAD":
+            case "PUT":
+            case "DELETE":
+                // A body that can only be written once cannot be sent again
+                return request.body() == null || !request.body().isOneShot();
+
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isRetryableStatus(int code) {
+        return code == HttpURLConnection.HTTP_CLIENT_TIMEOUT || code == HTTP_TOO_MANY_REQUESTS || isServerUnavailable(code);
+    }
+
+    private static boolean isServerUnavailable(int code) {
+
+        return code == HttpURLConnection.HTTP_BAD_GATEWAY || code == HttpURLConnection.HTTP_UNAVAILABLE
+                || code == HttpURLConnection.HTTP_GATEWAY_TIMEOUT;
+    }
+
+    /**
+     * Returns a random backoff before the given retry, with full jitter.
+     *
+     * @param retry The retry about to be sent, starting at 1.
+     * @return The delay in milliseconds.
+     */
+    static long backoffMillis(int retry) {
+
+        long bound = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << Math.min(retry - 1, 16));
+
+        return ThreadLocalRandom.current().nextLong(bound + 1);
+    }
+
+    /**
+     * Returns the delay asked for by a Retry-After header in seconds, or -1 if there is none.
+     */
+    private static long retryAfterMillis(Response response) {
+
+        String retryAfter = response.header("Retry-After");
+
+        if (retryAfter == null) {
+
+            return -1;
+        }
+
+        try {
+
+            return TimeUnit.SECONDS.toMillis(Math.max(0, Long.parseLong(retryAfter.trim())));
+
+        } catch (NumberFormatException e) {
+
+            // An HTTP date; use the regular backoff
+            return -1;
+        }
+    }
+}
@@ -92,6 +92,9 @@ public class SigninActivity extends AppCompatActivity {
         // Initialize API service
         apiService = new InventoryApiService(getApplicationContext());
 
+        // Make sure a warm connection is ready for the login request
+        ApiClient.warmUp(this);
+
         // Initialize email input layout
         tilEmailSignin = findViewById(R.id.tilEmailSignin);
 
@@ -393,7 +396,8 @@ public class SigninActivity extends AppCompatActivity {
 
     /**
      * <p>Called as part of the activity lifecycle when the activity is being destroyed.
-     * Performs cleanup tasks including dismissing any showing dialogs to prevent window leaks.
+     * Performs cleanup tasks including cancelling a login still in flight and dismissing any
+     * showing dialogs to prevent window leaks.
      * Always calls the superclass's implementation first.</p>
      */
     @Override
@@ -402,6 +406,9 @@ public class SigninActivity extends AppCompatActivity {
         // Call the parent class's onDestroy method
         super.onDestroy();
 
+        // Cancel a login still in flight so it cannot navigate from a finished screen
+        apiService.cancelAll();
+
         // Check if the phone number dialog exists and is currently showing
         if (phoneNumberDialog != null && phoneNumberDialog.isShowing()) {
 
@@ -93,6 +93,9 @@ public class SmsNotificationActivity extends AppCompatActivity {
 
         setContentView(R.layout.activity_sms_notification);
 
+        // Build the network stack and open a connection to the API while the user is on this screen
+        ApiClient.warmUp(this);
+
         // If SMS  permissions are already granted, redirect to SigninActivity
         if(hasSmsPermission()){
             Intent intent = new Intent(this, SigninActivity.class);
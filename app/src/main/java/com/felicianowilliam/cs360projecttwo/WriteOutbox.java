@@ -0,0 +1,510 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Response;
+
+/**
+ * A durable, process-wide queue of inventory writes that keeps working without a connection.
+ *
+ * Creates, updates and deletes are submitted here instead of directly to
+ * {@link InventoryApiService}. Every write is first stored in the outbox table of
+ * {@link MyDatabaseHelper} and then sent from there, so a write is never lost and never sent
+ * while another one is in flight. While the device is online and the queue is moving, the caller
+ * hears the outcome of the first attempt. If the device is offline, earlier writes are waiting for
+ * a retry, or the first attempt fails before the server answers, the caller is told the write was
+ * queued, so the user can move on immediately.
+ *
+ * Writes are sent one at a time, oldest first, so a later edit never overtakes an
+ * earlier one. A write that fails for lack of connectivity or a server error stays at the head of
+ * the queue and is retried with exponential backoff; replay restarts at once when the network
+ * comes back. After {@link InventorySync#MAX_ATTEMPTS} failed attempts that reached the network,
+ * the write is dropped so the writes behind it can go out. A write the server rejects outright (a 4xx other than 401, 408 or 429) is dropped,
+ * since sending it again cannot succeed. A create is only retried when it provably never reached
+ * the server, as decided by {@link InventorySync#isSafeToResend(String, int)}; one that may have
+ * been applied is dropped too, since sending it again could add the item twice. Dropped writes
+ * are reported to the caller, or to the {@link OnDroppedListener} if the caller was already
+ * told the write was queued.
+ *
+ * All outbox reads and writes run on one dedicated thread; callbacks are delivered on the main thread.
+ */
+public class WriteOutbox {
+
+    private static WriteOutbox instance;
+
+    private final Context appContext;
+
+    private final MyDatabaseHelper dbHelper;
+
+    private final InventoryApiService apiService;
+
+    private final SessionManager sessionManager;
+
+    private final ConnectivityManager connectivityManager;
+
+    // Handler for posting results back to the main/UI thread
+    private final Handler mainThreadHandler = new Handler(Looper.getMainLooper());
+
+    // Single thread that owns the outbox table and schedules retries
+    private final ScheduledExecutorService outboxExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "write-outbox");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Whether an operation is currently being sent (outbox thread only)
+    private boolean isReplaying = false;
+
+    // Retry scheduled after a failed replay, if any (outbox thread only)
+    private ScheduledFuture<?> scheduledRetry;
+
+    // Callbacks of submitted writes waiting for their first attempt, by outbox row id (outbox thread only)
+    private final Map<Long, WriteCallback> waitingCallbacks = new HashMap<>();
+
+    // Whether a write whose caller was told it was queued has been sent since the last drain (outbox thread only)
+    private boolean replayedQueuedWrite = false;
+
+    // Listener told when the outbox has been emptied by a replay (main thread only)
+    private Runnable onDrainedListener;
+
+    // Listener told when a queued write is dropped instead of sent (main thread only)
+    private OnDroppedListener onDroppedListener;
+
+    /**
+     * Callback interface for the outcome of a submitted write.
+     * All methods are invoked on the main thread.
+     */
+    public interface WriteCallback {
+
+        // Called when the server applied the write; the item is null for deletes
+        void onSent(InventoryItem result);
+
+        // Called when the write was stored in the outbox and will be replayed later
+        void onQueued();
+
+        // Called when the server rejected the write, or a create could not be confirmed
+        void onError(String error, int statusCode);
+    }
+
+    /**
+     * Listener for queued writes that were dropped instead of sent, after their caller was told
+     * they were queued. Invoked on the main thread.
+     */
+    public interface OnDroppedListener {
+
+        // Called with the dropped write, why it was dropped and the status it failed with
+        void onDropped(PendingOperation operation, String error, int statusCode);
+    }
+
+    private WriteOutbox(Context context) {
+
+        appContext = context.getApplicationContext();
+
+        dbHelper = new MyDatabaseHelper(appContext);
+
+        apiService = new InventoryApiService(appContext);
+
+        sessionManager = new SessionManager(appContext);
+
+        connectivityManager = (ConnectivityManager) appContext.getSystemService(Context.CONNECTIVITY_SERVICE);
+
+        // Replay as soon as a network becomes available
+        connectivityManager.registerDefaultNetworkCallback(new ConnectivityManager.NetworkCallback() {
+            @Override
+            public void onAvailable(Network network) {
+
+                Log.d("WriteOutbox", "Network available. Replaying outbox.");
+
+                outboxExecutor.execute(() -> replayNow());
+            }
+        });
+
+        // Send anything left over from a previous run
+        replay();
+    }
+
+    /**
+     * Returns the process-wide outbox, creating it on first use.
+     *
+     * @param context Any context; the application context is retained.
+     * @return The shared outbox.
+     */
+    public static synchronized WriteOutbox getInstance(Context context) {
+
+        if (instance == null) {
+
+            instance = new WriteOutbox(context);
+        }
+
+        return instance;
+    }
+
+    /**
+     * Stores a write in the outbox and sends it as soon as the writes before it are done.
+     *
+     * @param operation The write to apply.
+     * @param callback  The callback told whether the write was sent, queued or rejected.
+     * @return A handle that stops the callback from being delivered, for callers that go away
+     *         before the write completes. The write itself is still sent or queued.
+     */
+    public ApiCall submit(PendingOperation operation, WriteCallback callback) {
+
+        // Cancelling only detaches the caller, since a write the user saved must not be lost
+        ApiCall handle = new ApiCall();
+
+        WriteCallback guardedCallback = guard(handle, callback);
+
+        outboxExecutor.execute(() -> {
+
+            long localId = dbHelper.addPendingOperation(operation);
+
+            // The write could not even be stored locally
+            if (localId < 0) {
+
+                mainThreadHandler.post(() -> guardedCallback.onError("Could not store the change for later.", 0));
+                return;
+            }
+
+            // Wait for the first attempt only while it can happen soon
+            if (isOnline() && scheduledRetry == null) {
+
+                waitingCallbacks.put(localId, guardedCallback);
+
+            } else {
+
+                Log.d("WriteOutbox", "Queued " + operation.getType() + " as outbox row " + localId + ".");
+
+                mainThreadHandler.post(guardedCallback::onQueued);
+            }
+
+            replayNow();
+        });
+
+        return handle;
+    }
+
+    /**
+     * Starts replaying the outbox, cancelling any pending backoff.
+     */
+    public void replay() {
+
+        outboxExecutor.execute(this::replayNow);
+    }
+
+    /**
+     * Sets the listener told on the main thread whenever a replay empties the outbox, so a
+     * visible inventory list can pick up the replayed writes.
+     *
+     * @param listener The listener, or null to remove it.
+     */
+    public void setOnDrainedListener(Runnable listener) {
+
+        onDrainedListener = listener;
+    }
+
+    /**
+     * Sets the listener told on the main thread when a write that was reported as queued is
+     * dropped, so the user learns that the change did not reach the server.
+     *
+     * @param listener The listener, or null to remove it.
+     */
+    public void setOnDroppedListener(OnDroppedListener listener) {
+
+        onDroppedListener = listener;
+    }
+
+    /**
+     * Sends the oldest queued write of the logged-in user, unless one is already being sent
+     * (outbox thread only). Each completed write triggers the next, until the outbox is empty
+     * or a write has to wait for a retry.
+     */
+    private void replayNow() {
+
+        // A retry is replaced by this replay
+        if (scheduledRetry != null) {
+
+            scheduledRetry.cancel(false);
+
+            scheduledRetry = null;
+        }
+
+        // One write at a time keeps the queue in order
+        if (isReplaying) {
+
+            return;
+        }
+
+        String username = sessionManager.getUsername();
+
+        PendingOperation operation = username != null ? dbHelper.getNextPendingOperation(username) : null;
+
+        // Nothing to send
+        if (operation == null) {
+
+            return;
+        }
+
+        isReplaying = true;
+
+        send(operation, new InventoryApiService.ApiCallback<InventoryItem>() {
+            @Override
+            public Response onSuccess(InventoryItem result) {
+
+                outboxExecutor.execute(() -> onReplayed(operation, result));
+                return null;
+            }
+
+            @Override
+            public void onError(String error, int statusCode) {
+
+                outboxExecutor.execute(() -> onReplayFailed(operation, error, statusCode));
+            }
+        });
+    }
+
+    /**
+     * Removes a replayed write, tells its caller and moves on to the next one (outbox thread only).
+     *
+     * @param operation The write the server applied.
+     * @param result    The item returned by the server, or null for deletes.
+     */
+    private void onReplayed(PendingOperation operation, InventoryItem result) {
+
+        Log.d("WriteOutbox", "Replayed " + operation);
+
+        WriteCallback callback = waitingCallbacks.remove(operation.getLocalId());
+
+        if (callback != null) {
+
+            mainThreadHandler.post(() -> callback.onSent(result));
+
+        } else {
+
+            replayedQueuedWrite = true;
+        }
+
+        removeHead(operation);
+    }
+
+    /**
+     * Handles a failed replay: drops writes the server rejected, that are not safe to send again
+     * or that have run out of attempts, and schedules a retry with exponential backoff for
+     * everything else (outbox thread only).
+     *
+     * @param operation  The write that failed.
+     * @param error      The error message.
+     * @param statusCode The HTTP status code, 0 if no answer arrived, or
+     *                   {@link InventorySync#STATUS_NOT_SENT} if the request was never sent.
+     */
+    private void onReplayFailed(PendingOperation operation, String error, int statusCode) {
+
+        // Deleting an item that is already gone achieved what the user wanted
+        boolean alreadyApplied = statusCode == 404 && PendingOperation.TYPE_DELETE.equals(operation.getType());
+
+        // Failed attempts including this one
+        int attempts = operation.getAttempts() + 1;
+
+        // A write the server keeps failing on would hold up every write behind it
+        boolean exhausted = InventorySync.hasExhaustedAttempts(statusCode, attempts);
+
+        if (alreadyApplied || exhausted || !InventorySync.isSafeToResend(operation.getType(), statusCode)) {
+
+            String reason;
+
+            if (exhausted) {
+
+                reason = "The server could not save the change to " + operation.getName() + " after " + attempts + " attempts.";
+
+            } else if (InventorySync.isRetryable(statusCode)) {
+
+                // A create that may have reached the server is not rejected, only unconfirmed
+                reason = "The server did not confirm that " + operation.getName() + " was added. Check the inventory before adding it again.";
+
+            } else {
+
+                reason = error;
+            }
+
+            Log.e("WriteOutbox", "Dropping " + operation + " (" + statusCode + "): " + error);
+
+            WriteCallback callback = waitingCallbacks.remove(operation.getLocalId());
+
+            if (callback != null) {
+
+                mainThreadHandler.post(() -> callback.onError(reason, statusCode));
+
+            } else if (!alreadyApplied) {
+
+                mainThreadHandler.post(() -> {
+
+                    if (onDroppedListener != null) {
+
+                        onDroppedListener.onDropped(operation, reason, statusCode);
+                    }
+                });
+            }
+
+            removeHead(operation);
+            return;
+        }
+
+        isReplaying = false;
+
+        dbHelper.recordPendingOperationAttempt(operation.getLocalId());
+
+        // Double the delay with every failed attempt, up to the cap
+        long delayMs = InventorySync.retryDelayMillis(attempts);
+
+        Log.w("WriteOutbox", "Replay of " + operation + " failed (" + statusCode + "), retrying in " + delayMs + " ms: " + error);
+
+        // This write and every one behind it now wait for the retry
+        List<WriteCallback> queued = new ArrayList<>(waitingCallbacks.values());
+
+        waitingCallbacks.clear();
+
+        for (WriteCallback callback : queued) {
+
+            mainThreadHandler.post(callback::onQueued);
+        }
+
+        scheduledRetry = outboxExecutor.schedule(this::replayNow, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Removes the write that was just sent or dropped and sends the next one, or tells the list
+     * once writes it was told were queued have all been sent (outbox thread only).
+     *
+     * @param operation The write at the head of the queue.
+     */
+    private void removeHead(PendingOperation operation) {
+
+        dbHelper.removePendingOperation(operation.getLocalId());
+
+        isReplaying = false;
+
+        if (dbHelper.getNextPendingOperation(operation.getUsername()) != null) {
+
+            replayNow();
+            return;
+        }
+
+        // Writes sent straight away are already on screen; only replays need a refresh
+        if (replayedQueuedWrite) {
+
+            replayedQueuedWrite = false;
+
+            mainThreadHandler.post(() -> {
+
+                if (onDrainedListener != null) {
+
+                    onDrainedListener.run();
+                }
+            });
+        }
+    }
+
+    /**
+     * Sends one write through the API service.
+     *
+     * @param operation The write to send.
+     * @param callback  The callback receiving the server result on the main thread.
+     */
+    private void send(PendingOperation operation, InventoryApiService.ApiCallback<InventoryItem> callback) {
+
+        switch (operation.getType()) {
+
+            case PendingOperation.TYPE_CREATE:
+
+                apiService.createInventoryItem(operation.getName(), operation.getQuantity(), callback);
+                break;
+
+            case PendingOperation.TYPE_UPDATE:
+
+                apiService.updateInventoryItem(operation.getItemId(), operation.getName(), operation.getQuantity(), callback);
+                break;
+
+            default:
+
+                apiService.deleteInventoryItem(operation.getItemId(), new InventoryApiService.ApiCallback<String>() {
+                    @Override
+                    public Response onSuccess(String result) {
+                        return callback.onSuccess(null);
+                    }
+
+                    @Override
+                    public void onError(String error, int statusCode) {
+                        callback.onError(error, statusCode);
+                    }
+                });
+                break;
+        }
+    }
+
+    /**
+     * Wraps a write callback so that it is skipped once its handle is cancelled.
+     *
+     * @param handle   The handle returned to the caller.
+     * @param callback The caller's callback.
+     * @return The callback to report the outcome through, on the main thread.
+     */
+    private static WriteCallback guard(ApiCall handle, WriteCallback callback) {
+
+        return new WriteCallback() {
+            @Override
+            public void onSent(InventoryItem result) {
+
+                if (handle.finish()) {
+
+                    callback.onSent(result);
+                }
+            }
+
+            @Override
+            public void onQueued() {
+
+                if (handle.finish()) {
+
+                    callback.onQueued();
+                }
+            }
+
+            @Override
+            public void onError(String error, int statusCode) {
+
+                if (handle.finish()) {
+
+                    callback.onError(error, statusCode);
+                }
+            }
+        };
+    }
+
+    /**
+     * Checks whether the device currently has a network that can reach the internet.
+     *
+     * @return {@code true} if the default network has internet capability.
+     */
+    private boolean isOnline() {
+
+        Network network = connectivityManager.getActiveNetwork();
+
+        NetworkCapabilities capabilities = network != null ? connectivityManager.getNetworkCapabilities(network) : null;
+
+        return capabilities != null && capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET);
+    }
+}
@@ -0,0 +1,149 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests {@link ContentNegotiation} against a stand-in server.
+ */
+public class ContentNegotiationTest {
+
+    private MockWebServer server;
+
+    private OkHttpClient client;
+
+    @Before
+    public void setUp() throws IOException {
+
+        server = new MockWebServer();
+        server.start();
+
+        client = new OkHttpClient.Builder()
+                .addInterceptor(ContentNegotiation.INTERCEPTOR)
+                .build();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+
+        server.shutdown();
+    }
+
+    @Test
+    public void requestsAdvertiseBothFormats() throws Exception {
+
+        server.enqueue(jsonResponse(200, "[]"));
+        server.enqueue(jsonResponse(200, "[]"));
+
+        execute(new Request.Builder().url(server.url("/inventory")).build()).close();
+        execute(new Request.Builder().url(server.url("/inventory")).header("Accept", "text/plain").build()).close();
+
+        assertEquals(InventoryCodecs.ACCEPT, server.takeRequest().getHeader("Accept"));
+
+        // A request asking for a specific format is left alone
+        assertEquals("text/plain", server.takeRequest().getHeader("Accept"));
+    }
+
+    @Test
+    public void responsesAreDecodedByTheirContentType() throws Exception {
+
+        server.enqueue(cborResponse(200, InventoryCodecs.CBOR.encodeRefreshToken("r")));
+        server.enqueue(jsonResponse(200, "{}"));
+        server.enqueue(new MockResponse().setResponseCode(502).setBody("Bad gateway"));
+
+        try (Response response = execute(new Request.Builder().url(server.url("/a")).build())) {
+            assertSame(InventoryCodecs.CBOR, ContentNegotiation.codecOf(response));
+        }
+
+        try (Response response = execute(new Request.Builder().url(server.url("/b")).build())) {
+            assertSame(InventoryCodecs.JSON, ContentNegotiation.codecOf(response));
+        }
+
+        try (Response response = execute(new Request.Builder().url(server.url("/c")).build())) {
+            assertSame(InventoryCodecs.JSON, ContentNegotiation.codecOf(response));
+        }
+    }
+
+    @Test
+    public void cborBodiesFallBackToJsonOnUnsupportedMediaType() throws Exception {
+
+        // A CBOR answer tells the client the server reads CBOR too
+        server.enqueue(cborResponse(200, InventoryCodecs.CBOR.encodeRefreshToken("r")));
+
+        execute(new Request.Builder().url(server.url("/inventory")).build()).close();
+
+        server.takeRequest();
+
+        // The server then rejects a CBOR body, and the request is resent as JSON
+        server.enqueue(new MockResponse().setResponseCode(415));
+        server.enqueue(jsonResponse(201, "{}"));
+
+        try (Response response = execute(post("/inventory"))) {
+            assertEquals(201, response.code());
+        }
+
+        RecordedRequest rejected = server.takeRequest();
+
+        assertEquals("application/cbor", rejected.getHeader("Content-Type"));
+        assertArrayEquals(InventoryCodecs.CBOR.encodeItemFields("Widget", 3), rejected.getBody().readByteArray());
+
+        RecordedRequest resent = server.takeRequest();
+
+        assertEquals("application/json; charset=utf-8", resent.getHeader("Content-Type"));
+        assertEquals(new Buffer().write(InventoryCodecs.JSON.encodeItemFields("Widget", 3)), resent.getBody());
+
+        // JSON is used from then on, and a 415 for a JSON body is returned as is
+        server.enqueue(new MockResponse().setResponseCode(415));
+
+        try (Response response = execute(post("/inventory"))) {
+            assertEquals(415, response.code());
+        }
+
+        assertEquals("application/json; charset=utf-8", server.takeRequest().getHeader("Content-Type"));
+        assertEquals(4, server.getRequestCount());
+    }
+
+    private Request post(String path) {
+
+        return new Request.Builder()
+                .url(server.url(path))
+                .post(ContentNegotiation.encode(codec -> codec.encodeItemFields("Widget", 3)))
+                .build();
+    }
+
+    private Response execute(Request request) throws IOException {
+
+        return client.newCall(request).execute();
+    }
+
+    private static MockResponse jsonResponse(int code, String body) {
+
+        return new MockResponse()
+                .setResponseCode(code)
+                .setHeader("Content-Type", "application/json; charset=utf-8")
+                .setBody(body);
+    }
+
+    private static MockResponse cborResponse(int code, byte[] body) {
+
+        return new MockResponse()
+                .setResponseCode(code)
+                .setHeader("Content-Type", InventoryCodecs.CBOR.getMediaType())
+                .setBody(new Buffer().write(body));
+    }
+}
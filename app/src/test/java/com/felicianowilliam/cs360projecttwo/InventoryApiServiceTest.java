@@ -0,0 +1,86 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.Request;
+import okhttp3.Response;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Unit tests for the read sharing of {@link InventoryApiService}.
+ */
+public class InventoryApiServiceTest {
+
+    private static final Request READ = new Request.Builder()
+            .url("https://example.test/api/inventory-items")
+            .get()
+            .build();
+
+    @Test
+    public void readsOfDifferentSessionsAreNotShared() {
+
+        List<String> delivered = new ArrayList<>();
+
+        InventoryApiService.InFlightRead<String> alice = InventoryApiService.joinOrStartRead(READ, "alice", new ApiCall(), recording("alice", delivered));
+        InventoryApiService.InFlightRead<String> bob = InventoryApiService.joinOrStartRead(READ, "bob", new ApiCall(), recording("bob", delivered));
+
+        // Each session issues its own request
+        assertNotNull(alice);
+        assertNotNull(bob);
+        assertNotSame(alice, bob);
+
+        alice.onSuccess("alice's inventory");
+        bob.onSuccess("bob's inventory");
+
+        assertEquals("[alice: alice's inventory, bob: bob's inventory]", delivered.toString());
+    }
+
+    @Test
+    public void readsOfTheSameSessionAreShared() {
+
+        List<String> delivered = new ArrayList<>();
+
+        InventoryApiService.InFlightRead<String> first = InventoryApiService.joinOrStartRead(READ, "carol", new ApiCall(), recording("first", delivered));
+
+        // The second caller joins the read in flight instead of starting one
+        assertNotNull(first);
+        assertNull(InventoryApiService.joinOrStartRead(READ, "carol", new ApiCall(), recording("second", delivered)));
+
+        first.onSuccess("carol's inventory");
+
+        assertEquals("[first: carol's inventory, second: carol's inventory]", delivered.toString());
+
+        // Once delivered, the next read starts a request of its own
+        InventoryApiService.InFlightRead<String> next = InventoryApiService.joinOrStartRead(READ, "carol", new ApiCall(), recording("next", delivered));
+
+        assertNotNull(next);
+
+        next.onError("Error 500", 500);
+    }
+
+    private static InventoryApiService.ApiCallback<String> recording(String caller, List<String> delivered) {
+
+        return new InventoryApiService.ApiCallback<String>() {
+
+            @Override
+            public Response onSuccess(String result) {
+
+                delivered.add(caller + ": " + result);
+                return null;
+            }
+
+            @Override
+            public void onError(String error, int statusCode) {
+
+                delivered.add(caller + ": " + error);
+            }
+        };
+    }
+}
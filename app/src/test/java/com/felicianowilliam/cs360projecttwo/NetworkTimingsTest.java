@@ -0,0 +1,40 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import org.junit.Test;
+
+import okhttp3.HttpUrl;
+
+import static com.felicianowilliam.cs360projecttwo.Constants.BASE_URL;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for the endpoint grouping of {@link NetworkTimings}.
+ */
+public class NetworkTimingsTest {
+
+    @Test
+    public void endpointIsTheFirstSegmentBelowTheBasePath() {
+
+        assertEquals("/inventory-items", endpoint(BASE_URL + "/inventory-items"));
+        assertEquals("/inventory-items", endpoint(BASE_URL + "/inventory-items/5f1d7c0e8b3a4c2d1e0f9a8b"));
+        assertEquals("/inventory-items", endpoint(BASE_URL + "/inventory-items/changes?since=2024-01-01"));
+        assertEquals("/login", endpoint(BASE_URL + "/login"));
+        assertEquals("/", endpoint(BASE_URL + "/"));
+        assertEquals("/", endpoint(BASE_URL));
+    }
+
+    @Test
+    public void urlsOutsideTheBaseUrlAreGroupedAsOther() {
+
+        HttpUrl base = HttpUrl.get(BASE_URL);
+
+        assertEquals("other", endpoint("https://example.com" + base.encodedPath() + "/login"));
+        assertEquals("other", endpoint(base.newBuilder().encodedPath(base.encodedPath() + "ary/login").build().toString()));
+        assertEquals("other", endpoint(base.newBuilder().encodedPath("/health").build().toString()));
+    }
+
+    private static String endpoint(String url) {
+
+        return NetworkTimings.endpointOf(HttpUrl.get(url));
+    }
+}
@@ -0,0 +1,205 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.GzipSource;
+import okio.Okio;
+
+import static com.felicianowilliam.cs360projecttwo.Constants.BASE_URL;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests {@link PayloadCompression} against a stand-in server.
+ *
+ * Requests go to the API host, resolved to the server on the loopback address, under a path
+ * of their own, so each test reads the byte counters of its own endpoint.
+ */
+public class PayloadCompressionTest {
+
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    private MockWebServer server;
+
+    private OkHttpClient client;
+
+    @Before
+    public void setUp() throws IOException {
+
+        server = new MockWebServer();
+        server.start();
+
+        // Same order as ApiClient: compression above OkHttp's transparent gzip, the wire counter below it
+        client = new OkHttpClient.Builder()
+                .addInterceptor(PayloadCompression.INTERCEPTOR)
+                .addNetworkInterceptor(PayloadCompression.WIRE_BYTE_COUNTER)
+                .dns(hostname -> Collections.singletonList(InetAddress.getLoopbackAddress()))
+                .build();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+
+        server.shutdown();
+    }
+
+    @Test
+    public void taggedLargeBodyIsGzipped() throws Exception {
+
+        byte[] raw = payload(4096);
+
+        RecordedRequest recorded = post("/gzip-large", raw, true);
+
+        assertEquals("gzip", recorded.getHeader("Content-Encoding"));
+
+        long sent = recorded.getBodySize();
+
+        assertEquals(new Buffer().write(raw), gunzip(recorded.getBody()));
+
+        // Raw and sent request bytes are counted, and nothing came back
+        assertEquals(sent, PayloadCompression.getWireBytes("/gzip-large"));
+        assertEquals(4096.0 / sent, PayloadCompression.getRequestCompressionRatio("/gzip-large"), 1e-9);
+    }
+
+    @Test
+    public void bodyAtTheThresholdIsGzipped() throws Exception {
+
+        RecordedRequest recorded = post("/gzip-threshold", payload((int) PayloadCompression.MIN_GZIP_BYTES), true);
+
+        assertEquals("gzip", recorded.getHeader("Content-Encoding"));
+    }
+
+    @Test
+    public void smallTaggedBodyIsSentUnchanged() throws Exception {
+
+        byte[] raw = payload((int) PayloadCompression.MIN_GZIP_BYTES - 1);
+
+        RecordedRequest recorded = post("/gzip-small", raw, true);
+
+        assertNull(recorded.getHeader("Content-Encoding"));
+        assertEquals(new Buffer().write(raw), recorded.getBody());
+        assertEquals(raw.length, PayloadCompression.getWireBytes("/gzip-small"));
+        assertEquals(1.0, PayloadCompression.getRequestCompressionRatio("/gzip-small"), 1e-9);
+    }
+
+    @Test
+    public void untaggedBodyIsSentUnchanged() throws Exception {
+
+        byte[] raw = payload(4096);
+
+        RecordedRequest recorded = post("/gzip-untagged", raw, false);
+
+        assertNull(recorded.getHeader("Content-Encoding"));
+        assertEquals(new Buffer().write(raw), recorded.getBody());
+        assertEquals(1.0, PayloadCompression.getRequestCompressionRatio("/gzip-untagged"), 1e-9);
+    }
+
+    @Test
+    public void responseBytesAreCountedOnTheWireAndDecoded() throws Exception {
+
+        byte[] raw = payload(8192);
+
+        Buffer gzipped = new Buffer();
+
+        try (BufferedSink sink = Okio.buffer(new GzipSink(gzipped))) {
+            sink.write(raw);
+        }
+
+        long wireSize = gzipped.size();
+
+        server.enqueue(new MockResponse()
+                .setHeader("Content-Type", JSON.toString())
+                .setHeader("Content-Encoding", "gzip")
+                .setBody(gzipped));
+
+        try (Response response = client.newCall(new Request.Builder().url(url("/gzip-response")).build()).execute()) {
+            assertEquals(raw.length, response.body().bytes().length);
+        }
+
+        assertEquals(wireSize, PayloadCompression.getWireBytes("/gzip-response"));
+        assertEquals((double) raw.length / wireSize, PayloadCompression.getResponseCompressionRatio("/gzip-response"), 1e-9);
+    }
+
+    private RecordedRequest post(String endpoint, byte[] body, boolean gzip) throws Exception {
+
+        server.enqueue(new MockResponse().setResponseCode(204));
+
+        Request.Builder request = new Request.Builder()
+                .url(url(endpoint))
+                .post(RequestBody.create(body, JSON));
+
+        if (gzip) {
+
+            request.tag(PayloadCompression.RequestEncoding.class, PayloadCompression.RequestEncoding.GZIP);
+        }
+
+        client.newCall(request.build()).execute().close();
+
+        return server.takeRequest();
+    }
+
+    /**
+     * Returns a URL on the API host and path, served by the stand-in server.
+     */
+    private HttpUrl url(String endpoint) {
+
+        HttpUrl base = HttpUrl.get(BASE_URL);
+
+        return new HttpUrl.Builder()
+                .scheme("http")
+                .host(base.host())
+                .port(server.getPort())
+                .encodedPath(base.encodedPath() + endpoint)
+                .build();
+    }
+
+    /**
+     * Returns a JSON array of the given size, compressible like a batch of inventory writes.
+     */
+    private static byte[] payload(int size) {
+
+        StringBuilder json = new StringBuilder("[");
+
+        for (int i = 0; json.length() < size - 1; i++) {
+
+            json.append("{\"op\":\"update\",\"quantity\":").append(i % 10).append("},");
+        }
+
+        json.setLength(size - 1);
+
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Buffer gunzip(Buffer compressed) throws IOException {
+
+        Buffer decompressed = new Buffer();
+
+        try (GzipSource source = new GzipSource(compressed)) {
+
+            while (source.read(decompressed, 8192) != -1) {
+                // Keep reading until the end of the gzip stream
+            }
+        }
+
+        return decompressed;
+    }
+}
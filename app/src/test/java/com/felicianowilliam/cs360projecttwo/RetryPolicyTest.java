@@ -0,0 +1,252 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import androidx.annotation.NonNull;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.Collections;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Dispatcher;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link RetryPolicy} against a stand-in server.
+ *
+ * Circuit breakers are kept per host for the whole process, so every test calls the server
+ * under a host name of its own, resolved to the loopback address.
+ */
+public class RetryPolicyTest {
+
+    // Source of a distinct host name per test
+    private static final AtomicInteger hostCounter = new AtomicInteger();
+
+    private MockWebServer server;
+
+    private OkHttpClient client;
+
+    private String host;
+
+    @Before
+    public void setUp() throws IOException {
+
+        server = new MockWebServer();
+        server.start();
+
+        host = "retry" + hostCounter.incrementAndGet() + ".test";
+
+        // OkHttp's own silent retry would hide the attempts under test
+        client = new OkHttpClient.Builder()
+                .addInterceptor(RetryPolicy.INTERCEPTOR)
+                .dns(hostname -> Collections.singletonList(InetAddress.getLoopbackAddress()))
+                .retryOnConnectionFailure(false)
+                .build();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+
+        server.shutdown();
+    }
+
+    @Test
+    public void serviceUnavailableIsRetriedAfterRetryAfter() throws Exception {
+
+        server.enqueue(new MockResponse().setResponseCode(503).setHeader("Retry-After", "1"));
+        server.enqueue(new MockResponse().setResponseCode(200));
+
+        long start = System.nanoTime();
+
+        assertEquals("200", send(get(), 30).take());
+        assertEquals(2, server.getRequestCount());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 1_000);
+    }
+
+    @Test
+    public void tooManyRequestsIsRetriedUpToMaxAttempts() throws Exception {
+
+        for (int i = 0; i < RetryPolicy.MAX_ATTEMPTS + 1; i++) {
+
+            server.enqueue(new MockResponse().setResponseCode(429));
+        }
+
+        assertEquals("429", send(get(), 30).take());
+        assertEquals(RetryPolicy.MAX_ATTEMPTS, server.getRequestCount());
+    }
+
+    @Test
+    public void droppedConnectionIsRetried() throws Exception {
+
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START));
+        server.enqueue(new MockResponse().setResponseCode(200));
+
+        assertEquals("200", send(get(), 30).take());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void postIsNotRetried() throws Exception {
+
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(201));
+
+        Request post = new Request.Builder()
+                .url(url())
+                .post(RequestBody.create("{}", MediaType.get("application/json; charset=utf-8")))
+                .build();
+
+        assertEquals("503", send(post, 30).take());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void openBreakerFailsFast() throws Exception {
+
+        // Two operations of up to three attempts reach the failure threshold
+        for (int i = 0; i < RetryPolicy.FAILURE_THRESHOLD; i++) {
+
+            server.enqueue(new MockResponse().setResponseCode(503));
+        }
+
+        assertEquals("503", send(get(), 30).take());
+        assertEquals("503", send(get(), 30).take());
+
+        assertEquals(RetryPolicy.FAILURE_THRESHOLD, server.getRequestCount());
+        assertEquals(CircuitBreaker.State.OPEN, RetryPolicy.getCircuitState(host));
+
+        int failFastCount = RetryPolicy.getFailFastCount();
+
+        String outcome = send(get(), 30).take();
+
+        assertTrue(outcome, outcome.startsWith("CircuitOpenException"));
+        assertEquals(RetryPolicy.FAILURE_THRESHOLD, server.getRequestCount());
+        assertEquals(failFastCount + 1, RetryPolicy.getFailFastCount());
+    }
+
+    @Test
+    public void waitingRetryDoesNotHoldADispatcherSlot() throws Exception {
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequestsPerHost(1);
+
+        client = client.newBuilder().dispatcher(dispatcher).build();
+
+        server.enqueue(new MockResponse().setResponseCode(503).setHeader("Retry-After", "2"));
+        server.enqueue(new MockResponse().setResponseCode(200).setBody("second"));
+        server.enqueue(new MockResponse().setResponseCode(200).setBody("retry"));
+
+        BlockingQueue<String> first = send(get(), 30);
+
+        // Let the first call get its 503 and start waiting
+        server.takeRequest();
+
+        long start = System.nanoTime();
+
+        // The second call to the host is sent while the first waits to retry
+        assertEquals("200", send(get(), 30).take());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1_500);
+
+        assertEquals("200", first.take());
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void cancelStopsAWaitingRetry() throws Exception {
+
+        server.enqueue(new MockResponse().setResponseCode(503).setHeader("Retry-After", "1"));
+        server.enqueue(new MockResponse().setResponseCode(200));
+
+        ApiCall handle = new ApiCall();
+
+        BlockingQueue<String> outcome = send(handle, get(), 30);
+
+        server.takeRequest();
+
+        // Cancel once the 503 has been received and the retry is waiting
+        Thread.sleep(300);
+
+        handle.cancel();
+
+        // Nothing is sent and nothing is delivered once the wait is over
+        assertNull(outcome.poll(1_500, TimeUnit.MILLISECONDS));
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void retryIsNotStartedPastTheDeadline() throws Exception {
+
+        server.enqueue(new MockResponse().setResponseCode(503).setHeader("Retry-After", "3"));
+        server.enqueue(new MockResponse().setResponseCode(200));
+
+        long start = System.nanoTime();
+
+        assertEquals("503", send(get(), 2).take());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1_000);
+        assertEquals(1, server.getRequestCount());
+    }
+
+    private HttpUrl url() {
+
+        return server.url("/inventory").newBuilder().host(host).build();
+    }
+
+    private Request get() {
+
+        return new Request.Builder().url(url()).build();
+    }
+
+    private BlockingQueue<String> send(Request request, long deadlineSeconds) {
+
+        return send(new ApiCall(), request, deadlineSeconds);
+    }
+
+    /**
+     * Enqueues a request through the retry policy.
+     *
+     * @return A queue receiving the final status code, or the simple name of the exception.
+     */
+    private BlockingQueue<String> send(ApiCall handle, Request request, long deadlineSeconds) {
+
+        BlockingQueue<String> outcome = new LinkedBlockingQueue<>();
+
+        RetryPolicy.enqueue(client, handle, request, deadlineSeconds, new Callback() {
+
+            @Override
+            public void onResponse(@NonNull Call call, @NonNull Response response) {
+
+                try (Response ignored = response) {
+                    outcome.add(String.valueOf(response.code()));
+                }
+            }
+
+            @Override
+            public void onFailure(@NonNull Call call, @NonNull IOException e) {
+
+                outcome.add(e.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        });
+
+        return outcome;
+    }
+}
@@ -0,0 +1,27 @@
+package com.felicianowilliam.cs360projecttwo.codegen;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares a wire field of a {@link JsonModel} through a constructor parameter.
+ *
+ * Supported parameter types are {@code String}, {@code int}, {@code long} and {@code boolean}.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.PARAMETER)
+public @interface JsonField {
+
+    /**
+     * The key of the field on the wire; defaults to the parameter name.
+     */
+    String value() default "";
+
+    /**
+     * Whether decoding fails when the field is missing or null. An optional field that is missing
+     * or null decodes as null, 0 or false.
+     */
+    boolean required() default true;
+}
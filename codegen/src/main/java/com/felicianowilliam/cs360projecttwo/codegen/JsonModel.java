@@ -0,0 +1,21 @@
+package com.felicianowilliam.cs360projecttwo.codegen;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a model class whose JSON adapter is generated at build time by {@link JsonModelProcessor}.
+ *
+ * The class must have exactly one constructor whose parameters are all annotated with
+ * {@link JsonField}; those parameters define the wire fields, in the order they are written.
+ * Each field is read back through a getter named after the parameter ({@code getName()}, or
+ * {@code isName()} for booleans). The generated class is named {@code <Model>JsonAdapter}, lives
+ * in the model's package, and reads and writes the model with {@code JsonSource} and
+ * {@code JsonSink} without reflection.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface JsonModel {
+}
@@ -0,0 +1,484 @@
+package com.felicianowilliam.cs360projecttwo.codegen;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates a {@code <Model>JsonAdapter} for every class annotated with {@link JsonModel}.
+ *
+ * An adapter has two static methods, {@code read(JsonSource)} and {@code write(JsonSink, Model)},
+ * written out field by field for the model at hand. Keys are matched against a precomputed
+ * {@code JsonSource.Names} and written from pre-encoded bytes, so neither direction builds a
+ * document tree, looks anything up by reflection, or turns a key into a String.
+ */
+@SupportedAnnotationTypes("com.felicianowilliam.cs360projecttwo.codegen.JsonModel")
+public final class JsonModelProcessor extends AbstractProcessor {
+
+    // Package of JsonSource and JsonSink, which generated adapters call
+    private static final String RUNTIME_PACKAGE = "com.felicianowilliam.cs360projecttwo";
+
+    /**
+     * One wire field, taken from a constructor parameter.
+     */
+    private static final class Field {
+
+        private final String name;
+
+        private final String wireName;
+
+        private final boolean required;
+
+        private final String type;
+
+        private final String getter;
+
+        Field(String name, String wireName, boolean required, String type, String getter) {
+
+            this.name = name;
+
+            this.wireName = wireName;
+
+            this.required = required;
+
+            this.type = type;
+
+            this.getter = getter;
+        }
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+
+        for (Element element : roundEnv.getElementsAnnotatedWith(JsonModel.class)) {
+
+            if (element.getKind() != ElementKind.CLASS) {
+
+                error(element, "@JsonModel applies to classes only");
+                continue;
+            }
+
+            TypeElement model = (TypeElement) element;
+
+            List<Field> fields = readFields(model);
+
+            // Errors have already been reported
+            if (fields == null) {
+
+                continue;
+            }
+
+            try {
+
+                writeAdapter(model, fields);
+
+            } catch (IOException e) {
+
+                error(model, "Could not write the JSON adapter: " + e.getMessage());
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Collects the wire fields of a model from its {@link JsonField} constructor.
+     *
+     * @return The fields in declaration order, or null if the model is not usable.
+     */
+    private List<Field> readFields(TypeElement model) {
+
+        ExecutableElement constructor = null;
+
+        for (ExecutableElement candidate : ElementFilter.constructorsIn(model.getEnclosedElements())) {
+
+            if (candidate.getParameters().isEmpty() || candidate.getParameters().get(0).getAnnotation(JsonField.class) == null) {
+
+                continue;
+            }
+
+            if (constructor != null) {
+
+                error(candidate, "@JsonModel classes may have only one @JsonField constructor");
+                return null;
+            }
+
+            constructor = candidate;
+        }
+
+        if (constructor == null || constructor.getModifiers().contains(Modifier.PRIVATE)) {
+
+            error(model, "@JsonModel classes need a non-private constructor with @JsonField parameters");
+            return null;
+        }
+
+        List<Field> fields = new ArrayList<>();
+
+        for (VariableElement parameter : constructor.getParameters()) {
+
+            JsonField annotation = parameter.getAnnotation(JsonField.class);
+
+            if (annotation == null) {
+
+                error(parameter, "Every constructor parameter of a @JsonModel needs @JsonField");
+                return null;
+            }
+
+            String name = parameter.getSimpleName().toString();
+
+            String type = typeName(parameter.asType());
+
+            if (type == null) {
+
+                error(parameter, "@JsonField supports String, int, long and boolean only");
+                return null;
+            }
+
+            String getter = findGetter(model, name, type);
+
+            if (getter == null) {
+
+                error(parameter, "No getter found for @JsonField " + name);
+                return null;
+            }
+
+            String wireName = annotation.value().isEmpty() ? name : annotation.value();
+
+            fields.add(new Field(name, wireName, annotation.required(), type, getter));
+        }
+
+        return fields;
+    }
+
+    /**
+     * Returns the source name of a supported field type, or null.
+     */
+    private static String typeName(TypeMirror type) {
+
+        switch (type.getKind()) {
+
+            case INT:
+                return "int";
+
+            case LONG:
+                return "long";
+
+            case BOOLEAN:
+                return "boolean";
+
+            case DECLARED:
+                return "java.lang.String".equals(type.toString()) ? "String" : null;
+
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Finds the accessor of a field: {@code getName()}, or {@code isName()} for a boolean.
+     */
+    private String findGetter(TypeElement model, String name, String type) {
+
+        String capitalized = capitalize(name);
+
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(model))) {
+
+            String methodName = method.getSimpleName().toString();
+
+            boolean named = methodName.equals("get" + capitalized) || ("boolean".equals(type) && methodName.equals("is" + capitalized));
+
+            if (named && method.getParameters().isEmpty() && !method.getModifiers().contains(Modifier.PRIVATE)
+                    && type.equals(typeName(method.getReturnType()))) {
+
+                return methodName;
+            }
+        }
+
+        return null;
+    }
+
+    private void writeAdapter(TypeElement model, List<Field> fields) throws IOException {
+
+        PackageElement modelPackage = processingEnv.getElementUtils().getPackageOf(model);
+
+        String packageName = modelPackage.getQualifiedName().toString();
+
+        String modelName = model.getSimpleName().toString();
+
+        String adapterName = modelName + "JsonAdapter";
+
+        String qualifiedName = packageName.isEmpty() ? adapterName : packageName + "." + adapterName;
+
+        try (PrintWriter out = new PrintWriter(processingEnv.getFiler().createSourceFile(qualifiedName, model).openWriter())) {
+
+            out.println("// Generated by JsonModelProcessor from " + modelName + ". Do not edit.");
+
+            if (!packageName.isEmpty()) {
+
+                out.println("package " + packageName + ";");
+            }
+
+            out.println();
+
+            // The runtime lives next to the models it was written for
+            if (!RUNTIME_PACKAGE.equals(packageName)) {
+
+                out.println("import " + RUNTIME_PACKAGE + ".JsonSink;");
+                out.println("import " + RUNTIME_PACKAGE + ".JsonSource;");
+                out.println();
+            }
+
+            out.println("import java.io.IOException;");
+            out.println();
+            out.println("import okio.ByteString;");
+            out.println();
+            out.println("/**");
+            out.println(" * Reads and writes {@link " + modelName + "} as a JSON object.");
+            out.println(" */");
+            out.println("public final class " + adapterName + " {");
+            out.println();
+
+            // Keys to match when reading, in field order
+            StringBuilder names = new StringBuilder();
+
+            for (Field field : fields) {
+
+                names.append(names.length() == 0 ? "" : ", ").append(literal(field.wireName));
+            }
+
+            out.println("    private static final JsonSource.Names NAMES = JsonSource.names(" + names + ");");
+            out.println();
+
+            // Keys to write, encoded once
+            for (int i = 0; i < fields.size(); i++) {
+
+                out.println("    private static final ByteString NAME_" + i + " = JsonSink.encodeName(" + literal(fields.get(i).wireName) + ");");
+            }
+
+            out.println();
+            out.println("    private " + adapterName + "() {");
+            out.println("    }");
+            out.println();
+
+            writeRead(out, modelName, fields);
+
+            out.println();
+
+            writeWrite(out, modelName, fields);
+
+            out.println("}");
+        }
+    }
+
+    private static void writeRead(PrintWriter out, String modelName, List<Field> fields) {
+
+        out.println("    /**");
+        out.println("     * Reads one {@link " + modelName + "} object. Unknown keys are skipped.");
+        out.println("     *");
+        out.println("     * @param reader The reader positioned at the start of the object.");
+        out.println("     * @return The decoded object.");
+        out.println("     * @throws IOException If a required field is missing or null, or the JSON is malformed.");
+        out.println("     */");
+        out.println("    public static " + modelName + " read(JsonSource reader) throws IOException {");
+        out.println();
+
+        for (Field field : fields) {
+
+            out.println("        " + field.type + " " + field.name + " = " + defaultValue(field.type) + ";");
+
+            if (field.required) {
+
+                out.println("        boolean " + hasFlag(field) + " = false;");
+            }
+        }
+
+        out.println();
+        out.println("        reader.beginObject();");
+        out.println();
+        out.println("        while (reader.hasNext()) {");
+        out.println();
+        out.println("            switch (reader.selectName(NAMES)) {");
+
+        for (int i = 0; i < fields.size(); i++) {
+
+            Field field = fields.get(i);
+
+            out.println();
+            out.println("                case " + i + ":");
+
+            if (field.required) {
+
+                out.println("                    " + field.name + " = reader." + readMethod(field.type) + "();");
+                out.println("                    " + hasFlag(field) + " = true;");
+
+            } else {
+
+                out.println("                    if (reader.peekNull()) {");
+                out.println("                        reader.nextNull();");
+                out.println("                        " + field.name + " = " + defaultValue(field.type) + ";");
+                out.println("                    } else {");
+                out.println("                        " + field.name + " = reader." + readMethod(field.type) + "();");
+                out.println("                    }");
+            }
+
+            out.println("                    break;");
+        }
+
+        out.println();
+        out.println("                default:");
+        out.println("                    reader.skipValue();");
+        out.println("                    break;");
+        out.println("            }");
+        out.println("        }");
+        out.println();
+        out.println("        reader.endObject();");
+
+        for (Field field : fields) {
+
+            if (!field.required) {
+
+                continue;
+            }
+
+            out.println();
+            out.println("        if (!" + hasFlag(field) + ") {");
+            out.println("            throw new IOException(" + literal(modelName + " is missing required field " + field.wireName) + ");");
+            out.println("        }");
+        }
+
+        StringBuilder arguments = new StringBuilder();
+
+        for (Field field : fields) {
+
+            arguments.append(arguments.length() == 0 ? "" : ", ").append(field.name);
+        }
+
+        out.println();
+        out.println("        return new " + modelName + "(" + arguments + ");");
+        out.println("    }");
+    }
+
+    private static void writeWrite(PrintWriter out, String modelName, List<Field> fields) {
+
+        out.println("    /**");
+        out.println("     * Writes one {@link " + modelName + "} object with every field.");
+        out.println("     *");
+        out.println("     * @param writer The writer to append the object to.");
+        out.println("     * @param value  The object to write.");
+        out.println("     * @throws IOException If writing fails.");
+        out.println("     */");
+        out.println("    public static void write(JsonSink writer, " + modelName + " value) throws IOException {");
+        out.println();
+        out.println("        writer.beginObject();");
+
+        for (int i = 0; i < fields.size(); i++) {
+
+            out.println("        writer.name(NAME_" + i + ").value(value." + fields.get(i).getter + "());");
+        }
+
+        out.println("        writer.endObject();");
+        out.println("    }");
+    }
+
+    /**
+     * Names the local that records whether a required field was read.
+     */
+    private static String hasFlag(Field field) {
+        return "has" + capitalize(field.name);
+    }
+
+    private static String capitalize(String name) {
+        return name.substring(0, 1).toUpperCase(Locale.ROOT) + name.substring(1);
+    }
+
+    private static String readMethod(String type) {
+
+        switch (type) {
+
+            case "int":
+                return "nextInt";
+
+            case "long":
+                return "nextLong";
+
+            case "boolean":
+                return "nextBoolean";
+
+            default:
+                return "nextString";
+        }
+    }
+
+    private static String defaultValue(String type) {
+
+        switch (type) {
+
+            case "int":
+                return "0";
+
+            case "long":
+                return "0L";
+
+            case "boolean":
+                return "false";
+
+            default:
+                return "null";
+        }
+    }
+
+    /**
+     * Quotes a string as a Java literal.
+     */
+    private static String literal(String value) {
+
+        StringBuilder builder = new StringBuilder("\"");
+
+        for (int i = 0; i < value.length(); i++) {
+
+            char c = value.charAt(i);
+
+            if (c == '"' || c == '\\') {
+
+                builder.append('\\').append(c);
+
+            } else if (c < 0x20 || c > 0x7E) {
+
+                builder.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+
+            } else {
+
+                builder.append(c);
+            }
+        }
+
+        return builder.append('"').toString();
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,192 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what binding one inventory row costs and allocates, before and after binding was made
+ * allocation-free.
+ *
+ * Each invocation binds {@link #ROW_COUNT} items in turn to a pool of {@link #holderCount}
+ * recycled rows and is reported per bind. With 12 rows, every bind shows a different item, as
+ * while the user scrolls; with one row per item, every bind shows the item the row already shows,
+ * as when a refresh rebinds unchanged rows.
+ *
+ * {@link #bindBefore()} repeats what the original onBindViewHolder did apart from touching views:
+ * four capturing click listeners and a new quantity string on every bind. {@link #bindAfter()}
+ * runs the current bind logic: {@link InventoryRowBinding} and the {@link StableIds} lookup the
+ * stable-id adapter adds. Setting text on a TextView is left out of both. Run with
+ * {@code ./gradlew :core:jmh}; the gc profiler's {@code gc.alloc.rate.norm} is the number of
+ * bytes allocated per bind.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InventoryBindBenchmark {
+
+    // Number of items bound per invocation
+    private static final int ROW_COUNT = 1000;
+
+    // Number of recycled rows the items are bound to
+    @Param({"12", "1000"})
+    public int holderCount;
+
+    private List<InventoryItem> items;
+
+    private Row[] rows;
+
+    // Selection looked up on every bind, as in the adapter
+    private final Set<String> selectedIds = new LinkedHashSet<>();
+
+    private final StableIds stableIds = new StableIds();
+
+    // Whether the list is in selection mode, read by the original row click listener
+    private boolean selecting;
+
+    /**
+     * A click listener, standing in for View.OnClickListener.
+     */
+    private interface ClickListener {
+        void onClick();
+    }
+
+    /**
+     * The state of one recycled row: what its views show and the listeners set on them.
+     */
+    private static final class Row {
+
+        // Text of the quantity and name views
+        CharSequence quantityText;
+        CharSequence nameText;
+
+        // Checked state of the card
+        boolean checked;
+
+        // Listeners the original bind set on the row, its long press and its two buttons
+        ClickListener rowClick;
+        ClickListener rowLongClick;
+        ClickListener editClick;
+        ClickListener deleteClick;
+
+        // Stable id reported for the row
+        long stableId;
+
+        // Text the row shows, as kept by the current view holder
+        final InventoryRowBinding binding = new InventoryRowBinding();
+    }
+
+    @Setup
+    public void setUp() {
+
+        items = new ArrayList<>(ROW_COUNT);
+
+        for (int i = 0; i < ROW_COUNT; i++) {
+
+            items.add(new InventoryItem(String.format("%024x", i), "Item " + i, i % 500, "5f1d7c0e8b3a4c2d1e0f9a8b", i % 7));
+        }
+
+        rows = new Row[holderCount];
+
+        for (int i = 0; i < holderCount; i++) {
+
+            rows[i] = new Row();
+        }
+
+        selectedIds.add(items.get(1).getId());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROW_COUNT)
+    public Row[] bindBefore() {
+
+        for (int position = 0; position < ROW_COUNT; position++) {
+
+            Row row = rows[position % holderCount];
+
+            InventoryItem currentItem = items.get(position);
+
+            row.quantityText = String.valueOf(currentItem.getQuantity());
+
+            row.nameText = currentItem.getName();
+
+            row.checked = selectedIds.contains(currentItem.getId());
+
+            row.rowLongClick = () -> toggleSelection(row);
+
+            row.rowClick = () -> {
+
+                if (selecting) {
+
+                    toggleSelection(row);
+                }
+            };
+
+            row.editClick = () -> onItemAction(currentItem);
+
+            row.deleteClick = () -> onItemAction(currentItem);
+        }
+
+        return rows;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROW_COUNT)
+    public Row[] bindAfter() {
+
+        for (int position = 0; position < ROW_COUNT; position++) {
+
+            Row row = rows[position % holderCount];
+
+            InventoryItem currentItem = items.get(position);
+
+            row.stableId = stableIds.of(currentItem.getId());
+
+            String quantityText = row.binding.quantityTextToShow(currentItem);
+
+            if (quantityText != null) {
+
+                row.quantityText = quantityText;
+            }
+
+            String name = row.binding.nameToShow(currentItem);
+
+            if (name != null) {
+
+                row.nameText = name;
+            }
+
+            row.checked = selectedIds.contains(currentItem.getId());
+        }
+
+        return rows;
+    }
+
+    private void toggleSelection(Row row) {
+
+        row.checked = !row.checked;
+    }
+
+    private void onItemAction(InventoryItem item) {
+
+        selecting = item.getQuantity() < 0;
+    }
+}
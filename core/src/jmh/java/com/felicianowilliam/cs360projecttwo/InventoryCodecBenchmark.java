@@ -0,0 +1,229 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import okio.Buffer;
+
+/**
+ * Measures the throughput of the {@link InventoryCodec} formats for full-inventory payloads.
+ *
+ * Every benchmark runs once per format in {@link #format}. Payloads are held as encoded bytes and
+ * decoded from an okio buffer, the same way the app reads a response body, so copying the bytes in
+ * and UTF-8 decoding are part of the measured cost. Run with {@code ./gradlew :core:jmh}; the gc
+ * profiler configured in build.gradle adds the allocation rate and bytes allocated per operation
+ * to every result.
+ *
+ * Setup prints the encoded size of each payload and checks that it decodes back to the items it
+ * was encoded from, so a format that is fast but lossy fails instead of reporting a result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InventoryCodecBenchmark {
+
+    // Number of items in the payload
+    @Param({"1000", "10000", "100000"})
+    public int itemCount;
+
+    // Media type of the format under test
+    @Param({"application/json", "application/cbor"})
+    public String format;
+
+    // The codec for the format
+    private InventoryCodec codec;
+
+    // Items encoded by the encode benchmarks
+    private List<InventoryItem> items;
+
+    // The encoded item array, as received from the server
+    private byte[] itemArrayBytes;
+
+    // The same items wrapped in a delta sync response
+    private byte[] deltaBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+
+        codec = InventoryCodecs.forMediaType(format);
+
+        items = new ArrayList<>(itemCount);
+
+        for (int i = 0; i < itemCount; i++) {
+
+            items.add(new InventoryItem(String.format("%024x", i), "Item " + i, i % 500, "5f1d7c0e8b3a4c2d1e0f9a8b", i % 7));
+        }
+
+        itemArrayBytes = encode(items);
+
+        // Wrap the array as the "changed" list of a delta, with every tenth item deleted
+        List<String> deletedIds = new ArrayList<>();
+
+        for (int i = 0; i < itemCount; i += 10) {
+
+            deletedIds.add(String.format("%024x", i));
+        }
+
+        deltaBytes = codec == InventoryCodecs.CBOR ? encodeCborDelta(deletedIds) : encodeJsonDelta(deletedIds);
+
+        checkRoundTrip();
+
+        System.out.println(format + ", " + itemCount + " items: item array " + itemArrayBytes.length
+                + " B, delta " + deltaBytes.length + " B");
+    }
+
+    @Benchmark
+    public int decodeItemArray(Blackhole blackhole) throws IOException {
+
+        return codec.readItemArray(source(itemArrayBytes), Integer.MAX_VALUE, blackhole::consume);
+    }
+
+    @Benchmark
+    public int decodeItemArrayInChunks(Blackhole blackhole) throws IOException {
+
+        return codec.readItemArray(source(itemArrayBytes), 50, blackhole::consume);
+    }
+
+    @Benchmark
+    public InventoryDelta decodeDelta() throws IOException {
+
+        return codec.readDelta(source(deltaBytes));
+    }
+
+    @Benchmark
+    public byte[] encodeItemArray() throws IOException {
+
+        return encode(items);
+    }
+
+    @Benchmark
+    public int encodeItemFields(Blackhole blackhole) {
+
+        int length = 0;
+
+        for (InventoryItem item : items) {
+
+            byte[] body = codec.encodeItemFields(item.getName(), item.getQuantity());
+
+            length += body.length;
+
+            blackhole.consume(body);
+        }
+
+        return length;
+    }
+
+    @Benchmark
+    public List<InventoryItem> mergeDelta() throws IOException {
+
+        InventoryDelta delta = codec.readDelta(source(deltaBytes));
+
+        return InventorySync.applyChanges(items, delta.getChangedItems(), delta.getDeletedIds());
+    }
+
+    private byte[] encode(List<InventoryItem> items) throws IOException {
+
+        Buffer out = new Buffer();
+
+        codec.writeItemArray(items, out);
+
+        return out.readByteArray();
+    }
+
+    private static Buffer source(byte[] payload) {
+        return new Buffer().write(payload);
+    }
+
+    private byte[] encodeJsonDelta(List<String> deletedIds) {
+
+        StringBuilder delta = new StringBuilder("{\"changed\":");
+
+        delta.append(new String(itemArrayBytes, StandardCharsets.UTF_8)).append(",\"deleted\":[");
+
+        for (int i = 0; i < deletedIds.size(); i++) {
+
+            delta.append(i == 0 ? "" : ",").append('"').append(deletedIds.get(i)).append('"');
+        }
+
+        delta.append("],\"watermark\":\"2024-01-01T00:00:00.000Z\"}");
+
+        return delta.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] encodeCborDelta(List<String> deletedIds) throws IOException {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        CborWriter writer = new CborWriter(out);
+
+        writer.beginMap(3).name("changed");
+
+        // The item array is already encoded
+        out.write(itemArrayBytes);
+
+        writer.name("deleted").beginArray(deletedIds.size());
+
+        for (String id : deletedIds) {
+
+            writer.value(id);
+        }
+
+        writer.name("watermark").value("2024-01-01T00:00:00.000Z");
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes both payloads and fails if they do not match what was encoded.
+     */
+    private void checkRoundTrip() throws IOException {
+
+        List<InventoryItem> decoded = new ArrayList<>(itemCount);
+
+        codec.readItemArray(source(itemArrayBytes), Integer.MAX_VALUE, decoded::addAll);
+
+        InventoryDelta delta = codec.readDelta(source(deltaBytes));
+
+        if (decoded.size() != itemCount || delta.getChangedItems().size() != itemCount
+                || delta.getDeletedIds().size() != (itemCount + 9) / 10) {
+
+            throw new IllegalStateException(format + " decoded the wrong number of items");
+        }
+
+        for (int i = 0; i < itemCount; i++) {
+
+            InventoryItem expected = items.get(i);
+
+            for (InventoryItem actual : new InventoryItem[]{decoded.get(i), delta.getChangedItems().get(i)}) {
+
+                if (!expected.getId().equals(actual.getId()) || !expected.getName().equals(actual.getName())
+                        || expected.getQuantity() != actual.getQuantity()
+                        || !expected.getUserId().equals(actual.getUserId())
+                        || expected.getDbVersion() != actual.getDbVersion()) {
+
+                    throw new IllegalStateException(format + " did not round-trip item " + i);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import okio.Buffer;
+import okio.ByteString;
+
+/**
+ * Measures the generated JSON adapters of single {@link InventoryItem} and {@link AuthResponse}
+ * objects as their string fields grow.
+ *
+ * {@link #textLength} sets the length of the item name and of both tokens, so the payload grows
+ * while the number of keys stays the same. If the adapters only cost what the bytes cost, the time
+ * per operation grows in step with the printed payload size and the fixed part stays small. The gc
+ * profiler shows the same for memory: decoding allocates the decoded strings plus a constant, and
+ * encoding into a reused buffer allocates a constant that does not depend on the payload.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModelAdapterBenchmark {
+
+    // Length of the name and token strings
+    @Param({"16", "256", "4096"})
+    public int textLength;
+
+    private InventoryItem item;
+
+    private AuthResponse authResponse;
+
+    // The encoded objects, as received from the server
+    private ByteString itemBytes;
+
+    private ByteString authResponseBytes;
+
+    // Reused by the encode benchmarks, so their allocations are the adapter's own
+    private final Buffer sink = new Buffer();
+
+    @Setup
+    public void setUp() throws IOException {
+
+        item = new InventoryItem("5f1d7c0e8b3a4c2d1e0f9a8b", text('n'), 42, "5f1d7c0e8b3a4c2d1e0f9a8c", 3);
+
+        authResponse = new AuthResponse(text('t'), text('r'), "Jane Doe");
+
+        InventoryItemJsonAdapter.write(new JsonSink(sink), item);
+
+        itemBytes = sink.readByteString();
+
+        AuthResponseJsonAdapter.write(new JsonSink(sink), authResponse);
+
+        authResponseBytes = sink.readByteString();
+
+        // Fail rather than measure adapters that lose data
+        InventoryItem decodedItem = InventoryItemJsonAdapter.read(new JsonSource(new Buffer().write(itemBytes)));
+
+        AuthResponse decodedAuthResponse = AuthResponseJsonAdapter.read(new JsonSource(new Buffer().write(authResponseBytes)));
+
+        if (!item.toString().equals(decodedItem.toString()) || !authResponse.toString().equals(decodedAuthResponse.toString())) {
+
+            throw new IllegalStateException("Adapters did not round-trip");
+        }
+
+        System.out.println(textLength + " chars: item " + itemBytes.size() + " B, auth response " + authResponseBytes.size() + " B");
+    }
+
+    @Benchmark
+    public InventoryItem decodeItem() throws IOException {
+
+        return InventoryItemJsonAdapter.read(new JsonSource(new Buffer().write(itemBytes)));
+    }
+
+    @Benchmark
+    public long encodeItem() throws IOException {
+
+        InventoryItemJsonAdapter.write(new JsonSink(sink), item);
+
+        return drain();
+    }
+
+    @Benchmark
+    public AuthResponse decodeAuthResponse() throws IOException {
+
+        return AuthResponseJsonAdapter.read(new JsonSource(new Buffer().write(authResponseBytes)));
+    }
+
+    @Benchmark
+    public long encodeAuthResponse() throws IOException {
+
+        AuthResponseJsonAdapter.write(new JsonSink(sink), authResponse);
+
+        return drain();
+    }
+
+    /**
+     * Empties the reused buffer, returning its segments to the pool.
+     */
+    private long drain() {
+
+        long size = sink.size();
+
+        sink.clear();
+
+        return size;
+    }
+
+    private String text(char c) {
+
+        char[] text = new char[textLength];
+
+        Arrays.fill(text, c);
+
+        return new String(text);
+    }
+}
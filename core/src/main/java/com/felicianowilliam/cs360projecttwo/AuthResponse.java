@@ -2,10 +2,17 @@ package com.felicianowilliam.cs360projecttwo;
 
 import androidx.annotation.NonNull;
 
+import com.felicianowilliam.cs360projecttwo.codegen.JsonField;
+import com.felicianowilliam.cs360projecttwo.codegen.JsonModel;
+
 /**
  * Represents the response from an authentication request.
  * This class encapsulates the authentication token, refresh token, and username.
+ *
+ * Its JSON form is read and written by {@code AuthResponseJsonAdapter}, generated at build time.
+ * Every field is optional on the wire, so callers decide which of them they require.
  */
+@JsonModel
 public class AuthResponse{
 
     private String token;
@@ -22,7 +29,8 @@ public class AuthResponse{
      * @param refreshToken The refresh token.
      * @param userName The username associated with the authentication.
      */
-    public AuthResponse(String token, String refreshToken, String userName) {
+    public AuthResponse(@JsonField(required = false) String token, @JsonField(required = false) String refreshToken,
+                        @JsonField(required = false) String userName) {
 
         this.token = token;
 
@@ -0,0 +1,118 @@
+package com.felicianowilliam.cs360projecttwo;
+
+
+import androidx.annotation.NonNull;
+
+/**
+ * Represents the outcome of one operation in a batch mutation request.
+ * This class stores the position of the operation in the batch, the id of the item it
+ * targeted, the item returned by the server for successful creates and updates, and the
+ * per-item status code and error message.
+ */
+public class BatchItemResult {
+
+    private int index;
+
+    private String itemId;
+
+    private InventoryItem item;
+
+    private int statusCode;
+
+    private String error;
+
+
+    /**
+     * Constructs a new BatchItemResult.
+     *
+     * @param index      The position of the operation in the batch passed by the caller.
+     * @param itemId     The server "_id" of the item the operation targeted, or null for a failed create.
+     * @param item       The created or updated item returned by the server, or null for deletes and failures.
+     * @param statusCode The HTTP-style status of this operation, or 0 if it was never answered by the server.
+     * @param error      The error message for a failed operation, or null if it succeeded.
+     */
+    public BatchItemResult(int index, String itemId, InventoryItem item, int statusCode, String error) {
+
+        this.index = index;
+
+        this.itemId = itemId;
+
+        this.item = item;
+
+        this.statusCode = statusCode;
+
+        this.error = error;
+    }
+
+    /**
+     * Returns the position of the operation in the batch passed by the caller.
+     *
+     * @return The zero-based index of the operation.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the id of the item the operation targeted.
+     *
+     * @return The server "_id", or null for a create that failed.
+     */
+    public String getItemId() {
+        return itemId;
+    }
+
+    /**
+     * Returns the item the server returned for a successful create or update.
+     *
+     * @return The created or updated item, or null for deletes and failed operations.
+     */
+    public InventoryItem getItem() {
+        return item;
+    }
+
+    /**
+     * Returns the status of this operation.
+     *
+     * @return The HTTP-style status code, or 0 if the request carrying it failed before a response.
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Returns the error message of a failed operation.
+     *
+     * @return The error message, or null if the operation succeeded.
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Checks whether this operation succeeded.
+     *
+     * @return {@code true} if the status code is 2xx.
+     */
+    public boolean isSuccessful() {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    /**
+     * Returns a string representation of the BatchItemResult object.
+     * This method is primarily used for debugging and logging purposes.
+     *
+     * @return A string containing the index, item id, status code and error.
+     */
+    @NonNull
+    @Override
+    public String toString() {
+
+        return "BatchItemResult{" +
+                "index=" + index +
+                ", itemId='" + itemId + '\'' +
+                ", statusCode=" + statusCode +
+                ", error='" + error + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,698 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A pull reader for CBOR (RFC 8949) documents, shaped like Gson's JsonReader.
+ *
+ * Only the subset of the data model used by the API is typed: integers, text and byte strings,
+ * arrays, maps and null. Floats are accepted where an integer is expected if they hold a whole
+ * number. Tags are skipped, and any other value can be passed over with {@link #skipValue()}.
+ * Both definite and indefinite length containers and strings are supported.
+ *
+ * The reader buffers its input, so the source does not need to be buffered, and it may read
+ * past the end of the document. Text strings that fit in the buffer are decoded in place.
+ */
+final class CborReader implements Closeable {
+
+    // Major types, from the top three bits of the initial byte
+    private static final int MAJOR_UNSIGNED = 0;
+    private static final int MAJOR_NEGATIVE = 1;
+    private static final int MAJOR_BYTES = 2;
+    private static final int MAJOR_TEXT = 3;
+    private static final int MAJOR_ARRAY = 4;
+    private static final int MAJOR_MAP = 5;
+    private static final int MAJOR_TAG = 6;
+    private static final int MAJOR_SIMPLE = 7;
+
+    // Initial bytes with a fixed meaning
+    private static final int NULL = 0xF6;
+    private static final int UNDEFINED = 0xF7;
+    private static final int HALF_FLOAT = 0xF9;
+    private static final int SINGLE_FLOAT = 0xFA;
+    private static final int DOUBLE_FLOAT = 0xFB;
+    private static final int BREAK = 0xFF;
+
+    // Additional information value marking an indefinite length
+    private static final int INDEFINITE = 31;
+
+    // Size of the input buffer
+    private static final int BUFFER_SIZE = 8192;
+
+    // Largest string accepted, so a corrupt length cannot exhaust memory
+    private static final int MAX_STRING_BYTES = 1024 * 1024;
+
+    // Deepest nesting accepted
+    private static final int MAX_DEPTH = 64;
+
+    private final InputStream in;
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    private int position;
+
+    private int limit;
+
+    // Initial byte of the next value once peeked, or -1
+    private int peeked = -1;
+
+    // Items left in each open container, keys and values counted separately; -1 when indefinite
+    private long[] remaining = new long[8];
+
+    private int depth;
+
+    /**
+     * Constructs a reader positioned at the start of a document.
+     *
+     * @param in The stream to read from; closed by {@link #close()}.
+     */
+    CborReader(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Consumes the start of an array.
+     *
+     * @throws IOException If the next value is not an array.
+     */
+    void beginArray() throws IOException {
+        open(MAJOR_ARRAY, 1);
+    }
+
+    /**
+     * Consumes the end of the current array.
+     *
+     * @throws IOException If the array has unread items.
+     */
+    void endArray() throws IOException {
+        close(MAJOR_ARRAY);
+    }
+
+    /**
+     * Consumes the start of a map. Keys and values are then read alternately.
+     *
+     * @throws IOException If the next value is not a map.
+     */
+    void beginMap() throws IOException {
+        open(MAJOR_MAP, 2);
+    }
+
+    /**
+     * Consumes the end of the current map.
+     *
+     * @throws IOException If the map has unread entries.
+     */
+    void endMap() throws IOException {
+        close(MAJOR_MAP);
+    }
+
+    /**
+     * Checks whether the current array or map has another item.
+     *
+     * @return {@code true} if another item follows.
+     * @throws IOException If reading fails.
+     */
+    boolean hasNext() throws IOException {
+
+        long left = remaining[depth - 1];
+
+        return left < 0 ? peek() != BREAK : left > 0;
+    }
+
+    /**
+     * Checks whether the next value is null (or undefined).
+     *
+     * @return {@code true} if the next value is null.
+     * @throws IOException If reading fails.
+     */
+    boolean peekNull() throws IOException {
+
+        int initial = peek();
+
+        return initial == NULL || initial == UNDEFINED;
+    }
+
+    /**
+     * Checks whether the next value is a byte string.
+     *
+     * @return {@code true} if the next value is a byte string.
+     * @throws IOException If reading fails.
+     */
+    boolean peekBytes() throws IOException {
+        return peek() >>> 5 == MAJOR_BYTES;
+    }
+
+    /**
+     * Checks whether the next value is a text string.
+     *
+     * @return {@code true} if the next value is a text string.
+     * @throws IOException If reading fails.
+     */
+    boolean peekText() throws IOException {
+        return peek() >>> 5 == MAJOR_TEXT;
+    }
+
+    /**
+     * Consumes a null (or undefined) value.
+     *
+     * @throws IOException If the next value is not null.
+     */
+    void nextNull() throws IOException {
+
+        int initial = next();
+
+        if (initial != NULL && initial != UNDEFINED) {
+
+            throw unexpected("null", initial);
+        }
+    }
+
+    /**
+     * Consumes a text string.
+     *
+     * @return The decoded string.
+     * @throws IOException If the next value is not a text string.
+     */
+    String nextString() throws IOException {
+
+        int initial = next();
+
+        if (initial >>> 5 != MAJOR_TEXT) {
+
+            throw unexpected("text string", initial);
+        }
+
+        if ((initial & 0x1F) == INDEFINITE) {
+
+            return new String(readIndefiniteString(initial), StandardCharsets.UTF_8);
+        }
+
+        int length = stringLength(initial);
+
+        // Text that is already buffered is decoded without a copy
+        if (limit - position >= length) {
+
+            String text = new String(buffer, position, length, StandardCharsets.UTF_8);
+
+            position += length;
+
+            return text;
+        }
+
+        byte[] bytes = new byte[length];
+
+        readFully(bytes, 0, length);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Consumes a byte string.
+     *
+     * @return The bytes.
+     * @throws IOException If the next value is not a byte string.
+     */
+    byte[] nextBytes() throws IOException {
+
+        int initial = next();
+
+        if (initial >>> 5 != MAJOR_BYTES) {
+
+            throw unexpected("byte string", initial);
+        }
+
+        if ((initial & 0x1F) == INDEFINITE) {
+
+            return readIndefiniteString(initial);
+        }
+
+        byte[] bytes = new byte[stringLength(initial)];
+
+        readFully(bytes, 0, bytes.length);
+
+        return bytes;
+    }
+
+    /**
+     * Consumes an integer, or a float holding a whole number.
+     *
+     * @return The value.
+     * @throws IOException If the next value is not an integer or does not fit in a long.
+     */
+    long nextLong() throws IOException {
+
+        int initial = next();
+
+        switch (initial >>> 5) {
+
+            case MAJOR_UNSIGNED: {
+                long value = readArgument(initial);
+                if (value < 0) {
+                    throw new IOException("CBOR integer does not fit in a long");
+                }
+                return value;
+            }
+
+            case MAJOR_NEGATIVE: {
+                long value = readArgument(initial);
+                if (value < 0) {
+                    throw new IOException("CBOR integer does not fit in a long");
+                }
+                return -1 - value;
+            }
+
+            case MAJOR_SIMPLE: {
+                double value = readFloat(initial);
+                if (value != Math.rint(value) || Math.abs(value) > (double) Long.MAX_VALUE) {
+                    throw new IOException("CBOR number is not an integer: " + value);
+                }
+                return (long) value;
+            }
+
+            default:
+                throw unexpected("integer", initial);
+        }
+    }
+
+    /**
+     * Consumes an integer that fits in an int.
+     *
+     * @return The value.
+     * @throws IOException If the next value is not an integer or does not fit in an int.
+     */
+    int nextInt() throws IOException {
+
+        long value = nextLong();
+
+        if (value != (int) value) {
+
+            throw new IOException("CBOR integer does not fit in an int: " + value);
+        }
+
+        return (int) value;
+    }
+
+    /**
+     * Consumes the next value, including everything nested in it.
+     *
+     * @throws IOException If the value is malformed.
+     */
+    void skipValue() throws IOException {
+        skip(next(), depth);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Consumes the start of an array or map and tracks its item count.
+     */
+    private void open(int major, int itemsPerEntry) throws IOException {
+
+        int initial = next();
+
+        if (initial >>> 5 != major) {
+
+            throw unexpected(major == MAJOR_MAP ? "map" : "array", initial);
+        }
+
+        long length = (initial & 0x1F) == INDEFINITE ? -1 : readArgument(initial);
+
+        if (length < -1 || length > Long.MAX_VALUE / 2) {
+
+            throw new IOException("CBOR container is too large");
+        }
+
+        if (depth == MAX_DEPTH) {
+
+            throw new IOException("CBOR document is nested too deeply");
+        }
+
+        if (depth == remaining.length) {
+
+            remaining = Arrays.copyOf(remaining, depth * 2);
+        }
+
+        remaining[depth++] = length < 0 ? -1 : length * itemsPerEntry;
+    }
+
+    /**
+     * Consumes the end of an array or map.
+     */
+    private void close(int major) throws IOException {
+
+        if (depth == 0) {
+
+            throw new IOException("No open CBOR " + (major == MAJOR_MAP ? "map" : "array"));
+        }
+
+        long left = remaining[depth - 1];
+
+        if (left < 0) {
+
+            // Indefinite containers end with a break
+            if (peek() != BREAK) {
+
+                throw new IOException("CBOR container has unread items");
+            }
+
+            peeked = -1;
+
+        } else if (left > 0) {
+
+            throw new IOException("CBOR container has " + left + " unread items");
+        }
+
+        depth--;
+    }
+
+    /**
+     * Returns the initial byte of the next value without consuming it, skipping any tags.
+     */
+    private int peek() throws IOException {
+
+        if (peeked < 0) {
+
+            int initial = readByte();
+
+            // Tags only annotate the value that follows
+            while (initial >>> 5 == MAJOR_TAG) {
+
+                readArgument(initial);
+
+                initial = readByte();
+            }
+
+            peeked = initial;
+        }
+
+        return peeked;
+    }
+
+    /**
+     * Consumes the initial byte of the next value and counts it against the open container.
+     */
+    private int next() throws IOException {
+
+        int initial = peek();
+
+        if (initial == BREAK) {
+
+            throw new IOException("Unexpected CBOR break");
+        }
+
+        peeked = -1;
+
+        if (depth > 0 && remaining[depth - 1] > 0) {
+
+            remaining[depth - 1]--;
+
+        } else if (depth > 0 && remaining[depth - 1] == 0) {
+
+            throw new IOException("CBOR container has no more items");
+        }
+
+        return initial;
+    }
+
+    /**
+     * Skips the rest of a value whose initial byte has been consumed.
+     */
+    private void skip(int initial, int level) throws IOException {
+
+        if (level > MAX_DEPTH) {
+
+            throw new IOException("CBOR document is nested too deeply");
+        }
+
+        int major = initial >>> 5;
+
+        boolean indefinite = (initial & 0x1F) == INDEFINITE;
+
+        switch (major) {
+
+            case MAJOR_UNSIGNED:
+            case MAJOR_NEGATIVE:
+                readArgument(initial);
+                break;
+
+            case MAJOR_BYTES:
+            case MAJOR_TEXT:
+                if (indefinite) {
+                    for (int chunk = readByte(); chunk != BREAK; chunk = readByte()) {
+                        skipBytes(readArgument(chunk));
+                    }
+                } else {
+                    skipBytes(readArgument(initial));
+                }
+                break;
+
+            case MAJOR_ARRAY:
+            case MAJOR_MAP: {
+                int itemsPerEntry = major == MAJOR_MAP ? 2 : 1;
+                if (indefinite) {
+                    for (int item = peekRaw(); item != BREAK; item = peekRaw()) {
+                        skip(readByte(), level + 1);
+                    }
+                    readByte();
+                } else {
+                    long items = readArgument(initial);
+                    for (long i = 0; i < items * itemsPerEntry; i++) {
+                        skip(readByte(), level + 1);
+                    }
+                }
+                break;
+            }
+
+            case MAJOR_TAG:
+                readArgument(initial);
+                skip(readByte(), level + 1);
+                break;
+
+            default:
+                if (indefinite) {
+                    throw new IOException("Unexpected CBOR break");
+                }
+                readArgument(initial);
+                break;
+        }
+    }
+
+    /**
+     * Reads the argument that follows an initial byte: a value, a length or a simple value.
+     * Unsigned 64-bit values above {@link Long#MAX_VALUE} are returned as negative numbers.
+     */
+    private long readArgument(int initial) throws IOException {
+
+        int info = initial & 0x1F;
+
+        if (info < 24) {
+
+            return info;
+        }
+
+        switch (info) {
+
+            case 24:
+                return readByte();
+
+            case 25:
+                return (long) readByte() << 8 | readByte();
+
+            case 26:
+                return (long) readByte() << 24 | (long) readByte() << 16 | (long) readByte() << 8 | readByte();
+
+            case 27:
+                long value = 0;
+                for (int i = 0; i < 8; i++) {
+                    value = value << 8 | readByte();
+                }
+                return value;
+
+            default:
+                throw new IOException("Malformed CBOR initial byte: 0x" + Integer.toHexString(initial));
+        }
+    }
+
+    /**
+     * Reads a float whose initial byte has been consumed.
+     */
+    private double readFloat(int initial) throws IOException {
+
+        switch (initial) {
+
+            case HALF_FLOAT:
+                return halfToDouble((int) readArgument(initial));
+
+            case SINGLE_FLOAT:
+                return Float.intBitsToFloat((int) readArgument(initial));
+
+            case DOUBLE_FLOAT:
+                return Double.longBitsToDouble(readArgument(initial));
+
+            default:
+                throw unexpected("number", initial);
+        }
+    }
+
+    /**
+     * Reads the content of an indefinite byte or text string whose initial byte has been consumed.
+     * Such a string is a sequence of definite chunks of the same type, ended by a break.
+     */
+    private byte[] readIndefiniteString(int initial) throws IOException {
+
+        byte[] bytes = new byte[0];
+
+        for (int chunk = readByte(); chunk != BREAK; chunk = readByte()) {
+
+            if (chunk >>> 5 != initial >>> 5 || (chunk & 0x1F) == INDEFINITE) {
+
+                throw new IOException("Malformed CBOR string chunk");
+            }
+
+            int length = stringLength(chunk);
+
+            if (bytes.length + length > MAX_STRING_BYTES) {
+
+                throw new IOException("CBOR string is too long");
+            }
+
+            int offset = bytes.length;
+
+            bytes = Arrays.copyOf(bytes, offset + length);
+
+            readFully(bytes, offset, length);
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Reads the length of a definite string and checks it against {@link #MAX_STRING_BYTES}.
+     */
+    private int stringLength(int initial) throws IOException {
+
+        long length = readArgument(initial);
+
+        if (length < 0 || length > MAX_STRING_BYTES) {
+
+            throw new IOException("CBOR string is too long");
+        }
+
+        return (int) length;
+    }
+
+    private int peekRaw() throws IOException {
+
+        if (position == limit && !fill()) {
+
+            throw new EOFException("Unexpected end of CBOR input");
+        }
+
+        return buffer[position] & 0xFF;
+    }
+
+    private int readByte() throws IOException {
+
+        if (position == limit && !fill()) {
+
+            throw new EOFException("Unexpected end of CBOR input");
+        }
+
+        return buffer[position++] & 0xFF;
+    }
+
+    private void readFully(byte[] target, int offset, int length) throws IOException {
+
+        while (length > 0) {
+
+            if (position == limit && !fill()) {
+
+                throw new EOFException("Unexpected end of CBOR input");
+            }
+
+            int count = Math.min(length, limit - position);
+
+            System.arraycopy(buffer, position, target, offset, count);
+
+            position += count;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    private void skipBytes(long length) throws IOException {
+
+        if (length < 0) {
+
+            throw new IOException("CBOR string is too long");
+        }
+
+        while (length > 0) {
+
+            if (position == limit && !fill()) {
+
+                throw new EOFException("Unexpected end of CBOR input");
+            }
+
+            int count = (int) Math.min(length, limit - position);
+
+            position += count;
+            length -= count;
+        }
+    }
+
+    /**
+     * Refills the buffer from the stream.
+     *
+     * @return {@code false} at the end of the stream.
+     */
+    private boolean fill() throws IOException {
+
+        int read;
+
+        do {
+            read = in.read(buffer, 0, buffer.length);
+        } while (read == 0);
+
+        if (read < 0) {
+
+            return false;
+        }
+
+        position = 0;
+        limit = read;
+
+        return true;
+    }
+
+    private static double halfToDouble(int half) {
+
+        int exponent = (half >> 10) & 0x1F;
+
+        int mantissa = half & 0x3FF;
+
+        double value;
+
+        if (exponent == 0) {
+            value = mantissa * Math.pow(2, -24);
+        } else if (exponent != 31) {
+            value = (mantissa + 1024) * Math.pow(2, exponent - 25);
+        } else {
+            value = mantissa == 0 ? Double.POSITIVE_INFINITY : Double.NaN;
+        }
+
+        return (half & 0x8000) != 0 ? -value : value;
+    }
+
+    private static IOException unexpected(String expected, int initial) {
+        return new IOException("Expected CBOR " + expected + " but found initial byte 0x" + Integer.toHexString(initial));
+    }
+}
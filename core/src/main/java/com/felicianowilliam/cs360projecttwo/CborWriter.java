@@ -0,0 +1,185 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A writer for CBOR (RFC 8949) documents, the counterpart of {@link CborReader}.
+ *
+ * Arrays and maps are written with definite lengths, so their sizes must be known up front,
+ * and every integer uses the shortest encoding. Nothing is buffered: the target stream should
+ * be a buffer or be buffered by the caller.
+ */
+final class CborWriter {
+
+    // Major types, shifted into the top three bits of the initial byte
+    private static final int MAJOR_UNSIGNED = 0;
+    private static final int MAJOR_NEGATIVE = 1 << 5;
+    private static final int MAJOR_BYTES = 2 << 5;
+    private static final int MAJOR_TEXT = 3 << 5;
+    private static final int MAJOR_ARRAY = 4 << 5;
+    private static final int MAJOR_MAP = 5 << 5;
+
+    // Initial byte of null
+    private static final int NULL = 0xF6;
+
+    private final OutputStream out;
+
+    /**
+     * Constructs a writer.
+     *
+     * @param out The stream to write to; never closed by the writer.
+     */
+    CborWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Writes the start of an array; exactly {@code size} values must follow.
+     *
+     * @param size The number of items in the array.
+     * @return This writer.
+     * @throws IOException If writing fails.
+     */
+    CborWriter beginArray(int size) throws IOException {
+
+        writeHead(MAJOR_ARRAY, size);
+
+        return this;
+    }
+
+    /**
+     * Writes the start of a map; exactly {@code size} key and value pairs must follow.
+     *
+     * @param size The number of entries in the map.
+     * @return This writer.
+     * @throws IOException If writing fails.
+     */
+    CborWriter beginMap(int size) throws IOException {
+
+        writeHead(MAJOR_MAP, size);
+
+        return this;
+    }
+
+    /**
+     * Writes a text string, or null.
+     *
+     * @param value The string to write, or null.
+     * @return This writer.
+     * @throws IOException If writing fails.
+     */
+    CborWriter value(String value) throws IOException {
+
+        if (value == null) {
+
+            out.write(NULL);
+
+            return this;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+        writeHead(MAJOR_TEXT, bytes.length);
+
+        out.write(bytes);
+
+        return this;
+    }
+
+    /**
+     * Writes an integer.
+     *
+     * @param value The integer to write.
+     * @return This writer.
+     * @throws IOException If writing fails.
+     */
+    CborWriter value(long value) throws IOException {
+
+        if (value >= 0) {
+
+            writeHead(MAJOR_UNSIGNED, value);
+
+        } else {
+
+            writeHead(MAJOR_NEGATIVE, -1 - value);
+        }
+
+        return this;
+    }
+
+    /**
+     * Writes a byte string.
+     *
+     * @param value The bytes to write.
+     * @return This writer.
+     * @throws IOException If writing fails.
+     */
+    CborWriter value(byte[] value) throws IOException {
+
+        writeHead(MAJOR_BYTES, value.length);
+
+        out.write(value);
+
+        return this;
+    }
+
+    /**
+     * Writes a map key. Keys are text strings, so this is {@link #value(String)} under a clearer name.
+     *
+     * @param name The key.
+     * @return This writer.
+     * @throws IOException If writing fails.
+     */
+    CborWriter name(String name) throws IOException {
+        return value(name);
+    }
+
+    /**
+     * Flushes the target stream.
+     *
+     * @throws IOException If flushing fails.
+     */
+    void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Writes an initial byte and its argument in the shortest form.
+     */
+    private void writeHead(int major, long argument) throws IOException {
+
+        if (argument < 24) {
+
+            out.write(major | (int) argument);
+
+        } else if (argument <= 0xFF) {
+
+            out.write(major | 24);
+            out.write((int) argument);
+
+        } else if (argument <= 0xFFFF) {
+
+            out.write(major | 25);
+            out.write((int) (argument >>> 8));
+            out.write((int) argument);
+
+        } else if (argument <= 0xFFFFFFFFL) {
+
+            out.write(major | 26);
+            out.write((int) (argument >>> 24));
+            out.write((int) (argument >>> 16));
+            out.write((int) (argument >>> 8));
+            out.write((int) argument);
+
+        } else {
+
+            out.write(major | 27);
+
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                out.write((int) (argument >>> shift));
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.felicianowilliam.cs360projecttwo;
+
+/**
+ * A circuit breaker for the calls to one backend host.
+ *
+ * While the breaker is {@link State#CLOSED}, every call is let through. After
+ * {@code failureThreshold} consecutive failures it opens: calls are refused without touching the
+ * network, so a backend that is down (or an app service that is cold-starting) costs the user one
+ * quick error instead of one timeout per screen. Once the open period has passed, the breaker
+ * becomes {@link State#HALF_OPEN} and lets exactly one call through as a probe. A successful
+ * probe closes the breaker; a failed one opens it again for twice as long, up to
+ * {@code maxOpenMillis}, so a backend that stays down is probed less and less often.
+ *
+ * Times are passed in by the caller as milliseconds from any monotonic clock, which keeps the
+ * class free of platform clocks. All methods are thread-safe.
+ */
+public final class CircuitBreaker {
+
+    /**
+     * The states of a breaker.
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    // Consecutive failures that open the breaker
+    private final int failureThreshold;
+
+    // How long the breaker stays open the first time, and at most
+    private final long baseOpenMillis;
+    private final long maxOpenMillis;
+
+    private State state = State.CLOSED;
+
+    // Failures since the last success
+    private int consecutiveFailures;
+
+    // When the breaker last opened, and for how long
+    private long openedAtMillis;
+    private long openMillis;
+
+    // Whether the single half-open probe has been handed out
+    private boolean probeInFlight;
+
+    /**
+     * Constructs a closed breaker.
+     *
+     * @param failureThreshold The number of consecutive failures that open the breaker.
+     * @param baseOpenMillis   How long the breaker stays open before its first probe.
+     * @param maxOpenMillis    The longest the open period grows to after repeated failed probes.
+     */
+    public CircuitBreaker(int failureThreshold, long baseOpenMillis, long maxOpenMillis) {
+
+        if (failureThreshold <= 0 || baseOpenMillis <= 0 || maxOpenMillis < baseOpenMillis) {
+
+            throw new IllegalArgumentException("Invalid circuit breaker settings");
+        }
+
+        this.failureThreshold = failureThreshold;
+
+        this.baseOpenMillis = baseOpenMillis;
+
+        this.maxOpenMillis = maxOpenMillis;
+    }
+
+    /**
+     * Asks to make a call. Every call that is allowed must be followed by exactly one of
+     * {@link #onSuccess()}, {@link #onFailure(long)} or {@link #onAbandoned()}.
+     *
+     * @param nowMillis The current time.
+     * @return {@code true} if the call may go ahead; {@code false} if it should fail fast.
+     */
+    public synchronized boolean tryAcquire(long nowMillis) {
+
+        // Move on to the probe once the open period is over
+        if (state == State.OPEN && nowMillis - openedAtMillis >= openMillis) {
+
+            state = State.HALF_OPEN;
+
+            probeInFlight = false;
+        }
+
+        switch (state) {
+
+            case CLOSED:
+                return true;
+
+            case HALF_OPEN:
+                // Only one probe at a time; the other calls keep failing fast
+                if (probeInFlight) {
+                    return false;
+                }
+                probeInFlight = true;
+                return true;
+
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Records a call that reached the backend and got a healthy answer. Closes the breaker.
+     */
+    public synchronized void onSuccess() {
+
+        state = State.CLOSED;
+
+        consecutiveFailures = 0;
+
+        probeInFlight = false;
+
+        openMillis = 0;
+    }
+
+    /**
+     * Records a call that failed because of the backend or the network.
+     *
+     * @param nowMillis The current time.
+     */
+    public synchronized void onFailure(long nowMillis) {
+
+        consecutiveFailures++;
+
+        if (state == State.HALF_OPEN) {
+
+            // The probe failed: stay away for longer
+            open(nowMillis, Math.min(maxOpenMillis, openMillis * 2));
+
+        } else if (state == State.CLOSED && consecutiveFailures >= failureThreshold) {
+
+            open(nowMillis, baseOpenMillis);
+        }
+    }
+
+    /**
+     * Records a call that ended without telling anything about the backend, such as a call
+     * cancelled by the user. Frees the probe slot if the call was the probe.
+     */
+    public synchronized void onAbandoned() {
+        probeInFlight = false;
+    }
+
+    /**
+     * Returns the current state.
+     *
+     * @param nowMillis The current time.
+     * @return The state, reported as {@link State#HALF_OPEN} once an open period has passed.
+     */
+    public synchronized State getState(long nowMillis) {
+
+        if (state == State.OPEN && nowMillis - openedAtMillis >= openMillis) {
+
+            return State.HALF_OPEN;
+        }
+
+        return state;
+    }
+
+    /**
+     * Returns how long calls will keep failing fast.
+     *
+     * @param nowMillis The current time.
+     * @return The time until the next probe is allowed, or 0 if calls are allowed now.
+     */
+    public synchronized long getRemainingOpenMillis(long nowMillis) {
+
+        if (state != State.OPEN) {
+
+            return 0;
+        }
+
+        return Math.max(0, openedAtMillis + openMillis - nowMillis);
+    }
+
+    private void open(long nowMillis, long duration) {
+
+        state = State.OPEN;
+
+        openedAtMillis = nowMillis;
+
+        openMillis = duration;
+
+        probeInFlight = false;
+    }
+}
@@ -0,0 +1,55 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Removes credentials from HTTP headers and JSON bodies before they are logged.
+ *
+ * Passwords sent to "/login" and "/register", and the tokens returned by "/login" and
+ * "/refresh-token", must never reach a log. Header values are replaced by name; JSON string
+ * values are replaced by key, wherever the key appears in the document. Logged bodies are
+ * truncated, so a credential value cut off before its closing quote is redacted as well.
+ */
+public final class CredentialRedactor {
+
+    // Replacement for every redacted value; plain ASCII, so it compiles under any source
+    // encoding and reads the same in logcat and log scrapers
+    public static final String REDACTED = "[REDACTED]";
+
+    // Header names whose values are always redacted, in lower case
+    private static final Set<String> SENSITIVE_HEADERS = new HashSet<>(Arrays.asList(
+            "authorization", "proxy-authorization", "cookie", "set-cookie"));
+
+    // A JSON string member whose key names a credential, either closed or cut off at the end of
+    // a truncated body; group 1 is the key and colon
+    private static final Pattern SENSITIVE_JSON_MEMBER = Pattern.compile(
+            "(\"(?:password|token|refreshToken|accessToken)\"\\s*:\\s*)\"(?:[^\"\\\\]|\\\\.)*(?:\"|\\\\?\\z)");
+
+    private CredentialRedactor() {
+    }
+
+    /**
+     * Checks whether a header carries credentials.
+     *
+     * @param name The header name, in any case.
+     * @return {@code true} if the header value must not be logged.
+     */
+    public static boolean isSensitiveHeader(String name) {
+        return SENSITIVE_HEADERS.contains(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Replaces the values of credential members in a JSON document.
+     *
+     * @param json The JSON text, possibly cut off; text that is not JSON is returned unchanged.
+     * @return The text with every password and token value replaced by {@link #REDACTED},
+     *         including a value left unterminated at the end of the text.
+     */
+    public static String redactJson(String json) {
+        return SENSITIVE_JSON_MEMBER.matcher(json).replaceAll("$1\"" + REDACTED + "\"");
+    }
+}
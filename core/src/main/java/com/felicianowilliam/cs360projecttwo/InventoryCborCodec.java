@@ -0,0 +1,774 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encodes and decodes the CBOR (RFC 8949) payloads exchanged with the Inventory Management Web API.
+ *
+ * The documents are the same as those of {@link InventoryJsonCodec}, key for key, so a server
+ * supports both formats by swapping its serializer. CBOR saves the quotes, separators and number
+ * formatting of JSON, and decodes without a charset or number parsing step. One convention goes
+ * further: an id that is a 24 character lowercase hex MongoDB ObjectId ("_id", "userId") may be
+ * sent as its 12 raw bytes in a byte string, which this codec does when encoding and accepts
+ * when decoding. Ids of any other form are sent as text.
+ *
+ * {@link InventoryCodecs#CBOR} exposes this codec as an {@link InventoryCodec}.
+ */
+public final class InventoryCborCodec {
+
+    // Media type of CBOR bodies
+    public static final String MEDIA_TYPE = "application/cbor";
+
+    // Length of an ObjectId in hex characters
+    private static final int OBJECT_ID_HEX_LENGTH = 24;
+
+    // Digits used to print ObjectId bytes
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    // Upper bound for the initial capacity of a chunk list, so huge chunk sizes do not preallocate
+    private static final int MAX_INITIAL_CHUNK_CAPACITY = 50;
+
+    private InventoryCborCodec() {
+    }
+
+    /**
+     * Decodes an array of inventory items from a byte stream, chunk by chunk.
+     * <p>
+     * Chunks behave as in {@link InventoryJsonCodec#readItemArray}: each is a fresh list of at most
+     * {@code chunkSize} items, handed to the sink as soon as it is full.
+     *
+     * @param source    The stream positioned at the start of the array.
+     * @param chunkSize The maximum number of items per chunk.
+     * @param sink      The {@link InventoryCodec.ChunkSink} receiving each chunk.
+     * @return The total number of items decoded.
+     * @throws IOException If reading from the stream fails or the CBOR is malformed.
+     */
+    public static int readItemArray(InputStream source, int chunkSize, InventoryCodec.ChunkSink sink) throws IOException {
+
+        // Counter for all decoded items
+        int total = 0;
+
+        try (CborReader reader = new CborReader(source)) {
+
+            // Chunk currently being filled
+            List<InventoryItem> chunk = new ArrayList<>(Math.min(chunkSize, MAX_INITIAL_CHUNK_CAPACITY));
+
+            reader.beginArray();
+
+            while (reader.hasNext()) {
+
+                // Decode the next item and add it to the current chunk
+                chunk.add(readItem(reader));
+                total++;
+
+                // Hand off the chunk once it is full
+                if (chunk.size() >= chunkSize) {
+
+                    sink.accept(chunk);
+                    chunk = new ArrayList<>(Math.min(chunkSize, MAX_INITIAL_CHUNK_CAPACITY));
+                }
+            }
+
+            reader.endArray();
+
+            // Flush the remaining partial chunk
+            if (!chunk.isEmpty()) {
+
+                sink.accept(chunk);
+            }
+        }
+
+        return total;
+    }
+
+    /**
+     * Decodes a single inventory item map from a byte stream.
+     *
+     * @param source The stream positioned at the start of the item map.
+     * @return The decoded {@link InventoryItem}.
+     * @throws IOException If a required key is missing or the CBOR is malformed.
+     */
+    public static InventoryItem readItem(InputStream source) throws IOException {
+
+        try (CborReader reader = new CborReader(source)) {
+
+            return readItem(reader);
+        }
+    }
+
+    /**
+     * Decodes an inventory delta map from a byte stream.
+     * <p>
+     * Tombstones in "deleted" may be plain ids or maps carrying an "_id".
+     *
+     * @param source The stream positioned at the start of the delta map.
+     * @return The decoded {@link InventoryDelta}.
+     * @throws IOException If reading from the stream fails or the CBOR is malformed.
+     */
+    public static InventoryDelta readDelta(InputStream source) throws IOException {
+
+        List<InventoryItem> changedItems = new ArrayList<>();
+        List<String> deletedIds = new ArrayList<>();
+        String watermark = null;
+
+        try (CborReader reader = new CborReader(source)) {
+
+            reader.beginMap();
+
+            while (reader.hasNext()) {
+
+                switch (reader.nextString()) {
+
+                    case "changed":
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            changedItems.add(readItem(reader));
+                        }
+                        reader.endArray();
+                        break;
+
+                    case "deleted":
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            deletedIds.add(readTombstoneId(reader));
+                        }
+                        reader.endArray();
+                        break;
+
+                    case "watermark":
+                        watermark = reader.nextString();
+                        break;
+
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+
+            reader.endMap();
+        }
+
+        return new InventoryDelta(changedItems, deletedIds, watermark);
+    }
+
+    /**
+     * Decodes the results of one batch mutation request, as {@link InventoryJsonCodec#readBatchResults} does.
+     *
+     * @param source     The stream positioned at the start of the response map.
+     * @param firstIndex The position of the first operation of this request in the caller's batch.
+     * @param itemIds    The ids targeted by the operations of this request; null entries for creates.
+     * @return One result per operation, in request order.
+     * @throws IOException If reading from the stream fails or the CBOR is malformed.
+     */
+    public static List<BatchItemResult> readBatchResults(InputStream source, int firstIndex, List<String> itemIds) throws IOException {
+
+        List<BatchItemResult> results = new ArrayList<>(itemIds.size());
+
+        try (CborReader reader = new CborReader(source)) {
+
+            reader.beginMap();
+
+            while (reader.hasNext()) {
+
+                if (!"results".equals(reader.nextString())) {
+
+                    reader.skipValue();
+                    continue;
+                }
+
+                reader.beginArray();
+
+                while (reader.hasNext()) {
+
+                    int offset = results.size();
+
+                    // Ignore surplus entries rather than misattributing them
+                    if (offset >= itemIds.size()) {
+
+                        reader.skipValue();
+                        continue;
+                    }
+
+                    results.add(readBatchItemResult(reader, firstIndex + offset, itemIds.get(offset)));
+                }
+
+                reader.endArray();
+            }
+
+            reader.endMap();
+        }
+
+        // The server did not answer every operation
+        for (int offset = results.size(); offset < itemIds.size(); offset++) {
+
+            results.add(new BatchItemResult(firstIndex + offset, itemIds.get(offset), null, 0, "No result returned for this operation"));
+        }
+
+        return results;
+    }
+
+    /**
+     * Decodes an authentication response. Missing fields are returned as null.
+     *
+     * @param source The stream positioned at the start of the response map.
+     * @return The decoded {@link AuthResponse}.
+     * @throws IOException If reading from the stream fails or the CBOR is malformed.
+     */
+    public static AuthResponse readAuthResponse(InputStream source) throws IOException {
+
+        String token = null;
+        String refreshToken = null;
+        String userName = null;
+
+        try (CborReader reader = new CborReader(source)) {
+
+            reader.beginMap();
+
+            while (reader.hasNext()) {
+
+                switch (reader.nextString()) {
+
+                    case "token":
+                        token = nextNullableString(reader);
+                        break;
+
+                    case "refreshToken":
+                        refreshToken = nextNullableString(reader);
+                        break;
+
+                    case "userName":
+                        userName = nextNullableString(reader);
+                        break;
+
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+
+            reader.endMap();
+        }
+
+        return new AuthResponse(token, refreshToken, userName);
+    }
+
+    /**
+     * Builds a user-facing error message from an HTTP status code and a CBOR error body.
+     * <p>
+     * The message starts with "Error {code}" and is followed by the "message" or "error" field of
+     * the body when present. Unlike JSON, a body that cannot be decoded is not shown, since it is binary.
+     *
+     * @param statusCode The HTTP status code of the response.
+     * @param body       The raw response body, possibly empty.
+     * @return The constructed error message.
+     */
+    public static String parseErrorMessage(int statusCode, byte[] body) {
+
+        // Initialize error message with the HTTP status code
+        String errorMessage = "Error " + statusCode;
+
+        // Nothing to add for an empty body
+        if (body.length == 0) {
+
+            return errorMessage;
+        }
+
+        String message = null;
+        String error = null;
+
+        try (CborReader reader = new CborReader(new ByteArrayInputStream(body))) {
+
+            reader.beginMap();
+
+            while (reader.hasNext()) {
+
+                switch (reader.nextString()) {
+
+                    case "message":
+                        message = nextNullableString(reader);
+                        break;
+
+                    case "error":
+                        error = nextNullableString(reader);
+                        break;
+
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+
+            reader.endMap();
+
+        } catch (IOException e) {
+
+            // Not a CBOR map, keep the bare status
+            return errorMessage;
+        }
+
+        // Prefer "message", then "error"
+        if (message != null) {
+            return errorMessage + ": " + message;
+        }
+
+        if (error != null) {
+            return errorMessage + ": " + error;
+        }
+
+        return errorMessage;
+    }
+
+    /**
+     * Encodes a list of inventory items as a CBOR array with every wire field.
+     *
+     * @param items The items to encode.
+     * @param sink  The stream to write to; it is flushed but not closed.
+     * @throws IOException If writing to the stream fails.
+     */
+    public static void writeItemArray(List<InventoryItem> items, OutputStream sink) throws IOException {
+
+        CborWriter writer = new CborWriter(sink);
+
+        writer.beginArray(items.size());
+
+        for (InventoryItem item : items) {
+
+            writeItem(writer, item);
+        }
+
+        writer.flush();
+    }
+
+    /**
+     * Encodes the request body for creating or updating an item.
+     *
+     * @param name     The item name.
+     * @param quantity The item quantity.
+     * @return The CBOR map.
+     */
+    public static byte[] encodeItemFields(String name, int quantity) {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try {
+
+            new CborWriter(out).beginMap(2)
+                    .name("name").value(name)
+                    .name("quantity").value(quantity);
+
+        } catch (IOException e) {
+
+            // A ByteArrayOutputStream never fails
+            throw new IllegalStateException(e);
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Encodes the request body for logging in.
+     *
+     * @param email    The email address of the user.
+     * @param password The password of the user.
+     * @return The CBOR map.
+     */
+    public static byte[] encodeLogin(String email, String password) {
+
+        return encodeRegistration(null, email, password);
+    }
+
+    /**
+     * Encodes the request body for registering a user.
+     *
+     * @param name     The name of the user, or null to omit it.
+     * @param email    The email address of the user.
+     * @param password The password of the user.
+     * @return The CBOR map.
+     */
+    public static byte[] encodeRegistration(String name, String email, String password) {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try {
+
+            CborWriter writer = new CborWriter(out);
+
+            writer.beginMap(name != null ? 3 : 2);
+
+            if (name != null) {
+                writer.name("name").value(name);
+            }
+
+            writer.name("email").value(email)
+                    .name("password").value(password);
+
+        } catch (IOException e) {
+
+            // A ByteArrayOutputStream never fails
+            throw new IllegalStateException(e);
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Encodes the request body for exchanging a refresh token for a new access token.
+     *
+     * @param refreshToken The refresh token.
+     * @return The CBOR map.
+     */
+    public static byte[] encodeRefreshToken(String refreshToken) {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try {
+
+            new CborWriter(out).beginMap(1)
+                    .name("refreshToken").value(refreshToken);
+
+        } catch (IOException e) {
+
+            // A ByteArrayOutputStream never fails
+            throw new IllegalStateException(e);
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Encodes the request body of one batch mutation request, as {@link InventoryJsonCodec#encodeBatch} does.
+     *
+     * @param operations The operations to send, in order.
+     * @return The CBOR map.
+     */
+    public static byte[] encodeBatch(List<PendingOperation> operations) {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try {
+
+            CborWriter writer = new CborWriter(out);
+
+            writer.beginMap(1).name("operations").beginArray(operations.size());
+
+            for (PendingOperation operation : operations) {
+
+                boolean create = PendingOperation.TYPE_CREATE.equals(operation.getType());
+
+                boolean delete = PendingOperation.TYPE_DELETE.equals(operation.getType());
+
+                // "op", plus "_id" unless creating, plus "name" and "quantity" unless deleting
+                writer.beginMap(1 + (create ? 0 : 1) + (delete ? 0 : 2))
+                        .name("op").value(operation.getType());
+
+                // Creates have no id yet
+                if (!create) {
+                    writer.name("_id");
+                    writeId(writer, operation.getItemId());
+                }
+
+                // Deletes carry no values
+                if (!delete) {
+                    writer.name("name").value(operation.getName())
+                            .name("quantity").value(operation.getQuantity());
+                }
+            }
+
+        } catch (IOException e) {
+
+            // A ByteArrayOutputStream never fails
+            throw new IllegalStateException(e);
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Reads a single inventory item map.
+     *
+     * @param reader The reader positioned at the start of an item map.
+     * @return The decoded {@link InventoryItem}.
+     * @throws IOException If a required key is missing or the CBOR is malformed.
+     */
+    private static InventoryItem readItem(CborReader reader) throws IOException {
+
+        String id = null;
+        String name = null;
+        String userId = null;
+        int quantity = 0;
+        int dbVersion = 0;
+        boolean hasQuantity = false;
+
+        reader.beginMap();
+
+        while (reader.hasNext()) {
+
+            switch (reader.nextString()) {
+
+                case "_id":
+                    id = readId(reader);
+                    break;
+
+                case "name":
+                    name = reader.nextString();
+                    break;
+
+                case "quantity":
+                    quantity = reader.nextInt();
+                    hasQuantity = true;
+                    break;
+
+                case "userId":
+                    userId = readId(reader);
+                    break;
+
+                case "__v":
+                    // Treat an explicit null version the same as a missing one
+                    if (reader.peekNull()) {
+                        reader.nextNull();
+                    } else {
+                        dbVersion = reader.nextInt();
+                    }
+                    break;
+
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+
+        reader.endMap();
+
+        if (id == null || name == null || userId == null || !hasQuantity) {
+
+            throw new IOException("Inventory item is missing a required field");
+        }
+
+        return new InventoryItem(id, name, quantity, userId, dbVersion);
+    }
+
+    /**
+     * Writes a single inventory item map with every wire field.
+     *
+     * @param writer The writer to append the map to.
+     * @param item   The item to write.
+     * @throws IOException If writing fails.
+     */
+    private static void writeItem(CborWriter writer, InventoryItem item) throws IOException {
+
+        writer.beginMap(5).name("_id");
+
+        writeId(writer, item.getId());
+
+        writer.name("name").value(item.getName())
+                .name("quantity").value(item.getQuantity())
+                .name("userId");
+
+        writeId(writer, item.getUserId());
+
+        writer.name("__v").value(item.getDbVersion());
+    }
+
+    /**
+     * Reads the item id of a single tombstone, given either as an id or as a map with "_id".
+     *
+     * @param reader The reader positioned at the tombstone.
+     * @return The id of the deleted item.
+     * @throws IOException If the tombstone carries no id or the CBOR is malformed.
+     */
+    private static String readTombstoneId(CborReader reader) throws IOException {
+
+        // Plain id
+        if (reader.peekText() || reader.peekBytes()) {
+
+            return readId(reader);
+        }
+
+        // Tombstone map
+        String id = null;
+
+        reader.beginMap();
+
+        while (reader.hasNext()) {
+
+            if ("_id".equals(reader.nextString())) {
+                id = readId(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+
+        reader.endMap();
+
+        if (id == null) {
+
+            throw new IOException("Tombstone is missing its _id");
+        }
+
+        return id;
+    }
+
+    /**
+     * Reads one entry of a batch "results" array.
+     *
+     * @param reader The reader positioned at the start of the entry.
+     * @param index  The position of the operation in the caller's batch.
+     * @param itemId The id the operation targeted, or null for a create.
+     * @return The decoded result.
+     * @throws IOException If a successful entry carries a malformed item or the CBOR is malformed.
+     */
+    private static BatchItemResult readBatchItemResult(CborReader reader, int index, String itemId) throws IOException {
+
+        int status = 0;
+        InventoryItem item = null;
+        String resultId = null;
+        String message = null;
+        String error = null;
+
+        reader.beginMap();
+
+        while (reader.hasNext()) {
+
+            switch (reader.nextString()) {
+
+                case "status":
+                    status = reader.nextInt();
+                    break;
+
+                case "item":
+                    if (reader.peekNull()) {
+                        reader.nextNull();
+                    } else {
+                        item = readItem(reader);
+                    }
+                    break;
+
+                case "_id":
+                    if (reader.peekNull()) {
+                        reader.nextNull();
+                    } else {
+                        resultId = readId(reader);
+                    }
+                    break;
+
+                case "message":
+                    message = nextNullableString(reader);
+                    break;
+
+                case "error":
+                    error = nextNullableString(reader);
+                    break;
+
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+
+        reader.endMap();
+
+        // Successful creates and updates return the resulting item
+        if (status >= 200 && status < 300) {
+
+            return new BatchItemResult(index, item != null ? item.getId() : itemId, item, status, null);
+        }
+
+        // Failed operations carry the same error fields as single-item responses
+        String errorMessage = "Error " + status;
+
+        if (message != null) {
+            errorMessage += ": " + message;
+        } else if (error != null) {
+            errorMessage += ": " + error;
+        }
+
+        return new BatchItemResult(index, resultId != null ? resultId : itemId, null, status, errorMessage);
+    }
+
+    /**
+     * Reads an id sent either as text or as the raw bytes of an ObjectId.
+     *
+     * @param reader The reader positioned at the id.
+     * @return The id as text; ObjectId bytes are returned as lowercase hex.
+     * @throws IOException If the value is neither text nor bytes.
+     */
+    private static String readId(CborReader reader) throws IOException {
+
+        if (!reader.peekBytes()) {
+
+            return reader.nextString();
+        }
+
+        byte[] bytes = reader.nextBytes();
+
+        char[] hex = new char[bytes.length * 2];
+
+        for (int i = 0; i < bytes.length; i++) {
+
+            hex[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+            hex[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xF];
+        }
+
+        return new String(hex);
+    }
+
+    /**
+     * Writes an id as the raw bytes of an ObjectId when it is one, and as text otherwise.
+     *
+     * @param writer The writer to append the id to.
+     * @param id     The id, or null.
+     * @throws IOException If writing fails.
+     */
+    private static void writeId(CborWriter writer, String id) throws IOException {
+
+        if (id == null || id.length() != OBJECT_ID_HEX_LENGTH) {
+
+            writer.value(id);
+            return;
+        }
+
+        byte[] bytes = new byte[OBJECT_ID_HEX_LENGTH / 2];
+
+        for (int i = 0; i < OBJECT_ID_HEX_LENGTH; i++) {
+
+            char c = id.charAt(i);
+
+            // Only lowercase hex survives the round trip through bytes
+            int digit = c >= '0' && c <= '9' ? c - '0' : c >= 'a' && c <= 'f' ? c - 'a' + 10 : -1;
+
+            if (digit < 0) {
+
+                writer.value(id);
+                return;
+            }
+
+            bytes[i / 2] |= (byte) (i % 2 == 0 ? digit << 4 : digit);
+        }
+
+        writer.value(bytes);
+    }
+
+    /**
+     * Reads a text value that may be null.
+     *
+     * @param reader The reader positioned at the value.
+     * @return The string, or null for a CBOR null.
+     * @throws IOException If the CBOR is malformed.
+     */
+    private static String nextNullableString(CborReader reader) throws IOException {
+
+        if (reader.peekNull()) {
+
+            reader.nextNull();
+            return null;
+        }
+
+        return reader.nextString();
+    }
+}
@@ -0,0 +1,147 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import java.io.IOException;
+import java.util.List;
+
+import okio.BufferedSink;
+import okio.BufferedSource;
+
+/**
+ * A wire format for the payloads exchanged with the Inventory Management Web API.
+ *
+ * Every format carries the same documents with the same keys, so the server only swaps its
+ * serializer; the format of a response is chosen by HTTP content negotiation and identified by
+ * its {@code Content-Type}. The available formats are listed in {@link InventoryCodecs}.
+ *
+ * Decoding methods stream from an okio source straight into the model classes and close the
+ * source when done. Implementations are stateless and thread-safe.
+ */
+public interface InventoryCodec {
+
+    /**
+     * Receives decoded items from {@link #readItemArray(BufferedSource, int, ChunkSink)} one chunk at a time.
+     */
+    interface ChunkSink {
+
+        // Called with each full (or final partial) chunk of decoded items
+        void accept(List<InventoryItem> chunk);
+    }
+
+    /**
+     * Returns the media type of this format, used as the {@code Content-Type} of request bodies.
+     *
+     * @return The media type, e.g. "application/json; charset=utf-8".
+     */
+    String getMediaType();
+
+    /**
+     * Decodes an array of inventory items, handing them to the sink in chunks of at most {@code chunkSize}.
+     *
+     * @param source    The response body.
+     * @param chunkSize The maximum number of items per chunk.
+     * @param sink      The {@link ChunkSink} receiving each chunk.
+     * @return The total number of items decoded.
+     * @throws IOException If reading fails or the payload is malformed.
+     */
+    int readItemArray(BufferedSource source, int chunkSize, ChunkSink sink) throws IOException;
+
+    /**
+     * Decodes a single inventory item.
+     *
+     * @param source The response body.
+     * @return The decoded {@link InventoryItem}.
+     * @throws IOException If a required field is missing or the payload is malformed.
+     */
+    InventoryItem readItem(BufferedSource source) throws IOException;
+
+    /**
+     * Decodes an inventory delta.
+     *
+     * @param source The response body.
+     * @return The decoded {@link InventoryDelta}.
+     * @throws IOException If reading fails or the payload is malformed.
+     */
+    InventoryDelta readDelta(BufferedSource source) throws IOException;
+
+    /**
+     * Decodes the results of one batch mutation request.
+     *
+     * @param source     The response body.
+     * @param firstIndex The position of the first operation of this request in the caller's batch.
+     * @param itemIds    The ids targeted by the operations of this request; null entries for creates.
+     * @return One result per operation, in request order.
+     * @throws IOException If reading fails or the payload is malformed.
+     */
+    List<BatchItemResult> readBatchResults(BufferedSource source, int firstIndex, List<String> itemIds) throws IOException;
+
+    /**
+     * Decodes an authentication response. Missing fields are returned as null.
+     *
+     * @param source The response body.
+     * @return The decoded {@link AuthResponse}.
+     * @throws IOException If reading fails or the payload is malformed.
+     */
+    AuthResponse readAuthResponse(BufferedSource source) throws IOException;
+
+    /**
+     * Builds a user-facing error message from an HTTP status code and error response body.
+     *
+     * @param statusCode The HTTP status code of the response.
+     * @param body       The raw response body, possibly empty.
+     * @return "Error {code}", followed by the "message" or "error" field of the body when present.
+     */
+    String parseErrorMessage(int statusCode, byte[] body);
+
+    /**
+     * Encodes a list of inventory items as an array with every wire field.
+     *
+     * @param items The items to encode.
+     * @param sink  The sink to write to; it is flushed but not closed.
+     * @throws IOException If writing to the sink fails.
+     */
+    void writeItemArray(List<InventoryItem> items, BufferedSink sink) throws IOException;
+
+    /**
+     * Encodes the request body for creating or updating an item.
+     *
+     * @param name     The item name.
+     * @param quantity The item quantity.
+     * @return The encoded body.
+     */
+    byte[] encodeItemFields(String name, int quantity);
+
+    /**
+     * Encodes the request body for logging in.
+     *
+     * @param email    The email address of the user.
+     * @param password The password of the user.
+     * @return The encoded body.
+     */
+    byte[] encodeLogin(String email, String password);
+
+    /**
+     * Encodes the request body for registering a user.
+     *
+     * @param name     The name of the user, or null to omit it.
+     * @param email    The email address of the user.
+     * @param password The password of the user.
+     * @return The encoded body.
+     */
+    byte[] encodeRegistration(String name, String email, String password);
+
+    /**
+     * Encodes the request body for exchanging a refresh token for a new access token.
+     *
+     * @param refreshToken The refresh token.
+     * @return The encoded body.
+     */
+    byte[] encodeRefreshToken(String refreshToken);
+
+    /**
+     * Encodes the request body of one batch mutation request.
+     *
+     * @param operations The operations to send, in order.
+     * @return The encoded body.
+     */
+    byte[] encodeBatch(List<PendingOperation> operations);
+}
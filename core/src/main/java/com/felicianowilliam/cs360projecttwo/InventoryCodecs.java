@@ -0,0 +1,203 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+import okio.BufferedSink;
+import okio.BufferedSource;
+
+/**
+ * The wire formats the app can exchange with the Inventory Management Web API.
+ *
+ * {@link #JSON} is the format every server speaks. {@link #CBOR} carries the same documents in
+ * binary; it is smaller on the wire and cheaper to decode, and is used when the server offers it.
+ * Requests advertise both with {@link #ACCEPT}, and each response is decoded by the codec that
+ * matches its {@code Content-Type}, see {@link #forMediaType(String)}.
+ */
+public final class InventoryCodecs {
+
+    /**
+     * JSON, backed by {@link InventoryJsonCodec}.
+     */
+    public static final InventoryCodec JSON = new JsonCodec();
+
+    /**
+     * CBOR, backed by {@link InventoryCborCodec}.
+     */
+    public static final InventoryCodec CBOR = new CborCodec();
+
+    /**
+     * Accept header value preferring CBOR, with JSON as the fallback.
+     */
+    public static final String ACCEPT = InventoryCborCodec.MEDIA_TYPE + ", application/json;q=0.9";
+
+    private InventoryCodecs() {
+    }
+
+    /**
+     * Returns the codec for a response content type.
+     *
+     * @param contentType The {@code Content-Type} header, or null if the response has none.
+     * @return {@link #CBOR} for "application/cbor", and {@link #JSON} for anything else, so error
+     *         pages and bodies without a type are handled as text.
+     */
+    public static InventoryCodec forMediaType(String contentType) {
+
+        if (contentType == null) {
+
+            return JSON;
+        }
+
+        // Compare the type and subtype only, ignoring parameters
+        int parameters = contentType.indexOf(';');
+
+        String mediaType = (parameters < 0 ? contentType : contentType.substring(0, parameters)).trim().toLowerCase(Locale.ROOT);
+
+        return InventoryCborCodec.MEDIA_TYPE.equals(mediaType) ? CBOR : JSON;
+    }
+
+    /**
+     * Exposes {@link InventoryJsonCodec} as an {@link InventoryCodec}.
+     */
+    private static final class JsonCodec implements InventoryCodec {
+
+        @Override
+        public String getMediaType() {
+            return "application/json; charset=utf-8";
+        }
+
+        @Override
+        public int readItemArray(BufferedSource source, int chunkSize, ChunkSink sink) throws IOException {
+            return InventoryJsonCodec.readItemArray(source, chunkSize, sink);
+        }
+
+        @Override
+        public InventoryItem readItem(BufferedSource source) throws IOException {
+            return InventoryJsonCodec.readItem(source);
+        }
+
+        @Override
+        public InventoryDelta readDelta(BufferedSource source) throws IOException {
+            return InventoryJsonCodec.readDelta(source);
+        }
+
+        @Override
+        public List<BatchItemResult> readBatchResults(BufferedSource source, int firstIndex, List<String> itemIds) throws IOException {
+            return InventoryJsonCodec.readBatchResults(source, firstIndex, itemIds);
+        }
+
+        @Override
+        public AuthResponse readAuthResponse(BufferedSource source) throws IOException {
+            return InventoryJsonCodec.readAuthResponse(source);
+        }
+
+        @Override
+        public String parseErrorMessage(int statusCode, byte[] body) {
+            return InventoryJsonCodec.parseErrorMessage(statusCode, new String(body, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void writeItemArray(List<InventoryItem> items, BufferedSink sink) throws IOException {
+            InventoryJsonCodec.writeItemArray(items, sink);
+        }
+
+        @Override
+        public byte[] encodeItemFields(String name, int quantity) {
+            return InventoryJsonCodec.encodeItemFields(name, quantity);
+        }
+
+        @Override
+        public byte[] encodeLogin(String email, String password) {
+            return InventoryJsonCodec.encodeLogin(email, password);
+        }
+
+        @Override
+        public byte[] encodeRegistration(String name, String email, String password) {
+            return InventoryJsonCodec.encodeRegistration(name, email, password);
+        }
+
+        @Override
+        public byte[] encodeRefreshToken(String refreshToken) {
+            return InventoryJsonCodec.encodeRefreshToken(refreshToken);
+        }
+
+        @Override
+        public byte[] encodeBatch(List<PendingOperation> operations) {
+            return InventoryJsonCodec.encodeBatch(operations);
+        }
+    }
+
+    /**
+     * Exposes {@link InventoryCborCodec} as an {@link InventoryCodec}. The CBOR reader keeps its own
+     * buffer, so it reads through the source's stream view, which drains the okio buffer first.
+     */
+    private static final class CborCodec implements InventoryCodec {
+
+        @Override
+        public String getMediaType() {
+            return InventoryCborCodec.MEDIA_TYPE;
+        }
+
+        @Override
+        public int readItemArray(BufferedSource source, int chunkSize, ChunkSink sink) throws IOException {
+            return InventoryCborCodec.readItemArray(source.inputStream(), chunkSize, sink);
+        }
+
+        @Override
+        public InventoryItem readItem(BufferedSource source) throws IOException {
+            return InventoryCborCodec.readItem(source.inputStream());
+        }
+
+        @Override
+        public InventoryDelta readDelta(BufferedSource source) throws IOException {
+            return InventoryCborCodec.readDelta(source.inputStream());
+        }
+
+        @Override
+        public List<BatchItemResult> readBatchResults(BufferedSource source, int firstIndex, List<String> itemIds) throws IOException {
+            return InventoryCborCodec.readBatchResults(source.inputStream(), firstIndex, itemIds);
+        }
+
+        @Override
+        public AuthResponse readAuthResponse(BufferedSource source) throws IOException {
+            return InventoryCborCodec.readAuthResponse(source.inputStream());
+        }
+
+        @Override
+        public String parseErrorMessage(int statusCode, byte[] body) {
+            return InventoryCborCodec.parseErrorMessage(statusCode, body);
+        }
+
+        @Override
+        public void writeItemArray(List<InventoryItem> items, BufferedSink sink) throws IOException {
+            InventoryCborCodec.writeItemArray(items, sink.outputStream());
+        }
+
+        @Override
+        public byte[] encodeItemFields(String name, int quantity) {
+            return InventoryCborCodec.encodeItemFields(name, quantity);
+        }
+
+        @Override
+        public byte[] encodeLogin(String email, String password) {
+            return InventoryCborCodec.encodeLogin(email, password);
+        }
+
+        @Override
+        public byte[] encodeRegistration(String name, String email, String password) {
+            return InventoryCborCodec.encodeRegistration(name, email, password);
+        }
+
+        @Override
+        public byte[] encodeRefreshToken(String refreshToken) {
+            return InventoryCborCodec.encodeRefreshToken(refreshToken);
+        }
+
+        @Override
+        public byte[] encodeBatch(List<PendingOperation> operations) {
+            return InventoryCborCodec.encodeBatch(operations);
+        }
+    }
+}
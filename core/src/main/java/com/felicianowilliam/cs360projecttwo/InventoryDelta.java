@@ -0,0 +1,91 @@
+package com.felicianowilliam.cs360projecttwo;
+
+
+import androidx.annotation.NonNull;
+
+import java.util.List;
+
+/**
+ * Represents the changes to a user's inventory since a sync watermark.
+ * This class stores the items created or updated since the watermark, the ids of
+ * items deleted since the watermark (tombstones), and the new watermark to send
+ * with the next delta request.
+ */
+public class InventoryDelta {
+
+    private List<InventoryItem> changedItems;
+
+    private List<String> deletedIds;
+
+    private String watermark;
+
+
+    /**
+     * Constructs a new InventoryDelta.
+     *
+     * @param changedItems The items created or updated since the previous watermark.
+     * @param deletedIds   The ids of the items deleted since the previous watermark.
+     * @param watermark    The server watermark covering these changes, to be sent with the next request.
+     */
+    public InventoryDelta(List<InventoryItem> changedItems, List<String> deletedIds, String watermark) {
+
+        this.changedItems = changedItems;
+
+        this.deletedIds = deletedIds;
+
+        this.watermark = watermark;
+    }
+
+    /**
+     * Returns the items created or updated since the previous watermark.
+     *
+     * @return The changed items, in server order.
+     */
+    public List<InventoryItem> getChangedItems() {
+        return changedItems;
+    }
+
+    /**
+     * Returns the ids of the items deleted since the previous watermark.
+     *
+     * @return The server "_id" of every deleted item.
+     */
+    public List<String> getDeletedIds() {
+        return deletedIds;
+    }
+
+    /**
+     * Returns the watermark to send with the next delta request.
+     *
+     * @return The new watermark, or null if the server did not provide one.
+     */
+    public String getWatermark() {
+        return watermark;
+    }
+
+    /**
+     * Checks whether this delta carries no changes.
+     *
+     * @return {@code true} if no item was changed or deleted.
+     */
+    public boolean isEmpty() {
+        return changedItems.isEmpty() && deletedIds.isEmpty();
+    }
+
+    /**
+     * Returns a string representation of the InventoryDelta object.
+     * This method is primarily used for debugging and logging purposes.
+     *
+     * @return A string containing the change counts and the watermark.
+     */
+    @NonNull
+    @Override
+    public String toString() {
+
+        return "InventoryDelta{" +
+                "changedItems=" + changedItems.size() +
+                ", deletedIds=" + deletedIds.size() +
+                ", watermark='" + watermark + '\'' +
+                '}';
+    }
+}
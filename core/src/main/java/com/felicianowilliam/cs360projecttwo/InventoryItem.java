@@ -3,11 +3,18 @@ package com.felicianowilliam.cs360projecttwo;
 
 import androidx.annotation.NonNull;
 
+import com.felicianowilliam.cs360projecttwo.codegen.JsonField;
+import com.felicianowilliam.cs360projecttwo.codegen.JsonModel;
+
 /**
  * Represents an item in the inventory.
  * This class stores details about a specific item, including its quantity, name,
  * user association, unique identifier, and database version.
+ *
+ * Its JSON form is read and written by {@code InventoryItemJsonAdapter}, generated at build time
+ * from the {@link JsonField} parameters of the constructor.
  */
+@JsonModel
 public class InventoryItem {
 
     private int quantity;
@@ -30,7 +37,8 @@ public class InventoryItem {
      * @param userId    The identifier of the user associated with this inventory item.
      * @param dbVersion The version of the database record for optimistic locking or tracking changes.
      */
-    public InventoryItem(String id, String name, int quantity,String userId, int dbVersion) {
+    public InventoryItem(@JsonField("_id") String id, @JsonField String name, @JsonField int quantity,
+                         @JsonField String userId, @JsonField(value = "__v", required = false) int dbVersion) {
 
         this.id = id;
 
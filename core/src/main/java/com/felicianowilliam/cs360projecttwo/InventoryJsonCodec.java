@@ -0,0 +1,651 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.ByteString;
+
+/**
+ * Encodes and decodes the JSON payloads exchanged with the Inventory Management Web API.
+ *
+ * Every method streams directly between okio buffers and the model classes with {@link JsonSource}
+ * and {@link JsonSink}, so no intermediate document tree or text is built. Inventory items and
+ * authentication responses go through their generated adapters, {@code InventoryItemJsonAdapter}
+ * and {@code AuthResponseJsonAdapter}. The codec has no Android dependencies and is shared by the
+ * app and the JVM benchmarks in this module.
+ *
+ * The wire format of an inventory item is:
+ * <ul>
+ *     <li>"_id" (String): The unique identifier of the item.</li>
+ *     <li>"name" (String): The name of the item.</li>
+ *     <li>"quantity" (int): The quantity of the item.</li>
+ *     <li>"userId" (String): The ID of the user who owns the item.</li>
+ *     <li>"__v" (int, optional): The version key, defaults to 0 if missing or null.</li>
+ * </ul>
+ * Unknown keys are skipped when decoding. {@link InventoryCodecs#JSON} exposes this codec as an
+ * {@link InventoryCodec}.
+ */
+public final class InventoryJsonCodec {
+
+    // Upper bound for the initial capacity of a chunk list, so huge chunk sizes do not preallocate
+    private static final int MAX_INITIAL_CHUNK_CAPACITY = 50;
+
+    // Keys read by the hand-written decoders below
+    private static final JsonSource.Names DELTA_NAMES = JsonSource.names("changed", "deleted", "watermark");
+    private static final JsonSource.Names BATCH_NAMES = JsonSource.names("results");
+    private static final JsonSource.Names BATCH_RESULT_NAMES = JsonSource.names("status", "item", "_id", "message", "error");
+    private static final JsonSource.Names ERROR_NAMES = JsonSource.names("message", "error");
+    private static final JsonSource.Names TOMBSTONE_NAMES = JsonSource.names("_id");
+
+    // Keys of the batch operations, encoded once
+    private static final ByteString NAME_OPERATIONS = JsonSink.encodeName("operations");
+    private static final ByteString NAME_OP = JsonSink.encodeName("op");
+    private static final ByteString NAME_ID = JsonSink.encodeName("_id");
+    private static final ByteString NAME_NAME = JsonSink.encodeName("name");
+    private static final ByteString NAME_QUANTITY = JsonSink.encodeName("quantity");
+
+    private InventoryJsonCodec() {
+    }
+
+    /**
+     * Decodes a JSON array of inventory items from a byte stream.
+     * <p>
+     * Items are collected into chunks of at most {@code chunkSize} elements. Each chunk is handed to
+     * the sink as soon as it is full, and a final partial chunk is flushed at the end of the array.
+     * A fresh list is allocated per chunk so the sink may keep or post it to another thread.
+     *
+     * @param source    The source positioned at the start of the JSON array; closed when done.
+     * @param chunkSize The maximum number of items per chunk.
+     * @param sink      The {@link InventoryCodec.ChunkSink} receiving each chunk.
+     * @return The total number of items decoded.
+     * @throws IOException If reading from the stream fails or the JSON is malformed.
+     */
+    public static int readItemArray(BufferedSource source, int chunkSize, InventoryCodec.ChunkSink sink) throws IOException {
+
+        // Counter for all decoded items
+        int total = 0;
+
+        try (JsonSource reader = new JsonSource(source)) {
+
+            // Chunk currently being filled
+            List<InventoryItem> chunk = new ArrayList<>(Math.min(chunkSize, MAX_INITIAL_CHUNK_CAPACITY));
+
+            reader.beginArray();
+
+            while (reader.hasNext()) {
+
+                // Decode the next item and add it to the current chunk
+                chunk.add(InventoryItemJsonAdapter.read(reader));
+                total++;
+
+                // Hand off the chunk once it is full
+                if (chunk.size() >= chunkSize) {
+
+                    sink.accept(chunk);
+                    chunk = new ArrayList<>(Math.min(chunkSize, MAX_INITIAL_CHUNK_CAPACITY));
+                }
+            }
+
+            reader.endArray();
+
+            // Flush the remaining partial chunk
+            if (!chunk.isEmpty()) {
+
+                sink.accept(chunk);
+            }
+        }
+
+        return total;
+    }
+
+    /**
+     * Decodes a single inventory item object from a byte stream.
+     *
+     * @param source The source positioned at the start of the item object; closed when done.
+     * @return The decoded {@link InventoryItem}.
+     * @throws IOException If a required key is missing or the JSON is malformed.
+     */
+    public static InventoryItem readItem(BufferedSource source) throws IOException {
+
+        try (JsonSource reader = new JsonSource(source)) {
+
+            return InventoryItemJsonAdapter.read(reader);
+        }
+    }
+
+    /**
+     * Decodes an inventory delta object from a byte stream.
+     * <p>
+     * Tombstones in "deleted" may be plain id strings or objects carrying an "_id".
+     *
+     * @param source The source positioned at the start of the delta object; closed when done.
+     * @return The decoded {@link InventoryDelta}.
+     * @throws IOException If reading from the stream fails or the JSON is malformed.
+     */
+    public static InventoryDelta readDelta(BufferedSource source) throws IOException {
+
+        List<InventoryItem> changedItems = new ArrayList<>();
+        List<String> deletedIds = new ArrayList<>();
+        String watermark = null;
+
+        try (JsonSource reader = new JsonSource(source)) {
+
+            reader.beginObject();
+
+            while (reader.hasNext()) {
+
+                switch (reader.selectName(DELTA_NAMES)) {
+
+                    // "changed"
+                    case 0:
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            changedItems.add(InventoryItemJsonAdapter.read(reader));
+                        }
+                        reader.endArray();
+                        break;
+
+                    // "deleted"
+                    case 1:
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            deletedIds.add(readTombstoneId(reader));
+                        }
+                        reader.endArray();
+                        break;
+
+                    // "watermark"
+                    case 2:
+                        watermark = reader.nextString();
+                        break;
+
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+
+            reader.endObject();
+        }
+
+        return new InventoryDelta(changedItems, deletedIds, watermark);
+    }
+
+    /**
+     * Decodes the results of one batch mutation request.
+     * <p>
+     * The body is an object whose "results" array holds one entry per operation, in request order.
+     * Each entry carries a "status" and either the resulting "item" or an error "message"/"error".
+     * Operations the server did not answer are reported as failures with status 0.
+     *
+     * @param source     The source positioned at the start of the response object; closed when done.
+     * @param firstIndex The position of the first operation of this request in the caller's batch.
+     * @param itemIds    The ids targeted by the operations of this request; null entries for creates.
+     * @return One result per operation, in request order.
+     * @throws IOException If reading from the stream fails or the JSON is malformed.
+     */
+    public static List<BatchItemResult> readBatchResults(BufferedSource source, int firstIndex, List<String> itemIds) throws IOException {
+
+        List<BatchItemResult> results = new ArrayList<>(itemIds.size());
+
+        try (JsonSource reader = new JsonSource(source)) {
+
+            reader.beginObject();
+
+            while (reader.hasNext()) {
+
+                if (reader.selectName(BATCH_NAMES) != 0) {
+
+                    reader.skipValue();
+                    continue;
+                }
+
+                reader.beginArray();
+
+                while (reader.hasNext()) {
+
+                    int offset = results.size();
+
+                    // Ignore surplus entries rather than misattributing them
+                    if (offset >= itemIds.size()) {
+
+                        reader.skipValue();
+                        continue;
+                    }
+
+                    results.add(readBatchItemResult(reader, firstIndex + offset, itemIds.get(offset)));
+                }
+
+                reader.endArray();
+            }
+
+            reader.endObject();
+        }
+
+        // The server did not answer every operation
+        for (int offset = results.size(); offset < itemIds.size(); offset++) {
+
+            results.add(new BatchItemResult(firstIndex + offset, itemIds.get(offset), null, 0, "No result returned for this operation"));
+        }
+
+        return results;
+    }
+
+    /**
+     * Decodes an authentication response.
+     * <p>
+     * Missing "token", "refreshToken" or "userName" fields are returned as null, so callers
+     * can decide which of them they require.
+     *
+     * @param source The source positioned at the start of the response object; closed when done.
+     * @return The decoded {@link AuthResponse}.
+     * @throws IOException If reading from the stream fails or the JSON is malformed.
+     */
+    public static AuthResponse readAuthResponse(BufferedSource source) throws IOException {
+
+        try (JsonSource reader = new JsonSource(source)) {
+
+            return AuthResponseJsonAdapter.read(reader);
+        }
+    }
+
+    /**
+     * Builds a user-facing error message from an HTTP status code and error response body.
+     * <p>
+     * The message starts with "Error {code}" and is followed by the "message" or "error" field of a
+     * JSON error body when present, or by the raw body otherwise.
+     *
+     * @param statusCode         The HTTP status code of the response.
+     * @param responseBodyString The string representation of the HTTP response body.
+     * @return The constructed error message.
+     */
+    public static String parseErrorMessage(int statusCode, String responseBodyString) {
+
+        // Initialize error message with the HTTP status code
+        String errorMessage = "Error " + statusCode;
+
+        // Nothing to add for an empty body
+        if (responseBodyString.isEmpty()) {
+
+            return errorMessage;
+        }
+
+        String message = null;
+        String error = null;
+
+        try (JsonSource reader = new JsonSource(new Buffer().writeUtf8(responseBodyString))) {
+
+            reader.beginObject();
+
+            while (reader.hasNext()) {
+
+                switch (reader.selectName(ERROR_NAMES)) {
+
+                    // "message"
+                    case 0:
+                        message = nextNullableString(reader);
+                        break;
+
+                    // "error"
+                    case 1:
+                        error = nextNullableString(reader);
+                        break;
+
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+
+            reader.endObject();
+
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+
+            // Not a JSON object, use the raw response body
+            return errorMessage + ": " + responseBodyString;
+        }
+
+        // Prefer "message", then "error", then the raw response body
+        if (message != null) {
+            return errorMessage + ": " + message;
+        }
+
+        if (error != null) {
+            return errorMessage + ": " + error;
+        }
+
+        return errorMessage + ": " + responseBodyString;
+    }
+
+    /**
+     * Encodes a list of inventory items as a JSON array with every wire field.
+     *
+     * @param items The items to encode.
+     * @param sink  The sink to write to; it is flushed but not closed.
+     * @throws IOException If writing to the sink fails.
+     */
+    public static void writeItemArray(List<InventoryItem> items, BufferedSink sink) throws IOException {
+
+        JsonSink writer = new JsonSink(sink);
+
+        writer.beginArray();
+
+        for (InventoryItem item : items) {
+
+            InventoryItemJsonAdapter.write(writer, item);
+        }
+
+        writer.endArray();
+
+        writer.flush();
+    }
+
+    /**
+     * Encodes a single inventory item with every wire field.
+     *
+     * @param item The item to encode.
+     * @return The JSON object as UTF-8 bytes.
+     */
+    public static byte[] encodeItem(InventoryItem item) {
+
+        Buffer out = new Buffer();
+
+        try {
+
+            InventoryItemJsonAdapter.write(new JsonSink(out), item);
+
+        } catch (IOException e) {
+
+            // A Buffer never fails
+            throw new IllegalStateException(e);
+        }
+
+        return out.readByteArray();
+    }
+
+    /**
+     * Encodes the request body for creating or updating an item.
+     *
+     * @param name     The item name.
+     * @param quantity The item quantity.
+     * @return The JSON object as UTF-8 bytes.
+     */
+    public static byte[] encodeItemFields(String name, int quantity) {
+
+        Buffer out = new Buffer();
+
+        try {
+
+            new JsonSink(out).beginObject()
+                    .name(NAME_NAME).value(name)
+                    .name(NAME_QUANTITY).value(quantity)
+                    .endObject();
+
+        } catch (IOException e) {
+
+            // A Buffer never fails
+            throw new IllegalStateException(e);
+        }
+
+        return out.readByteArray();
+    }
+
+    /**
+     * Encodes the request body for logging in.
+     *
+     * @param email    The email address of the user.
+     * @param password The password of the user.
+     * @return The JSON object as UTF-8 bytes.
+     */
+    public static byte[] encodeLogin(String email, String password) {
+
+        return encodeRegistration(null, email, password);
+    }
+
+    /**
+     * Encodes the request body for registering a user.
+     *
+     * @param name     The name of the user, or null to omit it.
+     * @param email    The email address of the user.
+     * @param password The password of the user.
+     * @return The JSON object as UTF-8 bytes.
+     */
+    public static byte[] encodeRegistration(String name, String email, String password) {
+
+        Buffer out = new Buffer();
+
+        try {
+
+            JsonSink writer = new JsonSink(out);
+
+            writer.beginObject();
+
+            if (name != null) {
+                writer.name(NAME_NAME).value(name);
+            }
+
+            writer.name("email").value(email)
+                    .name("password").value(password)
+                    .endObject();
+
+        } catch (IOException e) {
+
+            // A Buffer never fails
+            throw new IllegalStateException(e);
+        }
+
+        return out.readByteArray();
+    }
+
+    /**
+     * Encodes the request body for exchanging a refresh token for a new access token.
+     *
+     * @param refreshToken The refresh token.
+     * @return The JSON object as UTF-8 bytes.
+     */
+    public static byte[] encodeRefreshToken(String refreshToken) {
+
+        Buffer out = new Buffer();
+
+        try {
+
+            new JsonSink(out).beginObject()
+                    .name("refreshToken").value(refreshToken)
+                    .endObject();
+
+        } catch (IOException e) {
+
+            // A Buffer never fails
+            throw new IllegalStateException(e);
+        }
+
+        return out.readByteArray();
+    }
+
+    /**
+     * Encodes the request body of one batch mutation request.
+     * <p>
+     * Each operation becomes an entry of the "operations" array with its "op" type and,
+     * depending on the type, the target "_id" and the new "name" and "quantity".
+     *
+     * @param operations The operations to send, in order.
+     * @return The JSON object as UTF-8 bytes.
+     */
+    public static byte[] encodeBatch(List<PendingOperation> operations) {
+
+        Buffer out = new Buffer();
+
+        try {
+
+            JsonSink writer = new JsonSink(out);
+
+            writer.beginObject().name(NAME_OPERATIONS).beginArray();
+
+            for (PendingOperation operation : operations) {
+
+                writer.beginObject().name(NAME_OP).value(operation.getType());
+
+                // Creates have no id yet
+                if (!PendingOperation.TYPE_CREATE.equals(operation.getType())) {
+                    writer.name(NAME_ID).value(operation.getItemId());
+                }
+
+                // Deletes carry no values
+                if (!PendingOperation.TYPE_DELETE.equals(operation.getType())) {
+                    writer.name(NAME_NAME).value(operation.getName())
+                            .name(NAME_QUANTITY).value(operation.getQuantity());
+                }
+
+                writer.endObject();
+            }
+
+            writer.endArray().endObject();
+
+        } catch (IOException e) {
+
+            // A Buffer never fails
+            throw new IllegalStateException(e);
+        }
+
+        return out.readByteArray();
+    }
+
+    /**
+     * Reads the item id of a single tombstone, given either as a string or as an object with "_id".
+     *
+     * @param reader The reader positioned at the tombstone.
+     * @return The id of the deleted item.
+     * @throws IOException If the tombstone carries no id or the JSON is malformed.
+     */
+    private static String readTombstoneId(JsonSource reader) throws IOException {
+
+        // Plain id string
+        if (reader.peekString()) {
+
+            return reader.nextString();
+        }
+
+        // Tombstone object
+        String id = null;
+
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+
+            if (reader.selectName(TOMBSTONE_NAMES) == 0) {
+                id = reader.nextString();
+            } else {
+                reader.skipValue();
+            }
+        }
+
+        reader.endObject();
+
+        if (id == null) {
+
+            throw new IOException("Tombstone is missing its _id");
+        }
+
+        return id;
+    }
+
+    /**
+     * Reads one entry of a batch "results" array.
+     *
+     * @param reader The reader positioned at the start of the entry.
+     * @param index  The position of the operation in the caller's batch.
+     * @param itemId The id the operation targeted, or null for a create.
+     * @return The decoded result.
+     * @throws IOException If a successful entry carries a malformed item or the JSON is malformed.
+     */
+    private static BatchItemResult readBatchItemResult(JsonSource reader, int index, String itemId) throws IOException {
+
+        int status = 0;
+        InventoryItem item = null;
+        String resultId = null;
+        String message = null;
+        String error = null;
+
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+
+            switch (reader.selectName(BATCH_RESULT_NAMES)) {
+
+                // "status"
+                case 0:
+                    status = reader.nextInt();
+                    break;
+
+                // "item"
+                case 1:
+                    if (reader.peekNull()) {
+                        reader.nextNull();
+                    } else {
+                        item = InventoryItemJsonAdapter.read(reader);
+                    }
+                    break;
+
+                // "_id"
+                case 2:
+                    resultId = nextNullableString(reader);
+                    break;
+
+                // "message"
+                case 3:
+                    message = nextNullableString(reader);
+                    break;
+
+                // "error"
+                case 4:
+                    error = nextNullableString(reader);
+                    break;
+
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+
+        reader.endObject();
+
+        // Successful creates and updates return the resulting item
+        if (status >= 200 && status < 300) {
+
+            return new BatchItemResult(index, item != null ? item.getId() : itemId, item, status, null);
+        }
+
+        // Failed operations carry the same error fields as single-item responses
+        String errorMessage = "Error " + status;
+
+        if (message != null) {
+            errorMessage += ": " + message;
+        } else if (error != null) {
+            errorMessage += ": " + error;
+        }
+
+        return new BatchItemResult(index, resultId != null ? resultId : itemId, null, status, errorMessage);
+    }
+
+    /**
+     * Reads a string value that may be JSON null.
+     *
+     * @param reader The reader positioned at the value.
+     * @return The string, or null for a JSON null.
+     * @throws IOException If the JSON is malformed.
+     */
+    private static String nextNullableString(JsonSource reader) throws IOException {
+
+        if (reader.peekNull()) {
+
+            reader.nextNull();
+            return null;
+        }
+
+        return reader.nextString();
+    }
+}
@@ -0,0 +1,89 @@
+package com.felicianowilliam.cs360projecttwo;
+
+/**
+ * The text one inventory row currently shows, so binding only touches views whose text changed.
+ *
+ * InventoryAdapter keeps one instance per view holder and asks it for the text to set on every
+ * bind. A value is only returned when the row shows something different, and quantity text comes
+ * from a shared cache, so rebinding a row allocates nothing. The class holds no views, so the
+ * bind logic can be benchmarked on a plain JVM. Not thread-safe; used on the main thread.
+ */
+public final class InventoryRowBinding {
+
+    // Formatted quantity strings, indexed by quantity, filled as they are first displayed
+    private static final String[] QUANTITY_TEXT_CACHE = new String[1000];
+
+    // Whether the row has been bound at all
+    private boolean bound;
+
+    // Quantity and name currently shown
+    private int boundQuantity;
+    private String boundName;
+
+    /**
+     * Returns the quantity text to show for an item, or null if the row already shows it.
+     *
+     * @param item The item being bound to the row.
+     * @return The text to set, or null to leave the view alone.
+     */
+    public String quantityTextToShow(InventoryItem item) {
+
+        if (bound && boundQuantity == item.getQuantity()) {
+
+            return null;
+        }
+
+        boundQuantity = item.getQuantity();
+
+        return quantityText(boundQuantity);
+    }
+
+    /**
+     * Returns the name to show for an item, or null if the row already shows it.
+     * Call after {@link #quantityTextToShow(InventoryItem)} for the same item.
+     *
+     * @param item The item being bound to the row.
+     * @return The text to set, or null to leave the view alone.
+     */
+    public String nameToShow(InventoryItem item) {
+
+        boolean unchanged = bound && item.getName().equals(boundName);
+
+        bound = true;
+
+        if (unchanged) {
+
+            return null;
+        }
+
+        boundName = item.getName();
+
+        return boundName;
+    }
+
+    /**
+     * Returns the display text of a quantity, reusing cached strings for common values.
+     *
+     * @param quantity The quantity to format.
+     * @return The quantity as decimal text.
+     */
+    public static String quantityText(int quantity) {
+
+        // Large or negative quantities are rare enough to format on demand
+        if (quantity < 0 || quantity >= QUANTITY_TEXT_CACHE.length) {
+
+            return String.valueOf(quantity);
+        }
+
+        String text = QUANTITY_TEXT_CACHE[quantity];
+
+        if (text == null) {
+
+            text = String.valueOf(quantity);
+
+            QUANTITY_TEXT_CACHE[quantity] = text;
+        }
+
+        return text;
+    }
+}
@@ -0,0 +1,208 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The rules for keeping the local inventory in step with the server.
+ *
+ * This covers merging a delta into a local snapshot and deciding when and how soon a failed
+ * write is worth sending again. None of it touches Android, the network or the database.
+ */
+public final class InventorySync {
+
+    // Delay before the first retry of a failed write
+    public static final long INITIAL_BACKOFF_MS = 2_000L;
+
+    // Upper bound for the retry delay
+    public static final long MAX_BACKOFF_MS = 5 * 60_000L;
+
+    // Failed attempts after which a write the server keeps failing on is given up, about
+    // a quarter of an hour of retries with the backoff above
+    public static final int MAX_ATTEMPTS = 10;
+
+    // Status reported for a write that failed before its request was sent, such as when the host
+    // could not be connected to; unlike 0, it proves the server did not act on the write
+    public static final int STATUS_NOT_SENT = -1;
+
+    private InventorySync() {
+    }
+
+    /**
+     * Merges changed and deleted items into a snapshot of the inventory.
+     * <p>
+     * Deleted ids are dropped, changed items that are already present replace their row in place
+     * unless the row carries a newer version, and new items are appended in the order given.
+     * The snapshot itself is not modified.
+     *
+     * @param items        The current snapshot.
+     * @param changedItems The items created or updated on the server.
+     * @param deletedIds   The ids of the items deleted on the server.
+     * @return A new list holding the merged inventory.
+     */
+    public static List<InventoryItem> applyChanges(List<InventoryItem> items, List<InventoryItem> changedItems, Collection<String> deletedIds) {
+
+        List<InventoryItem> updated = new ArrayList<>(items.size() + changedItems.size());
+
+        // Copy every row that was not deleted
+        Set<String> deleted = new HashSet<>(deletedIds);
+
+        for (InventoryItem item : items) {
+
+            if (!deleted.contains(item.getId())) {
+
+                updated.add(item);
+            }
+        }
+
+        // Index the remaining rows by id
+        Map<String, Integer> positionsById = new HashMap<>();
+
+        for (int i = 0; i < updated.size(); i++) {
+
+            positionsById.put(updated.get(i).getId(), i);
+        }
+
+        for (InventoryItem item : changedItems) {
+
+            Integer position = positionsById.get(item.getId());
+
+            if (position == null) {
+
+                // New item, append it
+                positionsById.put(item.getId(), updated.size());
+                updated.add(item);
+
+            } else if (updated.get(position).getDbVersion() <= item.getDbVersion()) {
+
+                // Existing item, replace it unless the row is newer
+                updated.set(position, item);
+            }
+        }
+
+        return updated;
+    }
+
+    /**
+     * Applies writes still waiting in the outbox to a snapshot of the inventory, so a list read
+     * from the local cache shows what the user last saved rather than what the server last sent.
+     * <p>
+     * Items with a pending delete are dropped and items with pending updates take the values of
+     * the latest one. Pending creates are left out, since the item has no server id yet; it
+     * appears once the create has been sent. The snapshot itself is not modified.
+     *
+     * @param items      The snapshot, such as the cached inventory.
+     * @param operations The pending writes, oldest first.
+     * @return A new list holding the inventory as the user left it.
+     */
+    public static List<InventoryItem> applyPendingOperations(List<InventoryItem> items, List<PendingOperation> operations) {
+
+        // Nothing waiting, so the snapshot is already current
+        if (operations.isEmpty()) {
+
+            return new ArrayList<>(items);
+        }
+
+        // Collect the latest pending write per item; a later write replaces an earlier one
+        Map<String, PendingOperation> latestById = new HashMap<>();
+
+        for (PendingOperation operation : operations) {
+
+            if (operation.getItemId() != null) {
+
+                latestById.put(operation.getItemId(), operation);
+            }
+        }
+
+        List<InventoryItem> updated = new ArrayList<>(items.size());
+
+        for (InventoryItem item : items) {
+
+            PendingOperation operation = latestById.get(item.getId());
+
+            if (operation == null) {
+
+                updated.add(item);
+
+            } else if (PendingOperation.TYPE_UPDATE.equals(operation.getType())) {
+
+                updated.add(new InventoryItem(item.getId(), operation.getName(), operation.getQuantity(), item.getUserId(), item.getDbVersion()));
+            }
+        }
+
+        return updated;
+    }
+
+    /**
+     * Checks whether a failed write may succeed if sent again later.
+     *
+     * @param statusCode The HTTP status code, 0 if no answer was received, or
+     *                   {@link #STATUS_NOT_SENT} if the request was never sent.
+     * @return {@code true} for network failures, server errors, 401, 408 and 429.
+     */
+    public static boolean isRetryable(int statusCode) {
+
+        return statusCode <= 0 || statusCode >= 500 || statusCode == 401 || statusCode == 408 || statusCode == 429;
+    }
+
+    /**
+     * Checks whether a failed write can be sent again without risking applying it twice.
+     * <p>
+     * Updates and deletes are idempotent, so every retryable failure qualifies. A create is a
+     * POST the server may have acted on before the failure: a lost answer, a timeout or a
+     * gateway error after the request went out would create the item a second time. A create
+     * therefore only qualifies if it was never sent, or if the answer says it was not processed.
+     *
+     * @param type       The {@link PendingOperation} type of the write.
+     * @param statusCode The status the write failed with, as for {@link #isRetryable(int)}.
+     * @return {@code true} if sending the write again is safe and may succeed.
+     */
+    public static boolean isSafeToResend(String type, int statusCode) {
+
+        if (!isRetryable(statusCode)) {
+
+            return false;
+        }
+
+        if (!PendingOperation.TYPE_CREATE.equals(type)) {
+
+            return true;
+        }
+
+        return statusCode == STATUS_NOT_SENT || statusCode == 401 || statusCode == 408 || statusCode == 429 || statusCode == 503;
+    }
+
+    /**
+     * Checks whether a write has failed often enough to be given up, so it no longer holds up
+     * the writes queued behind it.
+     * <p>
+     * Only failures of a request that went out count: a server that keeps answering 500 to the
+     * same write will not accept it later either, while a write that could not be sent because
+     * the device is offline is kept however long the outage lasts.
+     *
+     * @param statusCode The status the latest attempt failed with, as for {@link #isRetryable(int)}.
+     * @param attempts   The number of failed attempts, including the latest one.
+     * @return {@code true} if the write should be dropped.
+     */
+    public static boolean hasExhaustedAttempts(int statusCode, int attempts) {
+
+        return statusCode != STATUS_NOT_SENT && attempts >= MAX_ATTEMPTS;
+    }
+
+    /**
+     * Returns how long to wait before sending a failed write again.
+     *
+     * @param attempts The number of failed attempts, including the one that just failed.
+     * @return The delay in milliseconds: {@link #INITIAL_BACKOFF_MS} after the first failure,
+     *         doubling with every further one up to {@link #MAX_BACKOFF_MS}.
+     */
+    public static long retryDelayMillis(int attempts) {
+
+        return Math.min(MAX_BACKOFF_MS, INITIAL_BACKOFF_MS << Math.min(Math.max(attempts - 1, 0), 16));
+    }
+}
@@ -0,0 +1,57 @@
+package com.felicianowilliam.cs360projecttwo;
+
+/**
+ * Validates the item name and quantity entered by the user before a write is submitted.
+ *
+ * Each method returns the error message to show next to the offending field, or null if
+ * the value is valid. Callers are expected to pass input that has already been trimmed.
+ */
+public final class InventoryValidator {
+
+    private InventoryValidator() {
+    }
+
+    /**
+     * Validates an item name.
+     *
+     * @param name The trimmed item name.
+     * @return The error message, or null if the name is valid.
+     */
+    public static String validateName(String name) {
+
+        if (name == null || name.isEmpty()) {
+
+            return "Item name is required";
+        }
+
+        return null;
+    }
+
+    /**
+     * Validates an item quantity typed as text.
+     *
+     * @param quantityText The trimmed quantity text.
+     * @return The error message, or null if the text is a non-negative integer.
+     */
+    public static String validateQuantity(String quantityText) {
+
+        if (quantityText == null || quantityText.isEmpty()) {
+
+            return "Quantity is required";
+        }
+
+        try {
+
+            if (Integer.parseInt(quantityText) < 0) {
+
+                return "Quantity cannot be negative";
+            }
+
+        } catch (NumberFormatException e) {
+
+            return "Invalid number format";
+        }
+
+        return null;
+    }
+}
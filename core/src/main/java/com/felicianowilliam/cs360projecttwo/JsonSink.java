@@ -0,0 +1,365 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ByteString;
+
+/**
+ * A writer for JSON documents that encodes straight into an okio {@link BufferedSink}.
+ *
+ * The counterpart of {@link JsonSource}. Strings are escaped and encoded as UTF-8 directly into
+ * the sink's segments, numbers are written as digits without formatting a String, and keys known
+ * in advance are written from bytes prepared once with {@link #encodeName(String)}. Output is
+ * compact, without whitespace.
+ */
+public final class JsonSink {
+
+    // Hex digits of \\u escapes
+    private static final byte[] HEX_DIGITS = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
+
+    private final BufferedSink sink;
+
+    // Whether each open container already has an element, so the next one needs a comma
+    private boolean[] nonEmpty = new boolean[8];
+
+    private int depth;
+
+    // Whether a key was written and its value is pending
+    private boolean afterName;
+
+    /**
+     * Constructs a writer.
+     *
+     * @param sink The sink to write to; never closed by the writer.
+     */
+    public JsonSink(BufferedSink sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Prepares a key for {@link #name(ByteString)}: the quoted, escaped key and its colon.
+     *
+     * @param name The key.
+     * @return The encoded key.
+     */
+    public static ByteString encodeName(String name) {
+
+        return new Buffer().write(quote(name)).writeByte(':').readByteString();
+    }
+
+    /**
+     * Writes the start of an object.
+     *
+     * @return This writer.
+     * @throws IOException If writing fails.
+     */
+    public JsonSink beginObject() throws IOException {
+
+        beforeValue();
+
+        push();
+
+        sink.writeByte('{');
+
+        return this;
+    }
+
+    /**
+     * Writes the end of the current object.
+     *
+     * @return This writer.
+     * @throws IOException If writing fails.
+     */
+    public JsonSink endObject() throws IOException {
+
+        depth--;
+
+        sink.writeByte('}');
+
+        return this;
+    }
+
+    /**
+     * Writes the start of an array.
+     *
+     * @return This writer.
+     * @throws IOException If writing fails.
+     */
+    public JsonSink beginArray() throws IOException {
+
+        beforeValue();
+
+        push();
+
+        sink.writeByte('[');
+
+        return this;
+    }
+
+    /**
+     * Writes the end of the current array.
+     *
+     * @return This writer.
+     * @throws IOException If writing fails.
+     */
+    public JsonSink endArray() throws IOException {
+
+        depth--;
+
+        sink.writeByte(']');
+
+        return this;
+    }
+
+    /**
+     * Writes a key prepared with {@link #encodeName(String)}; its value must follow.
+     *
+     * @param encodedName The encoded key.
+     * @return This writer.
+     * @throws IOException If writing fails.
+     */
+    public JsonSink name(ByteString encodedName) throws IOException {
+
+        beforeValue();
+
+        sink.write(encodedName);
+
+        afterName = true;
+
+        return this;
+    }
+
+    /**
+     * Writes a key; its value must follow.
+     *
+     * @param name The key.
+     * @return This writer.
+     * @throws IOException If writing fails.
+     */
+    public JsonSink name(String name) throws IOException {
+
+        beforeValue();
+
+        writeQuoted(sink, name);
+
+        sink.writeByte(':');
+
+        afterName = true;
+
+        return this;
+    }
+
+    /**
+     * Writes a string, or null.
+     *
+     * @param value The string to write, or null.
+     * @return This writer.
+     * @throws IOException If writing fails.
+     */
+    public JsonSink value(String value) throws IOException {
+
+        if (value == null) {
+
+            return nullValue();
+        }
+
+        beforeValue();
+
+        writeQuoted(sink, value);
+
+        return this;
+    }
+
+    /**
+     * Writes an integer.
+     *
+     * @param value The integer to write.
+     * @return This writer.
+     * @throws IOException If writing fails.
+     */
+    public JsonSink value(long value) throws IOException {
+
+        beforeValue();
+
+        sink.writeDecimalLong(value);
+
+        return this;
+    }
+
+    /**
+     * Writes a boolean.
+     *
+     * @param value The boolean to write.
+     * @return This writer.
+     * @throws IOException If writing fails.
+     */
+    public JsonSink value(boolean value) throws IOException {
+
+        beforeValue();
+
+        sink.writeUtf8(value ? "true" : "false");
+
+        return this;
+    }
+
+    /**
+     * Writes null.
+     *
+     * @return This writer.
+     * @throws IOException If writing fails.
+     */
+    public JsonSink nullValue() throws IOException {
+
+        beforeValue();
+
+        sink.writeUtf8("null");
+
+        return this;
+    }
+
+    /**
+     * Flushes the target sink.
+     *
+     * @throws IOException If flushing fails.
+     */
+    public void flush() throws IOException {
+        sink.flush();
+    }
+
+    /**
+     * Writes a string as a quoted JSON string, escaping what JSON requires plus U+2028 and U+2029,
+     * which are not valid in JavaScript source. Runs of plain characters are encoded in one call.
+     *
+     * @param sink  The sink to write to.
+     * @param value The string to write.
+     * @throws IOException If writing fails.
+     */
+    static void writeQuoted(BufferedSink sink, String value) throws IOException {
+
+        sink.writeByte('"');
+
+        int length = value.length();
+
+        int start = 0;
+
+        for (int i = 0; i < length; i++) {
+
+            char c = value.charAt(i);
+
+            if (c >= 0x20 && c != '"' && c != '\\' && c != 0x2028 && c != 0x2029) {
+
+                continue;
+            }
+
+            // Flush the plain run before the escape
+            if (start < i) {
+
+                sink.writeUtf8(value, start, i);
+            }
+
+            writeEscape(sink, c);
+
+            start = i + 1;
+        }
+
+        if (start < length) {
+
+            sink.writeUtf8(value, start, length);
+        }
+
+        sink.writeByte('"');
+    }
+
+    /**
+     * Returns a string as a quoted JSON string, as written by {@link #writeQuoted(BufferedSink, String)}.
+     *
+     * @param value The string to quote.
+     * @return The quoted string.
+     */
+    static ByteString quote(String value) {
+
+        Buffer buffer = new Buffer();
+
+        try {
+
+            writeQuoted(buffer, value);
+
+        } catch (IOException e) {
+
+            // A Buffer never fails
+            throw new IllegalStateException(e);
+        }
+
+        return buffer.readByteString();
+    }
+
+    private static void writeEscape(BufferedSink sink, char c) throws IOException {
+
+        switch (c) {
+
+            case '"':
+                sink.writeUtf8("\\\"");
+                break;
+
+            case '\\':
+                sink.writeUtf8("\\\\");
+                break;
+
+            case '\n':
+                sink.writeUtf8("\\n");
+                break;
+
+            case '\r':
+                sink.writeUtf8("\\r");
+                break;
+
+            case '\t':
+                sink.writeUtf8("\\t");
+                break;
+
+            default:
+                sink.writeByte('\\').writeByte('u')
+                        .writeByte(HEX_DIGITS[c >>> 12 & 0xF])
+                        .writeByte(HEX_DIGITS[c >>> 8 & 0xF])
+                        .writeByte(HEX_DIGITS[c >>> 4 & 0xF])
+                        .writeByte(HEX_DIGITS[c & 0xF]);
+                break;
+        }
+    }
+
+    /**
+     * Writes the comma separating this value from the previous element, unless it follows a key.
+     */
+    private void beforeValue() throws IOException {
+
+        if (afterName) {
+
+            afterName = false;
+
+            return;
+        }
+
+        if (depth > 0) {
+
+            if (nonEmpty[depth - 1]) {
+
+                sink.writeByte(',');
+            }
+
+            nonEmpty[depth - 1] = true;
+        }
+    }
+
+    private void push() {
+
+        if (depth == nonEmpty.length) {
+
+            nonEmpty = Arrays.copyOf(nonEmpty, depth * 2);
+        }
+
+        nonEmpty[depth++] = false;
+    }
+}
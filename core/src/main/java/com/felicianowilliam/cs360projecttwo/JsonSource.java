@@ -0,0 +1,813 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ByteString;
+import okio.Options;
+
+/**
+ * A pull reader for JSON documents that decodes straight from an okio {@link BufferedSource}.
+ *
+ * The API is shaped like Gson's JsonReader, with one difference: object keys are matched with
+ * {@link #selectName(Names)} against a precomputed set of names, so a key is recognised by
+ * comparing its bytes in the source buffer and never becomes a String. Numbers are parsed from
+ * bytes as well. The only objects allocated while reading are the string values returned by
+ * {@link #nextString()}, so decoding cost follows the size of the payload.
+ *
+ * The adapters generated for {@code @JsonModel} classes, such as {@code InventoryItemJsonAdapter},
+ * are written against this reader.
+ */
+public final class JsonSource implements Closeable {
+
+    /**
+     * A set of object keys to match with {@link #selectName(Names)}, built once per adapter.
+     */
+    public static final class Names {
+
+        private final String[] strings;
+
+        private final Options quoted;
+
+        private Names(String[] strings, Options quoted) {
+
+            this.strings = strings;
+
+            this.quoted = quoted;
+        }
+    }
+
+    // Tokens found by peek()
+    private static final int PEEKED_NONE = 0;
+    private static final int PEEKED_BEGIN_OBJECT = 1;
+    private static final int PEEKED_END_OBJECT = 2;
+    private static final int PEEKED_BEGIN_ARRAY = 3;
+    private static final int PEEKED_END_ARRAY = 4;
+    private static final int PEEKED_NAME = 5;
+    private static final int PEEKED_STRING = 6;
+    private static final int PEEKED_NUMBER = 7;
+    private static final int PEEKED_TRUE = 8;
+    private static final int PEEKED_FALSE = 9;
+    private static final int PEEKED_NULL = 10;
+
+    // Position within each open container
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_ARRAY = 2;
+    private static final int NONEMPTY_ARRAY = 3;
+    private static final int EMPTY_OBJECT = 4;
+    private static final int DANGLING_NAME = 5;
+    private static final int NONEMPTY_OBJECT = 6;
+
+    // Deepest nesting accepted
+    private static final int MAX_DEPTH = 64;
+
+    // Bytes that end the plain run of a string
+    private static final ByteString QUOTE_OR_BACKSLASH = ByteString.encodeUtf8("\"\\");
+
+    // Bytes that may follow a number
+    private static final ByteString NUMBER_TERMINATORS = ByteString.encodeUtf8(",]} \t\r\n");
+
+    private static final ByteString NULL = ByteString.encodeUtf8("null");
+    private static final ByteString TRUE = ByteString.encodeUtf8("true");
+    private static final ByteString FALSE = ByteString.encodeUtf8("false");
+
+    private final BufferedSource source;
+
+    private final Buffer buffer;
+
+    private int peeked = PEEKED_NONE;
+
+    private int[] scopes = new int[8];
+
+    private int depth = 1;
+
+    /**
+     * Constructs a reader positioned at the start of a document.
+     *
+     * @param source The source to read from; closed by {@link #close()}.
+     */
+    public JsonSource(BufferedSource source) {
+
+        this.source = source;
+
+        this.buffer = source.getBuffer();
+
+        scopes[0] = EMPTY_DOCUMENT;
+    }
+
+    /**
+     * Builds a set of object keys for {@link #selectName(Names)}.
+     *
+     * @param names The keys, in the order their indexes are returned.
+     * @return The prepared set.
+     */
+    public static Names names(String... names) {
+
+        ByteString[] quoted = new ByteString[names.length];
+
+        for (int i = 0; i < names.length; i++) {
+
+            quoted[i] = JsonSink.quote(names[i]);
+        }
+
+        return new Names(names.clone(), Options.of(quoted));
+    }
+
+    /**
+     * Consumes the start of an object.
+     *
+     * @throws IOException If the next token is not the start of an object.
+     */
+    public void beginObject() throws IOException {
+
+        expect(PEEKED_BEGIN_OBJECT, "an object");
+
+        push(EMPTY_OBJECT);
+    }
+
+    /**
+     * Consumes the end of the current object.
+     *
+     * @throws IOException If the object has more members.
+     */
+    public void endObject() throws IOException {
+
+        expect(PEEKED_END_OBJECT, "the end of an object");
+
+        depth--;
+    }
+
+    /**
+     * Consumes the start of an array.
+     *
+     * @throws IOException If the next token is not the start of an array.
+     */
+    public void beginArray() throws IOException {
+
+        expect(PEEKED_BEGIN_ARRAY, "an array");
+
+        push(EMPTY_ARRAY);
+    }
+
+    /**
+     * Consumes the end of the current array.
+     *
+     * @throws IOException If the array has more elements.
+     */
+    public void endArray() throws IOException {
+
+        expect(PEEKED_END_ARRAY, "the end of an array");
+
+        depth--;
+    }
+
+    /**
+     * Checks whether the current array or object has another element.
+     *
+     * @return {@code true} if another element or member follows.
+     * @throws IOException If reading fails or the JSON is malformed.
+     */
+    public boolean hasNext() throws IOException {
+
+        int token = peek();
+
+        return token != PEEKED_END_OBJECT && token != PEEKED_END_ARRAY;
+    }
+
+    /**
+     * Consumes the next object key and finds it in a set of names.
+     *
+     * @param names The names to match, from {@link #names(String...)}.
+     * @return The index of the key in {@code names}, or -1 if it is not one of them; the key is
+     *         consumed either way, so the caller skips the value of an unknown key.
+     * @throws IOException If the next token is not a key.
+     */
+    public int selectName(Names names) throws IOException {
+
+        if (peek() != PEEKED_NAME) {
+
+            throw unexpected("a name");
+        }
+
+        peeked = PEEKED_NONE;
+
+        // Matches the quoted key in place
+        int index = source.select(names.quoted);
+
+        if (index >= 0) {
+
+            return index;
+        }
+
+        // Keys written with escapes do not match byte for byte
+        String name = readQuoted();
+
+        for (int i = 0; i < names.strings.length; i++) {
+
+            if (names.strings[i].equals(name)) {
+
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Checks whether the next value is a string.
+     *
+     * @return {@code true} if the next value is a string.
+     * @throws IOException If reading fails or the JSON is malformed.
+     */
+    public boolean peekString() throws IOException {
+        return peek() == PEEKED_STRING;
+    }
+
+    /**
+     * Checks whether the next value is null.
+     *
+     * @return {@code true} if the next value is null.
+     * @throws IOException If reading fails or the JSON is malformed.
+     */
+    public boolean peekNull() throws IOException {
+        return peek() == PEEKED_NULL;
+    }
+
+    /**
+     * Consumes a null value.
+     *
+     * @throws IOException If the next value is not null.
+     */
+    public void nextNull() throws IOException {
+        expect(PEEKED_NULL, "null");
+    }
+
+    /**
+     * Consumes a string value. Numbers are returned as written.
+     *
+     * @return The string.
+     * @throws IOException If the next value is not a string or a number.
+     */
+    public String nextString() throws IOException {
+
+        int token = peek();
+
+        if (token == PEEKED_STRING) {
+
+            peeked = PEEKED_NONE;
+
+            return readQuoted();
+        }
+
+        if (token == PEEKED_NUMBER) {
+
+            peeked = PEEKED_NONE;
+
+            return source.readUtf8(numberLength());
+        }
+
+        throw unexpected("a string");
+    }
+
+    /**
+     * Consumes a boolean value.
+     *
+     * @return The boolean.
+     * @throws IOException If the next value is not a boolean.
+     */
+    public boolean nextBoolean() throws IOException {
+
+        int token = peek();
+
+        if (token == PEEKED_TRUE || token == PEEKED_FALSE) {
+
+            peeked = PEEKED_NONE;
+
+            return token == PEEKED_TRUE;
+        }
+
+        throw unexpected("a boolean");
+    }
+
+    /**
+     * Consumes a number, or a string holding one, that is a whole number.
+     *
+     * @return The value.
+     * @throws IOException           If the next value is not a number.
+     * @throws NumberFormatException If the number is not whole or does not fit in a long.
+     */
+    public long nextLong() throws IOException {
+
+        int token = peek();
+
+        // Lenient, like Gson: "5" reads as 5
+        if (token == PEEKED_STRING) {
+
+            peeked = PEEKED_NONE;
+
+            return parseLong(readQuoted());
+        }
+
+        if (token != PEEKED_NUMBER) {
+
+            throw unexpected("a number");
+        }
+
+        peeked = PEEKED_NONE;
+
+        long length = numberLength();
+
+        // Plain integers are parsed from the buffer without a String
+        long value = 0;
+
+        boolean negative = buffer.getByte(0) == '-';
+
+        int start = negative ? 1 : 0;
+
+        boolean plain = length > start && length - start <= 18;
+
+        for (long i = start; plain && i < length; i++) {
+
+            int digit = buffer.getByte(i) - '0';
+
+            if (digit < 0 || digit > 9) {
+
+                plain = false;
+
+            } else {
+
+                value = value * 10 + digit;
+            }
+        }
+
+        if (plain) {
+
+            buffer.skip(length);
+
+            return negative ? -value : value;
+        }
+
+        // Fractions, exponents and very long numbers take the slow path
+        return parseLong(source.readUtf8(length));
+    }
+
+    /**
+     * Consumes a number, or a string holding one, that is a whole number within int range.
+     *
+     * @return The value.
+     * @throws IOException           If the next value is not a number.
+     * @throws NumberFormatException If the number is not whole or does not fit in an int.
+     */
+    public int nextInt() throws IOException {
+
+        long value = nextLong();
+
+        if (value != (int) value) {
+
+            throw new NumberFormatException("Expected an int but was " + value);
+        }
+
+        return (int) value;
+    }
+
+    /**
+     * Consumes the next value, including everything nested in it. Strings are skipped without decoding.
+     *
+     * @throws IOException If the value is malformed.
+     */
+    public void skipValue() throws IOException {
+
+        int token = peek();
+
+        peeked = PEEKED_NONE;
+
+        switch (token) {
+
+            case PEEKED_BEGIN_OBJECT:
+                push(EMPTY_OBJECT);
+                while (hasNext()) {
+                    expectName();
+                    skipQuoted();
+                    skipValue();
+                }
+                endObject();
+                break;
+
+            case PEEKED_BEGIN_ARRAY:
+                push(EMPTY_ARRAY);
+                while (hasNext()) {
+                    skipValue();
+                }
+                endArray();
+                break;
+
+            case PEEKED_STRING:
+                skipQuoted();
+                break;
+
+            case PEEKED_NUMBER:
+                buffer.skip(numberLength());
+                break;
+
+            case PEEKED_TRUE:
+            case PEEKED_FALSE:
+            case PEEKED_NULL:
+                break;
+
+            default:
+                peeked = token;
+                throw unexpected("a value");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    /**
+     * Consumes a token of the expected kind.
+     */
+    private void expect(int token, String description) throws IOException {
+
+        if (peek() != token) {
+
+            throw unexpected(description);
+        }
+
+        peeked = PEEKED_NONE;
+    }
+
+    private void expectName() throws IOException {
+
+        if (peek() != PEEKED_NAME) {
+
+            throw unexpected("a name");
+        }
+
+        peeked = PEEKED_NONE;
+    }
+
+    private void push(int scope) throws IOException {
+
+        if (depth == MAX_DEPTH) {
+
+            throw new IOException("JSON document is nested too deeply");
+        }
+
+        if (depth == scopes.length) {
+
+            scopes = Arrays.copyOf(scopes, depth * 2);
+        }
+
+        scopes[depth++] = scope;
+    }
+
+    /**
+     * Finds the next token, consuming separators, brackets and literals but not strings or numbers.
+     */
+    private int peek() throws IOException {
+
+        if (peeked != PEEKED_NONE) {
+
+            return peeked;
+        }
+
+        int scope = scopes[depth - 1];
+
+        if (scope == EMPTY_ARRAY) {
+
+            scopes[depth - 1] = NONEMPTY_ARRAY;
+
+        } else if (scope == NONEMPTY_ARRAY) {
+
+            // Another element needs a comma
+            int c = nextNonWhitespace();
+
+            buffer.skip(1);
+
+            if (c == ']') {
+
+                return peeked = PEEKED_END_ARRAY;
+            }
+
+            if (c != ',') {
+
+                throw syntaxError("Expected ',' or ']'");
+            }
+
+        } else if (scope == EMPTY_OBJECT || scope == NONEMPTY_OBJECT) {
+
+            scopes[depth - 1] = DANGLING_NAME;
+
+            // Another member needs a comma
+            if (scope == NONEMPTY_OBJECT) {
+
+                int c = nextNonWhitespace();
+
+                buffer.skip(1);
+
+                if (c == '}') {
+
+                    return peeked = PEEKED_END_OBJECT;
+                }
+
+                if (c != ',') {
+
+                    throw syntaxError("Expected ',' or '}'");
+                }
+            }
+
+            int c = nextNonWhitespace();
+
+            if (c == '"') {
+
+                return peeked = PEEKED_NAME;
+            }
+
+            if (c == '}' && scope == EMPTY_OBJECT) {
+
+                buffer.skip(1);
+
+                return peeked = PEEKED_END_OBJECT;
+            }
+
+            throw syntaxError("Expected a name");
+
+        } else if (scope == DANGLING_NAME) {
+
+            scopes[depth - 1] = NONEMPTY_OBJECT;
+
+            // The value follows a colon
+            if (nextNonWhitespace() != ':') {
+
+                throw syntaxError("Expected ':'");
+            }
+
+            buffer.skip(1);
+
+        } else if (scope == EMPTY_DOCUMENT) {
+
+            scopes[depth - 1] = NONEMPTY_DOCUMENT;
+
+        } else {
+
+            throw new IllegalStateException("JSON document has already been read");
+        }
+
+        int c = nextNonWhitespace();
+
+        switch (c) {
+
+            case '{':
+                buffer.skip(1);
+                return peeked = PEEKED_BEGIN_OBJECT;
+
+            case '[':
+                buffer.skip(1);
+                return peeked = PEEKED_BEGIN_ARRAY;
+
+            case ']':
+                if (scope == EMPTY_ARRAY) {
+                    buffer.skip(1);
+                    return peeked = PEEKED_END_ARRAY;
+                }
+                throw syntaxError("Unexpected ']'");
+
+            case '"':
+                return peeked = PEEKED_STRING;
+
+            case 'n':
+                return peeked = literal(NULL, PEEKED_NULL);
+
+            case 't':
+                return peeked = literal(TRUE, PEEKED_TRUE);
+
+            case 'f':
+                return peeked = literal(FALSE, PEEKED_FALSE);
+
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    return peeked = PEEKED_NUMBER;
+                }
+                throw syntaxError("Unexpected character '" + (char) c + "'");
+        }
+    }
+
+    private int literal(ByteString expected, int token) throws IOException {
+
+        if (!source.rangeEquals(0, expected)) {
+
+            throw syntaxError("Expected " + expected.utf8());
+        }
+
+        buffer.skip(expected.size());
+
+        return token;
+    }
+
+    /**
+     * Skips whitespace and returns the next byte without consuming it.
+     */
+    private int nextNonWhitespace() throws IOException {
+
+        while (source.request(1)) {
+
+            int c = buffer.getByte(0);
+
+            if (c != ' ' && c != '\n' && c != '\t' && c != '\r') {
+
+                return c;
+            }
+
+            buffer.skip(1);
+        }
+
+        throw new EOFException("Unexpected end of JSON input");
+    }
+
+    /**
+     * Returns the length of the number at the start of the buffer.
+     */
+    private long numberLength() throws IOException {
+
+        long length = source.indexOfElement(NUMBER_TERMINATORS);
+
+        // A number that ends the document
+        return length >= 0 ? length : buffer.size();
+    }
+
+    /**
+     * Reads a quoted string whose opening quote is next, decoding escapes.
+     */
+    private String readQuoted() throws IOException {
+
+        buffer.skip(1);
+
+        StringBuilder builder = null;
+
+        while (true) {
+
+            long index = source.indexOfElement(QUOTE_OR_BACKSLASH);
+
+            if (index < 0) {
+
+                throw new EOFException("Unterminated JSON string");
+            }
+
+            // Strings without escapes are decoded straight from the buffer
+            if (buffer.getByte(index) == '"') {
+
+                String run = buffer.readUtf8(index);
+
+                buffer.skip(1);
+
+                return builder == null ? run : builder.append(run).toString();
+            }
+
+            if (builder == null) {
+
+                builder = new StringBuilder();
+            }
+
+            builder.append(buffer.readUtf8(index));
+
+            buffer.skip(1);
+
+            builder.append(readEscape());
+        }
+    }
+
+    /**
+     * Skips a quoted string whose opening quote is next, without decoding it.
+     */
+    private void skipQuoted() throws IOException {
+
+        buffer.skip(1);
+
+        while (true) {
+
+            long index = source.indexOfElement(QUOTE_OR_BACKSLASH);
+
+            if (index < 0) {
+
+                throw new EOFException("Unterminated JSON string");
+            }
+
+            boolean quote = buffer.getByte(index) == '"';
+
+            buffer.skip(index + 1);
+
+            if (quote) {
+
+                return;
+            }
+
+            // Skip the escaped character, and the four digits of a \\u escape
+            source.require(1);
+
+            if (buffer.readByte() == 'u') {
+
+                source.require(4);
+
+                buffer.skip(4);
+            }
+        }
+    }
+
+    /**
+     * Reads the character of an escape sequence whose backslash has been consumed.
+     */
+    private char readEscape() throws IOException {
+
+        source.require(1);
+
+        byte escaped = buffer.readByte();
+
+        switch (escaped) {
+
+            case 'u':
+                source.require(4);
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(buffer.readByte(), 16);
+                    if (digit < 0) {
+                        throw syntaxError("Malformed \\u escape");
+                    }
+                    value = value << 4 | digit;
+                }
+                return (char) value;
+
+            case 'b':
+                return '\b';
+
+            case 'f':
+                return '\f';
+
+            case 'n':
+                return '\n';
+
+            case 'r':
+                return '\r';
+
+            case 't':
+                return '\t';
+
+            case '"':
+            case '\\':
+            case '/':
+                return (char) escaped;
+
+            default:
+                throw syntaxError("Invalid escape sequence");
+        }
+    }
+
+    private static long parseLong(String number) {
+
+        try {
+
+            return Long.parseLong(number);
+
+        } catch (NumberFormatException e) {
+
+            // Whole numbers written with a fraction or exponent, such as 5.0 or 1e3
+            double value = Double.parseDouble(number);
+
+            if (value != Math.rint(value) || Math.abs(value) >= 0x1p63) {
+
+                throw new NumberFormatException("Expected a whole number but was " + number);
+            }
+
+            return (long) value;
+        }
+    }
+
+    private IOException unexpected(String expected) {
+
+        String found;
+
+        switch (peeked) {
+            case PEEKED_BEGIN_OBJECT: found = "an object"; break;
+            case PEEKED_END_OBJECT: found = "the end of an object"; break;
+            case PEEKED_BEGIN_ARRAY: found = "an array"; break;
+            case PEEKED_END_ARRAY: found = "the end of an array"; break;
+            case PEEKED_NAME: found = "a name"; break;
+            case PEEKED_STRING: found = "a string"; break;
+            case PEEKED_NUMBER: found = "a number"; break;
+            case PEEKED_NULL: found = "null"; break;
+            default: found = "a boolean"; break;
+        }
+
+        return new IOException("Expected " + expected + " but was " + found);
+    }
+
+    private static IOException syntaxError(String message) {
+        return new IOException("Malformed JSON: " + message);
+    }
+}
@@ -0,0 +1,105 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import java.util.Arrays;
+
+/**
+ * A rolling record of recent latency samples that answers percentile queries.
+ *
+ * Only the most recent {@code capacity} samples are kept, in a ring buffer, so percentiles
+ * follow the current network conditions instead of averaging over the life of the process,
+ * and memory use stays fixed. Recording is O(1); a percentile query sorts a copy of the
+ * window, which is cheap at the window sizes used for diagnostics.
+ *
+ * All methods are thread-safe.
+ */
+public final class LatencyHistogram {
+
+    // Ring buffer of the most recent samples
+    private final long[] samples;
+
+    // Number of samples recorded since creation, including those that have rolled out of the window
+    private long totalCount;
+
+    // Sum of every sample recorded since creation
+    private long totalSum;
+
+    /**
+     * Constructs an empty histogram.
+     *
+     * @param capacity The number of most recent samples kept for percentile queries.
+     */
+    public LatencyHistogram(int capacity) {
+
+        if (capacity <= 0) {
+
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+
+        samples = new long[capacity];
+    }
+
+    /**
+     * Records one sample, replacing the oldest one once the window is full.
+     *
+     * @param value The sample, typically a duration in milliseconds.
+     */
+    public synchronized void record(long value) {
+
+        samples[(int) (totalCount % samples.length)] = value;
+
+        totalCount++;
+
+        totalSum += value;
+    }
+
+    /**
+     * Returns the number of samples recorded since creation.
+     *
+     * @return The lifetime sample count.
+     */
+    public synchronized long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Returns the mean of every sample recorded since creation.
+     *
+     * @return The lifetime mean, or 0 if nothing was recorded.
+     */
+    public synchronized long getMean() {
+        return totalCount == 0 ? 0 : totalSum / totalCount;
+    }
+
+    /**
+     * Returns a percentile of the samples currently in the window, using the nearest-rank method.
+     *
+     * @param percentile The percentile to compute, between 0 and 100 (e.g. 50, 90, 99).
+     * @return The sample at that rank, or 0 if nothing was recorded.
+     */
+    public long getPercentile(double percentile) {
+
+        if (percentile < 0 || percentile > 100) {
+
+            throw new IllegalArgumentException("percentile must be between 0 and 100: " + percentile);
+        }
+
+        long[] window;
+
+        // Copy the window so sorting does not hold the lock
+        synchronized (this) {
+
+            window = Arrays.copyOf(samples, (int) Math.min(totalCount, samples.length));
+        }
+
+        if (window.length == 0) {
+
+            return 0;
+        }
+
+        Arrays.sort(window);
+
+        int rank = (int) Math.ceil(percentile / 100.0 * window.length);
+
+        return window[Math.max(rank, 1) - 1];
+    }
+}
@@ -0,0 +1,183 @@
+package com.felicianowilliam.cs360projecttwo;
+
+
+import androidx.annotation.NonNull;
+
+/**
+ * Represents an inventory write waiting in the local outbox to be sent to the server.
+ * This class stores the kind of write (create, update or delete), the item it targets,
+ * the values to write and how many times sending it has failed so far.
+ */
+public class PendingOperation {
+
+    // Operation type for creating a new item
+    public static final String TYPE_CREATE = "create";
+
+    // Operation type for updating an existing item
+    public static final String TYPE_UPDATE = "update";
+
+    // Operation type for deleting an existing item
+    public static final String TYPE_DELETE = "delete";
+
+    private long localId;
+
+    private String username;
+
+    private String type;
+
+    private String itemId;
+
+    private String name;
+
+    private int quantity;
+
+    private int attempts;
+
+
+    /**
+     * Constructs a new PendingOperation.
+     *
+     * @param localId  The outbox row id, or 0 for an operation not stored yet.
+     * @param username The local username the operation was recorded for.
+     * @param type     One of {@link #TYPE_CREATE}, {@link #TYPE_UPDATE} or {@link #TYPE_DELETE}.
+     * @param itemId   The server "_id" of the targeted item, or null for creates.
+     * @param name     The item name to write, or null for deletes.
+     * @param quantity The item quantity to write, or 0 for deletes.
+     * @param attempts The number of failed attempts to send the operation.
+     */
+    public PendingOperation(long localId, String username, String type, String itemId, String name, int quantity, int attempts) {
+
+        this.localId = localId;
+
+        this.username = username;
+
+        this.type = type;
+
+        this.itemId = itemId;
+
+        this.name = name;
+
+        this.quantity = quantity;
+
+        this.attempts = attempts;
+    }
+
+    /**
+     * Creates a new, not yet stored, create operation.
+     *
+     * @param username The local username the item belongs to.
+     * @param name     The name of the item.
+     * @param quantity The initial quantity of the item.
+     * @return The pending create.
+     */
+    public static PendingOperation create(String username, String name, int quantity) {
+        return new PendingOperation(0, username, TYPE_CREATE, null, name, quantity, 0);
+    }
+
+    /**
+     * Creates a new, not yet stored, update operation.
+     *
+     * @param username The local username the item belongs to.
+     * @param itemId   The server "_id" of the item.
+     * @param name     The new name of the item.
+     * @param quantity The new quantity of the item.
+     * @return The pending update.
+     */
+    public static PendingOperation update(String username, String itemId, String name, int quantity) {
+        return new PendingOperation(0, username, TYPE_UPDATE, itemId, name, quantity, 0);
+    }
+
+    /**
+     * Creates a new, not yet stored, delete operation.
+     *
+     * @param username The local username the item belongs to.
+     * @param itemId   The server "_id" of the item.
+     * @return The pending delete.
+     */
+    public static PendingOperation delete(String username, String itemId) {
+        return new PendingOperation(0, username, TYPE_DELETE, itemId, null, 0, 0);
+    }
+
+    /**
+     * Returns the outbox row id of this operation.
+     *
+     * @return The row id, or 0 if the operation has not been stored.
+     */
+    public long getLocalId() {
+        return localId;
+    }
+
+    /**
+     * Returns the local username the operation was recorded for.
+     *
+     * @return The username.
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Returns the kind of write.
+     *
+     * @return One of {@link #TYPE_CREATE}, {@link #TYPE_UPDATE} or {@link #TYPE_DELETE}.
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Returns the server id of the targeted item.
+     *
+     * @return The "_id", or null for creates.
+     */
+    public String getItemId() {
+        return itemId;
+    }
+
+    /**
+     * Returns the item name to write.
+     *
+     * @return The name, or null for deletes.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the item quantity to write.
+     *
+     * @return The quantity, or 0 for deletes.
+     */
+    public int getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Returns how many times sending this operation has failed.
+     *
+     * @return The number of failed attempts.
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * Returns a string representation of the PendingOperation object.
+     * This method is primarily used for debugging and logging purposes.
+     *
+     * @return A string containing the row id, type, item id and attempt count.
+     */
+    @NonNull
+    @Override
+    public String toString() {
+
+        return "PendingOperation{" +
+                "localId=" + localId +
+                ", type='" + type + '\'' +
+                ", itemId='" + itemId + '\'' +
+                ", name='" + name + '\'' +
+                ", quantity=" + quantity +
+                ", attempts=" + attempts +
+                '}';
+    }
+}
@@ -0,0 +1,37 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Numbers string ids for use as RecyclerView stable ids.
+ *
+ * Server ids are 96-bit ObjectIds and do not fit in a long, so each one is numbered the first
+ * time it is seen and keeps that number for as long as the instance exists. Looking up an id
+ * that was seen before allocates nothing. Not thread-safe; used on the main thread.
+ */
+public final class StableIds {
+
+    // Number assigned to each id
+    private final Map<String, Long> ids = new HashMap<>();
+
+    /**
+     * Returns the stable number of an id, assigning the next one if the id is new.
+     *
+     * @param id The string id.
+     * @return Its number, starting at 0.
+     */
+    public long of(String id) {
+
+        Long stableId = ids.get(id);
+
+        if (stableId == null) {
+
+            stableId = (long) ids.size();
+
+            ids.put(id, stableId);
+        }
+
+        return stableId;
+    }
+}
@@ -0,0 +1,132 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link CircuitBreaker}.
+ */
+public class CircuitBreakerTest {
+
+    private static final long BASE_OPEN_MS = 1_000;
+
+    private static final long MAX_OPEN_MS = 5_000;
+
+    private final CircuitBreaker breaker = new CircuitBreaker(3, BASE_OPEN_MS, MAX_OPEN_MS);
+
+    @Test
+    public void opensAtTheFailureThreshold() {
+
+        for (int i = 0; i < 2; i++) {
+
+            assertTrue(breaker.tryAcquire(0));
+            breaker.onFailure(0);
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(0));
+
+        assertTrue(breaker.tryAcquire(0));
+        breaker.onFailure(100);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(100));
+        assertFalse(breaker.tryAcquire(100));
+        assertEquals(BASE_OPEN_MS - 600, breaker.getRemainingOpenMillis(700));
+    }
+
+    @Test
+    public void successResetsTheFailureCount() {
+
+        breaker.onFailure(0);
+        breaker.onFailure(0);
+        breaker.onSuccess();
+        breaker.onFailure(0);
+        breaker.onFailure(0);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(0));
+        assertTrue(breaker.tryAcquire(0));
+    }
+
+    @Test
+    public void halfOpenLetsOneProbeThrough() {
+
+        open(0);
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState(BASE_OPEN_MS));
+
+        assertTrue(breaker.tryAcquire(BASE_OPEN_MS));
+        assertFalse(breaker.tryAcquire(BASE_OPEN_MS));
+        assertFalse(breaker.tryAcquire(BASE_OPEN_MS + 10));
+
+        // A successful probe closes the breaker for every call
+        breaker.onSuccess();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(BASE_OPEN_MS + 10));
+        assertTrue(breaker.tryAcquire(BASE_OPEN_MS + 10));
+        assertTrue(breaker.tryAcquire(BASE_OPEN_MS + 10));
+    }
+
+    @Test
+    public void failedProbesDoubleTheOpenPeriodUpToTheMaximum() {
+
+        open(0);
+
+        long now = 0;
+        long expected = BASE_OPEN_MS;
+
+        for (long next : new long[]{2_000, 4_000, 5_000, 5_000}) {
+
+            now += expected;
+
+            assertTrue(breaker.tryAcquire(now));
+            breaker.onFailure(now);
+
+            assertEquals(CircuitBreaker.State.OPEN, breaker.getState(now));
+            assertEquals(next, breaker.getRemainingOpenMillis(now));
+            assertFalse(breaker.tryAcquire(now + next - 1));
+
+            expected = next;
+        }
+
+        // After a success the next opening starts from the base period again
+        now += expected;
+
+        assertTrue(breaker.tryAcquire(now));
+        breaker.onSuccess();
+        open(now);
+
+        assertEquals(BASE_OPEN_MS, breaker.getRemainingOpenMillis(now));
+    }
+
+    @Test
+    public void abandonedProbeFreesTheSlot() {
+
+        open(0);
+
+        assertTrue(breaker.tryAcquire(BASE_OPEN_MS));
+        assertFalse(breaker.tryAcquire(BASE_OPEN_MS));
+
+        breaker.onAbandoned();
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState(BASE_OPEN_MS));
+        assertTrue(breaker.tryAcquire(BASE_OPEN_MS));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidSettings() {
+
+        new CircuitBreaker(1, 2_000, 1_000);
+    }
+
+    private void open(long nowMillis) {
+
+        for (int i = 0; i < 3; i++) {
+
+            breaker.onFailure(nowMillis);
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(nowMillis));
+    }
+}
@@ -0,0 +1,64 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link CredentialRedactor}.
+ */
+public class CredentialRedactorTest {
+
+    @Test
+    public void redactsClosedCredentialValues() {
+
+        String json = "{\"username\":\"alice\",\"password\":\"hunter2\",\"token\":\"abc.def\"}";
+
+        assertEquals("{\"username\":\"alice\",\"password\":\"[REDACTED]\",\"token\":\"[REDACTED]\"}",
+                CredentialRedactor.redactJson(json));
+    }
+
+    @Test
+    public void redactsValueWithEscapedQuotes() {
+
+        String json = "{\"password\":\"a\\\"b\\\\\",\"name\":\"x\"}";
+
+        assertEquals("{\"password\":\"[REDACTED]\",\"name\":\"x\"}", CredentialRedactor.redactJson(json));
+    }
+
+    @Test
+    public void redactsValueCutOffAtEndOfText() {
+
+        String json = "{\"username\":\"alice\",\"refreshToken\":\"eyJhbGciOiJIUzI1";
+
+        String redacted = CredentialRedactor.redactJson(json);
+
+        assertEquals("{\"username\":\"alice\",\"refreshToken\":\"[REDACTED]\"", redacted);
+        assertFalse(redacted.contains("eyJ"));
+    }
+
+    @Test
+    public void redactsValueCutOffAfterBackslash() {
+
+        String json = "{\"token\":\"abc\\";
+
+        assertEquals("{\"token\":\"[REDACTED]\"", CredentialRedactor.redactJson(json));
+    }
+
+    @Test
+    public void leavesOtherMembersUnchanged() {
+
+        String json = "{\"name\":\"token\",\"quantity\":3}";
+
+        assertEquals(json, CredentialRedactor.redactJson(json));
+    }
+
+    @Test
+    public void recognisesSensitiveHeaders() {
+
+        assertTrue(CredentialRedactor.isSensitiveHeader("authorization"));
+        assertFalse(CredentialRedactor.isSensitiveHeader("Content-Type"));
+    }
+}
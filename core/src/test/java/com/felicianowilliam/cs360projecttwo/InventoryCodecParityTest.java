@@ -0,0 +1,446 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import okio.Buffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests checking that {@link InventoryCodecs#JSON} and {@link InventoryCodecs#CBOR} decode the
+ * same documents to the same values, and that the CBOR reader handles the parts of RFC 8949 that
+ * have no JSON counterpart.
+ */
+public class InventoryCodecParityTest {
+
+    private static final String OBJECT_ID = "5f1d7c0e8b3a4c2d1e0f9a8b";
+
+    private static final String USER_ID = "64a1b2c3d4e5f60718293a4b";
+
+    /**
+     * Writes one CBOR document.
+     */
+    private interface CborDocument {
+        void write(CborWriter writer) throws IOException;
+    }
+
+    @Test
+    public void itemArrayRoundTripsThroughBothCodecs() throws IOException {
+
+        List<InventoryItem> items = Arrays.asList(
+                new InventoryItem(OBJECT_ID, "Widget", 12, USER_ID, 3),
+                new InventoryItem("local-7", "Gadget \"XL\" \u2713", 0, USER_ID, 0));
+
+        assertEquals(describeItems(items), describeItems(roundTrip(InventoryCodecs.JSON, items)));
+        assertEquals(describeItems(items), describeItems(roundTrip(InventoryCodecs.CBOR, items)));
+    }
+
+    @Test
+    public void itemArrayIsHandedOverInChunks() throws IOException {
+
+        List<InventoryItem> items = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+
+            items.add(new InventoryItem(String.format("%024x", i), "Item " + i, i, USER_ID, 0));
+        }
+
+        for (InventoryCodec codec : Arrays.asList(InventoryCodecs.JSON, InventoryCodecs.CBOR)) {
+
+            Buffer buffer = new Buffer();
+            codec.writeItemArray(items, buffer);
+
+            List<Integer> chunkSizes = new ArrayList<>();
+
+            int total = codec.readItemArray(buffer, 2, chunk -> chunkSizes.add(chunk.size()));
+
+            assertEquals(5, total);
+            assertEquals(Arrays.asList(2, 2, 1), chunkSizes);
+        }
+    }
+
+    @Test
+    public void objectIdIsEncodedAsTwelveRawBytes() throws IOException {
+
+        Buffer buffer = new Buffer();
+
+        InventoryCodecs.CBOR.writeItemArray(Arrays.asList(new InventoryItem(OBJECT_ID, "a", 1, "user", 0)), buffer);
+
+        byte[] encoded = buffer.readByteArray();
+
+        // Byte string head of length 12 followed by the id bytes
+        byte[] expectedId = new byte[13];
+        expectedId[0] = 0x4C;
+
+        for (int i = 0; i < 12; i++) {
+
+            expectedId[i + 1] = (byte) Integer.parseInt(OBJECT_ID.substring(i * 2, i * 2 + 2), 16);
+        }
+
+        assertTrue(indexOf(encoded, expectedId) >= 0);
+
+        // An id that is not lowercase hex stays text
+        assertTrue(indexOf(encoded, new byte[]{0x64, 'u', 's', 'e', 'r'}) >= 0);
+    }
+
+    @Test
+    public void deltaDecodesTheSameFromBothFormats() throws IOException {
+
+        String json = "{\"changed\":[{\"_id\":\"" + OBJECT_ID + "\",\"name\":\"Widget\",\"quantity\":4,"
+                + "\"userId\":\"" + USER_ID + "\",\"__v\":null,\"extra\":[1,{\"a\":true}]}],"
+                + "\"deleted\":[\"gone-1\",{\"_id\":\"gone-2\",\"deletedAt\":\"2024-01-01\"}],"
+                + "\"watermark\":\"2024-05-01T10:00:00.000Z\"}";
+
+        byte[] cbor = cbor(writer -> {
+            writer.beginMap(3).name("changed").beginArray(1).beginMap(6)
+                    .name("_id").value(objectIdBytes(OBJECT_ID))
+                    .name("name").value("Widget")
+                    .name("quantity").value(4)
+                    .name("userId").value(USER_ID)
+                    .name("__v").value((String) null)
+                    .name("extra").beginArray(2).value(1).beginMap(1).name("a").value(1);
+            writer.name("deleted").beginArray(2).value("gone-1")
+                    .beginMap(2).name("_id").value("gone-2").name("deletedAt").value("2024-01-01");
+            writer.name("watermark").value("2024-05-01T10:00:00.000Z");
+        });
+
+        InventoryDelta fromJson = InventoryCodecs.JSON.readDelta(source(json));
+        InventoryDelta fromCbor = InventoryCodecs.CBOR.readDelta(new Buffer().write(cbor));
+
+        assertEquals(describeDelta(fromJson), describeDelta(fromCbor));
+        assertEquals(Arrays.asList("gone-1", "gone-2"), fromCbor.getDeletedIds());
+        assertEquals(OBJECT_ID, fromCbor.getChangedItems().get(0).getId());
+    }
+
+    @Test
+    public void batchResultsDecodeTheSameFromBothFormats() throws IOException {
+
+        String json = "{\"results\":[{\"status\":201,\"item\":{\"_id\":\"" + OBJECT_ID + "\",\"name\":\"New\","
+                + "\"quantity\":2,\"userId\":\"" + USER_ID + "\",\"__v\":0}},"
+                + "{\"status\":404,\"_id\":\"missing\",\"message\":\"Item not found\"},"
+                + "{\"status\":400,\"error\":\"Bad quantity\"}],\"count\":3}";
+
+        byte[] cbor = cbor(writer -> {
+            writer.beginMap(2).name("results").beginArray(3)
+                    .beginMap(2).name("status").value(201).name("item").beginMap(5)
+                    .name("_id").value(objectIdBytes(OBJECT_ID))
+                    .name("name").value("New")
+                    .name("quantity").value(2)
+                    .name("userId").value(objectIdBytes(USER_ID))
+                    .name("__v").value(0);
+            writer.beginMap(3).name("status").value(404).name("_id").value("missing").name("message").value("Item not found");
+            writer.beginMap(2).name("status").value(400).name("error").value("Bad quantity");
+            writer.name("count").value(3);
+        });
+
+        // One more operation than the server answered
+        List<String> itemIds = Arrays.asList(null, "missing", "bad", "unanswered");
+
+        List<BatchItemResult> fromJson = InventoryCodecs.JSON.readBatchResults(source(json), 10, itemIds);
+        List<BatchItemResult> fromCbor = InventoryCodecs.CBOR.readBatchResults(new Buffer().write(cbor), 10, itemIds);
+
+        assertEquals(describeResults(fromJson), describeResults(fromCbor));
+        assertEquals(4, fromCbor.size());
+        assertEquals(OBJECT_ID, fromCbor.get(0).getItemId());
+        assertEquals("Error 404: Item not found", fromCbor.get(1).getError());
+        assertEquals(0, fromCbor.get(3).getStatusCode());
+    }
+
+    @Test
+    public void authResponseDecodesTheSameFromBothFormats() throws IOException {
+
+        String json = "{\"token\":\"access\",\"refreshToken\":null,\"userName\":\"alice\",\"expiresIn\":3600}";
+
+        byte[] cbor = cbor(writer -> writer.beginMap(4)
+                .name("token").value("access")
+                .name("refreshToken").value((String) null)
+                .name("userName").value("alice")
+                .name("expiresIn").value(3600));
+
+        assertEquals(InventoryCodecs.JSON.readAuthResponse(source(json)).toString(),
+                InventoryCodecs.CBOR.readAuthResponse(new Buffer().write(cbor)).toString());
+    }
+
+    @Test
+    public void errorBodiesGiveTheSameMessageInBothFormats() {
+
+        byte[] messageCbor = cbor(writer -> writer.beginMap(2).name("error").value("Conflict").name("message").value("Name taken"));
+        byte[] errorCbor = cbor(writer -> writer.beginMap(1).name("error").value("Conflict"));
+
+        assertEquals(InventoryCodecs.JSON.parseErrorMessage(409, utf8("{\"error\":\"Conflict\",\"message\":\"Name taken\"}")),
+                InventoryCodecs.CBOR.parseErrorMessage(409, messageCbor));
+        assertEquals(InventoryCodecs.JSON.parseErrorMessage(409, utf8("{\"error\":\"Conflict\"}")),
+                InventoryCodecs.CBOR.parseErrorMessage(409, errorCbor));
+        assertEquals(InventoryCodecs.JSON.parseErrorMessage(500, new byte[0]),
+                InventoryCodecs.CBOR.parseErrorMessage(500, new byte[0]));
+
+        // A body that is not a CBOR map is binary, so only the status is shown
+        assertEquals("Error 502", InventoryCodecs.CBOR.parseErrorMessage(502, new byte[]{(byte) 0xFF, 0x00}));
+    }
+
+    @Test
+    public void requestBodiesCarryTheSameFields() throws IOException {
+
+        assertArrayEquals(cbor(writer -> writer.beginMap(2).name("name").value("Widget").name("quantity").value(7)),
+                InventoryCodecs.CBOR.encodeItemFields("Widget", 7));
+        assertEquals("{\"name\":\"Widget\",\"quantity\":7}",
+                new String(InventoryCodecs.JSON.encodeItemFields("Widget", 7), StandardCharsets.UTF_8));
+
+        assertArrayEquals(cbor(writer -> writer.beginMap(1).name("refreshToken").value("r")),
+                InventoryCodecs.CBOR.encodeRefreshToken("r"));
+        assertEquals("{\"refreshToken\":\"r\"}",
+                new String(InventoryCodecs.JSON.encodeRefreshToken("r"), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void indefiniteLengthContainersAndStringsAreAccepted() throws IOException {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Indefinite array holding one indefinite map
+        out.write(0x9F);
+        out.write(0xBF);
+        out.write(cbor(writer -> writer.name("_id").value(OBJECT_ID).name("quantity").value(9).name("userId").value(USER_ID)));
+
+        // "name" as an indefinite text string of two chunks
+        out.write(cbor(writer -> writer.name("name")));
+        out.write(0x7F);
+        out.write(cbor(writer -> writer.value("Wid").value("get")));
+        out.write(0xFF);
+
+        // An unknown indefinite byte string is skipped
+        out.write(cbor(writer -> writer.name("blob")));
+        out.write(0x5F);
+        out.write(cbor(writer -> writer.value(new byte[]{1, 2})));
+        out.write(0xFF);
+
+        out.write(0xFF);
+        out.write(0xFF);
+
+        List<InventoryItem> items = new ArrayList<>();
+
+        assertEquals(1, InventoryCodecs.CBOR.readItemArray(new Buffer().write(out.toByteArray()), 10, items::addAll));
+        assertEquals(describeItems(Arrays.asList(new InventoryItem(OBJECT_ID, "Widget", 9, USER_ID, 0))), describeItems(items));
+    }
+
+    @Test
+    public void tagsAreSkipped() throws IOException {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        out.write(cbor(writer -> writer.beginMap(5).name("_id")));
+
+        // Tag 32 (URI) on a text id, and two nested tags on the quantity
+        out.write(0xD8);
+        out.write(0x20);
+        out.write(cbor(writer -> writer.value(OBJECT_ID).name("quantity")));
+        out.write(0xC1);
+        out.write(0xD9);
+        out.write(0x01);
+        out.write(0x00);
+        out.write(cbor(writer -> writer.value(5).name("name").value("Tagged")));
+
+        // A tagged unknown value is skipped with its tag
+        out.write(cbor(writer -> writer.name("userId").value(USER_ID).name("createdAt")));
+        out.write(0xC0);
+        out.write(cbor(writer -> writer.value("2024-01-01T00:00:00Z")));
+
+        InventoryItem item = InventoryCodecs.CBOR.readItem(new Buffer().write(out.toByteArray()));
+
+        assertEquals(new InventoryItem(OBJECT_ID, "Tagged", 5, USER_ID, 0).toString(), item.toString());
+    }
+
+    @Test
+    public void oversizeStringIsRejected() {
+
+        // A token whose text string head claims 2 MiB, with no content after it
+        byte[] oversize = {(byte) 0xA1, 0x65, 't', 'o', 'k', 'e', 'n', 0x7A, 0x00, 0x20, 0x00, 0x00};
+
+        try {
+
+            InventoryCodecs.CBOR.readAuthResponse(new Buffer().write(oversize));
+            fail("Expected the string to be rejected");
+
+        } catch (IOException e) {
+
+            assertEquals("CBOR string is too long", e.getMessage());
+        }
+    }
+
+    @Test
+    public void oversizeContainerIsRejected() {
+
+        // Array head claiming 2^62 items
+        byte[] oversize = {(byte) 0x9B, 0x40, 0, 0, 0, 0, 0, 0, 0};
+
+        try {
+
+            InventoryCodecs.CBOR.readItemArray(new Buffer().write(oversize), 10, chunk -> { });
+            fail("Expected the container to be rejected");
+
+        } catch (IOException e) {
+
+            assertEquals("CBOR container is too large", e.getMessage());
+        }
+    }
+
+    @Test
+    public void overDeepInputIsRejectedByBothCodecs() {
+
+        // An unknown member nested 100 arrays deep, which the codecs skip
+        StringBuilder json = new StringBuilder("{\"deep\":");
+        ByteArrayOutputStream cbor = new ByteArrayOutputStream();
+
+        cbor.write(0xA1);
+        cbor.write(0x64);
+        cbor.write('d');
+        cbor.write('e');
+        cbor.write('e');
+        cbor.write('p');
+
+        for (int i = 0; i < 100; i++) {
+
+            json.append('[');
+            cbor.write(0x81);
+        }
+
+        json.append('0');
+        cbor.write(0x00);
+
+        for (int i = 0; i < 100; i++) {
+
+            json.append(']');
+        }
+
+        json.append('}');
+
+        try {
+
+            InventoryCodecs.CBOR.readDelta(new Buffer().write(cbor.toByteArray()));
+            fail("Expected the CBOR document to be rejected");
+
+        } catch (IOException e) {
+
+            assertEquals("CBOR document is nested too deeply", e.getMessage());
+        }
+
+        try {
+
+            InventoryCodecs.JSON.readDelta(source(json.toString()));
+            fail("Expected the JSON document to be rejected");
+
+        } catch (IOException e) {
+
+            assertEquals("JSON document is nested too deeply", e.getMessage());
+        }
+    }
+
+    @Test
+    public void contentTypeSelectsTheCodec() {
+
+        assertSame(InventoryCodecs.CBOR, InventoryCodecs.forMediaType("application/cbor"));
+        assertSame(InventoryCodecs.CBOR, InventoryCodecs.forMediaType("Application/CBOR; q=1"));
+        assertSame(InventoryCodecs.JSON, InventoryCodecs.forMediaType("application/json; charset=utf-8"));
+        assertSame(InventoryCodecs.JSON, InventoryCodecs.forMediaType("text/html"));
+        assertSame(InventoryCodecs.JSON, InventoryCodecs.forMediaType(null));
+    }
+
+    private static List<InventoryItem> roundTrip(InventoryCodec codec, List<InventoryItem> items) throws IOException {
+
+        Buffer buffer = new Buffer();
+
+        codec.writeItemArray(items, buffer);
+
+        List<InventoryItem> decoded = new ArrayList<>();
+
+        codec.readItemArray(buffer, 100, decoded::addAll);
+
+        return decoded;
+    }
+
+    private static byte[] cbor(CborDocument document) {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try {
+
+            CborWriter writer = new CborWriter(out);
+            document.write(writer);
+            writer.flush();
+
+        } catch (IOException e) {
+
+            throw new IllegalStateException(e);
+        }
+
+        return out.toByteArray();
+    }
+
+    private static byte[] objectIdBytes(String hex) {
+
+        byte[] bytes = new byte[hex.length() / 2];
+
+        for (int i = 0; i < bytes.length; i++) {
+
+            bytes[i] = (byte) Integer.parseInt(hex.substring(i * 2, i * 2 + 2), 16);
+        }
+
+        return bytes;
+    }
+
+    private static Buffer source(String json) {
+
+        return new Buffer().writeUtf8(json);
+    }
+
+    private static byte[] utf8(String text) {
+
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int indexOf(byte[] haystack, byte[] needle) {
+
+        for (int i = 0; i + needle.length <= haystack.length; i++) {
+
+            if (Arrays.equals(Arrays.copyOfRange(haystack, i, i + needle.length), needle)) {
+
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private static String describeItems(List<InventoryItem> items) {
+
+        return items.toString();
+    }
+
+    private static String describeDelta(InventoryDelta delta) {
+
+        return delta.getChangedItems() + " " + delta.getDeletedIds() + " " + delta.getWatermark();
+    }
+
+    private static String describeResults(List<BatchItemResult> results) {
+
+        StringBuilder description = new StringBuilder();
+
+        for (BatchItemResult result : results) {
+
+            description.append(result).append(' ').append(result.getItem()).append('\n');
+        }
+
+        return description.toString();
+    }
+}
@@ -0,0 +1,101 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the sync rules in {@link InventorySync}.
+ */
+public class InventorySyncTest {
+
+    private static final InventoryItem APPLES = new InventoryItem("a1", "Apples", 5, "u1", 3);
+
+    private static final InventoryItem PEARS = new InventoryItem("p1", "Pears", 2, "u1", 1);
+
+    @Test
+    public void pendingDeleteHidesTheCachedRow() {
+
+        List<InventoryItem> shown = InventorySync.applyPendingOperations(Arrays.asList(APPLES, PEARS),
+                Collections.singletonList(PendingOperation.delete("alice", "a1")));
+
+        assertEquals(1, shown.size());
+        assertEquals("p1", shown.get(0).getId());
+    }
+
+    @Test
+    public void latestPendingUpdateWinsAndKeepsThePosition() {
+
+        List<InventoryItem> shown = InventorySync.applyPendingOperations(Arrays.asList(APPLES, PEARS), Arrays.asList(
+                PendingOperation.update("alice", "p1", "Pears", 7),
+                PendingOperation.update("alice", "p1", "Green pears", 9)));
+
+        assertEquals(2, shown.size());
+        assertEquals("a1", shown.get(0).getId());
+        assertEquals("Green pears", shown.get(1).getName());
+        assertEquals(9, shown.get(1).getQuantity());
+        assertEquals(PEARS.getDbVersion(), shown.get(1).getDbVersion());
+    }
+
+    @Test
+    public void updateFollowedByDeleteHidesTheRow() {
+
+        List<InventoryItem> shown = InventorySync.applyPendingOperations(Arrays.asList(APPLES, PEARS), Arrays.asList(
+                PendingOperation.update("alice", "a1", "Apples", 1),
+                PendingOperation.delete("alice", "a1")));
+
+        assertEquals(Collections.singletonList(PEARS), shown);
+    }
+
+    @Test
+    public void pendingCreatesAreNotShownAndTheSnapshotIsUntouched() {
+
+        List<InventoryItem> cached = Arrays.asList(APPLES, PEARS);
+
+        List<InventoryItem> shown = InventorySync.applyPendingOperations(cached,
+                Collections.singletonList(PendingOperation.create("alice", "Plums", 4)));
+
+        assertEquals(cached, shown);
+        assertEquals("Apples", cached.get(0).getName());
+    }
+
+    @Test
+    public void createIsOnlyResentWhenTheServerCannotHaveAppliedIt() {
+
+        assertTrue(InventorySync.isSafeToResend(PendingOperation.TYPE_CREATE, InventorySync.STATUS_NOT_SENT));
+        assertTrue(InventorySync.isSafeToResend(PendingOperation.TYPE_CREATE, 503));
+        assertFalse(InventorySync.isSafeToResend(PendingOperation.TYPE_CREATE, 0));
+        assertFalse(InventorySync.isSafeToResend(PendingOperation.TYPE_CREATE, 504));
+        assertFalse(InventorySync.isSafeToResend(PendingOperation.TYPE_CREATE, 400));
+
+        assertTrue(InventorySync.isSafeToResend(PendingOperation.TYPE_UPDATE, 0));
+        assertTrue(InventorySync.isSafeToResend(PendingOperation.TYPE_DELETE, 504));
+        assertFalse(InventorySync.isSafeToResend(PendingOperation.TYPE_UPDATE, 409));
+    }
+
+    @Test
+    public void writeIsGivenUpAfterRepeatedServerFailures() {
+
+        assertFalse(InventorySync.hasExhaustedAttempts(500, InventorySync.MAX_ATTEMPTS - 1));
+        assertTrue(InventorySync.hasExhaustedAttempts(500, InventorySync.MAX_ATTEMPTS));
+        assertTrue(InventorySync.hasExhaustedAttempts(0, InventorySync.MAX_ATTEMPTS));
+
+        // Writes that could not be sent are kept through any outage
+        assertFalse(InventorySync.hasExhaustedAttempts(InventorySync.STATUS_NOT_SENT, 100));
+    }
+
+    @Test
+    public void retryDelayDoublesFromTheFirstFailureUpToTheCap() {
+
+        assertEquals(InventorySync.INITIAL_BACKOFF_MS, InventorySync.retryDelayMillis(1));
+        assertEquals(2 * InventorySync.INITIAL_BACKOFF_MS, InventorySync.retryDelayMillis(2));
+        assertEquals(InventorySync.MAX_BACKOFF_MS, InventorySync.retryDelayMillis(InventorySync.MAX_ATTEMPTS));
+        assertEquals(InventorySync.MAX_BACKOFF_MS, InventorySync.retryDelayMillis(1_000));
+    }
+}
@@ -0,0 +1,95 @@
+package com.felicianowilliam.cs360projecttwo;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for {@link LatencyHistogram}.
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void emptyHistogramReportsZero() {
+
+        LatencyHistogram histogram = new LatencyHistogram(8);
+
+        assertEquals(0, histogram.getPercentile(50));
+        assertEquals(0, histogram.getMean());
+        assertEquals(0, histogram.getTotalCount());
+    }
+
+    @Test
+    public void percentilesUseTheNearestRank() {
+
+        LatencyHistogram histogram = new LatencyHistogram(256);
+
+        // 1..100 in a scrambled order
+        for (int i = 0; i < 100; i++) {
+
+            histogram.record((i * 37) % 100 + 1);
+        }
+
+        assertEquals(1, histogram.getPercentile(0));
+        assertEquals(1, histogram.getPercentile(1));
+        assertEquals(50, histogram.getPercentile(50));
+        assertEquals(90, histogram.getPercentile(90));
+        assertEquals(99, histogram.getPercentile(99));
+        assertEquals(100, histogram.getPercentile(99.5));
+        assertEquals(100, histogram.getPercentile(100));
+        assertEquals(50, histogram.getMean());
+    }
+
+    @Test
+    public void fullWindowEvictsTheOldestSamples() {
+
+        LatencyHistogram histogram = new LatencyHistogram(256);
+
+        // A slow period followed by a full window of fast calls
+        for (int i = 0; i < 100; i++) {
+
+            histogram.record(5_000);
+        }
+
+        for (int i = 0; i < 256; i++) {
+
+            histogram.record(i + 1);
+        }
+
+        assertEquals(128, histogram.getPercentile(50));
+        assertEquals(256, histogram.getPercentile(100));
+
+        // Lifetime figures still include the evicted samples
+        assertEquals(356, histogram.getTotalCount());
+        assertEquals((100 * 5_000L + 256 * 257 / 2) / 356, histogram.getMean());
+    }
+
+    @Test
+    public void partlyOverwrittenWindowMixesOldAndNewSamples() {
+
+        LatencyHistogram histogram = new LatencyHistogram(4);
+
+        for (long value : new long[]{10, 20, 30, 40, 1, 2}) {
+
+            histogram.record(value);
+        }
+
+        // The window now holds 30, 40, 1 and 2
+        assertEquals(1, histogram.getPercentile(25));
+        assertEquals(2, histogram.getPercentile(50));
+        assertEquals(30, histogram.getPercentile(75));
+        assertEquals(40, histogram.getPercentile(100));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsPercentileAboveHundred() {
+
+        new LatencyHistogram(4).getPercentile(101);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyWindow() {
+
+        new LatencyHistogram(0);
+    }
+}